@@ -1,151 +1,270 @@
-package de.drake.stellwerksimulation.controller;
-
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
-import de.drake.stellwerksimulation.model.Importer;
-import de.drake.stellwerksimulation.model.Stellwerk;
-import de.drake.stellwerksimulation.view.GUI;
-
-/**
- * Controller der Stellwerksimulation. Hier laufen Spielaktionen zusammen
- * und werden entsprechend weiterverarbeitet.
- * 
- * @ToDo:
- * - Wenden an Betriebsstellen ohne Bahnsteig verbieten (Kurswagen ausgenommen)
- * - Betriebsstellen mit mehr als zwei Strecken ermglichen
- * - Highscore
- */
-public class Controller {
-	
-	/**
-	 * Die Instanz des Controllers.
-	 */
-	private static Controller instance; 
-	
-	/**
-	 * Der Gameloop verarbeitet sowohl die Trasseneinstellung als auch das
-	 * Fortschreiten der Spielzeit. Hierbei werden in fest definierten Intervallen
-	 * Eingaben geprft und verarbeitet. Die Ausfhrung des Gameloops erfolgt in einem
-	 * eigenen Thread.
-	 */
-	private GameLoop gameLoop;
-	
-	/**
-	 * Liste aller neu einzustellenden oder aufzuhebender Fahrwege. Wird regelmig
-	 * abgearbeitet. Die Jobliste ist notwendig, um Kollisionen mit dem Model
-	 * auszuschlieen.
-	 */
-	private ConcurrentLinkedQueue<Fahrwegsjob> jobliste =
-			new ConcurrentLinkedQueue<Fahrwegsjob>();
-	
-	/**
-	 * Main-Methode; Startet das Programm.
-	 */
-	public static void main(String[] args) {
-		new Controller();
-	}
-	
-	/**
-	 * Initialisiert den Controller, Stellwerk und GUI und startet das Spiel.
-	 */
-	private Controller() {
-		Controller.instance = this;
-		this.gameLoop = new GameLoop();
-		Importer.importiereKonfig();
-		this.gameLoop.start();
-	}
-	
-	/**
-	 * Wird in regelmigen Abstnden ausgefhrt und lsst die Zge in den nchsten
-	 * Abschnitt vorfahren. 
-	 */
-	void zeitVor() {
-		Stellwerk.getInstance().zeitVor();
-		GUI.getInstance().repaint();
-	}
-	
-	/**
-	 * Pausiert das Spiel bzw. setzt nach einer Pause fort.
-	 * 
-	 * @param pause
-	 * 		gibt an, ob pausiert werden soll (true) oder fortgesetzt werden soll (false)
-	 */
-	public void setPause(final boolean pause) {
-		if (pause) {
-			this.gameLoop.pause();
-		} else {
-			this.gameLoop.setzeFort();
-		}
-	}
-
-	/**
-	 * Legt einen Job zum Einstellen eines neuen Fahrweges an.
-	 * 
-	 * @param von
-	 * 		Ausgangspunkt des neuen Fahrweges.
-	 * @param nach
-	 * 		Endpunkt des neuen Fahrweges.
-	 */
-	public void neuerFahrweg(final BetriebsstelleFuerGUI von,
-			final BetriebsstelleFuerGUI nach) {
-		this.jobliste.add(new Fahrwegsjob(true, von, nach));
-	}
-	
-	/**
-	 * Legt einen Job zum Einstellen eines neuen Fahrweges an.
-	 * 
-	 * @param von
-	 * 		Ausgangspunkt des neuen Fahrweges.
-	 * @param nach
-	 * 		Endpunkt des neuen Fahrweges.
-	 */
-	public void loeseFahrwegAuf(final BetriebsstelleFuerGUI von,
-			final BetriebsstelleFuerGUI nach) {
-		this.jobliste.add(new Fahrwegsjob(false, von, nach));
-	}
-	
-	/**
-	 * Arbeitet alle Jobs zum Einstellen oder Auflsen neuer Fahrwege ab.
-	 */
-	void verarbeiteJobs() {
-		Stellwerk stellwerk = Stellwerk.getInstance();
-		Fahrwegsjob job;
-		boolean jobsVorhanden = false;
-		while (!this.jobliste.isEmpty()) {
-			jobsVorhanden = true;
-			job = this.jobliste.poll();
-			if (job.neuEinstellen) {
-				stellwerk.stelleFahrwegEin(job.von, job.nach);
-			} else {
-				stellwerk.loeseFahrwegAuf(job.von, job.nach);
-			}
-		}
-		if (jobsVorhanden)
-			GUI.getInstance().repaint();
-	}
-
-	/**
-	 * Modifiziert die Spielgeschwindigkeit.
-	 * 
-	 * @param geschwindigkeit
-	 * 		Die Geschwindigkeit der Simulation (Anzahl Bewegungen pro Minute)
-	 */
-	public void setGeschwindigkeit(final int geschwindigkeit) {
-		this.gameLoop.setBewegungenProMinute(geschwindigkeit);
-	}
-	
-	/**
-	 * Gibt die derzeit eingestellte Spielgeschwindigkeit zurck (in Bewegungen pro Minute)
-	 */
-	public int getGeschwindigkeit() {
-		return this.gameLoop.getBewegungenProMinute();
-	}
-	
-	/**
-	 * Gibt die Instanz des Controllers zurck.
-	 */
-	public static Controller getInstance() {
-		return Controller.instance;
-	}
+package de.drake.stellwerksimulation.controller;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
+import de.drake.stellwerksimulation.model.Fahrplaneintrag;
+import de.drake.stellwerksimulation.model.Importer;
+import de.drake.stellwerksimulation.model.Simulationskontext;
+import de.drake.stellwerksimulation.model.Stellwerk;
+import de.drake.stellwerksimulation.view.GUI;
+
+/**
+ * Controller der Stellwerksimulation. Hier laufen Spielaktionen zusammen
+ * und werden entsprechend weiterverarbeitet.
+ * 
+ * @ToDo:
+ * - Wenden an Betriebsstellen ohne Bahnsteig verbieten (Kurswagen ausgenommen)
+ * - Betriebsstellen mit mehr als zwei Strecken ermöglichen
+ * - Highscore
+ */
+public class Controller {
+	
+	/**
+	 * Der Simulationskontext, der durch diesen Controller gesteuert wird.
+	 */
+	private Simulationskontext kontext;
+	
+	/**
+	 * Die GUI, in der die Simulation dargestellt wird.
+	 */
+	private GUI gui;
+	
+	/**
+	 * Der Gameloop verarbeitet sowohl die Trasseneinstellung als auch das
+	 * Fortschreiten der Spielzeit. Hierbei werden in fest definierten Intervallen
+	 * Eingaben geprüft und verarbeitet. Die Ausführung des Gameloops erfolgt in einem
+	 * eigenen Thread.
+	 */
+	private GameLoop gameLoop;
+	
+	/**
+	 * Liste aller neu einzustellenden oder aufzuhebender Fahrwege. Wird regelmäßig
+	 * abgearbeitet. Die Jobliste ist notwendig, um Kollisionen mit dem Model
+	 * auszuschließen.
+	 */
+	private ConcurrentLinkedQueue<Fahrwegsjob> jobliste =
+			new ConcurrentLinkedQueue<Fahrwegsjob>();
+	
+	/**
+	 * Die Betriebsstelle, die der Benutzer derzeit selektiert hat, oder null. Für sie
+	 * wird im Lagebild das Klickverhalten ermittelt.
+	 */
+	private volatile BetriebsstelleFuerGUI selektierteBetriebsstelle = null;
+	
+	/**
+	 * Der Zug, den der Benutzer derzeit im Fahrplan ausgewählt hat, oder null. Für ihn
+	 * wird im Lagebild die Detailbeschreibung ermittelt.
+	 */
+	private volatile Fahrplaneintrag selektierterZug = null;
+	
+	/**
+	 * Gibt an, ob sich die Auswahl des Benutzers seit dem letzten Lagebild geändert
+	 * hat.
+	 */
+	private volatile boolean auswahlGeaendert = false;
+	
+	/**
+	 * Main-Methode; Startet das Programm.
+	 */
+	public static void main(String[] args) {
+		new Controller();
+	}
+	
+	/**
+	 * Initialisiert den Controller, Stellwerk und GUI und startet das Spiel.
+	 */
+	private Controller() {
+		this.kontext = new Simulationskontext("Data/");
+		this.gameLoop = new GameLoop(this);
+		Importer.importiereKonfig(this.kontext, this);
+		this.gameLoop.start();
+	}
+	
+	/**
+	 * Wird in regelmäßigen Abständen ausgeführt und lässt die Züge in den nächsten
+	 * Abschnitt vorfahren. Hängt der Gameloop hinterher, so werden mehrere
+	 * Zeitschritte nacheinander ausgeführt und die GUI nur einmal aktualisiert.
+	 * 
+	 * @param schritte
+	 * 		Die Anzahl der auszuführenden Zeitschritte.
+	 */
+	void zeitVor(final int schritte) {
+		Stellwerk stellwerk = this.kontext.getStellwerk();
+		for (int i = 0; i < schritte; i++)
+			stellwerk.zeitVor();
+		this.veroeffentlicheLagebild();
+		this.gui.aktualisiere();
+	}
+	
+	/**
+	 * Lässt im Turbo eine Reihe von Zugbewegungen vergehen und aktualisiert die GUI
+	 * anschließend einmal. Ruhige Phasen werden dabei übersprungen.
+	 * 
+	 * @param zugbewegungen
+	 * 		Die maximale Anzahl an Zugbewegungen.
+	 * 
+	 * @return true, falls ein Zug zu warten begonnen hat und der Turbo daher enden
+	 * 		soll.
+	 */
+	boolean zeitVorImTurbo(final int zugbewegungen) {
+		boolean zugWartet =
+				this.kontext.getStellwerk().zeitVorBisEinZugWartet(zugbewegungen);
+		this.veroeffentlicheLagebild();
+		this.gui.aktualisiere();
+		return zugWartet;
+	}
+	
+	/**
+	 * Veröffentlicht ein neues Lagebild für die GUI mit der aktuellen Auswahl des
+	 * Benutzers.
+	 */
+	private void veroeffentlicheLagebild() {
+		this.auswahlGeaendert = false;
+		this.kontext.veroeffentlicheLagebild(this.selektierteBetriebsstelle,
+				this.selektierterZug);
+	}
+	
+	/**
+	 * Pausiert das Spiel bzw. setzt nach einer Pause fort.
+	 * 
+	 * @param pause
+	 * 		gibt an, ob pausiert werden soll (true) oder fortgesetzt werden soll (false)
+	 */
+	public void setPause(final boolean pause) {
+		if (pause) {
+			this.gameLoop.pause();
+		} else {
+			this.gameLoop.setzeFort();
+		}
+	}
+	
+	/**
+	 * Schaltet den Turbo ein oder aus. Im Turbo läuft die Simulation unabhängig von
+	 * der Spielgeschwindigkeit so schnell wie möglich, bis ein Zug zu warten beginnt.
+	 * 
+	 * @param turbo
+	 * 		gibt an, ob der Turbo eingeschaltet werden soll.
+	 */
+	public void setTurbo(final boolean turbo) {
+		this.gameLoop.setTurbo(turbo);
+	}
+	
+	/**
+	 * Gibt an, ob der Turbo derzeit eingeschaltet ist.
+	 */
+	public boolean istTurbo() {
+		return this.gameLoop.istTurbo();
+	}
+	
+	/**
+	 * Legt fest, wie viele Zugbewegungen im Turbo je Bild ausgeführt werden.
+	 * 
+	 * @param zugbewegungen
+	 * 		Die Anzahl an Zugbewegungen je Bild.
+	 */
+	public void setTurbobewegungen(final int zugbewegungen) {
+		this.gameLoop.setTurbobewegungen(zugbewegungen);
+	}
+
+	/**
+	 * Legt einen Job zum Einstellen eines neuen Fahrweges an.
+	 * 
+	 * @param von
+	 * 		Ausgangspunkt des neuen Fahrweges.
+	 * @param nach
+	 * 		Endpunkt des neuen Fahrweges.
+	 */
+	public void neuerFahrweg(final BetriebsstelleFuerGUI von,
+			final BetriebsstelleFuerGUI nach) {
+		this.jobliste.add(new Fahrwegsjob(true, von, nach));
+	}
+	
+	/**
+	 * Legt einen Job zum Einstellen eines neuen Fahrweges an.
+	 * 
+	 * @param von
+	 * 		Ausgangspunkt des neuen Fahrweges.
+	 * @param nach
+	 * 		Endpunkt des neuen Fahrweges.
+	 */
+	public void loeseFahrwegAuf(final BetriebsstelleFuerGUI von,
+			final BetriebsstelleFuerGUI nach) {
+		this.jobliste.add(new Fahrwegsjob(false, von, nach));
+	}
+	
+	/**
+	 * Arbeitet alle Jobs zum Einstellen oder Auflösen neuer Fahrwege ab. Wurden Jobs
+	 * abgearbeitet oder hat sich die Auswahl des Benutzers geändert, so wird ein neues
+	 * Lagebild veröffentlicht.
+	 */
+	void verarbeiteJobs() {
+		Stellwerk stellwerk = this.kontext.getStellwerk();
+		Fahrwegsjob job;
+		boolean jobsVorhanden = false;
+		while (!this.jobliste.isEmpty()) {
+			jobsVorhanden = true;
+			job = this.jobliste.poll();
+			if (job.neuEinstellen) {
+				stellwerk.stelleFahrwegEin(job.von, job.nach);
+			} else {
+				stellwerk.loeseFahrwegAuf(job.von, job.nach);
+			}
+		}
+		if (jobsVorhanden || this.auswahlGeaendert) {
+			this.veroeffentlicheLagebild();
+			this.gui.aktualisiere();
+		}
+	}
+	
+	/**
+	 * Legt die Betriebsstelle fest, die der Benutzer derzeit selektiert hat. Das
+	 * nächste Lagebild enthält das Klickverhalten bezüglich dieser Betriebsstelle.
+	 * 
+	 * @param betriebsstelle
+	 * 		Die selektierte Betriebsstelle oder null.
+	 */
+	public void setSelektierteBetriebsstelle(final BetriebsstelleFuerGUI betriebsstelle) {
+		this.selektierteBetriebsstelle = betriebsstelle;
+		this.auswahlGeaendert = true;
+	}
+	
+	/**
+	 * Legt den Zug fest, den der Benutzer derzeit im Fahrplan ausgewählt hat. Das
+	 * nächste Lagebild enthält die Detailbeschreibung dieses Zuges.
+	 * 
+	 * @param zug
+	 * 		Der ausgewählte Zug oder null.
+	 */
+	public void setSelektierterZug(final Fahrplaneintrag zug) {
+		this.selektierterZug = zug;
+		this.auswahlGeaendert = true;
+	}
+
+	/**
+	 * Modifiziert die Spielgeschwindigkeit.
+	 * 
+	 * @param geschwindigkeit
+	 * 		Die Geschwindigkeit der Simulation (Anzahl Bewegungen pro Minute)
+	 */
+	public void setGeschwindigkeit(final int geschwindigkeit) {
+		this.gameLoop.setBewegungenProMinute(geschwindigkeit);
+	}
+	
+	/**
+	 * Gibt die derzeit eingestellte Spielgeschwindigkeit zurück (in Bewegungen pro Minute)
+	 */
+	public int getGeschwindigkeit() {
+		return this.gameLoop.getBewegungenProMinute();
+	}
+	
+	/**
+	 * Legt die GUI fest, in der die Simulation dargestellt wird.
+	 * 
+	 * @param gui
+	 * 		Die GUI der Simulation
+	 */
+	public void setGUI(final GUI gui) {
+		this.gui = gui;
+	}
 }
\ No newline at end of file
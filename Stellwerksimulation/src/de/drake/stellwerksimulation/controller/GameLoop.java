@@ -1,89 +1,182 @@
-package de.drake.stellwerksimulation.controller;
-
-/**
- * Der Gameloop verarbeitet sowohl die Trasseneinstellung als auch das
- * Fortschreiten der Spielzeit. Hierbei werden in fest definierten Intervallen
- * Eingaben geprft und verarbeitet. Die Ausfhrung des Gameloops erfolgt in einem
- * eigenen Thread.
- */
-class GameLoop extends Thread {
-	
-	/**
-	 * Framerate, die die Anzahl der Eingabenprfungen pro Sekunde steuert
-	 */
-	private final static int FRAMERATE = 50;
-	
-	/**
-	 * Die Anzahl aller Felder, die Zge pro Minute zurcklegen knnen.
-	 */
-	private int bewegungenProMinute;
-	
-	/**
-	 * Speichert, ob das Spiel pausiert ist
-	 */
-	private boolean isPaused = true;
-	
-	/**
-	 * Der Gameloop an sich; Wird beim Start des Gameloops ausgefhrt.
-	 */
-	@Override
-	public void run() {
-		Controller controller = Controller.getInstance();
-		long startzeit, vergangeneZeit, cyclestart, sleepzeit;
-		startzeit = System.nanoTime();
-		while(true) {
-			cyclestart = System.nanoTime();
-			controller.verarbeiteJobs();
-			if (this.isPaused) {
-				startzeit = System.nanoTime();
-			} else {
-				vergangeneZeit = System.nanoTime() - startzeit;
-				if (vergangeneZeit > 1000000000L / (this.bewegungenProMinute / 60.)) {
-					controller.zeitVor();
-					startzeit = System.nanoTime();
-					continue;
-				}
-			}
-			sleepzeit = (1000000000L / GameLoop.FRAMERATE
-					- (System.nanoTime() - cyclestart))/1000000;
-			if (sleepzeit < 1)
-				sleepzeit = 1;
-		    try {
-		    	Thread.sleep(sleepzeit);
-		    } catch (InterruptedException ex) {
-		    	System.out.println(ex);
-		    }
-		}
-	}
-	
-	/**
-	 * Pausiert den Gameloop
-	 */
-	void pause() {
-		this.isPaused = true;
-	}
-	
-	/**
-	 * Setzt den Gameloop nach einer Pause fort.
-	 */
-	void setzeFort() {
-		this.isPaused = false;
-	}
-	
-	/**
-	 * Modifiziert die Spielgeschwindigkeit.
-	 * 
-	 * @param geschwindigkeit
-	 * 		Die Geschwindigkeit der Simulation (Anzahl Bewegungen pro Minute)
-	 */
-	void setBewegungenProMinute(final int geschwindigkeit) {
-		this.bewegungenProMinute = geschwindigkeit;
-	}
-	
-	/**
-	 * Gibt die derzeitige Spielgeschwindigkeit zurck.
-	 */
-	int getBewegungenProMinute() {
-		return this.bewegungenProMinute;
-	}
+package de.drake.stellwerksimulation.controller;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Der Gameloop verarbeitet sowohl die Trasseneinstellung als auch das
+ * Fortschreiten der Spielzeit. Hierbei werden in fest definierten Intervallen
+ * Eingaben geprüft und verarbeitet. Die Ausführung des Gameloops erfolgt in einem
+ * eigenen Thread.
+ */
+class GameLoop extends Thread {
+	
+	/**
+	 * Framerate, die die Anzahl der Eingabenprüfungen pro Sekunde steuert
+	 */
+	private final static int FRAMERATE = 50;
+	
+	/**
+	 * Die Anzahl der Nanosekunden je Sekunde.
+	 */
+	private final static long SEKUNDE = 1000000000L;
+	
+	/**
+	 * Der maximale Rückstand in Nanosekunden, der durch zusätzliche Zeitschritte
+	 * nachgeholt wird. Ist der Gameloop weiter im Rückstand, z.B. nach einer langen
+	 * Blockade, so wird der übrige Rückstand verworfen, anstatt die Simulation
+	 * sprunghaft vorzuspulen.
+	 */
+	private final static long MAX_RUECKSTAND = GameLoop.SEKUNDE / 4;
+	
+	/**
+	 * Die Anzahl aller Felder, die Züge pro Minute zurücklegen können.
+	 */
+	private volatile int bewegungenProMinute;
+	
+	/**
+	 * Speichert, ob das Spiel pausiert ist
+	 */
+	private volatile boolean isPaused = true;
+	
+	/**
+	 * Speichert, ob der Turbo eingeschaltet ist.
+	 */
+	private volatile boolean turbo = false;
+	
+	/**
+	 * Die Anzahl an Zugbewegungen, die im Turbo je Durchlauf ausgeführt werden.
+	 */
+	private volatile int turbobewegungen = 10;
+	
+	/**
+	 * Der Controller, dessen Jobs und Zeitfortschritt der Gameloop auslöst.
+	 */
+	private final Controller controller;
+	
+	/**
+	 * Erzeugt einen neuen Gameloop.
+	 * 
+	 * @param controller
+	 * 		Der Controller, dessen Jobs und Zeitfortschritt der Gameloop auslöst.
+	 */
+	GameLoop(final Controller controller) {
+		this.controller = controller;
+	}
+	
+	/**
+	 * Der Gameloop an sich; Wird beim Start des Gameloops ausgeführt.
+	 * 
+	 * Eingabenprüfungen und Zeitschritte werden auf feste Termine in Nanosekunden
+	 * geplant. Der nächste Termin ergibt sich jeweils aus dem vorherigen Termin und
+	 * nicht aus dem Zeitpunkt, zu dem der Gameloop tatsächlich aufgewacht ist, so
+	 * dass sich Verzögerungen beim Aufwachen nicht aufsummieren. Sind mehrere
+	 * Zeitschritte fällig, so werden sie nacheinander ausgeführt und die GUI wird
+	 * nur einmal aktualisiert.
+	 * 
+	 * Im Turbo wird die Spielgeschwindigkeit ignoriert: Je Eingabenprüfung wird eine
+	 * ganze Reihe von Zugbewegungen ausgeführt und die GUI anschließend einmal
+	 * aktualisiert. Beginnt ein Zug zu warten, so schaltet sich der Turbo ab.
+	 */
+	@Override
+	public void run() {
+		Controller controller = this.controller;
+		long jetzt = System.nanoTime();
+		long naechsteAbfrage = jetzt;
+		long letzterSchritt = jetzt;
+		while(true) {
+			controller.verarbeiteJobs();
+			jetzt = System.nanoTime();
+			int bewegungenProMinute = this.bewegungenProMinute;
+			long schrittdauer = 0;
+			if (this.isPaused || (!this.turbo && bewegungenProMinute <= 0)) {
+				letzterSchritt = jetzt;
+			} else if (this.turbo) {
+				if (controller.zeitVorImTurbo(this.turbobewegungen))
+					this.turbo = false;
+				jetzt = System.nanoTime();
+				letzterSchritt = jetzt;
+			} else {
+				schrittdauer = 60 * GameLoop.SEKUNDE / bewegungenProMinute;
+				long rueckstand = jetzt - letzterSchritt;
+				if (rueckstand >= schrittdauer) {
+					long maxRueckstand = Math.max(GameLoop.MAX_RUECKSTAND, schrittdauer);
+					if (rueckstand > maxRueckstand) {
+						rueckstand = maxRueckstand;
+						letzterSchritt = jetzt - rueckstand;
+					}
+					long schritte = rueckstand / schrittdauer;
+					letzterSchritt += schritte * schrittdauer;
+					controller.zeitVor((int) schritte);
+					jetzt = System.nanoTime();
+				}
+			}
+			naechsteAbfrage += GameLoop.SEKUNDE / GameLoop.FRAMERATE;
+			if (naechsteAbfrage - jetzt < 0)
+				// Verpasste Abfragen werden nicht nachgeholt.
+				naechsteAbfrage = jetzt;
+			long termin = naechsteAbfrage;
+			if (schrittdauer > 0 && letzterSchritt + schrittdauer - termin < 0)
+				termin = letzterSchritt + schrittdauer;
+			while ((jetzt = System.nanoTime()) - termin < 0)
+				LockSupport.parkNanos(termin - jetzt);
+		}
+	}
+	
+	/**
+	 * Pausiert den Gameloop
+	 */
+	void pause() {
+		this.isPaused = true;
+	}
+	
+	/**
+	 * Setzt den Gameloop nach einer Pause fort.
+	 */
+	void setzeFort() {
+		this.isPaused = false;
+	}
+	
+	/**
+	 * Schaltet den Turbo ein oder aus.
+	 * 
+	 * @param turbo
+	 * 		gibt an, ob der Turbo eingeschaltet werden soll.
+	 */
+	void setTurbo(final boolean turbo) {
+		this.turbo = turbo;
+	}
+	
+	/**
+	 * Gibt an, ob der Turbo eingeschaltet ist.
+	 */
+	boolean istTurbo() {
+		return this.turbo;
+	}
+	
+	/**
+	 * Legt fest, wie viele Zugbewegungen im Turbo je Durchlauf ausgeführt werden.
+	 * 
+	 * @param zugbewegungen
+	 * 		Die Anzahl an Zugbewegungen je Durchlauf.
+	 */
+	void setTurbobewegungen(final int zugbewegungen) {
+		this.turbobewegungen = zugbewegungen;
+	}
+	
+	/**
+	 * Modifiziert die Spielgeschwindigkeit.
+	 * 
+	 * @param geschwindigkeit
+	 * 		Die Geschwindigkeit der Simulation (Anzahl Bewegungen pro Minute)
+	 */
+	void setBewegungenProMinute(final int geschwindigkeit) {
+		this.bewegungenProMinute = geschwindigkeit;
+	}
+	
+	/**
+	 * Gibt die derzeitige Spielgeschwindigkeit zurück.
+	 */
+	int getBewegungenProMinute() {
+		return this.bewegungenProMinute;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,255 @@
+package de.drake.stellwerksimulation.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.drake.stellwerksimulation.model.Betriebsstatistik;
+import de.drake.stellwerksimulation.model.Simulationskontext;
+import de.drake.stellwerksimulation.tools.NaturalOrderComparator;
+
+/**
+ * Eine Robustheitsanalyse simuliert denselben Datensatz mehrfach mit
+ * unterschiedlichen Zufallsverspätungen und wertet die Verteilung der
+ * Abfahrtsverspätungen je Zug und je Bahnsteig aus. Die Replikationen laufen
+ * unabhängig voneinander in eigenen Simulationskontexten und werden parallel
+ * ausgeführt. Ist in der Konfig.csv ein Zufallsstartwert angegeben, so erhält jede
+ * Replikation einen daraus abgeleiteten eigenen Zufallsstrom, so dass die Ergebnisse
+ * unabhängig von der Anzahl der Prozessoren reproduzierbar sind.
+ */
+public class Robustheitsanalyse {
+
+	/**
+	 * Die Quantile, die für jede Verspätungsverteilung ausgegeben werden.
+	 */
+	private final static double[] QUANTILE = {.5, .9, .99};
+
+	/**
+	 * Die Verspätungsverteilungen der Abfahrten je Zug.
+	 */
+	private HashMap<String, Verspaetungsverteilung> verteilungenJeZug =
+			new HashMap<String, Verspaetungsverteilung>();
+
+	/**
+	 * Die Verspätungsverteilungen der Abfahrten je Bahnsteig.
+	 */
+	private HashMap<String, Verspaetungsverteilung> verteilungenJeBahnsteig =
+			new HashMap<String, Verspaetungsverteilung>();
+
+	/**
+	 * Die Verspätungsverteilung aller Abfahrten.
+	 */
+	private Verspaetungsverteilung gesamtverteilung = new Verspaetungsverteilung();
+
+	/**
+	 * Die Anzahl der ausgewerteten Replikationen.
+	 */
+	private int replikationen = 0;
+
+	/**
+	 * Startet eine Robustheitsanalyse.
+	 *
+	 * @param args
+	 * 		Anzahl der Replikationen, optional: Pfad zum Stellbefehlsskript
+	 * 		(Standard "auto"), Datenverzeichnis und Dauer der Simulation in Minuten.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 1)
+			throw new Error("Aufruf: Robustheitsanalyse <Replikationen> "
+					+ "[Skript|auto] [Datenverzeichnis] [Dauer]");
+		int replikationen = Integer.parseInt(args[0]);
+		String skript = Simulationslauf.AUTOMATISCH;
+		String datenverzeichnis = "Data/";
+		int dauer = Simulationslauf.STANDARDDAUER;
+		if (args.length > 1)
+			skript = args[1];
+		if (args.length > 2)
+			datenverzeichnis = args[2];
+		if (args.length > 3)
+			dauer = Integer.parseInt(args[3]);
+		long startzeit = System.nanoTime();
+		Robustheitsanalyse analyse = new Robustheitsanalyse();
+		analyse.fuehreAus(replikationen, skript, datenverzeichnis, dauer);
+		long laufzeit = System.nanoTime() - startzeit;
+		analyse.gibErgebnisAus(laufzeit);
+	}
+
+	/**
+	 * Führt die Replikationen parallel aus und fasst ihre Betriebsstatistiken
+	 * zusammen. Die Statistiken werden in der Reihenfolge der Replikationen
+	 * zusammengeführt.
+	 *
+	 * @param replikationen
+	 * 		Die Anzahl der Replikationen.
+	 * @param skript
+	 * 		Pfad zum Stellbefehlsskript oder "auto".
+	 * @param datenverzeichnis
+	 * 		Das Datenverzeichnis des zu simulierenden Bahnhofs.
+	 * @param dauer
+	 * 		Die Dauer eines Simulationslaufs in Ingameminuten.
+	 */
+	void fuehreAus(final int replikationen, final String skript,
+			final String datenverzeichnis, final int dauer) {
+		ForkJoinPool pool = new ForkJoinPool();
+		ArrayList<Replikation> laeufe = new ArrayList<Replikation>(replikationen);
+		for (int i = 0; i < replikationen; i++) {
+			Replikation replikation = new Replikation(i, skript, datenverzeichnis, dauer);
+			laeufe.add(replikation);
+			pool.execute(replikation);
+		}
+		for (Replikation replikation : laeufe)
+			this.erfasse(replikation.join());
+		pool.shutdown();
+	}
+
+	/**
+	 * Übernimmt die Abfahrtsverspätungen einer Replikation in die Verteilungen.
+	 *
+	 * @param statistik
+	 * 		Die Betriebsstatistik der Replikation.
+	 */
+	private void erfasse(final Betriebsstatistik statistik) {
+		Robustheitsanalyse.erfasse(this.verteilungenJeZug,
+				statistik.getAbfahrtsverspaetungenJeZug());
+		Robustheitsanalyse.erfasse(this.verteilungenJeBahnsteig,
+				statistik.getAbfahrtsverspaetungenJeBahnsteig());
+		for (ArrayList<Integer> verspaetungen
+				: statistik.getAbfahrtsverspaetungenJeZug().values())
+			this.gesamtverteilung.erfasse(verspaetungen);
+		this.replikationen++;
+	}
+
+	/**
+	 * Übernimmt Verspätungen in die Verteilung mit demselben Schlüssel.
+	 *
+	 * @param verteilungen
+	 * 		Die Verteilungen, in die übernommen wird.
+	 * @param verspaetungen
+	 * 		Die Verspätungen in Minuten je Schlüssel.
+	 */
+	private static void erfasse(final HashMap<String, Verspaetungsverteilung> verteilungen,
+			final HashMap<String, ArrayList<Integer>> verspaetungen) {
+		for (Entry<String, ArrayList<Integer>> eintrag : verspaetungen.entrySet()) {
+			Verspaetungsverteilung verteilung = verteilungen.get(eintrag.getKey());
+			if (verteilung == null) {
+				verteilung = new Verspaetungsverteilung();
+				verteilungen.put(eintrag.getKey(), verteilung);
+			}
+			verteilung.erfasse(eintrag.getValue());
+		}
+	}
+
+	/**
+	 * Gibt eine Zusammenfassung sowie die Verteilungen je Bahnsteig und je Zug auf
+	 * der Konsole aus. Die Tabellen sind Semikolon-getrennt.
+	 *
+	 * @param laufzeit
+	 * 		Die benötigte Echtzeit in Nanosekunden.
+	 */
+	private void gibErgebnisAus(final long laufzeit) {
+		System.out.println("Replikationen:                  " + this.replikationen);
+		System.out.printf("Laufzeit:                       %.3f s%n",
+				laufzeit / 1000000000.);
+		System.out.println("Abfahrten:                      "
+				+ this.gesamtverteilung.getAnzahl());
+		System.out.printf("Abfahrtsverspätung (Ø/max):     %.2f / %d min%n",
+				this.gesamtverteilung.getDurchschnitt(),
+				this.gesamtverteilung.getMaximum());
+		System.out.printf("Pünktlichkeit (< %d min):        %.1f %%%n",
+				Verspaetungsverteilung.PUENKTLICHKEITSGRENZE,
+				this.gesamtverteilung.getPuenktlichkeit());
+		System.out.println();
+		Robustheitsanalyse.gibTabelleAus("Bahnsteig", this.verteilungenJeBahnsteig);
+		System.out.println();
+		Robustheitsanalyse.gibTabelleAus("Zug", this.verteilungenJeZug);
+	}
+
+	/**
+	 * Gibt Verteilungen als Semikolon-getrennte Tabelle aus, sortiert nach Schlüssel.
+	 *
+	 * @param ueberschrift
+	 * 		Die Überschrift der Schlüsselspalte.
+	 * @param verteilungen
+	 * 		Die auszugebenden Verteilungen.
+	 */
+	private static void gibTabelleAus(final String ueberschrift,
+			final HashMap<String, Verspaetungsverteilung> verteilungen) {
+		StringBuilder zeile = new StringBuilder(ueberschrift).append(";Abfahrten;Ø");
+		for (double quantil : Robustheitsanalyse.QUANTILE)
+			zeile.append(';').append(Math.round(quantil * 100)).append('%');
+		System.out.println(zeile.append(";Max;Pünktlich"));
+		ArrayList<String> schluessel = new ArrayList<String>(verteilungen.keySet());
+		Collections.sort(schluessel, new NaturalOrderComparator<String>());
+		for (String name : schluessel) {
+			Verspaetungsverteilung verteilung = verteilungen.get(name);
+			zeile = new StringBuilder(name);
+			zeile.append(';').append(verteilung.getAnzahl());
+			zeile.append(';').append(String.format("%.2f", verteilung.getDurchschnitt()));
+			for (double quantil : Robustheitsanalyse.QUANTILE)
+				zeile.append(';').append(verteilung.getQuantil(quantil));
+			zeile.append(';').append(verteilung.getMaximum());
+			zeile.append(';').append(String.format("%.1f", verteilung.getPuenktlichkeit()));
+			System.out.println(zeile);
+		}
+	}
+}
+
+/**
+ * Eine Replikation ist ein einzelner Simulationslauf der Robustheitsanalyse in
+ * einem eigenen Simulationskontext.
+ */
+@SuppressWarnings("serial")
+class Replikation extends RecursiveTask<Betriebsstatistik> {
+
+	/**
+	 * Die Nummer der Replikation, aus der ihr Zufallsstrom abgeleitet wird.
+	 */
+	private final int nummer;
+
+	/**
+	 * Pfad zum Stellbefehlsskript oder "auto".
+	 */
+	private final String skript;
+
+	/**
+	 * Das Datenverzeichnis des zu simulierenden Bahnhofs.
+	 */
+	private final String datenverzeichnis;
+
+	/**
+	 * Die Dauer des Simulationslaufs in Ingameminuten.
+	 */
+	private final int dauer;
+
+	/**
+	 * Erzeugt eine neue Replikation.
+	 *
+	 * @param nummer
+	 * 		Die Nummer der Replikation.
+	 * @param skript
+	 * 		Pfad zum Stellbefehlsskript oder "auto".
+	 * @param datenverzeichnis
+	 * 		Das Datenverzeichnis des zu simulierenden Bahnhofs.
+	 * @param dauer
+	 * 		Die Dauer des Simulationslaufs in Ingameminuten.
+	 */
+	Replikation(final int nummer, final String skript, final String datenverzeichnis,
+			final int dauer) {
+		this.nummer = nummer;
+		this.skript = skript;
+		this.datenverzeichnis = datenverzeichnis;
+		this.dauer = dauer;
+	}
+
+	@Override
+	protected Betriebsstatistik compute() {
+		Simulationskontext kontext = new Simulationskontext(this.datenverzeichnis,
+				this.nummer);
+		Simulationslauf lauf = new Simulationslauf(kontext, this.skript, this.dauer);
+		lauf.simuliere();
+		return lauf.getStatistik();
+	}
+}
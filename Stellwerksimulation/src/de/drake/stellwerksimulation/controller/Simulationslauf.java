@@ -0,0 +1,277 @@
+package de.drake.stellwerksimulation.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import de.drake.stellwerksimulation.model.Betriebsstatistik;
+import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
+import de.drake.stellwerksimulation.model.Importer;
+import de.drake.stellwerksimulation.model.Simulationskontext;
+import de.drake.stellwerksimulation.model.Stellwerk;
+import de.drake.stellwerksimulation.tools.CsvLeser;
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Ein Simulationslauf führt die Stellwerksimulation ohne GUI so schnell wie möglich
+ * aus. Fahrwege werden dabei nicht per Mausklick, sondern über ein Skript mit
+ * Stellbefehlen eingestellt bzw. aufgelöst. Am Ende werden Laufzeit und
+ * Betriebsstatistik ausgegeben.
+ * 
+ * Aufbau des Skripts (Semikolon-getrennt, erste Zeile ist Überschrift):
+ * Zeit;Aktion;Von;Nach
+ * Die Aktion ist "einstellen" oder "aufloesen", Von und Nach sind die IDs der
+ * Betriebsstellen aus der Strecken.csv. Ein Stellbefehl wird ab der angegebenen
+ * Zeit so lange wiederholt, bis er ausgeführt werden konnte.
+ * 
+ * Wird statt eines Skripts "auto" angegeben, so stellt das Stellwerk die Fahrwege
+ * für wartende Züge selbsttätig ein.
+ */
+public class Simulationslauf {
+	
+	/**
+	 * Die Dauer eines Simulationslaufs in Ingameminuten, sofern nicht anders
+	 * angegeben.
+	 */
+	final static int STANDARDDAUER = 24 * 60;
+	
+	/**
+	 * Die Angabe anstelle eines Skripts, mit der die Fahrwege automatisch
+	 * eingestellt werden.
+	 */
+	final static String AUTOMATISCH = "auto";
+	
+	/**
+	 * Der Simulationskontext, der in diesem Lauf simuliert wird.
+	 */
+	private final Simulationskontext kontext;
+	
+	/**
+	 * Alle Stellbefehle des Skripts, sortiert nach ihrem Ausführungszeitpunkt.
+	 */
+	private ArrayList<Stellbefehl> stellbefehle = new ArrayList<Stellbefehl>();
+	
+	/**
+	 * Alle Stellbefehle, deren Ausführungszeitpunkt erreicht ist, die aber noch
+	 * nicht ausgeführt werden konnten.
+	 */
+	private ArrayList<Stellbefehl> offeneStellbefehle = new ArrayList<Stellbefehl>();
+	
+	/**
+	 * Gibt an, ob die Fahrwege automatisch statt über ein Skript eingestellt werden.
+	 */
+	private boolean automatisch;
+	
+	/**
+	 * Die Dauer des Simulationslaufs in Ingameminuten.
+	 */
+	private int dauer;
+	
+	/**
+	 * Die Anzahl der simulierten Zugbewegungen.
+	 */
+	private long ticks = 0;
+	
+	/**
+	 * Die Anzahl der tatsächlich verarbeiteten Zugbewegungen. Zugbewegungen ohne
+	 * Ereignis werden übersprungen.
+	 */
+	private long verarbeiteteTicks = 0;
+	
+	/**
+	 * Startet einen Simulationslauf.
+	 * 
+	 * @param args
+	 * 		Optional: Pfad zum Stellbefehlsskript (oder "auto"), Datenverzeichnis
+	 * 		und Dauer der Simulation in Minuten.
+	 */
+	public static void main(String[] args) {
+		String skript = null;
+		String datenverzeichnis = "Data/";
+		int dauer = Simulationslauf.STANDARDDAUER;
+		if (args.length > 0)
+			skript = args[0];
+		if (args.length > 1)
+			datenverzeichnis = args[1];
+		if (args.length > 2)
+			dauer = Integer.parseInt(args[2]);
+		new Simulationslauf(new Simulationskontext(datenverzeichnis), skript, dauer)
+				.starte();
+	}
+	
+	/**
+	 * Erzeugt einen neuen Simulationslauf und initialisiert das Stellwerk.
+	 * 
+	 * @param kontext
+	 * 		Der noch leere Simulationskontext, der in diesem Lauf simuliert wird.
+	 * @param skript
+	 * 		Pfad zum Stellbefehlsskript. Wird null übergeben, so werden keine
+	 * 		Fahrwege gestellt, bei "auto" werden sie automatisch eingestellt.
+	 * @param dauer
+	 * 		Die Dauer des Simulationslaufs in Ingameminuten.
+	 */
+	Simulationslauf(final Simulationskontext kontext, final String skript,
+			final int dauer) {
+		this.kontext = kontext;
+		this.dauer = dauer;
+		Importer.importiereKonfig(kontext, null);
+		this.automatisch = Simulationslauf.AUTOMATISCH.equals(skript);
+		if (skript != null && !this.automatisch)
+			this.importiereStellbefehle(skript);
+	}
+	
+	/**
+	 * Liest die Stellbefehle aus einem Skript aus.
+	 * 
+	 * @param skript
+	 * 		Pfad zum Stellbefehlsskript.
+	 */
+	private void importiereStellbefehle(final String skript) {
+		CsvLeser leser = new CsvLeser(skript);
+		leser.naechsteZeile();
+		Zeit startzeit = this.kontext.getStellwerk().getAktuelleZeit();
+		String aktion, vonString, nachString;
+		Zeit zeit;
+		BetriebsstelleFuerGUI von, nach;
+		int sekundenNachStart;
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			zeit = leser.naechsteZeit();
+			if (zeit == null)
+				throw leser.fehler("Fehlende Zeit im Stellbefehl");
+			aktion = leser.naechstesFeld();
+			vonString = leser.naechstesFeld();
+			nachString = leser.naechstesFeld();
+			von = Importer.getBetriebsstelleFuerGUI(this.kontext, vonString);
+			nach = Importer.getBetriebsstelleFuerGUI(this.kontext, nachString);
+			if (von == null || nach == null)
+				throw leser.fehler("Ungültige Betriebsstelle im Stellbefehl: "
+						+ vonString + " -> " + nachString);
+			sekundenNachStart = zeit.getSekunden() - startzeit.getSekunden();
+			// Uhrzeiten ohne Tagesüberlauf vor der Startzeit gehören zum Folgetag
+			if (sekundenNachStart < 0 && zeit.getSekunden() < Zeit.SEKUNDEN_PRO_TAG)
+				sekundenNachStart += Zeit.SEKUNDEN_PRO_TAG;
+			if (aktion.equals("einstellen")) {
+				this.stellbefehle.add(new Stellbefehl(sekundenNachStart, true, von, nach));
+			} else if (aktion.equals("aufloesen")) {
+				this.stellbefehle.add(new Stellbefehl(sekundenNachStart, false, von, nach));
+			} else {
+				throw leser.fehler("Ungültige Aktion im Stellbefehl: " + aktion);
+			}
+		}
+		Collections.sort(this.stellbefehle);
+	}
+	
+	/**
+	 * Führt den Simulationslauf aus und gibt anschließend die Ergebnisse aus.
+	 */
+	void starte() {
+		long startzeit = System.nanoTime();
+		int nichtAusgefuehrteStellbefehle = this.simuliere();
+		long laufzeit = System.nanoTime() - startzeit;
+		this.gibErgebnisAus(laufzeit, nichtAusgefuehrteStellbefehle);
+	}
+	
+	/**
+	 * Führt den Simulationslauf ohne Ausgabe aus. Die Ergebnisse stehen anschließend
+	 * in der Betriebsstatistik des Stellwerks.
+	 * 
+	 * @return Die Anzahl der Stellbefehle, die nicht ausgeführt werden konnten.
+	 */
+	int simuliere() {
+		Stellwerk stellwerk = this.kontext.getStellwerk();
+		int sekundenProZugbewegung = stellwerk.getSekundenProZugbewegung();
+		int vergangeneSekunden = 0;
+		int naechsterStellbefehl = 0;
+		while (vergangeneSekunden < this.dauer * 60
+				&& !stellwerk.istFahrplanAbgearbeitet()) {
+			while (naechsterStellbefehl < this.stellbefehle.size()
+					&& this.stellbefehle.get(naechsterStellbefehl).sekundenNachStart
+					<= vergangeneSekunden) {
+				this.offeneStellbefehle.add(
+						this.stellbefehle.get(naechsterStellbefehl));
+				naechsterStellbefehl++;
+			}
+			this.verarbeiteStellbefehle();
+			int bisZumZiel = this.dauer * 60 - vergangeneSekunden;
+			if (naechsterStellbefehl < this.stellbefehle.size()) {
+				bisZumZiel = Math.min(bisZumZiel,
+						this.stellbefehle.get(naechsterStellbefehl).sekundenNachStart
+						- vergangeneSekunden);
+			}
+			int maxZugbewegungen = (bisZumZiel + sekundenProZugbewegung - 1)
+					/ sekundenProZugbewegung;
+			int zugbewegungen = stellwerk.zeitVorBisZumNaechstenEreignis(maxZugbewegungen);
+			vergangeneSekunden += zugbewegungen * sekundenProZugbewegung;
+			this.ticks += zugbewegungen;
+			this.verarbeiteteTicks++;
+		}
+		this.kontext.schliesseZugarchiv();
+		return this.stellbefehle.size() - naechsterStellbefehl
+				+ this.offeneStellbefehle.size();
+	}
+	
+	/**
+	 * Gibt die Betriebsstatistik des Simulationslaufs zurück.
+	 */
+	Betriebsstatistik getStatistik() {
+		return this.kontext.getStellwerk().getStatistik();
+	}
+	
+	/**
+	 * Führt alle fälligen Stellbefehle aus, sofern möglich.
+	 */
+	private void verarbeiteStellbefehle() {
+		Stellwerk stellwerk = this.kontext.getStellwerk();
+		if (this.automatisch) {
+			stellwerk.stelleFahrwegeAutomatischEin();
+			return;
+		}
+		for (Stellbefehl befehl : new ArrayList<Stellbefehl>(this.offeneStellbefehle)) {
+			if (!befehl.istAusfuehrbar())
+				continue;
+			if (befehl.neuEinstellen) {
+				stellwerk.stelleFahrwegEin(befehl.von, befehl.nach);
+			} else {
+				stellwerk.loeseFahrwegAuf(befehl.von, befehl.nach);
+			}
+			this.offeneStellbefehle.remove(befehl);
+		}
+	}
+	
+	/**
+	 * Gibt Laufzeit und Betriebsstatistik auf der Konsole aus.
+	 * 
+	 * @param laufzeit
+	 * 		Die benötigte Echtzeit in Nanosekunden.
+	 * @param nichtAusgefuehrteStellbefehle
+	 * 		Die Anzahl der Stellbefehle, die nicht ausgeführt werden konnten.
+	 */
+	private void gibErgebnisAus(final long laufzeit,
+			final int nichtAusgefuehrteStellbefehle) {
+		Betriebsstatistik statistik = this.getStatistik();
+		double sekunden = laufzeit / 1000000000.;
+		System.out.println("Bahnhof:                        "
+				+ this.kontext.getStellwerk().getBahnhofsname());
+		System.out.println("Simulationsende:                "
+				+ this.kontext.getStellwerk().getAktuelleZeit());
+		System.out.println("Zugbewegungen:                  " + this.ticks);
+		System.out.println("Davon verarbeitet:              " + this.verarbeiteteTicks);
+		System.out.printf("Laufzeit:                       %.3f s%n", sekunden);
+		System.out.printf("Zugbewegungen pro Sekunde:      %.0f%n", this.ticks / sekunden);
+		System.out.println("Züge im Fahrplan:               "
+				+ statistik.getAnzahlZuege());
+		System.out.println("Eingefahrene Züge:              "
+				+ statistik.getAnzahlEinfahrten());
+		System.out.println("Ausgefahrene Züge:              "
+				+ statistik.getAnzahlAusfahrten());
+		System.out.printf("Einfahrverspätung (Ø/max):      %.2f / %d min%n",
+				statistik.getDurchschnittlicheEinfahrverspaetung(),
+				statistik.getMaxEinfahrverspaetung());
+		System.out.printf("Abfahrtsverspätung (Ø/max):     %.2f / %d min%n",
+				statistik.getDurchschnittlicheAbfahrtsverspaetung(),
+				statistik.getMaxAbfahrtsverspaetung());
+		System.out.println("Nicht ausgeführte Stellbefehle: "
+				+ nichtAusgefuehrteStellbefehle);
+	}
+}
@@ -0,0 +1,59 @@
+package de.drake.stellwerksimulation.controller;
+
+import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
+
+/**
+ * Ein Stellbefehl ist ein Fahrwegsjob, der in einem Stellbefehlsskript zu einem
+ * bestimmten Zeitpunkt der Simulation ausgeführt werden soll.
+ */
+class Stellbefehl extends Fahrwegsjob implements Comparable<Stellbefehl> {
+	
+	/**
+	 * Die Anzahl der Ingamesekunden seit Simulationsbeginn, ab denen der
+	 * Stellbefehl ausgeführt werden soll.
+	 */
+	int sekundenNachStart;
+	
+	/**
+	 * Erzeugt einen neuen Stellbefehl.
+	 * 
+	 * @param sekundenNachStart
+	 * 		Die Anzahl der Ingamesekunden seit Simulationsbeginn, ab denen der
+	 * 		Stellbefehl ausgeführt werden soll.
+	 * @param neuEinstellen
+	 * 		Beschreibt, ob der Befehl einen neuen Fahrweg einstellen soll (true) oder
+	 * 		einen Fahrweg auflösen soll (false)
+	 * @param von
+	 * 		Ausgangspunkt des zu bearbeitenden Fahrweges.
+	 * @param nach
+	 * 		Endpunkt des zu bearbeitenden Fahrweges.
+	 */
+	Stellbefehl(final int sekundenNachStart, final boolean neuEinstellen,
+			final BetriebsstelleFuerGUI von, final BetriebsstelleFuerGUI nach) {
+		super(neuEinstellen, von, nach);
+		this.sekundenNachStart = sekundenNachStart;
+	}
+	
+	/**
+	 * Gibt an, ob der Stellbefehl derzeit ausgeführt werden kann, d.h. ob der
+	 * Fahrweg eingestellt bzw. aufgelöst werden kann.
+	 */
+	boolean istAusfuehrbar() {
+		int klickverhalten = this.nach.getKlickverhalten(this.von);
+		if (this.neuEinstellen)
+			return klickverhalten == BetriebsstelleFuerGUI.FAHRWEG_EINSTELLBAR
+					|| klickverhalten == BetriebsstelleFuerGUI.FAHRWEG_BELEGT;
+		return klickverhalten == BetriebsstelleFuerGUI.FAHRWEG_AUFLOESBAR;
+	}
+	
+	/**
+	 * Vergleichsmethode, nach der Stellbefehle nach ihrem Ausführungszeitpunkt
+	 * sortiert werden.
+	 * 
+	 * @param stellbefehl
+	 * 		Der Stellbefehl, mit dem verglichen werden soll.
+	 */
+	public int compareTo(final Stellbefehl stellbefehl) {
+		return this.sekundenNachStart - stellbefehl.sekundenNachStart;
+	}
+}
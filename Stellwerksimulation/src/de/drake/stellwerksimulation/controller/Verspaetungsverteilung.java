@@ -0,0 +1,121 @@
+package de.drake.stellwerksimulation.controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Eine Verspätungsverteilung sammelt Verspätungen in vollen Minuten als Histogramm.
+ * Sie dient der Auswertung vieler Simulationsläufe, da ihr Speicherbedarf nur von
+ * der größten Verspätung und nicht von der Anzahl der erfassten Werte abhängt.
+ */
+class Verspaetungsverteilung {
+
+	/**
+	 * Die Verspätung in Minuten, ab der ein Zug nicht mehr als pünktlich gilt.
+	 */
+	final static int PUENKTLICHKEITSGRENZE = 6;
+
+	/**
+	 * Die Häufigkeiten der einzelnen Verspätungen. Der Index entspricht der
+	 * Verspätung in Minuten.
+	 */
+	private int[] haeufigkeiten = new int[16];
+
+	/**
+	 * Die Anzahl aller erfassten Verspätungen.
+	 */
+	private long anzahl = 0;
+
+	/**
+	 * Die Summe aller erfassten Verspätungen in Minuten.
+	 */
+	private long summe = 0;
+
+	/**
+	 * Die größte erfasste Verspätung in Minuten.
+	 */
+	private int maximum = 0;
+
+	/**
+	 * Erfasst eine Verspätung.
+	 *
+	 * @param verspaetung
+	 * 		Die Verspätung in Minuten.
+	 */
+	void erfasse(final int verspaetung) {
+		if (verspaetung >= this.haeufigkeiten.length)
+			this.haeufigkeiten = Arrays.copyOf(this.haeufigkeiten,
+					Math.max(verspaetung + 1, this.haeufigkeiten.length * 2));
+		this.haeufigkeiten[verspaetung]++;
+		this.anzahl++;
+		this.summe += verspaetung;
+		this.maximum = Math.max(this.maximum, verspaetung);
+	}
+
+	/**
+	 * Erfasst eine Liste von Verspätungen.
+	 *
+	 * @param verspaetungen
+	 * 		Die Verspätungen in Minuten.
+	 */
+	void erfasse(final ArrayList<Integer> verspaetungen) {
+		for (int verspaetung : verspaetungen)
+			this.erfasse(verspaetung);
+	}
+
+	/**
+	 * Gibt die Anzahl aller erfassten Verspätungen zurück.
+	 */
+	long getAnzahl() {
+		return this.anzahl;
+	}
+
+	/**
+	 * Gibt die durchschnittliche Verspätung in Minuten zurück.
+	 */
+	double getDurchschnitt() {
+		if (this.anzahl == 0)
+			return 0;
+		return (double) this.summe / this.anzahl;
+	}
+
+	/**
+	 * Gibt die größte erfasste Verspätung in Minuten zurück.
+	 */
+	int getMaximum() {
+		return this.maximum;
+	}
+
+	/**
+	 * Gibt die Verspätung zurück, die von dem angegebenen Anteil aller erfassten
+	 * Verspätungen nicht überschritten wird (z.B. 0.9 für das 90%-Quantil).
+	 *
+	 * @param anteil
+	 * 		Der Anteil zwischen 0 und 1.
+	 */
+	int getQuantil(final double anteil) {
+		long grenze = (long) Math.ceil(anteil * this.anzahl);
+		long kumuliert = 0;
+		for (int verspaetung = 0; verspaetung <= this.maximum; verspaetung++) {
+			kumuliert += this.haeufigkeiten[verspaetung];
+			if (kumuliert >= grenze)
+				return verspaetung;
+		}
+		return this.maximum;
+	}
+
+	/**
+	 * Gibt den Anteil der Verspätungen in Prozent zurück, die unterhalb der
+	 * Pünktlichkeitsgrenze liegen.
+	 */
+	double getPuenktlichkeit() {
+		if (this.anzahl == 0)
+			return 100;
+		long puenktlich = 0;
+		for (int verspaetung = 0; verspaetung < Verspaetungsverteilung.PUENKTLICHKEITSGRENZE
+				&& verspaetung < this.haeufigkeiten.length; verspaetung++) {
+			puenktlich += this.haeufigkeiten[verspaetung];
+		}
+		return 100. * puenktlich / this.anzahl;
+	}
+}
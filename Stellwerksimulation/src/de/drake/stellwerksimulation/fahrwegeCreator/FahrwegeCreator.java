@@ -1,154 +1,526 @@
-package de.drake.stellwerksimulation.fahrwegeCreator;
-
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Scanner;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-import de.drake.stellwerksimulation.tools.Richtung;
-
-/**
- * Der FahrwegeCreator dient dazu, zu einem vorgegebenen Streckennetz
- * automatisch Fahrwege zu erstellen. Diese werden nach dem Prinzip
- * des krzesten Weges ermittelt. Die Umsetzung erfolgt mit einer Variante des
- * A*-Algorithmus (siehe http://de.wikipedia.org/wiki/A*-Algorithmus).
- * Da einerseits die Zge keine scharfen Kurven fahren knnen und andererseits
- * nicht nur der krzeste Weg zu einem, sondern allen mglichen Zielen auf ein
- * mal berechnet werden sollen, musste der A*-Algorithmus etwas modifiziert
- * werden.
- */
-public class FahrwegeCreator {
-	
-	/**
-	 * Die "Open-List" des A*-Algorithmus. Diese beinhaltet Streckenrichtungen,
-	 * die noch nicht abschlieend untersucht wurden.
-	 */
-	private ConcurrentLinkedQueue<Streckenrichtung> openList
-			= new ConcurrentLinkedQueue<Streckenrichtung>();
-	
-	/**
-	 * Die "Closed-List" des A*-Algorithmus. Diese beinhaltet Streckenrichtungen,
-	 * die bereits abschlieend untersucht wurden.
-	 */
-	private HashSet<Streckenrichtung> closedList = new HashSet<Streckenrichtung>();
-
-	/**
-	 * Startet den FahrwegeCreator.
-	 */
-	public static void main(String[] args) {
-		new FahrwegeCreator();
-	}
-	
-	/**
-	 * Erzeugt eine neue Instanz des FahrwegeCreators.
-	 */
-	public FahrwegeCreator() {
-		this.importiereStreckennetz();
-		for (Strecke startBetriebsstelle : Strecke.getAlleBetriebsstellen())
-			ermittleFahrwege(startBetriebsstelle);
-	}
-
-	/**
-	 * Liest die Strecken aus der externen Datei Strecken.csv aus und speichert sie.
-	 */
-	private void importiereStreckennetz() {
-		Scanner scanner, zeilenscanner, detailscanner;
-		try {
-			FileReader filereader = new FileReader("Data/Strecken.csv");
-			scanner = new Scanner(filereader);
-		} catch (Exception e) {
-			throw new Error("Fehlende Datei: Data\\Strecken.csv");
-		}
-		scanner.nextLine();
-		String id;
-		boolean istBetriebsstelle;
-		Richtung anschlussrichtung;
-		ArrayList<Richtung> anschlussrichtungen;
-		int positionX, positionY;
-		while (scanner.hasNext()) {
-			zeilenscanner = new Scanner(scanner.nextLine());
-			zeilenscanner.useDelimiter(";");
-			id = zeilenscanner.next();
-			positionX = zeilenscanner.nextInt();
-			positionY = zeilenscanner.nextInt();
-			detailscanner = new Scanner(zeilenscanner.next());
-			detailscanner.useDelimiter("/");
-			anschlussrichtungen = new ArrayList<Richtung>(8);
-			while(detailscanner.hasNext()) {
-				anschlussrichtung = Richtung.getRichtung(detailscanner.next());
-				if (anschlussrichtung == null) {
-					scanner.close();
-					zeilenscanner.close();
-					detailscanner.close();
-					throw new Error("Ungltige Richtungsangabe bei Strecke " + id);
-				}
-				anschlussrichtungen.add(anschlussrichtung);
-			}
-			zeilenscanner.nextInt();
-			zeilenscanner.nextInt();
-			zeilenscanner.next();
-			if (zeilenscanner.hasNext() && zeilenscanner.next().equals("x")) {
-				istBetriebsstelle = true;
-			} else {
-				istBetriebsstelle = false;
-			}
-			new Strecke(id, positionX, positionY, anschlussrichtungen, istBetriebsstelle);
-		}
-		scanner.close();
-	}
-	
-	/**
-	 * Ermittelt alle Fahrwege, die von einer Betriebsstelle ausgehen.
-	 * 
-	 * @param startBetriebsstelle
-	 * 		Die Betriebsstelle, von der ausgehend die Fahrwege ermittelt
-	 * 		werden sollen.
-	 */
-	private void ermittleFahrwege(final Strecke startBetriebsstelle) {
-		this.openList.clear();
-		this.closedList.clear();
-		Streckenrichtung.reset();
-		for (Richtung richtung : startBetriebsstelle.getFahrtrichtungen(null)) {
-			this.openList.add(new Streckenrichtung(
-					startBetriebsstelle, richtung, 0, null));
-		}
-		Streckenrichtung aktuelleStreckenrichtung, neueStreckenrichtung;
-		Strecke naechsteStrecke;
-		ArrayList<Richtung> moeglicheFahrtrichtungen;
-		//Gibt einen Malus auf den G-Wert, wenn diagonal gefahren wird.
-		double umwegMalus;
-		while (!this.openList.isEmpty()) {
-			aktuelleStreckenrichtung = this.openList.poll();
-			this.closedList.add(aktuelleStreckenrichtung);
-			naechsteStrecke = aktuelleStreckenrichtung.getNaechsteStrecke();
-			//Wenn aktuelle Richtung ins leere fhrt...
-			if (naechsteStrecke == null)
-				continue;
-			umwegMalus = 0.;
-			if (aktuelleStreckenrichtung.getStrecke().getPositionX()
-						!= naechsteStrecke.getPositionX()
-					&& aktuelleStreckenrichtung.getStrecke().getPositionY()
-						!= naechsteStrecke.getPositionY())
-				umwegMalus = 0.0000000001;
-			moeglicheFahrtrichtungen = naechsteStrecke.getFahrtrichtungen(
-					aktuelleStreckenrichtung.getRichtung().getGegenrichtung());
-			if (moeglicheFahrtrichtungen.isEmpty()) {
-				Streckenrichtung.updateStreckenrichtung(
-						naechsteStrecke, null, 
-						aktuelleStreckenrichtung.getGWert() + 1. + umwegMalus, 
-						aktuelleStreckenrichtung);
-			}
-			for (Richtung richtung : moeglicheFahrtrichtungen) {
-				neueStreckenrichtung = Streckenrichtung.updateStreckenrichtung(
-						naechsteStrecke, richtung,
-						aktuelleStreckenrichtung.getGWert() + 1. + umwegMalus, 
-						aktuelleStreckenrichtung);
-				if (!this.closedList.contains(neueStreckenrichtung)
-						&& !this.openList.contains(neueStreckenrichtung))
-					this.openList.add(neueStreckenrichtung);
-			}
-		}
-		Streckenrichtung.printFahrwege();
-	}
+package de.drake.stellwerksimulation.fahrwegeCreator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.drake.stellwerksimulation.tools.Richtung;
+
+/**
+ * Der FahrwegeCreator dient dazu, zu einem vorgegebenen Streckennetz
+ * automatisch Fahrwege zu erstellen. Diese werden nach dem Prinzip
+ * des kürzesten Weges ermittelt. Die Umsetzung erfolgt mit einer Variante des
+ * A*-Algorithmus (siehe http://de.wikipedia.org/wiki/A*-Algorithmus).
+ * Da einerseits die Züge keine scharfen Kurven fahren können und andererseits
+ * nicht nur der kürzeste Weg zu einem, sondern allen möglichen Zielen auf ein
+ * mal berechnet werden sollen, musste der A*-Algorithmus etwas modifiziert
+ * werden: Ohne Zielschätzung entspricht er dem Algorithmus von Dijkstra.
+ * 
+ * Die Knoten des Algorithmus sind Kombinationen aus Strecke und Fahrtrichtung, in
+ * der die Strecke verlassen wird. Sie werden über die Knotennummer
+ * Streckennummer * KNOTEN_JE_STRECKE + Ordinalzahl der Richtung angesprochen, so
+ * dass g-Werte und Vorgänger in Arrays abgelegt werden können. Da jeder Schritt
+ * genau eine Strecke weit führt und der Umweg-Malus nur zwischen gleich langen Wegen
+ * entscheidet, ist die Open-List eine Bucket-Queue nach Schrittzahl, die zu einer
+ * einfachen Warteschlange zusammenfällt: Alle Knoten mit k Schritten werden vor
+ * denen mit k+1 Schritten untersucht, so dass der g-Wert eines Knotens feststeht,
+ * sobald er an der Reihe ist.
+ * 
+ * Die Suchen der einzelnen Start-Betriebsstellen sind voneinander unabhängig und
+ * laufen parallel. Ihre Fahrwege werden in der Reihenfolge der Start-Betriebsstellen
+ * ausgegeben, so dass die erzeugte Datei nicht von der Ausführungsreihenfolge
+ * abhängt. Es werden nur wenige Suchen über die bereits geschriebenen hinaus
+ * gestartet, so dass der Speicherbedarf mit der Anzahl der Prozessorkerne und nicht
+ * mit der Anzahl der Start-Betriebsstellen wächst.
+ */
+public class FahrwegeCreator {
+	
+	/**
+	 * Der Pfad des Streckennetzes.
+	 */
+	private final static String STRECKEN = "Data/Strecken.csv";
+	
+	/**
+	 * Der Pfad der erzeugten Fahrwege.
+	 */
+	private final static String FAHRWEGE = "Data/Fahrwege (neu).csv";
+	
+	/**
+	 * Der Pfad der Kopie des Streckennetzes, aus dem die Fahrwege zuletzt erzeugt
+	 * wurden.
+	 */
+	private final static String STAND = "Data/Fahrwege (neu).stand";
+	
+	/**
+	 * Der Pfad, unter dem Fahrwege und Stand zunächst geschrieben werden, bevor sie
+	 * an ihren Platz verschoben werden.
+	 */
+	private final static String TEMPORAER = "Data/Fahrwege (neu).tmp";
+	
+	/**
+	 * Der Zeichensatz der Fahrwege-Datei. Er entspricht dem der Strecken.csv, die
+	 * über den CsvLeser gelesen wird.
+	 */
+	private final static Charset ZEICHENSATZ = Charset.forName("windows-1252");
+	
+	/**
+	 * Die Kopfzeile der Fahrwege-Datei.
+	 */
+	private final static String KOPFZEILE = "Laufweg\r\n";
+	
+	/**
+	 * Die Anzahl der Suchen, die je Thread des Pools höchstens gleichzeitig gestartet,
+	 * aber noch nicht geschrieben sind.
+	 */
+	private final static int SUCHEN_JE_THREAD = 2;
+
+	/**
+	 * Startet den FahrwegeCreator.
+	 * 
+	 * @param args
+	 * 		optional "inkrementell", um nur die Fahrwege der Start-Betriebsstellen neu
+	 * 		zu ermitteln, die von Änderungen an der Strecken.csv betroffen sind.
+	 */
+	public static void main(String[] args) {
+		new FahrwegeCreator(args.length > 0 && args[0].equals("inkrementell"));
+	}
+	
+	/**
+	 * Erzeugt eine neue Instanz des FahrwegeCreators, die alle Fahrwege neu ermittelt.
+	 */
+	public FahrwegeCreator() {
+		this(false);
+	}
+	
+	/**
+	 * Erzeugt eine neue Instanz des FahrwegeCreators.
+	 * 
+	 * Inkrementell werden nur die Fahrwege der Start-Betriebsstellen neu ermittelt,
+	 * deren Suche eine geänderte Koordinate betrachtet; die übrigen werden aus der
+	 * zuletzt erzeugten Datei übernommen. Das ergibt dieselbe Datei wie eine
+	 * vollständige Ermittlung. Fehlt der Stand des letzten Laufs, ist die zuletzt
+	 * erzeugte Datei unvollständig oder hat sich die Reihenfolge der Betriebsstellen
+	 * geändert, wird vollständig ermittelt.
+	 * 
+	 * Damit ein abgebrochener Lauf keine unvollständige Datei hinterlässt, die später
+	 * übernommen würde, wird der Stand vor dem Schreiben gelöscht. Fahrwege und Stand
+	 * werden jeweils in eine temporäre Datei geschrieben und erst danach an ihren
+	 * Platz verschoben.
+	 * 
+	 * @param inkrementell
+	 * 		Gibt an, ob die Fahrwege des letzten Laufs wiederverwendet werden sollen.
+	 */
+	public FahrwegeCreator(final boolean inkrementell) {
+		Streckennetz streckennetz = new Streckennetz(FahrwegeCreator.STRECKEN);
+		LinkedHashMap<String, String> alteFahrwege = null;
+		HashSet<String> betroffeneStarts = null;
+		if (inkrementell && new File(FahrwegeCreator.STAND).exists()
+				&& new File(FahrwegeCreator.FAHRWEGE).exists()) {
+			Streckennetz altesStreckennetz = new Streckennetz(FahrwegeCreator.STAND);
+			if (FahrwegeCreator.istReihenfolgeGleich(altesStreckennetz, streckennetz))
+				alteFahrwege = FahrwegeCreator.importiereFahrwege(altesStreckennetz);
+			if (alteFahrwege != null) {
+				HashSet<Long> geaenderteZellen =
+						streckennetz.vergleicheMit(altesStreckennetz);
+				betroffeneStarts =
+						altesStreckennetz.ermittleBetroffeneStarts(geaenderteZellen);
+				betroffeneStarts.addAll(
+						streckennetz.ermittleBetroffeneStarts(geaenderteZellen));
+			}
+		}
+		ArrayList<Strecke> startBetriebsstellen = streckennetz.getAlleBetriebsstellen();
+		int anzahlStarts = startBetriebsstellen.size();
+		String[] uebernommeneFahrwege = new String[anzahlStarts];
+		int neuErmittelt = 0;
+		for (int i = 0; i < anzahlStarts; i++) {
+			String id = startBetriebsstellen.get(i).getID();
+			if (alteFahrwege != null && alteFahrwege.containsKey(id)
+					&& !betroffeneStarts.contains(id))
+				uebernommeneFahrwege[i] = alteFahrwege.get(id);
+			else
+				neuErmittelt++;
+		}
+		ForkJoinPool pool = new ForkJoinPool();
+		int maxOffeneSuchen = FahrwegeCreator.SUCHEN_JE_THREAD * pool.getParallelism();
+		Fahrwegsuche[] suchen = new Fahrwegsuche[anzahlStarts];
+		int naechsteSuche = 0;
+		int offeneSuchen = 0;
+		try {
+			Files.deleteIfExists(Paths.get(FahrwegeCreator.STAND));
+			BufferedWriter filewriter = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(FahrwegeCreator.TEMPORAER),
+					FahrwegeCreator.ZEICHENSATZ));
+			filewriter.write(FahrwegeCreator.KOPFZEILE);
+			for (int i = 0; i < anzahlStarts; i++) {
+				for (; naechsteSuche < anzahlStarts && offeneSuchen < maxOffeneSuchen;
+						naechsteSuche++) {
+					if (uebernommeneFahrwege[naechsteSuche] != null)
+						continue;
+					suchen[naechsteSuche] = new Fahrwegsuche(
+							startBetriebsstellen.get(naechsteSuche), streckennetz);
+					pool.execute(suchen[naechsteSuche]);
+					offeneSuchen++;
+				}
+				if (suchen[i] == null) {
+					filewriter.write(uebernommeneFahrwege[i]);
+					uebernommeneFahrwege[i] = null;
+				} else {
+					filewriter.write(suchen[i].join());
+					suchen[i] = null;
+					offeneSuchen--;
+				}
+			}
+			filewriter.close();
+			Files.move(Paths.get(FahrwegeCreator.TEMPORAER),
+					Paths.get(FahrwegeCreator.FAHRWEGE), StandardCopyOption.ATOMIC_MOVE);
+			Files.copy(Paths.get(FahrwegeCreator.STRECKEN),
+					Paths.get(FahrwegeCreator.TEMPORAER),
+					StandardCopyOption.REPLACE_EXISTING);
+			Files.move(Paths.get(FahrwegeCreator.TEMPORAER),
+					Paths.get(FahrwegeCreator.STAND), StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new Error("Fehler beim Schreiben der Fahrwege!");
+		} finally {
+			pool.shutdown();
+		}
+		if (inkrementell)
+			System.out.println(neuErmittelt + " von " + anzahlStarts
+					+ " Start-Betriebsstellen neu ermittelt");
+	}
+	
+	/**
+	 * Prüft, ob die Betriebsstellen, die in beiden Streckennetzen vorkommen, in
+	 * derselben Reihenfolge stehen. Nur dann können Fahrwege übernommen werden, denn
+	 * sie werden je Start-Betriebsstelle in der Reihenfolge der Ziel-Betriebsstellen
+	 * ausgegeben.
+	 */
+	private static boolean istReihenfolgeGleich(final Streckennetz altesStreckennetz,
+			final Streckennetz streckennetz) {
+		HashSet<String> alteIDs = new HashSet<String>();
+		for (Strecke betriebsstelle : altesStreckennetz.getAlleBetriebsstellen())
+			alteIDs.add(betriebsstelle.getID());
+		HashSet<String> neueIDs = new HashSet<String>();
+		ArrayList<String> neueReihenfolge = new ArrayList<String>();
+		for (Strecke betriebsstelle : streckennetz.getAlleBetriebsstellen()) {
+			neueIDs.add(betriebsstelle.getID());
+			if (alteIDs.contains(betriebsstelle.getID()))
+				neueReihenfolge.add(betriebsstelle.getID());
+		}
+		ArrayList<String> alteReihenfolge = new ArrayList<String>();
+		for (Strecke betriebsstelle : altesStreckennetz.getAlleBetriebsstellen()) {
+			if (neueIDs.contains(betriebsstelle.getID()))
+				alteReihenfolge.add(betriebsstelle.getID());
+		}
+		return alteReihenfolge.equals(neueReihenfolge);
+	}
+	
+	/**
+	 * Liest die zuletzt erzeugten Fahrwege ein und ordnet sie ihren
+	 * Start-Betriebsstellen zu.
+	 * 
+	 * Die Datei wird verworfen, wenn sie nicht mit einem Zeilenumbruch endet, eine
+	 * Zeile kein vollständiger Fahrweg zwischen zwei Betriebsstellen ist, die Zeilen
+	 * einer Start-Betriebsstelle nicht aufeinander folgen oder für eine
+	 * Start-Betriebsstelle gar keine Fahrwege vorliegen. Letzteres kann auch bei einer
+	 * Betriebsstelle ohne erreichbare Ziele eintreten; dann wird unnötig, aber korrekt
+	 * vollständig ermittelt.
+	 * 
+	 * @param altesStreckennetz
+	 * 		Das Streckennetz, aus dem die Fahrwege erzeugt wurden.
+	 * 
+	 * @return die Zeilen der Fahrwege-Datei je Start-Betriebsstelle bzw. null, wenn
+	 * 		die Datei unvollständig ist oder nicht zum Streckennetz passt.
+	 */
+	private static LinkedHashMap<String, String> importiereFahrwege(
+			final Streckennetz altesStreckennetz) {
+		LinkedHashMap<String, StringBuilder> bloecke =
+				new LinkedHashMap<String, StringBuilder>();
+		for (Strecke betriebsstelle : altesStreckennetz.getAlleBetriebsstellen())
+			bloecke.put(betriebsstelle.getID(), new StringBuilder());
+		String inhalt;
+		try {
+			inhalt = new String(Files.readAllBytes(Paths.get(FahrwegeCreator.FAHRWEGE)),
+					FahrwegeCreator.ZEICHENSATZ);
+		} catch (IOException e) {
+			return null;
+		}
+		if (!inhalt.startsWith(FahrwegeCreator.KOPFZEILE) || !inhalt.endsWith("\r\n"))
+			return null;
+		HashSet<String> abgeschlosseneStarts = new HashSet<String>();
+		String letzterStart = null;
+		int anfang = FahrwegeCreator.KOPFZEILE.length();
+		while (anfang < inhalt.length()) {
+			int ende = inhalt.indexOf("\r\n", anfang);
+			String zeile = inhalt.substring(anfang, ende);
+			anfang = ende + 2;
+			String start = FahrwegeCreator.pruefeFahrweg(zeile, bloecke.keySet());
+			if (start == null)
+				return null;
+			if (!start.equals(letzterStart)) {
+				if (!abgeschlosseneStarts.add(start))
+					return null;
+				letzterStart = start;
+			}
+			bloecke.get(start).append(zeile).append("\r\n");
+		}
+		LinkedHashMap<String, String> result = new LinkedHashMap<String, String>();
+		for (Entry<String, StringBuilder> block : bloecke.entrySet()) {
+			if (block.getValue().length() == 0)
+				return null;
+			result.put(block.getKey(), block.getValue().toString());
+		}
+		return result;
+	}
+	
+	/**
+	 * Prüft, ob eine Zeile der Fahrwege-Datei ein vollständiger Fahrweg ist: Alle
+	 * Felder bis auf das letzte bestehen aus Strecke und Fahrtrichtung, das erste und
+	 * das letzte Feld nennen eine Betriebsstelle.
+	 * 
+	 * @param zeile
+	 * 		Die Zeile ohne Zeilenumbruch.
+	 * @param betriebsstellen
+	 * 		Die IDs der Betriebsstellen.
+	 * 
+	 * @return die ID der Start-Betriebsstelle bzw. null, wenn die Zeile kein
+	 * 		vollständiger Fahrweg ist.
+	 */
+	private static String pruefeFahrweg(final String zeile,
+			final Set<String> betriebsstellen) {
+		String[] felder = zeile.split(";", -1);
+		if (felder.length < 2 || !betriebsstellen.contains(felder[felder.length - 1]))
+			return null;
+		for (int i = 0; i < felder.length - 1; i++) {
+			int trenner = felder[i].lastIndexOf('$');
+			if (trenner == -1
+					|| Richtung.getRichtung(felder[i].substring(trenner + 1)) == null)
+				return null;
+		}
+		String start = felder[0].substring(0, felder[0].lastIndexOf('$'));
+		return betriebsstellen.contains(start) ? start : null;
+	}
+}
+
+/**
+ * Die Suche aller Fahrwege, die von einer Start-Betriebsstelle ausgehen. Jede Suche
+ * besitzt ihre eigenen Arrays, so dass mehrere Suchen parallel laufen können; das
+ * Streckennetz wird dabei nur gelesen. Die Arrays werden nach der Suche wieder
+ * freigegeben, so dass nur das Ergebnis erhalten bleibt.
+ */
+@SuppressWarnings("serial")
+class Fahrwegsuche extends RecursiveTask<String> {
+	
+	/**
+	 * Der Malus auf den g-Wert, wenn diagonal gefahren wird. Er entscheidet nur
+	 * zwischen sonst gleich langen Wegen.
+	 */
+	private final static double UMWEG_MALUS = 0.0000000001;
+	
+	/**
+	 * Die Betriebsstelle, von der ausgehend die Fahrwege ermittelt werden.
+	 */
+	private final Strecke startBetriebsstelle;
+	
+	/**
+	 * Das durchsuchte Streckennetz.
+	 */
+	private final Streckennetz streckennetz;
+	
+	/**
+	 * Die "Open-List" des A*-Algorithmus als Warteschlange von Knotennummern. Jeder
+	 * Knoten wird höchstens einmal aufgenommen, die Einträge ab openListAnfang sind
+	 * noch nicht abschließend untersucht.
+	 */
+	private int[] openList;
+	
+	/**
+	 * Der Index des nächsten zu untersuchenden Knotens in der Open-List.
+	 */
+	private int openListAnfang = 0;
+	
+	/**
+	 * Der Index, an dem der nächste Knoten in die Open-List aufgenommen wird.
+	 */
+	private int openListEnde = 0;
+	
+	/**
+	 * Kennzeichnet Knoten, die bereits in die Open-List aufgenommen wurden, d.h.
+	 * entweder noch offen oder bereits abschließend untersucht sind ("Closed-List").
+	 */
+	private boolean[] entdeckt;
+	
+	/**
+	 * Die g-Werte der Knoten, d.h. die Abstände zur Start-Betriebsstelle.
+	 */
+	private double[] gWerte;
+	
+	/**
+	 * Die Reihenfolge, in der die Knoten erstmals erreicht wurden, bzw. -1. Unter
+	 * gleich guten Knoten einer Ziel-Betriebsstelle wird der zuerst erreichte gewählt.
+	 */
+	private int[] erreicht;
+	
+	/**
+	 * Die Anzahl der bisher erreichten Knoten.
+	 */
+	private int anzahlErreicht = 0;
+	
+	/**
+	 * Die Vorgängerknoten aus Richtung der Start-Betriebsstelle bzw. -1.
+	 */
+	private int[] vorgaenger;
+	
+	/**
+	 * Erzeugt eine neue Suche.
+	 * 
+	 * @param startBetriebsstelle
+	 * 		Die Betriebsstelle, von der ausgehend die Fahrwege ermittelt
+	 * 		werden sollen.
+	 * @param streckennetz
+	 * 		Das Streckennetz, in dem gesucht wird.
+	 */
+	Fahrwegsuche(final Strecke startBetriebsstelle, final Streckennetz streckennetz) {
+		this.startBetriebsstelle = startBetriebsstelle;
+		this.streckennetz = streckennetz;
+	}
+	
+	/**
+	 * Ermittelt die Fahrwege und gibt sie als Zeilen der Fahrwege-Datei zurück.
+	 */
+	@Override
+	protected String compute() {
+		int anzahlKnoten = this.streckennetz.getAnzahlKnoten();
+		this.openList = new int[anzahlKnoten];
+		this.entdeckt = new boolean[anzahlKnoten];
+		this.gWerte = new double[anzahlKnoten];
+		this.erreicht = new int[anzahlKnoten];
+		this.vorgaenger = new int[anzahlKnoten];
+		Arrays.fill(this.erreicht, -1);
+		this.ermittleFahrwege();
+		String fahrwege = this.printFahrwege();
+		this.openList = null;
+		this.entdeckt = null;
+		this.gWerte = null;
+		this.erreicht = null;
+		this.vorgaenger = null;
+		return fahrwege;
+	}
+	
+	/**
+	 * Ermittelt alle Fahrwege, die von der Start-Betriebsstelle ausgehen.
+	 */
+	private void ermittleFahrwege() {
+		for (Richtung richtung : this.startBetriebsstelle.getFahrtrichtungen(null))
+			this.aktualisiereKnoten(Streckennetz.getKnoten(
+					this.startBetriebsstelle, richtung), 0, -1, true);
+		ArrayList<Strecke> alleStrecken = this.streckennetz.getAlleStrecken();
+		Richtung[] richtungen = Richtung.values();
+		while (this.openListAnfang < this.openListEnde) {
+			int aktuellerKnoten = this.openList[this.openListAnfang++];
+			//Wenn aktuelle Richtung ins leere führt...
+			if (this.streckennetz.getNaechsteStrecke(aktuellerKnoten) == -1)
+				continue;
+			Strecke aktuelleStrecke = alleStrecken.get(
+					aktuellerKnoten / Streckennetz.KNOTEN_JE_STRECKE);
+			Richtung aktuelleRichtung = richtungen[
+					aktuellerKnoten % Streckennetz.KNOTEN_JE_STRECKE];
+			Strecke naechsteStrecke = alleStrecken.get(
+					this.streckennetz.getNaechsteStrecke(aktuellerKnoten));
+			double umwegMalus = 0.;
+			if (aktuelleStrecke.getPositionX() != naechsteStrecke.getPositionX()
+					&& aktuelleStrecke.getPositionY() != naechsteStrecke.getPositionY())
+				umwegMalus = Fahrwegsuche.UMWEG_MALUS;
+			double gWert = this.gWerte[aktuellerKnoten] + 1. + umwegMalus;
+			ArrayList<Richtung> moeglicheFahrtrichtungen = naechsteStrecke
+					.getFahrtrichtungen(aktuelleRichtung.getGegenrichtung());
+			if (moeglicheFahrtrichtungen.isEmpty())
+				this.aktualisiereKnoten(Streckennetz.getKnoten(naechsteStrecke, null),
+						gWert, aktuellerKnoten, false);
+			for (Richtung richtung : moeglicheFahrtrichtungen)
+				this.aktualisiereKnoten(Streckennetz.getKnoten(
+						naechsteStrecke, richtung), gWert, aktuellerKnoten, true);
+		}
+	}
+	
+	/**
+	 * Aktualisiert den g-Wert eines Knotens, sofern der neue g-Wert niedriger ist.
+	 * Ein noch nicht entdeckter Knoten wird ggf. in die Open-List aufgenommen.
+	 * 
+	 * @param knoten
+	 * 		Der Knoten, der aktualisiert werden soll.
+	 * @param gWert
+	 * 		der neue g-Wert
+	 * @param vorgaenger
+	 * 		der neue Vorgängerknoten bzw. -1.
+	 * @param untersuchen
+	 * 		Gibt an, ob der Knoten in die Open-List aufgenommen werden soll.
+	 */
+	private void aktualisiereKnoten(final int knoten, final double gWert,
+			final int vorgaenger, final boolean untersuchen) {
+		if (this.erreicht[knoten] == -1) {
+			this.erreicht[knoten] = this.anzahlErreicht++;
+			this.gWerte[knoten] = gWert;
+			this.vorgaenger[knoten] = vorgaenger;
+		} else if (this.gWerte[knoten] > gWert) {
+			this.gWerte[knoten] = gWert;
+			this.vorgaenger[knoten] = vorgaenger;
+		}
+		if (untersuchen && !this.entdeckt[knoten]) {
+			this.entdeckt[knoten] = true;
+			this.openList[this.openListEnde++] = knoten;
+		}
+	}
+	
+	/**
+	 * Gibt alle gefundenen Fahrwege als Zeilen der Fahrwege-Datei zurück.
+	 */
+	private String printFahrwege() {
+		StringBuilder result = new StringBuilder();
+		ArrayList<Strecke> alleStrecken = this.streckennetz.getAlleStrecken();
+		Richtung[] richtungen = Richtung.values();
+		ArrayList<Integer> fahrweg = new ArrayList<Integer>();
+		for (Strecke zielBetriebsstelle : this.streckennetz.getAlleBetriebsstellen()) {
+			int ersterKnoten = Streckennetz.getKnoten(zielBetriebsstelle, null)
+					- richtungen.length;
+			int besterKnoten = -1;
+			for (int knoten = ersterKnoten;
+					knoten < ersterKnoten + Streckennetz.KNOTEN_JE_STRECKE; knoten++) {
+				if (this.erreicht[knoten] == -1)
+					continue;
+				if (besterKnoten == -1
+						|| this.gWerte[knoten] < this.gWerte[besterKnoten]
+						|| (this.gWerte[knoten] == this.gWerte[besterKnoten]
+						&& this.erreicht[knoten] < this.erreicht[besterKnoten]))
+					besterKnoten = knoten;
+			}
+			if (besterKnoten == -1 || this.gWerte[besterKnoten] == 0)
+				continue;
+			fahrweg.clear();
+			for (int knoten = besterKnoten; knoten != -1; knoten = this.vorgaenger[knoten])
+				fahrweg.add(knoten);
+			for (int index = fahrweg.size()-1; index >= 1; index--) {
+				int knoten = fahrweg.get(index);
+				result.append(alleStrecken.get(
+						knoten / Streckennetz.KNOTEN_JE_STRECKE).getID()).append('$')
+						.append(richtungen[knoten % Streckennetz.KNOTEN_JE_STRECKE])
+						.append(';');
+			}
+			result.append(zielBetriebsstelle.getID()).append("\r\n");
+		}
+		return result.toString();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,452 @@
+package de.drake.stellwerksimulation.fahrwegeCreator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import de.drake.stellwerksimulation.tools.CsvLeser;
+import de.drake.stellwerksimulation.tools.Richtung;
+
+/**
+ * Ein Streckennetz für den fahrwegeCreator, wie es in einer Strecken.csv beschrieben
+ * ist. Es wird nach dem Import nur noch gelesen und kann daher von mehreren
+ * Fahrwegsuchen gleichzeitig genutzt werden.
+ *
+ * Die Knoten der Fahrwegsuche sind Kombinationen aus Strecke und Fahrtrichtung, in
+ * der die Strecke verlassen wird. Sie werden über die Knotennummer
+ * Streckennummer * KNOTEN_JE_STRECKE + Ordinalzahl der Richtung angesprochen.
+ */
+class Streckennetz {
+
+	/**
+	 * Die Anzahl der Knoten je Strecke: einer je Fahrtrichtung und ein Endknoten für
+	 * Strecken, die nicht weiter befahren werden können.
+	 */
+	final static int KNOTEN_JE_STRECKE = Richtung.values().length + 1;
+
+	/**
+	 * Eine Liste aller Strecken. Der Index einer Strecke in dieser Liste ist ihre
+	 * Nummer.
+	 */
+	private final ArrayList<Strecke> alleStrecken = new ArrayList<Strecke>();
+
+	/**
+	 * Eine Liste aller Betriebsstellen in der Reihenfolge der Strecken.csv.
+	 */
+	private final ArrayList<Strecke> alleBetriebsstellen = new ArrayList<Strecke>();
+
+	/**
+	 * Die kleinste X-Koordinate des Rasters.
+	 */
+	private int minX;
+
+	/**
+	 * Die kleinste Y-Koordinate des Rasters.
+	 */
+	private int minY;
+
+	/**
+	 * Die Breite des Rasters in Zellen.
+	 */
+	private int breite;
+
+	/**
+	 * Die Höhe des Rasters in Zellen.
+	 */
+	private int hoehe;
+
+	/**
+	 * Das Raster über die umschließenden Koordinaten aller Strecken, zeilenweise
+	 * abgelegt. Jede Zelle enthält die Nummer der ersten Strecke an ihren Koordinaten
+	 * bzw. -1, so dass Strecken ohne Umweg über Objekte gefunden werden.
+	 */
+	private int[] raster;
+
+	/**
+	 * Die Nummer der nächsten Strecke an denselben Koordinaten je Strecke bzw. -1.
+	 * Nur bei Brücken liegt mehr als eine Strecke in einer Zelle.
+	 */
+	private int[] weitereStrecke;
+
+	/**
+	 * Die Nummer der nächsten Strecke je Knoten bzw. -1, falls die Strecke in dieser
+	 * Richtung ins leere führt.
+	 */
+	private final int[] naechsteStrecke;
+
+	/**
+	 * Liest ein Streckennetz aus einer Strecken.csv ein.
+	 *
+	 * @param dateiname
+	 * 		Der Pfad der Strecken.csv.
+	 */
+	Streckennetz(final String dateiname) {
+		this.importiereStrecken(dateiname);
+		this.erstelleRaster();
+		this.naechsteStrecke =
+				new int[this.alleStrecken.size() * Streckennetz.KNOTEN_JE_STRECKE];
+		Arrays.fill(this.naechsteStrecke, -1);
+		for (Strecke strecke : this.alleStrecken) {
+			for (Richtung richtung : strecke.getFahrtrichtungen(null)) {
+				Strecke naechsteStrecke = this.ermittleNaechsteStrecke(strecke, richtung);
+				if (naechsteStrecke != null)
+					this.naechsteStrecke[Streckennetz.getKnoten(strecke, richtung)]
+							= naechsteStrecke.getNummer();
+			}
+		}
+	}
+
+	/**
+	 * Liest die Strecken aus einer Strecken.csv aus und speichert sie.
+	 *
+	 * @param dateiname
+	 * 		Der Pfad der Strecken.csv.
+	 */
+	private void importiereStrecken(final String dateiname) {
+		CsvLeser leser = new CsvLeser(dateiname);
+		leser.naechsteZeile();
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			this.importiereStrecke(leser);
+		}
+	}
+
+	/**
+	 * Legt eine Strecke aus der aktuellen Zeile der Strecken.csv an. Die Angaben zur
+	 * Darstellung werden dabei übersprungen.
+	 *
+	 * @param leser
+	 * 		Der Leser der Strecken.csv, der am Anfang der Zeile steht.
+	 */
+	private void importiereStrecke(final CsvLeser leser) {
+		String id = leser.naechstesFeld();
+		int positionX = leser.naechsteZahl();
+		int positionY = leser.naechsteZahl();
+		String richtungsangaben = leser.naechstesFeld();
+		ArrayList<Richtung> anschlussrichtungen = new ArrayList<Richtung>(8);
+		for (String richtungsangabe : richtungsangaben.split("/")) {
+			if (richtungsangabe.isEmpty())
+				continue;
+			Richtung anschlussrichtung = Richtung.getRichtung(richtungsangabe);
+			if (anschlussrichtung == null)
+				throw leser.fehler("Ungültige Richtungsangabe bei Strecke " + id);
+			anschlussrichtungen.add(anschlussrichtung);
+		}
+		leser.ueberspringeFeld();
+		leser.ueberspringeFeld();
+		leser.ueberspringeFeld();
+		boolean istBetriebsstelle = leser.hatFeld() && leser.naechstesFeld().equals("x");
+		Strecke strecke = new Strecke(id, this.alleStrecken.size(), positionX,
+				positionY, anschlussrichtungen, istBetriebsstelle);
+		this.alleStrecken.add(strecke);
+		if (istBetriebsstelle)
+			this.alleBetriebsstellen.add(strecke);
+	}
+
+	/**
+	 * Legt das Raster über die umschließenden Koordinaten aller Strecken an. Strecken
+	 * an denselben Koordinaten werden in der Reihenfolge der Strecken.csv verkettet.
+	 */
+	private void erstelleRaster() {
+		long breite = 0, hoehe = 0;
+		if (!this.alleStrecken.isEmpty()) {
+			this.minX = Integer.MAX_VALUE;
+			this.minY = Integer.MAX_VALUE;
+			int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+			for (Strecke strecke : this.alleStrecken) {
+				this.minX = Math.min(this.minX, strecke.getPositionX());
+				this.minY = Math.min(this.minY, strecke.getPositionY());
+				maxX = Math.max(maxX, strecke.getPositionX());
+				maxY = Math.max(maxY, strecke.getPositionY());
+			}
+			breite = (long) maxX - this.minX + 1;
+			hoehe = (long) maxY - this.minY + 1;
+		}
+		if (breite * hoehe > Integer.MAX_VALUE)
+			throw new Error("Streckennetz zu groß: " + breite + " x " + hoehe);
+		this.breite = (int) breite;
+		this.hoehe = (int) hoehe;
+		this.raster = new int[this.breite * this.hoehe];
+		Arrays.fill(this.raster, -1);
+		this.weitereStrecke = new int[this.alleStrecken.size()];
+		Arrays.fill(this.weitereStrecke, -1);
+		int[] letzteStrecke = new int[this.raster.length];
+		for (Strecke strecke : this.alleStrecken) {
+			int zelle = this.getRasterzelle(strecke.getPositionX(), strecke.getPositionY());
+			if (this.raster[zelle] == -1)
+				this.raster[zelle] = strecke.getNummer();
+			else
+				this.weitereStrecke[letzteStrecke[zelle]] = strecke.getNummer();
+			letzteStrecke[zelle] = strecke.getNummer();
+		}
+	}
+
+	/**
+	 * Gibt den Index der Zelle im Raster zurück bzw. -1, falls die Koordinaten
+	 * außerhalb des Rasters liegen.
+	 */
+	private int getRasterzelle(final int positionX, final int positionY) {
+		int x = positionX - this.minX;
+		int y = positionY - this.minY;
+		if (x < 0 || x >= this.breite || y < 0 || y >= this.hoehe)
+			return -1;
+		return y * this.breite + x;
+	}
+
+	/**
+	 * Gibt die X-Koordinate zurück, die von einer Strecke in einer Fahrtrichtung
+	 * als nächstes erreicht wird.
+	 */
+	private static int getZielX(final Strecke strecke, final Richtung richtung) {
+		switch(richtung) {
+		case OST:
+		case NORDOST:
+		case SUEDOST:
+			return strecke.getPositionX() + 1;
+		case WEST:
+		case NORDWEST:
+		case SUEDWEST:
+			return strecke.getPositionX() - 1;
+		default:
+			return strecke.getPositionX();
+		}
+	}
+
+	/**
+	 * Gibt die Y-Koordinate zurück, die von einer Strecke in einer Fahrtrichtung
+	 * als nächstes erreicht wird.
+	 */
+	private static int getZielY(final Strecke strecke, final Richtung richtung) {
+		switch(richtung) {
+		case NORD:
+		case NORDOST:
+		case NORDWEST:
+			return strecke.getPositionY() - 1;
+		case SUED:
+		case SUEDOST:
+		case SUEDWEST:
+			return strecke.getPositionY() + 1;
+		default:
+			return strecke.getPositionY();
+		}
+	}
+
+	/**
+	 * Ermittelt die nächste Strecke in einer Fahrtrichtung. Führt die Strecke
+	 * in dieser Richtung ins leere, wird null zurückgegeben.
+	 *
+	 * @param strecke
+	 * 		Die Strecke, die verlassen wird.
+	 * @param richtung
+	 * 		Die Fahrtrichtung, in der die Strecke verlassen wird.
+	 */
+	private Strecke ermittleNaechsteStrecke(final Strecke strecke,
+			final Richtung richtung) {
+		Richtung gegenrichtung = richtung.getGegenrichtung();
+		for (int nummer = this.getErsteStrecke(Streckennetz.getZielX(strecke, richtung),
+				Streckennetz.getZielY(strecke, richtung));
+				nummer != -1; nummer = this.weitereStrecke[nummer]) {
+			Strecke naechsteStrecke = this.alleStrecken.get(nummer);
+			if (naechsteStrecke.getFahrtrichtungen(null).contains(gegenrichtung))
+				return naechsteStrecke;
+		}
+		return null;
+	}
+
+	/**
+	 * Gibt die Nummer des Knotens zu einer Strecke und Fahrtrichtung zurück.
+	 *
+	 * @param strecke
+	 * 		Die Strecke.
+	 * @param richtung
+	 * 		Die Fahrtrichtung, in der die Strecke verlassen wird, oder null für den
+	 * 		Endknoten der Strecke.
+	 */
+	static int getKnoten(final Strecke strecke, final Richtung richtung) {
+		int knoten = strecke.getNummer() * Streckennetz.KNOTEN_JE_STRECKE;
+		if (richtung == null)
+			return knoten + Streckennetz.KNOTEN_JE_STRECKE - 1;
+		return knoten + richtung.ordinal();
+	}
+
+	/**
+	 * Gibt die Anzahl der Knoten des Streckennetzes zurück.
+	 */
+	int getAnzahlKnoten() {
+		return this.naechsteStrecke.length;
+	}
+
+	/**
+	 * Gibt die Nummer der Strecke zurück, die von einem Knoten aus als nächstes
+	 * erreicht wird, bzw. -1, falls der Knoten ins leere führt.
+	 */
+	int getNaechsteStrecke(final int knoten) {
+		return this.naechsteStrecke[knoten];
+	}
+
+	/**
+	 * Gibt eine Liste aller Strecken zurück. Der Index einer Strecke entspricht
+	 * ihrer Nummer.
+	 */
+	ArrayList<Strecke> getAlleStrecken() {
+		return this.alleStrecken;
+	}
+
+	/**
+	 * Gibt eine Liste aller Betriebsstellen zurück.
+	 */
+	ArrayList<Strecke> getAlleBetriebsstellen() {
+		return this.alleBetriebsstellen;
+	}
+
+	/**
+	 * Gibt die Nummer der ersten Strecke zurück, die sich an bestimmten Koordinaten
+	 * befindet, bzw. -1. Im Falle von Brücken folgen weitere Strecken über
+	 * getWeitereStrecke.
+	 */
+	int getErsteStrecke(final int positionX, final int positionY) {
+		int zelle = this.getRasterzelle(positionX, positionY);
+		if (zelle == -1)
+			return -1;
+		return this.raster[zelle];
+	}
+
+	/**
+	 * Gibt die Nummer der nächsten Strecke an den Koordinaten einer Strecke zurück
+	 * bzw. -1.
+	 */
+	int getWeitereStrecke(final int nummer) {
+		return this.weitereStrecke[nummer];
+	}
+
+	/**
+	 * Ermittelt die Koordinaten, an denen sich dieses Streckennetz von einem anderen
+	 * unterscheidet. Eine Koordinate gilt als geändert, wenn die Strecken an ihr
+	 * nicht paarweise übereinstimmen.
+	 *
+	 * @param streckennetz
+	 * 		Das Streckennetz, mit dem verglichen wird.
+	 *
+	 * @return die geänderten Koordinaten, jeweils als Zelle (siehe getZelle).
+	 */
+	HashSet<Long> vergleicheMit(final Streckennetz streckennetz) {
+		HashSet<Long> geaenderteZellen = new HashSet<Long>();
+		this.vergleicheZellen(streckennetz, geaenderteZellen);
+		streckennetz.vergleicheZellen(this, geaenderteZellen);
+		return geaenderteZellen;
+	}
+
+	/**
+	 * Trägt die Koordinaten der Strecken dieses Streckennetzes ein, deren Strecken
+	 * im anderen Streckennetz nicht paarweise übereinstimmen.
+	 */
+	private void vergleicheZellen(final Streckennetz streckennetz,
+			final HashSet<Long> geaenderteZellen) {
+		for (Strecke strecke : this.alleStrecken) {
+			int x = strecke.getPositionX();
+			int y = strecke.getPositionY();
+			int nummer = this.getErsteStrecke(x, y);
+			int andereNummer = streckennetz.getErsteStrecke(x, y);
+			while (nummer != -1 && andereNummer != -1 && this.alleStrecken.get(nummer)
+					.gleicht(streckennetz.alleStrecken.get(andereNummer))) {
+				nummer = this.weitereStrecke[nummer];
+				andereNummer = streckennetz.weitereStrecke[andereNummer];
+			}
+			if (nummer != -1 || andereNummer != -1)
+				geaenderteZellen.add(Streckennetz.getZelle(x, y));
+		}
+	}
+
+	/**
+	 * Fasst Koordinaten zu einem Schlüssel zusammen.
+	 */
+	static long getZelle(final int positionX, final int positionY) {
+		return ((long) positionX << 32) | (positionY & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Ermittelt die Start-Betriebsstellen, deren Fahrwegsuche eine der angegebenen
+	 * Koordinaten betrachtet, weil sie dort liegt oder eine dorthin führende
+	 * Richtung untersucht. Nur deren Fahrwege können sich durch Änderungen an diesen
+	 * Koordinaten ändern. Da die Suche alle erreichbaren Knoten untersucht, wird
+	 * dazu einmal rückwärts von allen Knoten gesucht, die in eine der Koordinaten
+	 * führen.
+	 *
+	 * @param zellen
+	 * 		Die Koordinaten, jeweils als Zelle (siehe getZelle).
+	 *
+	 * @return die IDs der betroffenen Start-Betriebsstellen.
+	 */
+	HashSet<String> ermittleBetroffeneStarts(final HashSet<Long> zellen) {
+		int anzahlKnoten = this.getAnzahlKnoten();
+		// Die Vorgänger aller Knoten in kompakter Form: Die Vorgänger von Knoten k
+		// stehen in vorgaenger[anfang[k]] bis vorgaenger[anfang[k + 1] - 1]. Dazu
+		// werden die Vorgänger je Knoten zuerst gezählt und danach eingetragen.
+		int[] anfang = new int[anzahlKnoten + 1];
+		for (Strecke strecke : this.alleStrecken) {
+			for (Richtung richtung : strecke.getFahrtrichtungen(null)) {
+				int knoten = Streckennetz.getKnoten(strecke, richtung);
+				if (this.naechsteStrecke[knoten] == -1)
+					continue;
+				Strecke naechsteStrecke =
+						this.alleStrecken.get(this.naechsteStrecke[knoten]);
+				for (Richtung fahrtrichtung : naechsteStrecke
+						.getFahrtrichtungen(richtung.getGegenrichtung()))
+					anfang[Streckennetz.getKnoten(naechsteStrecke, fahrtrichtung) + 1]++;
+			}
+		}
+		for (int k = 0; k < anzahlKnoten; k++)
+			anfang[k + 1] += anfang[k];
+		int[] vorgaenger = new int[anfang[anzahlKnoten]];
+		int[] belegt = Arrays.copyOf(anfang, anzahlKnoten);
+		for (Strecke strecke : this.alleStrecken) {
+			for (Richtung richtung : strecke.getFahrtrichtungen(null)) {
+				int knoten = Streckennetz.getKnoten(strecke, richtung);
+				if (this.naechsteStrecke[knoten] == -1)
+					continue;
+				Strecke naechsteStrecke =
+						this.alleStrecken.get(this.naechsteStrecke[knoten]);
+				for (Richtung fahrtrichtung : naechsteStrecke
+						.getFahrtrichtungen(richtung.getGegenrichtung()))
+					vorgaenger[belegt[Streckennetz.getKnoten(
+							naechsteStrecke, fahrtrichtung)]++] = knoten;
+			}
+		}
+		// Rückwärtssuche von allen Knoten, die in eine der Koordinaten führen
+		boolean[] betroffen = new boolean[anzahlKnoten];
+		int[] warteschlange = new int[anzahlKnoten];
+		int ende = 0;
+		for (Strecke strecke : this.alleStrecken) {
+			for (Richtung richtung : strecke.getFahrtrichtungen(null)) {
+				if (!zellen.contains(Streckennetz.getZelle(
+						Streckennetz.getZielX(strecke, richtung),
+						Streckennetz.getZielY(strecke, richtung))))
+					continue;
+				int knoten = Streckennetz.getKnoten(strecke, richtung);
+				betroffen[knoten] = true;
+				warteschlange[ende++] = knoten;
+			}
+		}
+		for (int index = 0; index < ende; index++) {
+			int knoten = warteschlange[index];
+			for (int i = anfang[knoten]; i < anfang[knoten + 1]; i++) {
+				if (!betroffen[vorgaenger[i]]) {
+					betroffen[vorgaenger[i]] = true;
+					warteschlange[ende++] = vorgaenger[i];
+				}
+			}
+		}
+		HashSet<String> result = new HashSet<String>();
+		for (Strecke start : this.alleBetriebsstellen) {
+			if (zellen.contains(Streckennetz.getZelle(
+					start.getPositionX(), start.getPositionY())))
+				result.add(start.getID());
+			for (Richtung richtung : start.getFahrtrichtungen(null)) {
+				if (betroffen[Streckennetz.getKnoten(start, richtung)])
+					result.add(start.getID());
+			}
+		}
+		return result;
+	}
+}
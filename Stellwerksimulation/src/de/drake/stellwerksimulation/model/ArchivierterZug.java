@@ -0,0 +1,236 @@
+package de.drake.stellwerksimulation.model;
+
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Ein ArchivierterZug ist der Datensatz, den das Zugarchiv für einen Zug nach dessen
+ * Ausfahrt aus der Simulation ablegt. Zeiten liegen in Sekundendarstellung vor,
+ * fehlende Zeiten als Zeit.KEINE_ZEIT.
+ */
+public class ArchivierterZug {
+
+	/**
+	 * Die Zuggattung laut Fahrplan.
+	 */
+	private final String gattung;
+
+	/**
+	 * Die Zugnummer laut Fahrplan.
+	 */
+	private final int zugnummer;
+
+	/**
+	 * Die Zuggattung bei der Ausfahrt aus der Simulation.
+	 */
+	private final String gattungBeiAusfahrt;
+
+	/**
+	 * Die Zugnummer bei der Ausfahrt aus der Simulation.
+	 */
+	private final int zugnummerBeiAusfahrt;
+
+	/**
+	 * Die Zugnummer des Zuges, an den dieser Zug angekoppelt einfährt, bzw. 0.
+	 */
+	private final int haengtAnZugnummer;
+
+	/**
+	 * Der Name der Start-Betriebsstelle.
+	 */
+	private final String start;
+
+	/**
+	 * Der Name der Ziel-Betriebsstelle.
+	 */
+	private final String ziel;
+
+	/**
+	 * Der Name des Bahnsteigs, von dem der Zug zuletzt abgefahren ist, bzw. "".
+	 */
+	private final String bahnsteig;
+
+	/**
+	 * Die planmäßige Ankunftszeit an der Start-Betriebsstelle.
+	 */
+	private final int ankunft;
+
+	/**
+	 * Die tatsächliche Einfahrtszeit in die Simulation.
+	 */
+	private final int einfahrt;
+
+	/**
+	 * Die planmäßige Abfahrtszeit am Bahnsteig.
+	 */
+	private final int abfahrt;
+
+	/**
+	 * Die tatsächliche Abfahrtszeit vom Bahnsteig.
+	 */
+	private final int abfahrtVomBahnsteig;
+
+	/**
+	 * Die Zeit, zu der der Zug die Simulation verlassen hat.
+	 */
+	private final int ausfahrt;
+
+	/**
+	 * Die bei der Einfahrt angenommene Verspätung in Minuten.
+	 */
+	private final int verspaetung;
+
+	/**
+	 * Erzeugt einen archivierten Zug aus den Feldern eines Datensatzes.
+	 */
+	ArchivierterZug(final String gattung, final int zugnummer,
+			final String gattungBeiAusfahrt, final int zugnummerBeiAusfahrt,
+			final int haengtAnZugnummer, final String start, final String ziel,
+			final String bahnsteig, final int ankunft, final int einfahrt,
+			final int abfahrt, final int abfahrtVomBahnsteig, final int ausfahrt,
+			final int verspaetung) {
+		this.gattung = gattung;
+		this.zugnummer = zugnummer;
+		this.gattungBeiAusfahrt = gattungBeiAusfahrt;
+		this.zugnummerBeiAusfahrt = zugnummerBeiAusfahrt;
+		this.haengtAnZugnummer = haengtAnZugnummer;
+		this.start = start;
+		this.ziel = ziel;
+		this.bahnsteig = bahnsteig;
+		this.ankunft = ankunft;
+		this.einfahrt = einfahrt;
+		this.abfahrt = abfahrt;
+		this.abfahrtVomBahnsteig = abfahrtVomBahnsteig;
+		this.ausfahrt = ausfahrt;
+		this.verspaetung = verspaetung;
+	}
+
+	/**
+	 * Gibt die Zuggattung laut Fahrplan zurück.
+	 */
+	public String getGattung() {
+		return this.gattung;
+	}
+
+	/**
+	 * Gibt die Zugnummer laut Fahrplan zurück.
+	 */
+	public int getZugnummer() {
+		return this.zugnummer;
+	}
+
+	/**
+	 * Gibt die Zuggattung bei der Ausfahrt aus der Simulation zurück.
+	 */
+	public String getGattungBeiAusfahrt() {
+		return this.gattungBeiAusfahrt;
+	}
+
+	/**
+	 * Gibt die Zugnummer bei der Ausfahrt aus der Simulation zurück.
+	 */
+	public int getZugnummerBeiAusfahrt() {
+		return this.zugnummerBeiAusfahrt;
+	}
+
+	/**
+	 * Gibt die Zugnummer des Zuges zurück, an den dieser Zug angekoppelt einfährt,
+	 * bzw. 0.
+	 */
+	public int getHaengtAnZugnummer() {
+		return this.haengtAnZugnummer;
+	}
+
+	/**
+	 * Gibt den Namen der Start-Betriebsstelle zurück.
+	 */
+	public String getStart() {
+		return this.start;
+	}
+
+	/**
+	 * Gibt den Namen der Ziel-Betriebsstelle zurück.
+	 */
+	public String getZiel() {
+		return this.ziel;
+	}
+
+	/**
+	 * Gibt den Namen des Bahnsteigs zurück, von dem der Zug zuletzt abgefahren ist,
+	 * bzw. "", falls der Zug an keinem Bahnsteig gehalten hat.
+	 */
+	public String getBahnsteig() {
+		return this.bahnsteig;
+	}
+
+	/**
+	 * Gibt die planmäßige Ankunftszeit an der Start-Betriebsstelle zurück.
+	 */
+	public int getAnkunft() {
+		return this.ankunft;
+	}
+
+	/**
+	 * Gibt die tatsächliche Einfahrtszeit in die Simulation zurück. Angekoppelt
+	 * eingefahrene Züge haben keine eigene Einfahrtszeit.
+	 */
+	public int getEinfahrt() {
+		return this.einfahrt;
+	}
+
+	/**
+	 * Gibt die planmäßige Abfahrtszeit am Bahnsteig zurück.
+	 */
+	public int getAbfahrt() {
+		return this.abfahrt;
+	}
+
+	/**
+	 * Gibt die tatsächliche Abfahrtszeit vom zuletzt genutzten Bahnsteig zurück.
+	 */
+	public int getAbfahrtVomBahnsteig() {
+		return this.abfahrtVomBahnsteig;
+	}
+
+	/**
+	 * Gibt die Zeit zurück, zu der der Zug die Simulation verlassen hat.
+	 */
+	public int getAusfahrt() {
+		return this.ausfahrt;
+	}
+
+	/**
+	 * Gibt die bei der Einfahrt angenommene Verspätung in Minuten zurück.
+	 */
+	public int getVerspaetung() {
+		return this.verspaetung;
+	}
+
+	/**
+	 * Gibt eine Uhrzeit in Sekundendarstellung aus bzw. "-" für Zeit.KEINE_ZEIT.
+	 */
+	private static String formatiere(final int zeit) {
+		if (zeit == Zeit.KEINE_ZEIT)
+			return "-";
+		return Zeit.ausSekunden(zeit).toString();
+	}
+
+	@Override
+	public String toString() {
+		String result = this.gattung + " " + this.zugnummer;
+		if (this.zugnummerBeiAusfahrt != this.zugnummer
+				|| !this.gattungBeiAusfahrt.equals(this.gattung))
+			result += " (als " + this.gattungBeiAusfahrt + " "
+					+ this.zugnummerBeiAusfahrt + ")";
+		if (this.haengtAnZugnummer != 0)
+			result += " an " + this.haengtAnZugnummer;
+		result += ": " + this.start + " -> " + this.ziel
+				+ ", Ankunft " + ArchivierterZug.formatiere(this.ankunft)
+				+ ", Einfahrt " + ArchivierterZug.formatiere(this.einfahrt);
+		if (!this.bahnsteig.equals(""))
+			result += ", Abfahrt " + this.bahnsteig + " "
+					+ ArchivierterZug.formatiere(this.abfahrt) + "/"
+					+ ArchivierterZug.formatiere(this.abfahrtVomBahnsteig);
+		result += ", Ausfahrt " + ArchivierterZug.formatiere(this.ausfahrt);
+		return result;
+	}
+}
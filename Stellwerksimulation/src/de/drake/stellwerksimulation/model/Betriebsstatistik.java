@@ -0,0 +1,248 @@
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Die Betriebsstatistik sammelt während einer Simulation Kennzahlen zu den
+ * eingefahrenen, abgefertigten und ausgefahrenen Zügen. Verspätungen werden
+ * jeweils gegenüber dem Fahrplan in Minuten erfasst.
+ */
+public class Betriebsstatistik {
+	
+	/**
+	 * Die Anzahl der Züge, die laut Fahrplan die Simulation durchfahren sollen.
+	 */
+	private int anzahlZuege;
+	
+	/**
+	 * Die Anzahl der Züge, die bereits in die Simulation eingefahren sind.
+	 */
+	private int anzahlEinfahrten = 0;
+	
+	/**
+	 * Die Summe der Verspätungen aller eingefahrenen Züge in Minuten.
+	 */
+	private long summeEinfahrverspaetung = 0;
+	
+	/**
+	 * Die größte Verspätung, mit der ein Zug eingefahren ist, in Minuten.
+	 */
+	private int maxEinfahrverspaetung = 0;
+	
+	/**
+	 * Die Anzahl der Abfahrten an Bahnsteigen.
+	 */
+	private int anzahlAbfahrten = 0;
+	
+	/**
+	 * Die Summe der Verspätungen aller Abfahrten an Bahnsteigen in Minuten.
+	 */
+	private long summeAbfahrtsverspaetung = 0;
+	
+	/**
+	 * Die größte Verspätung, mit der ein Zug von einem Bahnsteig abgefahren ist,
+	 * in Minuten.
+	 */
+	private int maxAbfahrtsverspaetung = 0;
+	
+	/**
+	 * Die Anzahl der Züge, die die Simulation vollständig durchfahren haben.
+	 */
+	private int anzahlAusfahrten = 0;
+	
+	/**
+	 * Die Abfahrtsverspätungen an Bahnsteigen in Minuten, zugeordnet zur
+	 * Bezeichnung des abfahrenden Zuges (z.B. ICE 105).
+	 */
+	private HashMap<String, ArrayList<Integer>> abfahrtsverspaetungenJeZug
+			= new HashMap<String, ArrayList<Integer>>();
+	
+	/**
+	 * Die Abfahrtsverspätungen in Minuten, zugeordnet zum Namen des Bahnsteigs,
+	 * von dem der Zug abgefahren ist.
+	 */
+	private HashMap<String, ArrayList<Integer>> abfahrtsverspaetungenJeBahnsteig
+			= new HashMap<String, ArrayList<Integer>>();
+	
+	/**
+	 * Erzeugt eine neue, leere Betriebsstatistik.
+	 * 
+	 * @param anzahlZuege
+	 * 		Die Anzahl der Züge, die laut Fahrplan die Simulation durchfahren sollen.
+	 */
+	Betriebsstatistik(final int anzahlZuege) {
+		this.anzahlZuege = anzahlZuege;
+	}
+	
+	/**
+	 * Erfasst Züge, die während der Simulation aus dem Fahrplan nachgeladen wurden.
+	 * 
+	 * @param anzahl
+	 * 		Die Anzahl der nachgeladenen Züge.
+	 */
+	void erfasseGeladeneZuege(final int anzahl) {
+		this.anzahlZuege += anzahl;
+	}
+	
+	/**
+	 * Erfasst die Einfahrt eines Zuges in die Simulation.
+	 * 
+	 * @param zug
+	 * 		Der Zug, der gerade eingefahren ist.
+	 * @param aktuelleZeit
+	 * 		Die Zeit, zu der der Zug eingefahren ist, in Sekundendarstellung.
+	 */
+	void erfasseEinfahrt(final Zug zug, final int aktuelleZeit) {
+		int verspaetung = Betriebsstatistik.getVerspaetungInMinuten(
+				zug.getAnkunftszeit(), aktuelleZeit);
+		this.anzahlEinfahrten++;
+		this.summeEinfahrverspaetung += verspaetung;
+		this.maxEinfahrverspaetung = Math.max(this.maxEinfahrverspaetung, verspaetung);
+	}
+	
+	/**
+	 * Erfasst die Abfahrt eines Zuges von einem Bahnsteig.
+	 * 
+	 * @param zug
+	 * 		Der Zug, der gerade abfährt.
+	 * @param bahnsteig
+	 * 		Die Betriebsstelle, von der der Zug abfährt.
+	 * @param aktuelleZeit
+	 * 		Die Zeit, zu der der Zug abfährt, in Sekundendarstellung.
+	 */
+	void erfasseAbfahrt(final Zug zug, final Betriebsstelle bahnsteig,
+			final int aktuelleZeit) {
+		int verspaetung = Betriebsstatistik.getVerspaetungInMinuten(
+				zug.getAbfahrtszeit(), aktuelleZeit);
+		this.anzahlAbfahrten++;
+		this.summeAbfahrtsverspaetung += verspaetung;
+		this.maxAbfahrtsverspaetung = Math.max(this.maxAbfahrtsverspaetung,
+				verspaetung);
+		Betriebsstatistik.erfasse(this.abfahrtsverspaetungenJeZug,
+				zug.getGattung() + " " + zug.getZugnummer(), verspaetung);
+		Betriebsstatistik.erfasse(this.abfahrtsverspaetungenJeBahnsteig,
+				bahnsteig.getNameFahrplan(), verspaetung);
+	}
+	
+	/**
+	 * Hängt eine Verspätung an die Liste an, die einem Schlüssel zugeordnet ist.
+	 * 
+	 * @param verspaetungen
+	 * 		Die Zuordnung, in der die Verspätung erfasst wird.
+	 * @param schluessel
+	 * 		Der Zug bzw. Bahnsteig, zu dem die Verspätung gehört.
+	 * @param verspaetung
+	 * 		Die Verspätung in Minuten.
+	 */
+	private static void erfasse(final HashMap<String, ArrayList<Integer>> verspaetungen,
+			final String schluessel, final int verspaetung) {
+		ArrayList<Integer> liste = verspaetungen.get(schluessel);
+		if (liste == null) {
+			liste = new ArrayList<Integer>();
+			verspaetungen.put(schluessel, liste);
+		}
+		liste.add(verspaetung);
+	}
+	
+	/**
+	 * Erfasst, dass ein Zug die Simulation vollständig durchfahren hat.
+	 */
+	void erfasseAusfahrt() {
+		this.anzahlAusfahrten++;
+	}
+	
+	/**
+	 * Berechnet die Verspätung gegenüber einer planmäßigen Zeit in vollen Minuten.
+	 * Verfrühungen werden als pünktlich gewertet.
+	 * 
+	 * @param plan
+	 * 		Die planmäßige Zeit in Sekundendarstellung.
+	 * @param ist
+	 * 		Die tatsächliche Zeit in Sekundendarstellung.
+	 */
+	private static int getVerspaetungInMinuten(final int plan, final int ist) {
+		int differenz = ist - plan;
+		if (differenz <= 0)
+			return 0;
+		return differenz / 60;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Züge zurück, die laut Fahrplan die Simulation durchfahren
+	 * sollen. Bei Fahrplanvorlauf sind dies die bisher geladenen Züge.
+	 */
+	public int getAnzahlZuege() {
+		return this.anzahlZuege;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Züge zurück, die bereits in die Simulation eingefahren sind.
+	 */
+	public int getAnzahlEinfahrten() {
+		return this.anzahlEinfahrten;
+	}
+	
+	/**
+	 * Gibt die durchschnittliche Einfahrverspätung in Minuten zurück.
+	 */
+	public double getDurchschnittlicheEinfahrverspaetung() {
+		if (this.anzahlEinfahrten == 0)
+			return 0;
+		return (double) this.summeEinfahrverspaetung / this.anzahlEinfahrten;
+	}
+	
+	/**
+	 * Gibt die größte Einfahrverspätung in Minuten zurück.
+	 */
+	public int getMaxEinfahrverspaetung() {
+		return this.maxEinfahrverspaetung;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Abfahrten an Bahnsteigen zurück.
+	 */
+	public int getAnzahlAbfahrten() {
+		return this.anzahlAbfahrten;
+	}
+	
+	/**
+	 * Gibt die durchschnittliche Abfahrtsverspätung an Bahnsteigen in Minuten zurück.
+	 */
+	public double getDurchschnittlicheAbfahrtsverspaetung() {
+		if (this.anzahlAbfahrten == 0)
+			return 0;
+		return (double) this.summeAbfahrtsverspaetung / this.anzahlAbfahrten;
+	}
+	
+	/**
+	 * Gibt die größte Abfahrtsverspätung an Bahnsteigen in Minuten zurück.
+	 */
+	public int getMaxAbfahrtsverspaetung() {
+		return this.maxAbfahrtsverspaetung;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Züge zurück, die die Simulation vollständig durchfahren
+	 * haben.
+	 */
+	public int getAnzahlAusfahrten() {
+		return this.anzahlAusfahrten;
+	}
+	
+	/**
+	 * Gibt die Abfahrtsverspätungen an Bahnsteigen in Minuten zurück, zugeordnet zur
+	 * Bezeichnung des abfahrenden Zuges.
+	 */
+	public HashMap<String, ArrayList<Integer>> getAbfahrtsverspaetungenJeZug() {
+		return this.abfahrtsverspaetungenJeZug;
+	}
+	
+	/**
+	 * Gibt die Abfahrtsverspätungen in Minuten zurück, zugeordnet zum Namen des
+	 * Bahnsteigs.
+	 */
+	public HashMap<String, ArrayList<Integer>> getAbfahrtsverspaetungenJeBahnsteig() {
+		return this.abfahrtsverspaetungenJeBahnsteig;
+	}
+}
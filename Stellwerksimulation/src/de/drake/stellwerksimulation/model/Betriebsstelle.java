@@ -1,306 +1,475 @@
-package de.drake.stellwerksimulation.model;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-import de.drake.stellwerksimulation.tools.NaturalOrderComparator;
-import de.drake.stellwerksimulation.tools.Richtung;
-
-/**
- * Eine Betriebsstelle beschreibt eine Betriebsstelle in der Simulation. Sie kann
- * ein Bahnhofsgleis oder ein bergabepunkt fr Zge sein. Die durch die
- * Betriebsstelle verlaufende Strecke ist durch Polymorphie in der Betriebsstelle
- * enthalten.
- */
-class Betriebsstelle extends BetriebsstelleFuerGUI {
-	
-	/**
-	 * Eine Liste aller Betriebsstellen der Simulation.
-	 */
-	private static ArrayList<Betriebsstelle> alleBetriebsstellen
-			= new ArrayList<Betriebsstelle>();
-	
-	/**
-	 * Gibt an, ob an dieser Betriebsstelle Fahrgastwechsel mglich ist.
-	 */
-	private boolean hatBahnsteig;
-	
-	/**
-	 * Eine Liste aller mglichen Fahrwege, die ein sich hier befindlicher Zug
-	 * nehmen kann.
-	 */
-	private ArrayList<Fahrweg> ausgehendeFahrwege = new ArrayList<Fahrweg>();
-	
-	/**
-	 * Eine Liste aller Fahrwege, die in diese Betriebsstelle mnden
-	 */
-	private ArrayList<Fahrweg> eingehendeFahrwege = new ArrayList<Fahrweg>();
-
-	/**
-	 * Alle Zge, die znftig hier in das simulierte Streckennetz einfahren werden
-	 */
-	private ConcurrentLinkedQueue<Zug> erwarteteZuege
-			= new ConcurrentLinkedQueue<Zug>();
-	
-	/**
-	 * Erzeugt eine neue Betriebsstelle.
-	 * 
-	 * @param nameNetz
-	 * 		Der Name der Betriebsstelle, wie er in der grafischen Darstellung des
-	 * 		Netzes auftauchen soll
-	 * @param nameFahrplan
-	 * 		Der Name der Betriebsstelle, wie er im Fahrplan auftauchen soll
-	 * @param hatBahnsteig
-	 * 		Gibt an, ob die Betriebsstelle fr Fahrgastwechsel geeignet ist oder nicht
-	 * @param positionX
-	 * 		Die Position der Betriebsstelle im Koordinatensystem (X-Koordinate)
-	 * @param positionY
-	 * 		Die Position der Betriebsstelle im Koordinatensystem (Y-Koordinate)
-	 * @param anschlussrichtungen
-	 * 		Die beiden Richtungen, ber die die Betriebsstelle erreicht werden kann.
-	 * @param positionZugnummerX
-	 * 		Die Position der Zugnummernanzeige in der GUI relativ zur Streckenmitte
-	 * 		(X-Koordinate).
-	 * @param positionZugnummerY
-	 * 		Die Position der Zugnummernanzeige in der GUI relativ zur Streckenmitte
-	 * 		(Y-Koordinate).
-	 * @param positionBahnhofsnameX
-	 * 		Die Position der Betriebsstellen-Namensanzeige in der GUI relativ zur
-	 * 		Position der Betriebsstelle (X-Koordinate).
-	 * @param positionBahnhofsnameY
-	 * 		Die Position der Betriebsstellen-Namensanzeige in der GUI relativ zur
-	 * 		Position der Betriebsstelle (Y-Koordinate).
-	 */
-	Betriebsstelle(final String nameNetz, final String nameFahrplan,
-			final boolean hatBahnsteig,
-			final int positionX, final int positionY,
-			final ArrayList<Richtung> anschlussrichtungen, final int positionZugnummerX,
-			final int positionZugnummerY, final int positionBahnhofsnameX,
-			final int positionBahnhofsnameY) {
-		super(nameNetz, nameFahrplan, positionX, positionY, anschlussrichtungen, positionZugnummerX,
-				positionZugnummerY, positionBahnhofsnameX, positionBahnhofsnameY);
-		this.hatBahnsteig = hatBahnsteig;
-		Betriebsstelle.alleBetriebsstellen.add(this);
-		Collections.sort(Betriebsstelle.alleBetriebsstellen,
-				new NaturalOrderComparator<Betriebsstelle>());
-	}
-
-	/**
-	 * Fgt der Betriebsstelle einen Fahrweg hinzu, der die Betriebsstelle
-	 * als Ausgangspunkt hat.
-	 */
-	void addAusgehendenFahrweg(final Fahrweg neuerFahrweg) {
-		this.ausgehendeFahrwege.add(neuerFahrweg);
-	}
-	
-	/**
-	 * Stellt einen einen Zug, der im Laufe des Tages an der entsprechenden
-	 * Betriebsstelle in die Simulation einfahren soll, in die Warteschlange.
-	 */
-	void addErwartetenZug(final Zug zug) {
-		this.erwarteteZuege.add(zug);
-	}
-
-	/**
-	 * Fertigt ausfahrbereite Zge im Gleis ab. Zudem werden hier neue Zge in
-	 * die Simulation hinzugefgt oder "fertige" Zge entfernt.
-	 */
-	void verarbeiteZuegeImGleis() {
-		this.entferneZuegeAusSimulation();
-		this.fertigeZuegeAb();
-		this.lasseNeueZuegeEintreffen();
-	}
-	
-	/**
-	 * Entfernt Zge, die die Simulation vollstndig durchfahren haben,
-	 * aus der Simulation.
-	 */
-	private void entferneZuegeAusSimulation() {
-		for (Zug zug : new ArrayList<Zug>(this.getZuegeImGleis())) {
-			if (zug.hatZielErreicht()) {
-				this.verarbeiteAbfahrendenZug(zug);
-				zug.verlasseSimulation();
-			}
-		}
-	}
-
-	/**
-	 * Fertigt die Zge im Gleis ab, d.h. bei ausfahrbereiten Zgen wird versucht,
-	 * einen Fahrweg einzustellen.
-	 */
-	private void fertigeZuegeAb() {
-		if (this.getZuegeImGleis().isEmpty())
-			return;
-		Zug zug;
-		for (Richtung richtung : this.getAnschlussrichtungen()) {
-			zug = this.getZuegeImGleis().peek(richtung);
-			if (!zug.wartet()) {
-				continue;
-			}
-			for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
-				if (fahrweg.istEingestellt()
-						&& fahrweg.getFahrtrichtung(this).equals(richtung)
-						&& fahrweg.kannBefahrenWerdenVonZug(zug)) {
-					fahrweg.befahreDurch(zug);
-					zug.setFahrweg(fahrweg);
-					break;
-				}
-			}
-		}
-	}
-	
-	/**
-	 * Lsst einen neuen Zug in die Simulation einfahren, sofern dessen Ankunftszeit
-	 * erreicht ist.
-	 */
-	private void lasseNeueZuegeEintreffen() {
-		if (this.istBefahren() || this.erwarteteZuege.isEmpty()
-				|| !this.erwarteteZuege.peek().getTatsaechlicheAnkunft()
-				   .istFrueherOderZeitgleichAls(
-				   Stellwerk.getInstance().getAktuelleZeit())) {
-			return;
-		}
-		Zug eintreffenderZug = this.erwarteteZuege.peek();
-		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
-			if (fahrweg.istEingestellt()
-					&& fahrweg.kannBefahrenWerdenVonZug(eintreffenderZug)) {
-				fahrweg.befahreDurch(eintreffenderZug);
-				eintreffenderZug.setFahrweg(fahrweg);
-				this.erwarteteZuege.poll();
-				break;
-			}
-		}
-	}
-	
-	/**
-	 * Verarbeitet die Auswirkungen eines Zuges, der in diese Betriebsstelle
-	 * einfhrt.
-	 * 
-	 * @param zug
-	 * 		Der Zug, der gerade ankommt.
-	 * @param ankunftsrichtung
-	 * 		Die Richtung, aus der der Zug ankommt.
-	 */
-	@Override
-	void verarbeiteAnkommendenZug(final Zug zug, final Richtung ankunftsrichtung) {
-		if (this.hatBahnsteig)
-			for (Zug fluegelzug : new ArrayList<Zug>(zug.getVereinigteZuege())) {
-				if (fluegelzug.fluegelt() && fluegelzug.fluegeltNachVorne())
-					fluegelzug.fluegle();
-			}
-		Zug vornedranStehenderZug = null;
-		if (!this.istFrei()) {
-			vornedranStehenderZug = this.getZuegeImGleis().peek(ankunftsrichtung);
-		}
-		super.verarbeiteAnkommendenZug(zug, ankunftsrichtung);
-		if (!this.hatBahnsteig || zug.faehrt()) {
-			zug.aktualisiereAbfahrtszeit(false);
-			return;
-		}
-		for (Zug fluegelzug : new ArrayList<Zug>(zug.getVereinigteZuege())) {
-			if (fluegelzug.fluegelt())
-				fluegelzug.fluegle();
-		}
-		zug.aktualisiereAbfahrtszeit(!zug.hatFahrgastwechselErledigt());
-		zug.wechsleGattungUndZugnummer();
-		zug.setFahrgastwechselErledigt();
-		for (Zug fluegelzug : zug.getVereinigteZuege()) {
-			fluegelzug.wechsleGattungUndZugnummer();
-			fluegelzug.setFahrgastwechselErledigt();
-		}
-		if (vornedranStehenderZug == null)
-			return;
-		if (zug.getVereinigungMit().contains(vornedranStehenderZug)) {
-			zug.vereinigeMit(vornedranStehenderZug);
-			vornedranStehenderZug.aktualisiereAbfahrtszeit(true);
-			return;
-		}
-		if (vornedranStehenderZug.getVereinigungMit().contains(zug)) {
-			vornedranStehenderZug.vereinigeMit(zug);
-			vornedranStehenderZug.aktualisiereAbfahrtszeit(true);
-		}
-	}
-	
-	/**
-	 * Gibt an, ob Fahrwege zu dieser Betriebsstelle bzw. von dieser Betriebsstelle
-	 * ausgehend eingestellt sind.
-	 * Wird fr strecke.verarbeiteAbfahrendenZug() verwendet.
-	 */
-	@Override
-	boolean hatEingestellteFahrwege() {
-		for (Fahrweg fahrweg : this.eingehendeFahrwege) {
-			if (fahrweg.istEingestellt() || fahrweg.istBefahren())
-				return true;
-		}
-		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
-			if (fahrweg.istEingestellt())
-				return true;
-		}
-	return false;
-	}
-	
-	/**
-	 * Gibt einen Fahrweg zurck, der von dieser Betriebsstelle ausgeht. Existiert
-	 * kein Fahrweg mit dem angegebenen Ziel, so wird null zurckgegeben.
-	 * 
-	 * @param ziel
-	 * 		Das Ende der gesuchten Betriebsstelle
-	 */
-	Fahrweg getAusgehendenFahrweg(final BetriebsstelleFuerGUI ziel) {
-		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
-			if (fahrweg.getEndeDesFahrweges().equals(ziel))
-				return fahrweg;
-		}
-		return null;
-	}
-	
-	/**
-	 * Gibt alle Fahrwege zurck, die in diese Betriebsstelle mnden.
-	 */
-	ArrayList<Fahrweg> getEingehendeFahrwege() {
-		return this.eingehendeFahrwege;
-	}
-	
-	/**
-	 * Hinterlegt einen eingehenden eingestellten Fahrweg.
-	 * 
-	 * @param fahrweg
-	 * 		Der Fahrweg, der in diese Betriebsstelle eingestellt wurde.
-	 */
-	void addEingehendenFahrweg(Fahrweg fahrweg) {
-		this.eingehendeFahrwege.add(fahrweg);
-	}
-	
-	/**
-	 * Gibt die Liste der Zge zurck, die hier ihre Fahrt beginnen werden.
-	 */
-	ConcurrentLinkedQueue<Zug> getErwarteteZuege() {
-		return this.erwarteteZuege;
-	}
-	
-	/**
-	 * Gibt eine Liste aller Betriebsstellen der Simulation zurck.
-	 */
-	static ArrayList<Betriebsstelle> getAlleBetriebsstellen() {
-		return Betriebsstelle.alleBetriebsstellen;
-	}
-	
-	/**
-	 * Gibt zurck, ob diese Betriebsstelle einen Bahnsteig fr Fahrgastwechsel besitzt.
-	 */
-	boolean hatBahnsteig() {
-		return this.hatBahnsteig;
-	}
-
-	/**
-	 * Gibt zurck, ob derzeit ein Zug unterwegs zu dieser Betriebsstelle ist.
-	 */
-	boolean hatEinfahrendenZug() {
-		for (Fahrweg fahrweg : this.getEingehendeFahrwege()) {
-			if (fahrweg.istBefahren())
-				return true;
-		}
-		return false;
-	}
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import de.drake.stellwerksimulation.tools.Richtung;
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Eine Betriebsstelle beschreibt eine Betriebsstelle in der Simulation. Sie kann
+ * ein Bahnhofsgleis oder ein Übergabepunkt für Züge sein. Die durch die
+ * Betriebsstelle verlaufende Strecke ist durch Polymorphie in der Betriebsstelle
+ * enthalten.
+ */
+class Betriebsstelle extends BetriebsstelleFuerGUI {
+	
+	/**
+	 * Gibt an, ob an dieser Betriebsstelle Fahrgastwechsel möglich ist.
+	 */
+	private boolean hatBahnsteig;
+	
+	/**
+	 * Eine Liste aller möglichen Fahrwege, die ein sich hier befindlicher Zug
+	 * nehmen kann.
+	 */
+	private ArrayList<Fahrweg> ausgehendeFahrwege = new ArrayList<Fahrweg>();
+	
+	/**
+	 * Eine Liste aller Fahrwege, die in diese Betriebsstelle münden
+	 */
+	private ArrayList<Fahrweg> eingehendeFahrwege = new ArrayList<Fahrweg>();
+
+	/**
+	 * Ordnet Züge nach ihrer tatsächlichen Ankunftszeit. Bei gleicher Ankunftszeit
+	 * entscheidet die Zugnummer, damit kein Zug in der Warteschlange verloren geht.
+	 */
+	private static final Comparator<Zug> ANKUNFTSREIHENFOLGE = new Comparator<Zug>() {
+		@Override
+		public int compare(final Zug zug1, final Zug zug2) {
+			int ergebnis = zug1.compareTo(zug2);
+			if (ergebnis != 0)
+				return ergebnis;
+			return Integer.compare(zug1.getZugnummer(), zug2.getZugnummer());
+		}
+	};
+	
+	/**
+	 * Ordnet Betriebsstellen in natürlicher Reihenfolge ihrer Fahrplannamen (d.h.
+	 * "Gleis 9" vor "Gleis 10").
+	 */
+	static final Comparator<Betriebsstelle> NAMENSREIHENFOLGE = new Comparator<Betriebsstelle>() {
+		@Override
+		public int compare(final Betriebsstelle betriebsstelle1,
+				final Betriebsstelle betriebsstelle2) {
+			return betriebsstelle1.getSortierschluessel().compareTo(
+					betriebsstelle2.getSortierschluessel());
+		}
+	};
+	
+	/**
+	 * Alle Züge, die zünftig hier in das simulierte Streckennetz einfahren werden,
+	 * sortiert nach ihrer tatsächlichen Ankunftszeit.
+	 */
+	private ConcurrentSkipListSet<Zug> erwarteteZuege
+			= new ConcurrentSkipListSet<Zug>(Betriebsstelle.ANKUNFTSREIHENFOLGE);
+	
+	/**
+	 * Gibt an, ob die Darstellung der Betriebsstelle nach der letzten Zugbewegung
+	 * von der Uhrzeit abhing, weil Züge im Gleis stehen oder demnächst erwartet
+	 * werden.
+	 */
+	private boolean zeitabhaengigeDarstellung = false;
+	
+	/**
+	 * Erzeugt eine neue Betriebsstelle.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, zu dem die Betriebsstelle gehört.
+	 * @param nameNetz
+	 * 		Der Name der Betriebsstelle, wie er in der grafischen Darstellung des
+	 * 		Netzes auftauchen soll
+	 * @param nameFahrplan
+	 * 		Der Name der Betriebsstelle, wie er im Fahrplan auftauchen soll
+	 * @param hatBahnsteig
+	 * 		Gibt an, ob die Betriebsstelle für Fahrgastwechsel geeignet ist oder nicht
+	 * @param positionX
+	 * 		Die Position der Betriebsstelle im Koordinatensystem (X-Koordinate)
+	 * @param positionY
+	 * 		Die Position der Betriebsstelle im Koordinatensystem (Y-Koordinate)
+	 * @param anschlussrichtungen
+	 * 		Die beiden Richtungen, über die die Betriebsstelle erreicht werden kann.
+	 * @param positionZugnummerX
+	 * 		Die Position der Zugnummernanzeige in der GUI relativ zur Streckenmitte
+	 * 		(X-Koordinate).
+	 * @param positionZugnummerY
+	 * 		Die Position der Zugnummernanzeige in der GUI relativ zur Streckenmitte
+	 * 		(Y-Koordinate).
+	 * @param positionBahnhofsnameX
+	 * 		Die Position der Betriebsstellen-Namensanzeige in der GUI relativ zur
+	 * 		Position der Betriebsstelle (X-Koordinate).
+	 * @param positionBahnhofsnameY
+	 * 		Die Position der Betriebsstellen-Namensanzeige in der GUI relativ zur
+	 * 		Position der Betriebsstelle (Y-Koordinate).
+	 */
+	Betriebsstelle(final Simulationskontext kontext,
+			final String nameNetz, final String nameFahrplan,
+			final boolean hatBahnsteig,
+			final int positionX, final int positionY,
+			final ArrayList<Richtung> anschlussrichtungen, final int positionZugnummerX,
+			final int positionZugnummerY, final int positionBahnhofsnameX,
+			final int positionBahnhofsnameY) {
+		super(kontext, nameNetz, nameFahrplan, positionX, positionY, anschlussrichtungen, positionZugnummerX,
+				positionZugnummerY, positionBahnhofsnameX, positionBahnhofsnameY);
+		this.hatBahnsteig = hatBahnsteig;
+		kontext.getAlleBetriebsstellen().add(this);
+	}
+
+	/**
+	 * Fügt der Betriebsstelle einen Fahrweg hinzu, der die Betriebsstelle
+	 * als Ausgangspunkt hat.
+	 */
+	void addAusgehendenFahrweg(final Fahrweg neuerFahrweg) {
+		this.ausgehendeFahrwege.add(neuerFahrweg);
+	}
+	
+	/**
+	 * Stellt einen einen Zug, der im Laufe des Tages an der entsprechenden
+	 * Betriebsstelle in die Simulation einfahren soll, in die Warteschlange.
+	 */
+	void addErwartetenZug(final Zug zug) {
+		this.erwarteteZuege.add(zug);
+		this.getKontext().meldeStreckenaenderung(this);
+	}
+	
+	/**
+	 * Entfernt einen Zug aus der Warteschlange der erwarteten Züge. Muss aufgerufen
+	 * werden, bevor sich die tatsächliche Ankunftszeit des Zuges ändert.
+	 * 
+	 * @return true, falls der Zug in der Warteschlange stand.
+	 */
+	boolean entferneErwartetenZug(final Zug zug) {
+		if (!this.erwarteteZuege.remove(zug))
+			return false;
+		this.getKontext().meldeStreckenaenderung(this);
+		return true;
+	}
+
+	/**
+	 * Fertigt ausfahrbereite Züge im Gleis ab. Zudem werden hier neue Züge in
+	 * die Simulation hinzugefügt oder "fertige" Züge entfernt.
+	 */
+	void verarbeiteZuegeImGleis() {
+		this.entferneZuegeAusSimulation();
+		this.fertigeZuegeAb();
+		this.lasseNeueZuegeEintreffen();
+		this.meldeZeitabhaengigeDarstellung();
+	}
+	
+	/**
+	 * Meldet die Betriebsstelle als geändert, solange ihre Darstellung von der
+	 * Uhrzeit abhängt: Der Status stehender Züge und die Anzeige erwarteter und
+	 * wartender Züge ändern sich auch ohne Zugbewegung.
+	 */
+	private void meldeZeitabhaengigeDarstellung() {
+		if (!this.getKontext().hatStreckenbeobachter())
+			return;
+		boolean zeitabhaengig = this.istBefahren() || this.zuegeErwartet()
+				|| !this.erwarteteZuege.isEmpty() && this.erwarteteZuege.first().wartet();
+		if (zeitabhaengig || this.zeitabhaengigeDarstellung)
+			this.getKontext().meldeStreckenaenderung(this);
+		this.zeitabhaengigeDarstellung = zeitabhaengig;
+	}
+	
+	/**
+	 * Entfernt Züge, die die Simulation vollständig durchfahren haben,
+	 * aus der Simulation.
+	 */
+	private void entferneZuegeAusSimulation() {
+		for (Zug zug : new ArrayList<Zug>(this.getZuegeImGleis())) {
+			if (zug.hatZielErreicht()) {
+				this.verarbeiteAbfahrendenZug(zug);
+				zug.verlasseSimulation();
+				this.getKontext().getStellwerk().getStatistik().erfasseAusfahrt();
+			}
+		}
+	}
+
+	/**
+	 * Fertigt die Züge im Gleis ab, d.h. bei ausfahrbereiten Zügen wird versucht,
+	 * einen Fahrweg einzustellen.
+	 */
+	private void fertigeZuegeAb() {
+		if (this.getZuegeImGleis().isEmpty())
+			return;
+		Zug zug;
+		for (Richtung richtung : this.getAnschlussrichtungen()) {
+			zug = this.getZuegeImGleis().peek(richtung);
+			if (!zug.wartet()) {
+				continue;
+			}
+			for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+				if (fahrweg.istEingestellt()
+						&& fahrweg.getFahrtrichtung(this).equals(richtung)
+						&& fahrweg.kannBefahrenWerdenVonZug(zug)) {
+					fahrweg.befahreDurch(zug);
+					zug.setFahrweg(fahrweg);
+					if (this.hatBahnsteig && zug.getAbfahrtszeit() != Zeit.KEINE_ZEIT) {
+						int aktuelleZeit =
+								this.getKontext().getStellwerk().getAktuelleZeitInSekunden();
+						zug.erfasseAbfahrt(this, aktuelleZeit);
+						this.getKontext().getStellwerk().getStatistik().erfasseAbfahrt(
+								zug, this, aktuelleZeit);
+					}
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Stellt für die abfahrbereiten Züge im Gleis sowie für den nächsten hier
+	 * einfahrenden Zug selbsttätig einen Fahrweg ein, sofern einer einstellbar ist.
+	 * Eingestellte Fahrwege, die keiner dieser Züge mehr befahren kann, werden
+	 * aufgelöst, damit sie nicht die Ausfahrt anderer Züge blockieren.
+	 */
+	void stelleFahrwegeAutomatischEin() {
+		ArrayList<Zug> wartendeZuege = new ArrayList<Zug>(3);
+		ArrayList<Richtung> abfahrtsrichtungen = new ArrayList<Richtung>(3);
+		if (!this.getZuegeImGleis().isEmpty()) {
+			Zug zug;
+			for (Richtung richtung : this.getAnschlussrichtungen()) {
+				zug = this.getZuegeImGleis().peek(richtung);
+				if (zug.wartet()) {
+					wartendeZuege.add(zug);
+					abfahrtsrichtungen.add(richtung);
+				}
+			}
+		}
+		if (!this.istBefahren() && !this.erwarteteZuege.isEmpty()
+				&& this.erwarteteZuege.first().getTatsaechlicheAnkunft()
+				   <= this.getKontext().getStellwerk().getAktuelleZeitInSekunden()) {
+			wartendeZuege.add(this.erwarteteZuege.first());
+			abfahrtsrichtungen.add(null);
+		}
+		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+			if (!fahrweg.istEingestellt())
+				continue;
+			boolean wirdBenoetigt = false;
+			for (int i = 0; i < wartendeZuege.size(); i++) {
+				if ((abfahrtsrichtungen.get(i) == null || fahrweg.getFahrtrichtung(this)
+						.equals(abfahrtsrichtungen.get(i)))
+						&& fahrweg.kannBefahrenWerdenVonZug(wartendeZuege.get(i)))
+					wirdBenoetigt = true;
+			}
+			if (!wirdBenoetigt)
+				fahrweg.loeseAuf();
+		}
+		for (int i = 0; i < wartendeZuege.size(); i++)
+			this.stelleFahrwegEinFuer(wartendeZuege.get(i), abfahrtsrichtungen.get(i));
+	}
+	
+	/**
+	 * Stellt für einen Zug einen passenden ausgehenden Fahrweg ein, sofern nicht
+	 * bereits ein passender Fahrweg eingestellt ist. Bevorzugt werden Fahrwege, die
+	 * direkt zum planmäßigen Gleis bzw. zum Ziel des Zuges führen. Ist keiner davon
+	 * einstellbar, so wird ersatzweise ein anderes Bahnsteiggleis angefahren. Fahrwege
+	 * zu sonstigen Betriebsstellen sowie zu Bahnsteigen, in die bereits ein anderer
+	 * Fahrweg eingestellt ist, werden nicht eingestellt.
+	 * 
+	 * @param zug
+	 * 		Der Zug, der einen Fahrweg benötigt.
+	 * @param richtung
+	 * 		Die Richtung, in die der Zug abfahren muss, oder null, falls der Zug
+	 * 		erst in die Simulation einfährt.
+	 */
+	private void stelleFahrwegEinFuer(final Zug zug, final Richtung richtung) {
+		Fahrweg direkterFahrweg = null;
+		Fahrweg ersatzweg = null;
+		Betriebsstelle ende;
+		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+			if (richtung != null && !fahrweg.getFahrtrichtung(this).equals(richtung))
+				continue;
+			if (!fahrweg.kannBefahrenWerdenVonZug(zug))
+				continue;
+			ende = fahrweg.getEndeDesFahrweges();
+			boolean direkt, ersatz;
+			if (zug.rangiert() || !zug.hatFahrgastwechselErledigt()) {
+				direkt = ende.equals(zug.getViaGleis());
+				ersatz = ende.hatBahnsteig();
+			} else {
+				direkt = zug.getZielBetriebsstellen().contains(ende);
+				ersatz = false;
+			}
+			if (!direkt && !ersatz)
+				continue;
+			if (fahrweg.istEingestellt())
+				return;
+			if (!fahrweg.istEinstellbar() || ende.hatBahnsteig()
+					&& ende.hatEingestellteEingehendeFahrwege())
+				continue;
+			if (direkt && direkterFahrweg == null)
+				direkterFahrweg = fahrweg;
+			if (ersatz && ersatzweg == null)
+				ersatzweg = fahrweg;
+		}
+		if (direkterFahrweg != null) {
+			direkterFahrweg.stelleEin();
+		} else if (ersatzweg != null) {
+			ersatzweg.stelleEin();
+		}
+	}
+	
+	/**
+	 * Gibt an, ob derzeit ein Fahrweg in diese Betriebsstelle eingestellt ist.
+	 */
+	private boolean hatEingestellteEingehendeFahrwege() {
+		for (Fahrweg fahrweg : this.eingehendeFahrwege) {
+			if (fahrweg.istEingestellt())
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Lässt einen neuen Zug in die Simulation einfahren, sofern dessen Ankunftszeit
+	 * erreicht ist.
+	 */
+	private void lasseNeueZuegeEintreffen() {
+		if (this.istBefahren() || this.erwarteteZuege.isEmpty()
+				|| this.erwarteteZuege.first().getTatsaechlicheAnkunft()
+				   > this.getKontext().getStellwerk().getAktuelleZeitInSekunden()) {
+			return;
+		}
+		Zug eintreffenderZug = this.erwarteteZuege.first();
+		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+			if (fahrweg.istEingestellt()
+					&& fahrweg.kannBefahrenWerdenVonZug(eintreffenderZug)) {
+				fahrweg.befahreDurch(eintreffenderZug);
+				eintreffenderZug.setFahrweg(fahrweg);
+				this.entferneErwartetenZug(eintreffenderZug);
+				int aktuelleZeit =
+						this.getKontext().getStellwerk().getAktuelleZeitInSekunden();
+				eintreffenderZug.erfasseEinfahrt(aktuelleZeit);
+				this.getKontext().getStellwerk().getStatistik().erfasseEinfahrt(
+						eintreffenderZug, aktuelleZeit);
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Verarbeitet die Auswirkungen eines Zuges, der in diese Betriebsstelle
+	 * einfährt.
+	 * 
+	 * @param zug
+	 * 		Der Zug, der gerade ankommt.
+	 * @param ankunftsrichtung
+	 * 		Die Richtung, aus der der Zug ankommt.
+	 */
+	@Override
+	void verarbeiteAnkommendenZug(final Zug zug, final Richtung ankunftsrichtung) {
+		if (this.hatBahnsteig)
+			for (Zug fluegelzug : new ArrayList<Zug>(zug.getVereinigteZuege())) {
+				if (fluegelzug.fluegelt() && fluegelzug.fluegeltNachVorne())
+					fluegelzug.fluegle();
+			}
+		Zug vornedranStehenderZug = null;
+		if (!this.istFrei()) {
+			vornedranStehenderZug = this.getZuegeImGleis().peek(ankunftsrichtung);
+		}
+		super.verarbeiteAnkommendenZug(zug, ankunftsrichtung);
+		if (!this.hatBahnsteig || zug.faehrt()) {
+			zug.aktualisiereAbfahrtszeit(false);
+			return;
+		}
+		for (Zug fluegelzug : new ArrayList<Zug>(zug.getVereinigteZuege())) {
+			if (fluegelzug.fluegelt())
+				fluegelzug.fluegle();
+		}
+		zug.aktualisiereAbfahrtszeit(!zug.hatFahrgastwechselErledigt());
+		zug.wechsleGattungUndZugnummer();
+		zug.setFahrgastwechselErledigt();
+		for (Zug fluegelzug : zug.getVereinigteZuege()) {
+			fluegelzug.wechsleGattungUndZugnummer();
+			fluegelzug.setFahrgastwechselErledigt();
+		}
+		if (vornedranStehenderZug == null)
+			return;
+		if (zug.getVereinigungMit().contains(vornedranStehenderZug)) {
+			zug.vereinigeMit(vornedranStehenderZug);
+			vornedranStehenderZug.aktualisiereAbfahrtszeit(true);
+			return;
+		}
+		if (vornedranStehenderZug.getVereinigungMit().contains(zug)) {
+			vornedranStehenderZug.vereinigeMit(zug);
+			vornedranStehenderZug.aktualisiereAbfahrtszeit(true);
+		}
+	}
+	
+	/**
+	 * Gibt an, ob Fahrwege zu dieser Betriebsstelle bzw. von dieser Betriebsstelle
+	 * ausgehend eingestellt sind.
+	 * Wird für strecke.verarbeiteAbfahrendenZug() verwendet.
+	 */
+	@Override
+	boolean hatEingestellteFahrwege() {
+		for (Fahrweg fahrweg : this.eingehendeFahrwege) {
+			if (fahrweg.istEingestellt() || fahrweg.istBefahren())
+				return true;
+		}
+		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+			if (fahrweg.istEingestellt())
+				return true;
+		}
+	return false;
+	}
+	
+	/**
+	 * Gibt einen Fahrweg zurück, der von dieser Betriebsstelle ausgeht. Existiert
+	 * kein Fahrweg mit dem angegebenen Ziel, so wird null zurückgegeben.
+	 * 
+	 * @param ziel
+	 * 		Das Ende der gesuchten Betriebsstelle
+	 */
+	Fahrweg getAusgehendenFahrweg(final BetriebsstelleFuerGUI ziel) {
+		for (Fahrweg fahrweg : this.ausgehendeFahrwege) {
+			if (fahrweg.getEndeDesFahrweges().equals(ziel))
+				return fahrweg;
+		}
+		return null;
+	}
+	
+	/**
+	 * Gibt alle Fahrwege zurück, die in diese Betriebsstelle münden.
+	 */
+	ArrayList<Fahrweg> getEingehendeFahrwege() {
+		return this.eingehendeFahrwege;
+	}
+	
+	/**
+	 * Hinterlegt einen eingehenden eingestellten Fahrweg.
+	 * 
+	 * @param fahrweg
+	 * 		Der Fahrweg, der in diese Betriebsstelle eingestellt wurde.
+	 */
+	void addEingehendenFahrweg(Fahrweg fahrweg) {
+		this.eingehendeFahrwege.add(fahrweg);
+	}
+	
+	/**
+	 * Gibt die Liste der Züge zurück, die hier ihre Fahrt beginnen werden.
+	 */
+	ConcurrentSkipListSet<Zug> getErwarteteZuege() {
+		return this.erwarteteZuege;
+	}
+	
+	/**
+	 * Gibt zurück, ob diese Betriebsstelle einen Bahnsteig für Fahrgastwechsel besitzt.
+	 */
+	boolean hatBahnsteig() {
+		return this.hatBahnsteig;
+	}
+
+	/**
+	 * Gibt zurück, ob derzeit ein Zug unterwegs zu dieser Betriebsstelle ist.
+	 */
+	boolean hatEinfahrendenZug() {
+		for (Fahrweg fahrweg : this.getEingehendeFahrwege()) {
+			if (fahrweg.istBefahren())
+				return true;
+		}
+		return false;
+	}
 }
\ No newline at end of file
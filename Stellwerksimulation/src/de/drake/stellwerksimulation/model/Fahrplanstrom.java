@@ -0,0 +1,119 @@
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+
+import de.drake.stellwerksimulation.tools.CsvLeser;
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Ein Fahrplanstrom liest den Fahrplan schrittweise während der Simulation, so dass
+ * auch mehrtägige Fahrpläne nur so viel Speicher belegen, wie Züge gleichzeitig
+ * aktiv sind. Ein Zug wird erst geladen, wenn seine Ankunft innerhalb des
+ * Fahrplanvorlaufs liegt. Die Fahrplan.csv muss dazu nach Ankunftszeit sortiert sein.
+ *
+ * Verweise auf andere Zugnummern (Kupplung, Vereinigung, selbes Gleis) werden wie
+ * bisher erst bei Bedarf über die Zugnummer aufgelöst. Angekoppelte Züge, deren
+ * Stammzug noch nicht geladen ist, werden mit diesem verknüpft, sobald er geladen
+ * wird.
+ */
+class Fahrplanstrom {
+
+	/**
+	 * Der Simulationskontext, in den die Züge geladen werden.
+	 */
+	private final Simulationskontext kontext;
+
+	/**
+	 * Der Leser der Fahrplan.csv.
+	 */
+	private final CsvLeser leser;
+
+	/**
+	 * Der Fahrplanvorlauf in Sekunden.
+	 */
+	private final int vorlauf;
+
+	/**
+	 * Der nächste bereits gelesene, aber noch nicht geladene Zug oder null, falls der
+	 * Fahrplan vollständig geladen ist.
+	 */
+	private Zug naechsterZug;
+
+	/**
+	 * Die geladenen angekoppelten Züge, deren Stammzug noch nicht geladen ist.
+	 */
+	private ArrayList<Zug> fluegelzuegeOhneStammzug = new ArrayList<Zug>();
+
+	/**
+	 * Öffnet den Fahrplan eines Simulationskontexts und liest den ersten Zug.
+	 *
+	 * @param kontext
+	 * 		Der Simulationskontext, in den die Züge geladen werden.
+	 * @param vorlauf
+	 * 		Der Fahrplanvorlauf in Sekunden.
+	 */
+	Fahrplanstrom(final Simulationskontext kontext, final int vorlauf) {
+		this.kontext = kontext;
+		this.vorlauf = vorlauf;
+		this.leser = new CsvLeser(kontext.getDatenverzeichnis() + "Fahrplan.csv");
+		this.leser.naechsteZeile();
+		this.naechsterZug = Importer.importiereZug(kontext, this.leser);
+	}
+
+	/**
+	 * Lädt alle Züge, deren Ankunft innerhalb des Fahrplanvorlaufs liegt, und meldet
+	 * sie im Simulationskontext an. Angekoppelte Züge werden mit ihrem Stammzug
+	 * verknüpft.
+	 *
+	 * @param aktuelleZeit
+	 * 		Die aktuelle Zeit der Simulation in Sekundendarstellung.
+	 *
+	 * @return die neu geladenen, eigenständig fahrenden Züge.
+	 */
+	ArrayList<Zug> ladeFaelligeZuege(final int aktuelleZeit) {
+		ArrayList<Zug> neueZuege = new ArrayList<Zug>();
+		boolean neueFluegelzuege = false;
+		while (this.naechsterZug != null
+				&& this.naechsterZug.getAnkunftszeit() <= aktuelleZeit + this.vorlauf) {
+			Zug zug = this.naechsterZug;
+			zug.nimmInSimulationAuf();
+			if (zug.getHaengtAnZugnummer() == 0) {
+				neueZuege.add(zug);
+			} else {
+				this.fluegelzuegeOhneStammzug.add(zug);
+				neueFluegelzuege = true;
+			}
+			this.naechsterZug = Importer.importiereZug(this.kontext, this.leser);
+			if (this.naechsterZug != null
+					&& this.naechsterZug.getAnkunftszeit() < zug.getAnkunftszeit())
+				throw this.leser.fehler("Die Fahrplan.csv muss bei Fahrplanvorlauf "
+						+ "nach Ankunftszeit sortiert sein");
+		}
+		if (neueFluegelzuege || (!neueZuege.isEmpty()
+				&& !this.fluegelzuegeOhneStammzug.isEmpty()))
+			this.fluegelzuegeOhneStammzug = Zug.erzeugeZugvereinigungen(this.kontext,
+					this.fluegelzuegeOhneStammzug);
+		return neueZuege;
+	}
+
+	/**
+	 * Gibt die planmäßige Ankunft des nächsten noch nicht geladenen Zuges zurück bzw.
+	 * Integer.MAX_VALUE, falls der Fahrplan vollständig geladen ist. Kein später
+	 * geladener Zug kommt vor diesem Zeitpunkt an.
+	 */
+	int getLadehorizont() {
+		if (this.naechsterZug == null)
+			return Integer.MAX_VALUE;
+		return this.naechsterZug.getAnkunftszeit();
+	}
+
+	/**
+	 * Gibt den Zeitpunkt zurück, zu dem der nächste Zug geladen werden muss, bzw.
+	 * Zeit.KEINE_ZEIT, falls der Fahrplan vollständig geladen ist.
+	 */
+	int getNaechsteLadezeit() {
+		if (this.naechsterZug == null)
+			return Zeit.KEINE_ZEIT;
+		return this.naechsterZug.getAnkunftszeit() - this.vorlauf;
+	}
+}
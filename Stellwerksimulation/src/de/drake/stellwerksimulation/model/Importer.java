@@ -1,439 +1,477 @@
-package de.drake.stellwerksimulation.model;
-
-import java.io.FileReader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Scanner;
-
-import de.drake.stellwerksimulation.controller.Controller;
-import de.drake.stellwerksimulation.tools.Richtung;
-import de.drake.stellwerksimulation.tools.Zeit;
-import de.drake.stellwerksimulation.view.GUI;
-
-/**
- * Der Importer liest die Konfigurationsdateien aus und initialisiert die
- * einzelnen Objekte des Models.
- */
-public class Importer {
-	
-	/**
-	 * Eine Zuordnung Streckenname auf Streckenobjekt, um auf Strecken ber ihre
-	 * ID zugreifen zu knnen (ID=die Bezeichnung, die in der Fahrwege.csv 
-	 * bzw. Fahrplan.csv verwendet wird. Muss eindeutig sein!).
-	 */
-	private static HashMap<String, Strecke> id2strecke
-			= new HashMap<String, Strecke>();
-	
-	/**
-	 * Liest die Konfigurationsparameter aus der Datei "Konfig.csv" aus und bergibt
-	 * sie Controller, Stellwerk und GUI. Hierbei werden Stellwerk und GUI entsprechend
-	 * den Parametern initialisiert.
-	 */
-	public static void importiereKonfig() {
-		Scanner scanner, zeilenscanner;
-		try {
-			FileReader filereader = new FileReader("Data/Konfig.csv");
-			scanner = new Scanner(filereader);
-		} catch (Exception e) {
-			throw new Error("Fehlende Datei: Data\\Konfig.csv");
-		}
-		scanner.nextLine();
-		String attribut;
-		String bahnhofsname = "Bitte Bahnhofsnamen in Konfig.csv angeben!";
-		Zeit startzeit = null;
-		int verspaetungsanteil = 0;
-		int verspaetungMax = 0;
-		int geschwindigkeit = 30;
-		int sekundenProZugbewegung = 15;
-		int streckenbreite = 10;
-		int betriebsstellenbreite = 30;
-		int brueckenbreiteOben = 4;
-		int brueckenbreiteUnten = 14;
-		int schriftgroesseNetz = 16;
-		while (scanner.hasNext()) {
-			zeilenscanner = new Scanner(scanner.nextLine());
-			zeilenscanner.useDelimiter(";");
-			attribut = zeilenscanner.next();
-
-			if (attribut.equals("Bahnhofsname")) {
-				bahnhofsname = zeilenscanner.next();
-				continue;
-			}
-			if (attribut.equals("Startzeit")) {
-				startzeit = new Zeit(zeilenscanner.next());
-				continue;
-			}
-			if (attribut.equals("Anteil verspteter Zge (%)")) {
-				verspaetungsanteil = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Maximale Versptung (min)")) {
-				verspaetungMax = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals(
-					"Startgeschwindigkeit (Aktionen pro Echtzeit-Minute)")) {
-				geschwindigkeit = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Sekunden pro Zugbewegung")) {
-				sekundenProZugbewegung = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Streckenbreite (Pixel)")) {
-				streckenbreite = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Betriebsstellenbreite (Pixel)")) {
-				betriebsstellenbreite = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Brckenbreite oben (Pixel)")) {
-				brueckenbreiteOben = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Brckenbreite unten (Pixel)")) {
-				brueckenbreiteUnten = zeilenscanner.nextInt();
-				continue;
-			}
-			if (attribut.equals("Schriftgre Netz")) {
-				schriftgroesseNetz = zeilenscanner.nextInt();
-				continue;
-			}
-		}
-		scanner.close();
-		Controller.getInstance().setGeschwindigkeit(geschwindigkeit);
-		Stellwerk.createInstance(bahnhofsname, startzeit, verspaetungsanteil,
-				verspaetungMax, sekundenProZugbewegung);
-		GUI.createInstance(streckenbreite, betriebsstellenbreite, brueckenbreiteOben,
-				brueckenbreiteUnten, schriftgroesseNetz);
-	}
-	
-	/**
-	 * Liest die Strecken aus der externen Datei Strecken.csv aus und speichert sie.
-	 */
-	static void importiereStreckennetz() {
-		Scanner scanner, zeilenscanner, detailscanner;
-		try {
-			FileReader filereader = new FileReader("Data/Strecken.csv");
-			scanner = new Scanner(filereader);
-		} catch (Exception e) {
-			throw new Error("Fehlende Datei: Data\\Strecken.csv");
-		}
-		scanner.nextLine();
-		String id, nameNetz, nameFahrplan, bruecke;
-		boolean hatBahnsteig;
-		Boolean istBrueckeOben;
-		Richtung anschlussrichtung;
-		ArrayList<Richtung> anschlussrichtungen;
-		int positionX, positionY, positionZugX, positionZugY,
-				positionNameX, positionNameY;
-		while (scanner.hasNext()) {
-			zeilenscanner = new Scanner(scanner.nextLine());
-			zeilenscanner.useDelimiter(";");
-			id = zeilenscanner.next();
-			positionX = zeilenscanner.nextInt();
-			positionY = zeilenscanner.nextInt();
-			detailscanner = new Scanner(zeilenscanner.next());
-			detailscanner.useDelimiter("/");
-			anschlussrichtungen = new ArrayList<Richtung>(8);
-			while(detailscanner.hasNext()) {
-				anschlussrichtung = Richtung.getRichtung(detailscanner.next());
-				if (anschlussrichtung == null) {
-					scanner.close();
-					zeilenscanner.close();
-					detailscanner.close();
-					throw new Error("Ungltige Richtungsangabe bei Strecke " + id);
-				}
-				anschlussrichtungen.add(anschlussrichtung);
-			}
-			positionZugX = zeilenscanner.nextInt();
-			positionZugY = zeilenscanner.nextInt();
-			bruecke = zeilenscanner.next();
-			istBrueckeOben = null;
-			if (bruecke.equals("oben"))
-				istBrueckeOben = true;
-			else if (bruecke.equals("unten"))
-				istBrueckeOben = false;
-			if (!zeilenscanner.hasNext() || !zeilenscanner.next().equals("x")) {
-				Importer.id2strecke.put(id, new Strecke(
-						positionX, positionY, anschlussrichtungen,
-						istBrueckeOben, positionZugX, positionZugY));
-				continue;
-			}
-			hatBahnsteig = false;
-			if (zeilenscanner.next().equals("x"))
-				hatBahnsteig = true;
-			nameFahrplan = zeilenscanner.next();
-			nameNetz = zeilenscanner.next();
-			positionNameX = zeilenscanner.nextInt();
-			positionNameY = zeilenscanner.nextInt();
-			Importer.id2strecke.put(id, new Betriebsstelle(
-					nameNetz, nameFahrplan, hatBahnsteig,
-					positionX, positionY, anschlussrichtungen,
-					positionZugX, positionZugY, positionNameX, positionNameY));
-		}
-		scanner.close();
-	}
-	
-	/**
-	 * Liest die Fahrwege aus der externen Datei Fahrwege.csv aus und speichert sie.
-	 */
-	static void importiereFahrwege() {
-		Scanner scanner, trassenscanner, streckenscanner;
-		try {
-			FileReader filereader = new FileReader("Data/Fahrwege.csv");
-			scanner = new Scanner(filereader);
-		} catch (Exception e) {
-			throw new Error("Fehlende Datei: Data\\Strecken.csv");
-		}
-		ArrayList<Strecke> durchfahreneStrecken;
-		HashMap<Strecke, Richtung> fahrtrichtungen;
-		ArrayList<Betriebsstelle> alleFahrziele = new ArrayList<Betriebsstelle>();
-		ArrayList<Betriebsstelle> moeglicheFahrziele;
-		HashMap<Betriebsstelle, Boolean> fahrzielFuehrtUeberBahnhof;
-		String name;
-		Strecke strecke;
-		Fahrweg neuerFahrweg = null;
-		Richtung letzteFahrtrichtung = null;
-		Betriebsstelle start, ziel;
-		Scanner ueberschriftenscanner = new Scanner(scanner.nextLine());
-		ueberschriftenscanner.useDelimiter(";");
-		while (ueberschriftenscanner.hasNext()) {
-			name = ueberschriftenscanner.next();
-			if (name.equals("Laufweg"))
-				break;
-			alleFahrziele.add(Importer.getBetriebsstelle(name));
-			if (Importer.getStrecke(name) == null) {
-				ueberschriftenscanner.close();
-				scanner.close();
-				throw new Error("Ungltiges Fahrziel in Fahrwegen: " + name);
-			}
-		}
-		ueberschriftenscanner.close();
-		while (scanner.hasNext()) {
-			// "%" voranstellen, da der Scanner sonst nicht mit einem leeren Feld am
-			// Anfang klarkommt
-			trassenscanner = new Scanner("%" + scanner.nextLine());
-			if (!trassenscanner.hasNext())
-				continue;
-			moeglicheFahrziele = new ArrayList<Betriebsstelle>();
-			fahrzielFuehrtUeberBahnhof = new HashMap<Betriebsstelle, Boolean>();
-			durchfahreneStrecken = new ArrayList<Strecke>();
-			fahrtrichtungen = new HashMap<Strecke, Richtung>();
-			trassenscanner.useDelimiter(";");
-			for (int fahrziel = 0; fahrziel < alleFahrziele.size(); fahrziel++) {
-				name = trassenscanner.next();
-				if (name.equals("b") || name.equals("%b")) {
-					moeglicheFahrziele.add(alleFahrziele.get(fahrziel));
-					fahrzielFuehrtUeberBahnhof.put(alleFahrziele.get(fahrziel), true);
-				} else if (name.equals("x") || name.equals("%x")) {
-					moeglicheFahrziele.add(alleFahrziele.get(fahrziel));
-					fahrzielFuehrtUeberBahnhof.put(alleFahrziele.get(fahrziel), false);
-				} else if (!name.equals("") && !name.equals("%")) {
-					scanner.close();
-					trassenscanner.close();
-					throw new Error("Unzulssiger Eintrag in Fahrwegen. Es sind nur x " +
-							"und b erlaubt!");
-				}
-			}
-			while (trassenscanner.hasNext()) {
-				streckenscanner = new Scanner(trassenscanner.next());
-				streckenscanner.useDelimiter("\\$");
-				if (!streckenscanner.hasNext())
-					break;
-				name = streckenscanner.next();
-				if (name.startsWith("%"))
-					name = name.replace("%", "");
-				strecke = Importer.getStrecke(name);
-				if (strecke == null) {
-					scanner.close();
-					streckenscanner.close();
-					trassenscanner.close();
-					throw new Error("Ungltige Strecke in Fahrwegen: " + name);
-				}
-				durchfahreneStrecken.add(strecke);
-				if (durchfahreneStrecken.size() == 1 && !streckenscanner.hasNext()) {
-					scanner.close();
-					streckenscanner.close();
-					trassenscanner.close();
-					throw new Error ("Richtungsangabe am Startbahnhof "
-							+ name + " fehlt!");
-				}
-				if (streckenscanner.hasNext()) {
-					letzteFahrtrichtung = Richtung.getRichtung(streckenscanner.next());
-					fahrtrichtungen.put(strecke, letzteFahrtrichtung);
-					continue;
-				}
-				for (Richtung richtung : strecke.getAnschlussrichtungen()) {
-					if (!richtung.equals(letzteFahrtrichtung.getGegenrichtung())) {
-						letzteFahrtrichtung = richtung;
-						break;
-					}
-				}
-				fahrtrichtungen.put(strecke, letzteFahrtrichtung);
-			}
-			neuerFahrweg = new Fahrweg(durchfahreneStrecken, fahrtrichtungen,
-					moeglicheFahrziele, fahrzielFuehrtUeberBahnhof);
-			start = (Betriebsstelle)
-					durchfahreneStrecken.get(0);
-			ziel = (Betriebsstelle)
-					durchfahreneStrecken.get(durchfahreneStrecken.size()-1);
-			start.addAusgehendenFahrweg(neuerFahrweg);
-			ziel.addEingehendenFahrweg(neuerFahrweg);
-		}
-		scanner.close();
-	}
-	
-	/**
-	 * Liest den Fahrplan (also die Zge) aus der externen Datei
-	 * Fahrplan.csv aus und speichert die Zge ab.
-	 */
-	static void importiereFahrplan() {
-		Scanner scanner, zugscanner, detailscanner;
-		try {
-			FileReader filereader = new FileReader("Data/Fahrplan.csv");
-			scanner = new Scanner(filereader);
-		} catch (Exception e) {
-			throw new Error("Fehlende Datei: Data\\Fahrplan.csv");
-		}
-		scanner.nextLine();
-		int zugnummer, haengtAnZugnummer, zugnummerNeu, minimalerAufenthalt;
-		boolean fluegelt, fluegeltNachVorne;
-		ArrayList<Integer> zuegeSelbesGleis, vereinigungMit;
-		String gattung, vonBahnhof, vonStreckeString, nachBahnhof, nachStreckeString,
-				viaString, gattungNeu, fluegelrichtung;
-		Richtung ausRichtung;
-		Betriebsstelle vonStrecke, nachStrecke, viaGleis;
-		Zeit ankunft, abfahrt, rangiertUm;
-		while (scanner.hasNext()) {
-			zugscanner = new Scanner(scanner.nextLine());
-			zugscanner.useDelimiter(";");
-			gattung = zugscanner.next();
-			zugnummer = zugscanner.nextInt();
-			detailscanner = new Scanner(zugscanner.next());
-			detailscanner.useDelimiter("\\$");
-			haengtAnZugnummer = 0;
-			fluegelt = false;
-			fluegeltNachVorne = false;
-			if (detailscanner.hasNext()) {
-				haengtAnZugnummer = detailscanner.nextInt();
-				if (detailscanner.hasNext()) {
-					fluegelt = true;
-					fluegelrichtung = detailscanner.next();
-					if (fluegelrichtung.equals("v")) {
-						fluegeltNachVorne = true;
-					} else if (fluegelrichtung.equals("h")) {
-						fluegeltNachVorne = false;
-					} else {
-						scanner.close();
-						detailscanner.close();
-						zugscanner.close();
-						throw new Error ("Ungltige Flgelrichtung " +
-								"bei Zug: " + zugnummer);
-					}
-				}
-			}
-			vonBahnhof = zugscanner.next();
-			vonStreckeString = zugscanner.next();
-			try {
-				vonStrecke = Importer.getBetriebsstelle(vonStreckeString);
-			} catch (Exception e) {
-				scanner.close();
-				zugscanner.close();
-				detailscanner.close();
-				throw new Error("Ungltige Strecke im Fahrplan: " + vonStreckeString);
-			}
-			ausRichtung = Richtung.getRichtung(zugscanner.next());
-			if (ausRichtung.equals(null)) {
-				scanner.close();
-				zugscanner.close();
-				detailscanner.close();
-				throw new Error("Ungltige Richtungsangabe bei Zug " + zugnummer);
-			}
-			nachBahnhof = zugscanner.next();
-			nachStreckeString = zugscanner.next();
-			try {
-				nachStrecke = Importer.getBetriebsstelle(nachStreckeString);
-			} catch (Exception e) {
-				scanner.close();
-				zugscanner.close();
-				detailscanner.close();
-				throw new Error("Ungltige Strecke im Fahrplan: " + nachStreckeString);
-			}
-			viaString = zugscanner.next();
-			viaGleis = Importer.getBetriebsstelle(viaString);
-			ankunft = new Zeit(zugscanner.next());
-			// Gterzug erkennen
-			if (viaGleis == null) {
-				zugscanner.next();
-				zugscanner.next();
-				abfahrt = null;
-				minimalerAufenthalt = 0;
-			} else {
-				abfahrt = new Zeit(zugscanner.next());
-				minimalerAufenthalt = zugscanner.nextInt();
-			}
-			try {
-				rangiertUm = new Zeit(zugscanner.next());
-			} catch (IllegalArgumentException e) {
-				rangiertUm = null;
-			}
-			gattungNeu = "";
-			zugnummerNeu = 0;
-			detailscanner.close();
-			detailscanner = new Scanner(zugscanner.next());
-			if (detailscanner.hasNext()) {
-				gattungNeu = detailscanner.next();
-				zugnummerNeu = detailscanner.nextInt();
-				if (zugnummerNeu == zugnummer)
-					zugnummerNeu = 0;
-			}
-			vereinigungMit = new ArrayList<Integer>();
-			detailscanner.close();
-			detailscanner = new Scanner(zugscanner.next());
-			if (detailscanner.hasNext()) {
-				detailscanner.useDelimiter("\\$");
-				while (detailscanner.hasNext())
-					vereinigungMit.add(detailscanner.nextInt());
-			}
-			zuegeSelbesGleis = new ArrayList<Integer>();
-			if (zugscanner.hasNext()) {
-				detailscanner.close();
-				detailscanner = new Scanner(zugscanner.next());
-				detailscanner.useDelimiter("\\$");
-				while(detailscanner.hasNext())
-					zuegeSelbesGleis.add(detailscanner.nextInt());
-			}
-			detailscanner.close();
-			new Zug(gattung, zugnummer, haengtAnZugnummer, fluegelt, fluegeltNachVorne,
-					vonBahnhof, vonStrecke,
-					ausRichtung, nachBahnhof, nachStrecke, viaGleis, ankunft, abfahrt,
-					minimalerAufenthalt, rangiertUm, gattungNeu, zugnummerNeu,
-					vereinigungMit, zuegeSelbesGleis);
-		}
-		scanner.close();
-	}
-	
-	/**
-	 * Gibt zu einer ID das entsprechende erzeugte Streckenobjekt zurck.
-	 * 
-	 * @param id
-	 * 		Die eindeutige Bezeichnung, die in der Fahrwege.csv 
-	 * 		bzw. Fahrplan.csv verwendet wird.
-	 */
-	private static Strecke getStrecke(final String id) {
-		return Importer.id2strecke.get(id);
-	}
-	
-	/**
-	 * Gibt zu einer ID das entsprechende erzeugte Betriebsstellenobjekt zurck.
-	 * 
-	 * @param id
-	 * 		Die eindeutige Bezeichnung, die in der Fahrwege.csv 
-	 * 		bzw. Fahrplan.csv verwendet wird.
-	 */
-	private static Betriebsstelle getBetriebsstelle(final String id) {
-		return (Betriebsstelle) Importer.id2strecke.get(id);
-	}
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import de.drake.stellwerksimulation.controller.Controller;
+import de.drake.stellwerksimulation.tools.CsvLeser;
+import de.drake.stellwerksimulation.tools.Richtung;
+import de.drake.stellwerksimulation.tools.Zeit;
+import de.drake.stellwerksimulation.view.GUI;
+
+/**
+ * Der Importer liest die Konfigurationsdateien aus und initialisiert die
+ * einzelnen Objekte des Models.
+ */
+public class Importer {
+	
+	/**
+	 * Liest die Konfigurationsparameter aus der Datei "Konfig.csv" aus und übergibt
+	 * sie Controller, Stellwerk und GUI. Hierbei werden Stellwerk und GUI entsprechend
+	 * den Parametern initialisiert.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, der befüllt wird.
+	 * @param controller
+	 * 		Der Controller, der die Simulation steuert und eine GUI erhalten soll.
+	 * 		Ist null angegeben, so wird nur das Stellwerk ohne grafische Oberfläche
+	 * 		erzeugt.
+	 */
+	public static void importiereKonfig(final Simulationskontext kontext,
+			final Controller controller) {
+		CsvLeser leser = new CsvLeser(kontext.getDatenverzeichnis() + "Konfig.csv");
+		leser.naechsteZeile();
+		String attribut;
+		String bahnhofsname = "Bitte Bahnhofsnamen in Konfig.csv angeben!";
+		Zeit startzeit = null;
+		int verspaetungsanteil = 0;
+		int verspaetungMax = 0;
+		Long zufallsstartwert = null;
+		int geschwindigkeit = 30;
+		int sekundenProZugbewegung = 15;
+		int streckenbreite = 10;
+		int betriebsstellenbreite = 30;
+		int brueckenbreiteOben = 4;
+		int brueckenbreiteUnten = 14;
+		int schriftgroesseNetz = 16;
+		int bildrate = 0;
+		int turbobewegungen = 10;
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			attribut = leser.naechstesFeld();
+
+			if (attribut.equals("Bahnhofsname")) {
+				bahnhofsname = leser.naechstesFeld();
+				continue;
+			}
+			if (attribut.equals("Startzeit")) {
+				startzeit = leser.naechsteZeit();
+				continue;
+			}
+			if (attribut.equals("Anteil verspäteter Züge (%)")) {
+				verspaetungsanteil = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Maximale Verspätung (min)")) {
+				verspaetungMax = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Zufallsstartwert")) {
+				if (!leser.istFeldLeer())
+					zufallsstartwert = leser.naechsteLangeZahl();
+				continue;
+			}
+			if (attribut.equals("Fahrplanvorlauf (min)")) {
+				if (leser.istFeldLeer())
+					continue;
+				int fahrplanvorlauf = leser.naechsteZahl();
+				if (fahrplanvorlauf <= 0 || fahrplanvorlauf >= 12 * 60)
+					throw leser.fehler("Fahrplanvorlauf muss zwischen 1 und 719 min liegen");
+				kontext.setzeFahrplanvorlauf(fahrplanvorlauf);
+				continue;
+			}
+			if (attribut.equals("Zugarchiv")) {
+				if (!leser.istFeldLeer())
+					kontext.setzeZugarchiv(leser.naechstesFeld());
+				continue;
+			}
+			if (attribut.equals(
+					"Startgeschwindigkeit (Aktionen pro Echtzeit-Minute)")) {
+				geschwindigkeit = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Sekunden pro Zugbewegung")) {
+				sekundenProZugbewegung = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Streckenbreite (Pixel)")) {
+				streckenbreite = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Betriebsstellenbreite (Pixel)")) {
+				betriebsstellenbreite = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Brückenbreite oben (Pixel)")) {
+				brueckenbreiteOben = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Brückenbreite unten (Pixel)")) {
+				brueckenbreiteUnten = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Schriftgröße Netz")) {
+				schriftgroesseNetz = leser.naechsteZahl();
+				continue;
+			}
+			if (attribut.equals("Bildrate (Bilder pro Sekunde)")) {
+				if (leser.istFeldLeer())
+					continue;
+				bildrate = leser.naechsteZahl();
+				if (bildrate < 1 || bildrate > 1000)
+					throw leser.fehler("Bildrate muss zwischen 1 und 1000 liegen");
+				continue;
+			}
+			if (attribut.equals("Turbo (Zugbewegungen pro Bild)")) {
+				if (leser.istFeldLeer())
+					continue;
+				turbobewegungen = leser.naechsteZahl();
+				if (turbobewegungen < 1 || turbobewegungen > 10000)
+					throw leser.fehler("Turbo muss zwischen 1 und 10000 Zugbewegungen liegen");
+				continue;
+			}
+		}
+		if (zufallsstartwert != null)
+			kontext.setzeZufallsstartwert(zufallsstartwert);
+		if (controller != null) {
+			controller.setGeschwindigkeit(geschwindigkeit);
+			controller.setTurbobewegungen(turbobewegungen);
+		}
+		Stellwerk.createInstance(kontext, bahnhofsname, startzeit, verspaetungsanteil,
+				verspaetungMax, sekundenProZugbewegung);
+		if (controller != null) {
+			kontext.veroeffentlicheLagebild(null, null);
+			controller.setGUI(new GUI(controller, kontext, streckenbreite,
+					betriebsstellenbreite, brueckenbreiteOben, brueckenbreiteUnten,
+					schriftgroesseNetz, bildrate));
+		}
+	}
+	
+	/**
+	 * Liest die Strecken aus der externen Datei Strecken.csv aus und speichert sie.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, der befüllt wird.
+	 */
+	static void importiereStreckennetz(final Simulationskontext kontext) {
+		CsvLeser leser = new CsvLeser(kontext.getDatenverzeichnis() + "Strecken.csv");
+		leser.naechsteZeile();
+		String id, richtungsangaben, nameNetz, nameFahrplan, bruecke;
+		boolean hatBahnsteig;
+		Boolean istBrueckeOben;
+		Richtung anschlussrichtung;
+		ArrayList<Richtung> anschlussrichtungen;
+		int positionX, positionY, positionZugX, positionZugY,
+				positionNameX, positionNameY;
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			id = leser.naechstesFeld();
+			positionX = leser.naechsteZahl();
+			positionY = leser.naechsteZahl();
+			richtungsangaben = leser.naechstesFeld();
+			anschlussrichtungen = new ArrayList<Richtung>(8);
+			if (!richtungsangaben.isEmpty()) {
+				for (String richtungsangabe : richtungsangaben.split("/")) {
+					anschlussrichtung = Richtung.getRichtung(richtungsangabe);
+					if (anschlussrichtung == null)
+						throw leser.fehler("Ungültige Richtungsangabe bei Strecke " + id);
+					anschlussrichtungen.add(anschlussrichtung);
+				}
+			}
+			positionZugX = leser.naechsteZahl();
+			positionZugY = leser.naechsteZahl();
+			bruecke = leser.naechstesFeld();
+			istBrueckeOben = null;
+			if (bruecke.equals("oben"))
+				istBrueckeOben = true;
+			else if (bruecke.equals("unten"))
+				istBrueckeOben = false;
+			if (!leser.hatFeld() || !leser.naechstesFeld().equals("x")) {
+				kontext.getId2strecke().put(id, new Strecke(kontext,
+						positionX, positionY, anschlussrichtungen,
+						istBrueckeOben, positionZugX, positionZugY));
+				continue;
+			}
+			hatBahnsteig = false;
+			if (leser.naechstesFeld().equals("x"))
+				hatBahnsteig = true;
+			nameFahrplan = leser.naechstesFeld();
+			nameNetz = leser.naechstesFeld();
+			positionNameX = leser.naechsteZahl();
+			positionNameY = leser.naechsteZahl();
+			kontext.getId2strecke().put(id, new Betriebsstelle(kontext,
+					nameNetz, nameFahrplan, hatBahnsteig,
+					positionX, positionY, anschlussrichtungen,
+					positionZugX, positionZugY, positionNameX, positionNameY));
+		}
+		kontext.sortiereBetriebsstellen();
+	}
+	
+	/**
+	 * Liest die Fahrwege aus der externen Datei Fahrwege.csv aus und speichert sie.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, der befüllt wird.
+	 */
+	static void importiereFahrwege(final Simulationskontext kontext) {
+		CsvLeser leser = new CsvLeser(kontext.getDatenverzeichnis() + "Fahrwege.csv");
+		ArrayList<Strecke> durchfahreneStrecken;
+		HashMap<Strecke, Richtung> fahrtrichtungen;
+		ArrayList<Betriebsstelle> alleFahrziele = new ArrayList<Betriebsstelle>();
+		ArrayList<Betriebsstelle> moeglicheFahrziele;
+		HashMap<Betriebsstelle, Boolean> fahrzielFuehrtUeberBahnhof;
+		String name, richtungsangabe;
+		int trennzeichen;
+		Strecke strecke;
+		Fahrweg neuerFahrweg = null;
+		Richtung letzteFahrtrichtung = null;
+		Betriebsstelle start, ziel;
+		leser.naechsteZeile();
+		while (leser.hatFeld()) {
+			name = leser.naechstesFeld();
+			if (name.equals("Laufweg"))
+				break;
+			if (!(Importer.getStrecke(kontext, name) instanceof Betriebsstelle))
+				throw leser.fehler("Ungültiges Fahrziel in Fahrwegen: " + name);
+			alleFahrziele.add(Importer.getBetriebsstelle(kontext, name));
+		}
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			moeglicheFahrziele = new ArrayList<Betriebsstelle>();
+			fahrzielFuehrtUeberBahnhof = new HashMap<Betriebsstelle, Boolean>();
+			durchfahreneStrecken = new ArrayList<Strecke>();
+			fahrtrichtungen = new HashMap<Strecke, Richtung>();
+			for (Betriebsstelle fahrziel : alleFahrziele) {
+				name = leser.naechstesFeld();
+				if (name.equals("b")) {
+					moeglicheFahrziele.add(fahrziel);
+					fahrzielFuehrtUeberBahnhof.put(fahrziel, true);
+				} else if (name.equals("x")) {
+					moeglicheFahrziele.add(fahrziel);
+					fahrzielFuehrtUeberBahnhof.put(fahrziel, false);
+				} else if (!name.equals("")) {
+					throw leser.fehler("Unzulässiger Eintrag in Fahrwegen. Es sind nur x " +
+							"und b erlaubt!");
+				}
+			}
+			while (!leser.istFeldLeer()) {
+				name = leser.naechstesFeld();
+				richtungsangabe = "";
+				trennzeichen = name.indexOf('$');
+				if (trennzeichen >= 0) {
+					richtungsangabe = name.substring(trennzeichen + 1);
+					name = name.substring(0, trennzeichen);
+				}
+				strecke = Importer.getStrecke(kontext, name);
+				if (strecke == null)
+					throw leser.fehler("Ungültige Strecke in Fahrwegen: " + name);
+				durchfahreneStrecken.add(strecke);
+				if (durchfahreneStrecken.size() == 1 && richtungsangabe.isEmpty())
+					throw leser.fehler("Richtungsangabe am Startbahnhof "
+							+ name + " fehlt!");
+				if (!richtungsangabe.isEmpty()) {
+					letzteFahrtrichtung = Richtung.getRichtung(richtungsangabe);
+					fahrtrichtungen.put(strecke, letzteFahrtrichtung);
+					continue;
+				}
+				for (Richtung richtung : strecke.getAnschlussrichtungen()) {
+					if (!richtung.equals(letzteFahrtrichtung.getGegenrichtung())) {
+						letzteFahrtrichtung = richtung;
+						break;
+					}
+				}
+				fahrtrichtungen.put(strecke, letzteFahrtrichtung);
+			}
+			// Freie Zeilen zwischen einzelnen Fahrwegsblöcken überspringen
+			if (durchfahreneStrecken.isEmpty())
+				continue;
+			neuerFahrweg = new Fahrweg(kontext, durchfahreneStrecken, fahrtrichtungen,
+					moeglicheFahrziele, fahrzielFuehrtUeberBahnhof);
+			start = (Betriebsstelle)
+					durchfahreneStrecken.get(0);
+			ziel = (Betriebsstelle)
+					durchfahreneStrecken.get(durchfahreneStrecken.size()-1);
+			start.addAusgehendenFahrweg(neuerFahrweg);
+			ziel.addEingehendenFahrweg(neuerFahrweg);
+		}
+	}
+	
+	/**
+	 * Liest den Fahrplan (also die Züge) aus der externen Datei
+	 * Fahrplan.csv aus und speichert die Züge ab.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, der befüllt wird.
+	 */
+	static void importiereFahrplan(final Simulationskontext kontext) {
+		CsvLeser leser = new CsvLeser(kontext.getDatenverzeichnis() + "Fahrplan.csv");
+		leser.naechsteZeile();
+		Zug zug;
+		while ((zug = Importer.importiereZug(kontext, leser)) != null)
+			zug.nimmInSimulationAuf();
+	}
+	
+	/**
+	 * Liest den nächsten Zug aus dem Fahrplan. Der Zug wird noch nicht im
+	 * Simulationskontext angemeldet.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, zu dem der Zug gehört.
+	 * @param leser
+	 * 		Der CsvLeser der Fahrplan.csv, dessen Kopfzeile bereits gelesen ist.
+	 * 
+	 * @return der Zug oder null, falls das Ende des Fahrplans erreicht ist.
+	 */
+	static Zug importiereZug(final Simulationskontext kontext, final CsvLeser leser) {
+		int zugnummer, haengtAnZugnummer, zugnummerNeu, minimalerAufenthalt, trennzeichen;
+		boolean fluegelt, fluegeltNachVorne;
+		ArrayList<Integer> zuegeSelbesGleis, vereinigungMit;
+		String gattung, kupplung, vonBahnhof, vonStreckeString, nachBahnhof,
+				nachStreckeString, viaString, weiterAls, gattungNeu, fluegelrichtung;
+		Richtung ausRichtung;
+		Betriebsstelle vonStrecke, nachStrecke, viaGleis;
+		Zeit ankunft, abfahrt, rangiertUm;
+		while (leser.naechsteZeile()) {
+			if (!leser.hatFeld())
+				continue;
+			gattung = leser.naechstesFeld();
+			zugnummer = leser.naechsteZahl();
+			kupplung = leser.naechstesFeld();
+			haengtAnZugnummer = 0;
+			fluegelt = false;
+			fluegeltNachVorne = false;
+			if (!kupplung.isEmpty()) {
+				trennzeichen = kupplung.indexOf('$');
+				if (trennzeichen < 0) {
+					haengtAnZugnummer = Importer.parseZahl(leser, kupplung);
+				} else {
+					haengtAnZugnummer = Importer.parseZahl(leser,
+							kupplung.substring(0, trennzeichen));
+					fluegelt = true;
+					fluegelrichtung = kupplung.substring(trennzeichen + 1);
+					if (fluegelrichtung.equals("v")) {
+						fluegeltNachVorne = true;
+					} else if (fluegelrichtung.equals("h")) {
+						fluegeltNachVorne = false;
+					} else {
+						throw leser.fehler("Ungültige Flügelrichtung " +
+								"bei Zug: " + zugnummer);
+					}
+				}
+			}
+			vonBahnhof = leser.naechstesFeld();
+			vonStreckeString = leser.naechstesFeld();
+			if (!(Importer.getStrecke(kontext, vonStreckeString) instanceof Betriebsstelle))
+				throw leser.fehler("Ungültige Strecke im Fahrplan: " + vonStreckeString);
+			vonStrecke = Importer.getBetriebsstelle(kontext, vonStreckeString);
+			ausRichtung = Richtung.getRichtung(leser.naechstesFeld());
+			if (ausRichtung == null)
+				throw leser.fehler("Ungültige Richtungsangabe bei Zug " + zugnummer);
+			nachBahnhof = leser.naechstesFeld();
+			nachStreckeString = leser.naechstesFeld();
+			if (!(Importer.getStrecke(kontext, nachStreckeString) instanceof Betriebsstelle))
+				throw leser.fehler("Ungültige Strecke im Fahrplan: " + nachStreckeString);
+			nachStrecke = Importer.getBetriebsstelle(kontext, nachStreckeString);
+			viaString = leser.naechstesFeld();
+			viaGleis = Importer.getBetriebsstelle(kontext, viaString);
+			ankunft = leser.naechsteZeit();
+			// Güterzug erkennen
+			if (viaGleis == null) {
+				leser.ueberspringeFeld();
+				leser.ueberspringeFeld();
+				abfahrt = null;
+				minimalerAufenthalt = 0;
+			} else {
+				abfahrt = leser.naechsteZeit();
+				minimalerAufenthalt = leser.naechsteZahl();
+			}
+			rangiertUm = leser.naechsteZeit();
+			weiterAls = leser.naechstesFeld().trim();
+			gattungNeu = "";
+			zugnummerNeu = 0;
+			if (!weiterAls.isEmpty()) {
+				trennzeichen = weiterAls.lastIndexOf(' ');
+				if (trennzeichen < 0)
+					throw leser.fehler("Gattung und Zugnummer erwartet: " + weiterAls);
+				gattungNeu = weiterAls.substring(0, trennzeichen).trim();
+				zugnummerNeu = Importer.parseZahl(leser,
+						weiterAls.substring(trennzeichen + 1));
+				if (zugnummerNeu == zugnummer)
+					zugnummerNeu = 0;
+			}
+			vereinigungMit = leser.naechsteZahlenliste('$');
+			zuegeSelbesGleis = leser.naechsteZahlenliste('$');
+			return new Zug(kontext, gattung, zugnummer, haengtAnZugnummer, fluegelt,
+					fluegeltNachVorne, vonBahnhof, vonStrecke,
+					ausRichtung, nachBahnhof, nachStrecke, viaGleis, ankunft, abfahrt,
+					minimalerAufenthalt, rangiertUm, gattungNeu, zugnummerNeu,
+					vereinigungMit, zuegeSelbesGleis);
+		}
+		return null;
+	}
+	
+	/**
+	 * Wandelt einen Teil eines Feldes in eine ganze Zahl um.
+	 * 
+	 * @param leser
+	 * 		Der CsvLeser, der das Feld gelesen hat und Fehler meldet.
+	 * @param text
+	 * 		Der umzuwandelnde Text.
+	 */
+	private static int parseZahl(final CsvLeser leser, final String text) {
+		try {
+			return Integer.parseInt(text.trim());
+		} catch (NumberFormatException e) {
+			throw leser.fehler("Ganze Zahl erwartet: " + text);
+		}
+	}
+	
+	/**
+	 * Gibt zu einer ID das entsprechende erzeugte Streckenobjekt zurück.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, in dem die Strecke gesucht wird.
+	 * @param id
+	 * 		Die eindeutige Bezeichnung, die in der Fahrwege.csv 
+	 * 		bzw. Fahrplan.csv verwendet wird.
+	 */
+	private static Strecke getStrecke(final Simulationskontext kontext,
+			final String id) {
+		return kontext.getId2strecke().get(id);
+	}
+	
+	/**
+	 * Gibt zu einer ID das entsprechende erzeugte Betriebsstellenobjekt zurück.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, in dem die Betriebsstelle gesucht wird.
+	 * @param id
+	 * 		Die eindeutige Bezeichnung, die in der Fahrwege.csv 
+	 * 		bzw. Fahrplan.csv verwendet wird.
+	 */
+	private static Betriebsstelle getBetriebsstelle(final Simulationskontext kontext,
+			final String id) {
+		return (Betriebsstelle) kontext.getId2strecke().get(id);
+	}
+	
+	/**
+	 * Gibt zu einer ID die entsprechende Betriebsstelle zurück. Existiert keine
+	 * Betriebsstelle mit dieser ID, so wird null zurückgegeben.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, in dem die Betriebsstelle gesucht wird.
+	 * @param id
+	 * 		Die eindeutige Bezeichnung, die in der Fahrwege.csv 
+	 * 		bzw. Fahrplan.csv verwendet wird.
+	 */
+	public static BetriebsstelleFuerGUI getBetriebsstelleFuerGUI(
+			final Simulationskontext kontext, final String id) {
+		Strecke strecke = kontext.getId2strecke().get(id);
+		if (!(strecke instanceof BetriebsstelleFuerGUI))
+			return null;
+		return (BetriebsstelleFuerGUI) strecke;
+	}
 }
\ No newline at end of file
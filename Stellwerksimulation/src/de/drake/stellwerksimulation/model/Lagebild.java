@@ -0,0 +1,311 @@
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.drake.stellwerksimulation.tools.Richtung;
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Ein Lagebild ist ein unveränderlicher Schnappschuss der Simulation, wie ihn die GUI
+ * darstellt: Uhrzeit, Zustand und Zugnummern jeder Strecke, wartende Züge an den
+ * Betriebsstellen sowie die Zeilen der Fahrplanlisten. Es wird im Thread der
+ * Simulation nach jedem Zeitschritt erstellt und über den Simulationskontext
+ * veröffentlicht. Die GUI liest ausschließlich Lagebilder und benötigt daher weder
+ * Synchronisation noch eigene Kopien der Listen des Models.
+ * 
+ * Da die GUI das Klickverhalten der Betriebsstellen und die Detailbeschreibung eines
+ * Zuges nur für die aktuelle Auswahl benötigt, werden diese nur für die bei der
+ * Erstellung angegebene Betriebsstelle bzw. den angegebenen Zug ermittelt.
+ */
+public final class Lagebild {
+	
+	/**
+	 * Das Bit im Streckenzustand, das angibt, dass die Strecke frei ist. Die Bits
+	 * unterhalb davon geben die eingestellten Richtungen an.
+	 */
+	private final static int FREI = 1 << Richtung.values().length;
+	
+	/**
+	 * Das Bit im Streckenzustand, das angibt, dass die Strecke befahren ist.
+	 */
+	private final static int BEFAHREN = Lagebild.FREI << 1;
+	
+	/**
+	 * Das Bit im Streckenzustand, das angibt, dass an der Betriebsstelle innerhalb der
+	 * nächsten 3 Minuten Züge erwartet werden.
+	 */
+	private final static int ZUEGE_ERWARTET = Lagebild.FREI << 2;
+	
+	/**
+	 * Die Uhrzeit der Simulation.
+	 */
+	private final Zeit zeit;
+	
+	/**
+	 * Der Zustand jeder Strecke als Bitmenge, nach Streckennummer.
+	 */
+	private final int[] zustaende;
+	
+	/**
+	 * Die Züge auf jeder Strecke, nach Streckennummer.
+	 */
+	private final ArrayList<List<Zuganzeige>> zuegeAufStrecken;
+	
+	/**
+	 * Die wartenden erwarteten Züge jeder Betriebsstelle, nach Streckennummer. Für
+	 * Strecken ohne Betriebsstelle ist die Liste leer.
+	 */
+	private final ArrayList<List<Zuganzeige>> wartendeErwarteteZuege;
+	
+	/**
+	 * Die Betriebsstelle, für die das Klickverhalten ermittelt wurde, oder null.
+	 */
+	private final BetriebsstelleFuerGUI selektierteBetriebsstelle;
+	
+	/**
+	 * Das Klickverhalten jeder Betriebsstelle bezüglich der selektierten
+	 * Betriebsstelle, nach Streckennummer.
+	 */
+	private final int[] klickverhalten;
+	
+	/**
+	 * Alle Züge in der Simulation für den Gesamtfahrplan.
+	 */
+	private final List<Zuganzeige> fahrplan;
+	
+	/**
+	 * Alle Züge, die auf einen Fahrweg warten.
+	 */
+	private final List<Zuganzeige> wartendeZuege;
+	
+	/**
+	 * Alle Züge an Bahnsteigen für die Gleisbelegung.
+	 */
+	private final List<Zuganzeige> gleisbelegung;
+	
+	/**
+	 * Der Zug, dessen Detailbeschreibung ermittelt wurde, oder null.
+	 */
+	private final Fahrplaneintrag beschriebenerZug;
+	
+	/**
+	 * Die Detailbeschreibung des beschriebenen Zuges.
+	 */
+	private final String beschreibung;
+	
+	/**
+	 * Erstellt ein Lagebild des aktuellen Zustands einer Simulation. Muss im Thread
+	 * der Simulation aufgerufen werden.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, dessen Zustand abgebildet wird.
+	 * @param selektierteBetriebsstelle
+	 * 		Die Betriebsstelle, für die das Klickverhalten ermittelt wird, oder null.
+	 * @param beschriebenerZug
+	 * 		Der Zug, dessen Detailbeschreibung ermittelt wird, oder null.
+	 */
+	Lagebild(final Simulationskontext kontext,
+			final BetriebsstelleFuerGUI selektierteBetriebsstelle,
+			final Fahrplaneintrag beschriebenerZug) {
+		this.zeit = kontext.getStellwerk().getAktuelleZeit();
+		ArrayList<Strecke> alleStrecken = kontext.getAlleStrecken();
+		int anzahl = alleStrecken.size();
+		this.zustaende = new int[anzahl];
+		this.zuegeAufStrecken = new ArrayList<List<Zuganzeige>>(anzahl);
+		this.wartendeErwarteteZuege = new ArrayList<List<Zuganzeige>>(anzahl);
+		List<Zuganzeige> keineZuege = Collections.emptyList();
+		for (int i = 0; i < anzahl; i++) {
+			this.zuegeAufStrecken.add(keineZuege);
+			this.wartendeErwarteteZuege.add(keineZuege);
+		}
+		for (Strecke strecke : alleStrecken) {
+			int zustand = 0;
+			if (strecke.istFrei())
+				zustand |= Lagebild.FREI;
+			if (strecke.istBefahren())
+				zustand |= Lagebild.BEFAHREN;
+			for (Richtung richtung : strecke.getEingestellteRichtungen())
+				zustand |= 1 << richtung.ordinal();
+			this.zustaende[strecke.getStreckennummer()] = zustand;
+			if (!strecke.getZuegeImGleis().isEmpty())
+				this.zuegeAufStrecken.set(strecke.getStreckennummer(),
+						Lagebild.erstelleZuganzeigen(strecke.getZuegeImGleis()));
+		}
+		this.selektierteBetriebsstelle = selektierteBetriebsstelle;
+		this.klickverhalten = new int[anzahl];
+		ArrayList<Zuganzeige> gleisbelegung = new ArrayList<Zuganzeige>();
+		for (Betriebsstelle betriebsstelle : kontext.getAlleBetriebsstellen()) {
+			int nummer = betriebsstelle.getStreckennummer();
+			if (betriebsstelle.zuegeErwartet())
+				this.zustaende[nummer] |= Lagebild.ZUEGE_ERWARTET;
+			ArrayList<Fahrplaneintrag> wartendeZuege =
+					betriebsstelle.getWartendeErwarteteZuege();
+			if (!wartendeZuege.isEmpty())
+				this.wartendeErwarteteZuege.set(nummer,
+						Lagebild.erstelleZuganzeigen(wartendeZuege));
+			if (selektierteBetriebsstelle != null)
+				this.klickverhalten[nummer] =
+						betriebsstelle.getKlickverhalten(selektierteBetriebsstelle);
+			if (!betriebsstelle.hatBahnsteig())
+				continue;
+			for (Zug zug : betriebsstelle.getZuegeImGleis())
+				gleisbelegung.add(new Zuganzeige(zug,
+						zug.getGleisbelegungsDescription(), zug.getStatus()));
+		}
+		this.gleisbelegung = Collections.unmodifiableList(gleisbelegung);
+		ArrayList<Zuganzeige> fahrplan = new ArrayList<Zuganzeige>();
+		ArrayList<Zuganzeige> wartendeZuege = new ArrayList<Zuganzeige>();
+		for (Zug zug : kontext.getZuegeInSimulation()) {
+			Zuganzeige zuganzeige = new Zuganzeige(zug, zug.getShortDescription(),
+					zug.getStatus());
+			fahrplan.add(zuganzeige);
+			if (zug.wartet())
+				wartendeZuege.add(zuganzeige);
+		}
+		this.fahrplan = Collections.unmodifiableList(fahrplan);
+		this.wartendeZuege = Collections.unmodifiableList(wartendeZuege);
+		if (beschriebenerZug != null
+				&& Zuganzeige.sucheZug(this.fahrplan, beschriebenerZug) >= 0) {
+			this.beschriebenerZug = beschriebenerZug;
+			this.beschreibung = beschriebenerZug.getDescription();
+		} else {
+			this.beschriebenerZug = null;
+			this.beschreibung = null;
+		}
+	}
+	
+	/**
+	 * Erstellt die Zuganzeigen einer Liste von Zügen mit ihrer Zugbezeichnung.
+	 * 
+	 * @param zuege
+	 * 		Die anzuzeigenden Züge.
+	 */
+	private static List<Zuganzeige> erstelleZuganzeigen(
+			final List<? extends Fahrplaneintrag> zuege) {
+		Zuganzeige[] result = new Zuganzeige[zuege.size()];
+		for (int i = 0; i < result.length; i++) {
+			Fahrplaneintrag zug = zuege.get(i);
+			result[i] = new Zuganzeige(zug, zug.toString(), zug.getStatus());
+		}
+		return Collections.unmodifiableList(Arrays.asList(result));
+	}
+	
+	/**
+	 * Gibt die Uhrzeit der Simulation zurück.
+	 */
+	public Zeit getZeit() {
+		return this.zeit;
+	}
+	
+	/**
+	 * Gibt zurück, ob die Strecke frei war, d.h. keine Züge oder Fahrwege
+	 * eingestellt waren.
+	 */
+	public boolean istFrei(final StreckeFuerGUI strecke) {
+		return (this.zustaende[strecke.getStreckennummer()] & Lagebild.FREI) != 0;
+	}
+	
+	/**
+	 * Gibt zurück, ob sich auf der Strecke Züge befanden.
+	 */
+	public boolean istBefahren(final StreckeFuerGUI strecke) {
+		return (this.zustaende[strecke.getStreckennummer()] & Lagebild.BEFAHREN) != 0;
+	}
+	
+	/**
+	 * Gibt zurück, ob auf der Strecke ein Fahrweg in eine bestimmte Richtung
+	 * eingestellt war.
+	 */
+	public boolean istEingestellt(final StreckeFuerGUI strecke,
+			final Richtung richtung) {
+		return (this.zustaende[strecke.getStreckennummer()]
+				& 1 << richtung.ordinal()) != 0;
+	}
+	
+	/**
+	 * Gibt die Züge zurück, die sich auf der Strecke befanden.
+	 */
+	public List<Zuganzeige> getZuegeAufStrecke(final StreckeFuerGUI strecke) {
+		return this.zuegeAufStrecken.get(strecke.getStreckennummer());
+	}
+	
+	/**
+	 * Gibt an, ob innerhalb der nächsten 3 Minuten Züge an der Betriebsstelle
+	 * erwartet wurden.
+	 */
+	public boolean zuegeErwartet(final BetriebsstelleFuerGUI betriebsstelle) {
+		return (this.zustaende[betriebsstelle.getStreckennummer()]
+				& Lagebild.ZUEGE_ERWARTET) != 0;
+	}
+	
+	/**
+	 * Gibt die Züge zurück, die an der Betriebsstelle erwartet wurden und die
+	 * eigentlich schon da sein sollten, aber noch auf freie Einfahrt warteten.
+	 */
+	public List<Zuganzeige> getWartendeErwarteteZuege(
+			final BetriebsstelleFuerGUI betriebsstelle) {
+		return this.wartendeErwarteteZuege.get(betriebsstelle.getStreckennummer());
+	}
+	
+	/**
+	 * Gibt zurück, was beim Klick auf eine Betriebsstelle geschehen soll. Wurde das
+	 * Lagebild noch für eine andere Selektion erstellt, so gelten alle anderen
+	 * Betriebsstellen bis zum nächsten Lagebild als unselektiert.
+	 * 
+	 * @param betriebsstelle
+	 * 		Die Betriebsstelle, deren Klickverhalten gesucht wird.
+	 * @param selektierteBetriebsstelle
+	 * 		Die Betriebsstelle, die derzeit vom Benutzer selektiert ist, oder null.
+	 * 
+	 * @return Das Klickverhalten, codiert als BetriebsstelleFuerGUI.(Klickverhalten).
+	 */
+	public int getKlickverhalten(final BetriebsstelleFuerGUI betriebsstelle,
+			final BetriebsstelleFuerGUI selektierteBetriebsstelle) {
+		if (selektierteBetriebsstelle == null)
+			return BetriebsstelleFuerGUI.UNSELEKTIERT;
+		if (selektierteBetriebsstelle.equals(betriebsstelle))
+			return BetriebsstelleFuerGUI.SELEKTIERT;
+		if (selektierteBetriebsstelle != this.selektierteBetriebsstelle)
+			return BetriebsstelleFuerGUI.UNSELEKTIERT;
+		return this.klickverhalten[betriebsstelle.getStreckennummer()];
+	}
+	
+	/**
+	 * Gibt die Zeilen des Gesamtfahrplans zurück.
+	 */
+	public List<Zuganzeige> getFahrplan() {
+		return this.fahrplan;
+	}
+	
+	/**
+	 * Gibt die Zeilen der wartenden Züge zurück.
+	 */
+	public List<Zuganzeige> getWartendeZuege() {
+		return this.wartendeZuege;
+	}
+	
+	/**
+	 * Gibt die Zeilen der Gleisbelegung zurück.
+	 */
+	public List<Zuganzeige> getGleisbelegung() {
+		return this.gleisbelegung;
+	}
+	
+	/**
+	 * Gibt die Detailbeschreibung eines Zuges zurück.
+	 * 
+	 * @param zug
+	 * 		Der Zug, dessen Beschreibung gesucht wird.
+	 * 
+	 * @return Die Beschreibung oder null, falls das Lagebild für einen anderen Zug
+	 * 		erstellt wurde.
+	 */
+	public String getBeschreibung(final Fahrplaneintrag zug) {
+		if (zug == null || zug != this.beschriebenerZug)
+			return null;
+		return this.beschreibung;
+	}
+}
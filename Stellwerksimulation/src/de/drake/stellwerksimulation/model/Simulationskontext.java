@@ -0,0 +1,399 @@
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.SplittableRandom;
+import java.util.Vector;
+
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Der Simulationskontext enthält den gesamten Zustand einer Simulation, d.h.
+ * Streckennetz, Fahrwege, Fahrplan und das Stellwerk, das die Simulation ausführt.
+ * Er wird vom Importer befüllt und an alle Objekte des Models weitergereicht.
+ * Da das Model keine statischen Zustände besitzt, können mehrere Simulationen mit
+ * jeweils eigenem Kontext unabhängig voneinander in derselben JVM laufen.
+ */
+public class Simulationskontext {
+
+	/**
+	 * Das Verzeichnis, aus dem die Konfigurationsdateien gelesen werden.
+	 */
+	private final String datenverzeichnis;
+
+	/**
+	 * Das Stellwerk, das die Simulation ausführt.
+	 */
+	private Stellwerk stellwerk;
+
+	/**
+	 * Eine Liste aller Strecken der Simulation.
+	 */
+	private final ArrayList<Strecke> alleStrecken = new ArrayList<Strecke>();
+
+	/**
+	 * Die Belegung aller Strecken als Bitmenge über die Streckennummern. Ist das Bit
+	 * einer Strecke gesetzt, so ist sie derzeit nicht frei. Fahrwege können so ihre
+	 * Einstellbarkeit mit wenigen wortweisen Vergleichen prüfen.
+	 */
+	private long[] belegteStrecken = new long[1];
+
+	/**
+	 * Eine Liste aller Betriebsstellen der Simulation.
+	 */
+	private final ArrayList<Betriebsstelle> alleBetriebsstellen
+			= new ArrayList<Betriebsstelle>();
+
+	/**
+	 * Eine Liste aller Fahrwege der Simulation.
+	 */
+	private final ArrayList<Fahrweg> alleFahrwege = new ArrayList<Fahrweg>();
+
+	/**
+	 * Eine Zuordnung Streckenname auf Streckenobjekt, um auf Strecken über ihre
+	 * ID zugreifen zu können (ID=die Bezeichnung, die in der Fahrwege.csv
+	 * bzw. Fahrplan.csv verwendet wird. Muss eindeutig sein!).
+	 */
+	private final HashMap<String, Strecke> id2strecke = new HashMap<String, Strecke>();
+
+	/**
+	 * Eine Liste aller Züge, die die Simulation noch nicht vollständig
+	 * durchfahren haben.
+	 */
+	private final Vector<Zug> zuegeInSimulation = new Vector<Zug>();
+
+	/**
+	 * Alle Züge, die an einen anderen Zug gekoppelt sind und daher nicht
+	 * eigenständig fahren, in der Reihenfolge ihrer Aufnahme.
+	 */
+	private final LinkedHashSet<Zug> virtuelleZuege = new LinkedHashSet<Zug>();
+
+	/**
+	 * Eine Zuordnung von Zugnummern auf die entsprechenden Züge.
+	 */
+	private final HashMap<Integer, Zug> zugnummer2Zug = new HashMap<Integer, Zug>();
+
+	/**
+	 * Die Nummer der Replikation, die dieser Kontext innerhalb einer Versuchsreihe
+	 * simuliert, oder -1, falls er zu keiner Versuchsreihe gehört.
+	 */
+	private final int replikation;
+
+	/**
+	 * Der Zufallsgenerator, aus dem die Verspätungen der Simulation gezogen werden.
+	 * Jede Simulation besitzt einen eigenen Generator, so dass parallele Simulationen
+	 * sich keinen gemeinsamen Zustand teilen.
+	 */
+	private SplittableRandom zufallsgenerator = null;
+
+	/**
+	 * Der Fahrplanvorlauf in Sekunden oder Zeit.KEINE_ZEIT, falls der gesamte
+	 * Fahrplan beim Start geladen wird. Mit Fahrplanvorlauf werden Züge erst kurz vor
+	 * ihrer Ankunft geladen und nach ihrer Ausfahrt wieder vergessen.
+	 */
+	private int fahrplanvorlauf = Zeit.KEINE_ZEIT;
+
+	/**
+	 * Das Zugarchiv, in das ausgefahrene Züge geschrieben werden, oder null, falls
+	 * ausgefahrene Züge nicht archiviert werden.
+	 */
+	private Zugarchiv zugarchiv = null;
+
+	/**
+	 * Der Beobachter, der über Änderungen an der Darstellung von Strecken
+	 * benachrichtigt wird, oder null.
+	 */
+	private Streckenbeobachter streckenbeobachter = null;
+
+	/**
+	 * Das zuletzt veröffentlichte Lagebild für die GUI oder null, falls noch keines
+	 * veröffentlicht wurde.
+	 */
+	private volatile Lagebild lagebild = null;
+
+	/**
+	 * Erzeugt einen neuen, leeren Simulationskontext.
+	 *
+	 * @param datenverzeichnis
+	 * 		Das Verzeichnis, aus dem die Konfigurationsdateien gelesen werden,
+	 * 		z.B. "Data/Hannover Hbf/".
+	 */
+	public Simulationskontext(final String datenverzeichnis) {
+		this(datenverzeichnis, -1);
+	}
+
+	/**
+	 * Erzeugt einen neuen, leeren Simulationskontext für eine Replikation einer
+	 * Versuchsreihe. Ist in der Konfig.csv ein Zufallsstartwert angegeben, so erhält
+	 * jede Replikation einen eigenen, aus diesem Startwert abgeleiteten Zufallsstrom.
+	 *
+	 * @param datenverzeichnis
+	 * 		Das Verzeichnis, aus dem die Konfigurationsdateien gelesen werden,
+	 * 		z.B. "Data/Hannover Hbf/".
+	 * @param replikation
+	 * 		Die Nummer der Replikation (ab 0) oder -1, falls der Kontext zu keiner
+	 * 		Versuchsreihe gehört.
+	 */
+	public Simulationskontext(final String datenverzeichnis, final int replikation) {
+		this.replikation = replikation;
+		if (datenverzeichnis.endsWith("/") || datenverzeichnis.endsWith("\\")) {
+			this.datenverzeichnis = datenverzeichnis;
+		} else {
+			this.datenverzeichnis = datenverzeichnis + "/";
+		}
+	}
+
+	/**
+	 * Gibt das Verzeichnis zurück, aus dem die Konfigurationsdateien gelesen werden.
+	 */
+	String getDatenverzeichnis() {
+		return this.datenverzeichnis;
+	}
+
+	/**
+	 * Legt fest, dass Züge erst innerhalb eines Vorlaufs vor ihrer Ankunft aus dem
+	 * Fahrplan geladen werden.
+	 * 
+	 * @param minuten
+	 * 		Der Fahrplanvorlauf in Minuten.
+	 */
+	void setzeFahrplanvorlauf(final int minuten) {
+		this.fahrplanvorlauf = minuten * 60;
+	}
+
+	/**
+	 * Legt den Beobachter fest, der über Änderungen an der Darstellung von Strecken
+	 * benachrichtigt wird.
+	 * 
+	 * @param streckenbeobachter
+	 * 		Der Beobachter oder null, falls keine Benachrichtigungen benötigt werden.
+	 */
+	public void setStreckenbeobachter(final Streckenbeobachter streckenbeobachter) {
+		this.streckenbeobachter = streckenbeobachter;
+	}
+
+	/**
+	 * Gibt an, ob ein Beobachter über Änderungen an der Darstellung von Strecken
+	 * benachrichtigt wird.
+	 */
+	boolean hatStreckenbeobachter() {
+		return this.streckenbeobachter != null;
+	}
+
+	/**
+	 * Benachrichtigt den Streckenbeobachter, sofern vorhanden, dass sich die
+	 * Darstellung einer Strecke geändert hat.
+	 * 
+	 * @param strecke
+	 * 		Die geänderte Strecke.
+	 */
+	void meldeStreckenaenderung(final StreckeFuerGUI strecke) {
+		if (this.streckenbeobachter != null)
+			this.streckenbeobachter.streckeGeaendert(strecke);
+	}
+
+	/**
+	 * Erstellt ein Lagebild des aktuellen Zustands und veröffentlicht es für die GUI.
+	 * Muss im Thread der Simulation aufgerufen werden.
+	 * 
+	 * @param selektierteBetriebsstelle
+	 * 		Die Betriebsstelle, für die das Klickverhalten ermittelt wird, oder null.
+	 * @param beschriebenerZug
+	 * 		Der Zug, dessen Detailbeschreibung ermittelt wird, oder null.
+	 */
+	public void veroeffentlicheLagebild(
+			final BetriebsstelleFuerGUI selektierteBetriebsstelle,
+			final Fahrplaneintrag beschriebenerZug) {
+		this.lagebild = new Lagebild(this, selektierteBetriebsstelle, beschriebenerZug);
+	}
+
+	/**
+	 * Gibt das zuletzt veröffentlichte Lagebild zurück. Kann aus jedem Thread
+	 * aufgerufen werden.
+	 */
+	public Lagebild getLagebild() {
+		return this.lagebild;
+	}
+
+	/**
+	 * Gibt den Fahrplanvorlauf in Sekunden zurück bzw. Zeit.KEINE_ZEIT, falls der
+	 * gesamte Fahrplan beim Start geladen wird.
+	 */
+	int getFahrplanvorlauf() {
+		return this.fahrplanvorlauf;
+	}
+
+	/**
+	 * Legt fest, dass ausgefahrene Züge in ein Zugarchiv geschrieben und danach
+	 * vergessen werden. Jede Replikation einer Versuchsreihe schreibt in ein eigenes
+	 * Archiv, dessen Dateiname um die Nummer der Replikation ergänzt wird. Ein
+	 * vorhandenes Archiv wird dabei geleert.
+	 * 
+	 * @param dateiname
+	 * 		Der Name der Archivdatei relativ zum Datenverzeichnis.
+	 */
+	void setzeZugarchiv(final String dateiname) {
+		String pfad = this.datenverzeichnis + dateiname;
+		if (this.replikation >= 0)
+			pfad += "." + this.replikation;
+		this.zugarchiv = new Zugarchiv(pfad);
+		this.zugarchiv.leere();
+	}
+
+	/**
+	 * Schreibt die gepufferten Daten des Zugarchivs aus und schließt seine Dateien,
+	 * sofern ausgefahrene Züge archiviert werden. Wird am Ende eines Simulationslaufs
+	 * bzw. beim Schließen der GUI aufgerufen.
+	 */
+	public void schliesseZugarchiv() {
+		if (this.zugarchiv != null)
+			this.zugarchiv.schliesse();
+	}
+
+	/**
+	 * Gibt das Zugarchiv zurück, in das ausgefahrene Züge geschrieben werden, bzw.
+	 * null, falls ausgefahrene Züge nicht archiviert werden.
+	 */
+	public Zugarchiv getZugarchiv() {
+		return this.zugarchiv;
+	}
+
+	/**
+	 * Entfernt einen Zug, der die Simulation verlassen hat, aus allen Verzeichnissen
+	 * des Kontexts. Verweise anderer Züge auf seine Zugnummer laufen danach ins Leere.
+	 * Der Zug ist unter der Zugnummer eingetragen, die er beim Laden trug.
+	 * 
+	 * @param zug
+	 * 		Der zu entfernende Zug.
+	 */
+	void vergesseZug(final Zug zug) {
+		this.zugnummer2Zug.remove(zug.getUrspruenglicheZugnummer(), zug);
+		this.virtuelleZuege.remove(zug);
+	}
+
+	/**
+	 * Legt den Startwert für die Zufallsverspätungen fest. Gleiche Startwerte ergeben
+	 * gleiche Simulationen. Bei einer Replikation wird der Startwert nicht direkt
+	 * verwendet, sondern ihr Zufallsstrom in der Reihenfolge der Replikationsnummern
+	 * von einem Basisgenerator abgespalten.
+	 *
+	 * @param startwert
+	 * 		Der Startwert aus der Konfig.csv.
+	 */
+	void setzeZufallsstartwert(final long startwert) {
+		SplittableRandom basisgenerator = new SplittableRandom(startwert);
+		if (this.replikation < 0) {
+			this.zufallsgenerator = basisgenerator;
+			return;
+		}
+		for (int i = 0; i <= this.replikation; i++)
+			this.zufallsgenerator = basisgenerator.split();
+	}
+
+	/**
+	 * Gibt den Zufallsgenerator zurück, aus dem die Verspätungen gezogen werden.
+	 * Wurde kein Startwert festgelegt, so wird ein zufällig initialisierter
+	 * Generator verwendet.
+	 */
+	SplittableRandom getZufallsgenerator() {
+		if (this.zufallsgenerator == null)
+			this.zufallsgenerator = new SplittableRandom();
+		return this.zufallsgenerator;
+	}
+
+	/**
+	 * Gibt das Stellwerk zurück, das die Simulation ausführt.
+	 */
+	public Stellwerk getStellwerk() {
+		return this.stellwerk;
+	}
+
+	/**
+	 * Legt das Stellwerk fest, das die Simulation ausführt.
+	 */
+	void setStellwerk(final Stellwerk stellwerk) {
+		this.stellwerk = stellwerk;
+	}
+
+	/**
+	 * Nimmt eine neue Strecke in die Simulation auf.
+	 *
+	 * @return Die fortlaufende Nummer der Strecke.
+	 */
+	int registriereStrecke(final Strecke strecke) {
+		int streckennummer = this.alleStrecken.size();
+		this.alleStrecken.add(strecke);
+		if (streckennummer / 64 >= this.belegteStrecken.length)
+			this.belegteStrecken = Arrays.copyOf(this.belegteStrecken,
+					this.belegteStrecken.length * 2);
+		return streckennummer;
+	}
+
+	/**
+	 * Gibt eine Liste aller Strecken der Simulation zurück.
+	 */
+	ArrayList<Strecke> getAlleStrecken() {
+		return this.alleStrecken;
+	}
+
+	/**
+	 * Gibt die Belegung aller Strecken als Bitmenge über die Streckennummern zurück.
+	 */
+	long[] getBelegteStrecken() {
+		return this.belegteStrecken;
+	}
+
+	/**
+	 * Gibt eine Liste aller Betriebsstellen der Simulation zurück.
+	 */
+	ArrayList<Betriebsstelle> getAlleBetriebsstellen() {
+		return this.alleBetriebsstellen;
+	}
+
+	/**
+	 * Sortiert die Betriebsstellen in natürlicher Reihenfolge ihrer Fahrplannamen.
+	 * Wird einmalig nach dem Import des Streckennetzes aufgerufen.
+	 */
+	void sortiereBetriebsstellen() {
+		Collections.sort(this.alleBetriebsstellen, Betriebsstelle.NAMENSREIHENFOLGE);
+	}
+
+	/**
+	 * Gibt eine Liste aller Fahrwege der Simulation zurück.
+	 */
+	ArrayList<Fahrweg> getAlleFahrwege() {
+		return this.alleFahrwege;
+	}
+
+	/**
+	 * Gibt die Zuordnung der Streckennamen auf die Streckenobjekte zurück.
+	 */
+	HashMap<String, Strecke> getId2strecke() {
+		return this.id2strecke;
+	}
+
+	/**
+	 * Gibt eine Liste aller Züge zurück, die die Simulation noch
+	 * nicht vollständig durchfahren haben.
+	 */
+	Vector<Zug> getZuegeInSimulation() {
+		return this.zuegeInSimulation;
+	}
+
+	/**
+	 * Gibt alle Züge zurück, die an einen anderen Zug gekoppelt sind.
+	 */
+	LinkedHashSet<Zug> getVirtuelleZuege() {
+		return this.virtuelleZuege;
+	}
+
+	/**
+	 * Gibt die Zuordnung von Zugnummern auf die entsprechenden Züge zurück.
+	 */
+	HashMap<Integer, Zug> getZugnummer2Zug() {
+		return this.zugnummer2Zug;
+	}
+}
@@ -1,229 +1,513 @@
-package de.drake.stellwerksimulation.model;
-
-import java.util.ArrayList;
-import java.util.Collections;
-
-import de.drake.stellwerksimulation.tools.Zeit;
-
-/**
- * Das Stellwerk der Stellwerksimulation. Ein Stellwerk verwaltet Strecken und
- * Fahrwege und koordiniert die Zge.
- */
-public class Stellwerk {
-	
-	/**
-	 * Die Instanz des Stellwerks.
-	 */
-	private static Stellwerk instance;
-	
-	/**
-	 * Die aktuelle Zeit. Wird vom Controller jeweils aktualisiert.
-	 */
-	private Zeit aktuelleZeit;
-	
-	/**
-	 * Die Anzahl der Ingamesekunden, die die Zge fr eine Bewegung bentigen.
-	 */
-	private int sekundenProZugbewegung;
-	
-	/**
-	 * Der Name des simulierten Bahnhofs.
-	 */
-	private String bahnhofsname;
-	
-	/**
-	 * Der Anteil an verspteten Zgen in Prozent.
-	 */
-	private int verspaetungsanteil;
-	
-	/**
-	 * Die maximale Versptung, die bei Zgen mglich ist. Angabe in Minuten.
-	 * Grere Versptungen sind dabei mglich, wenn die Einfahrt des verspteten
-	 * Zuges nicht mglich ist.
-	 */
-	private int verspaetungMax;
-	
-	/**
-	 * Erzeugt ein neues Stellwerk.
-	 * 
-	 * @param bahnhofsname
-	 * 		Der Name des simulierten Bahnhofs.
-	 * 
-	 * @param startzeit
-	 * 		Die In-Game-Startzeit der Simulation.
-	 * 
-	 * @param verspaetungsanteil
-	 * 		Der Anteil an verspteten Zgen in Prozent.
-	 * 
-	 * @param verspaetungMax
-	 * 		Die maximale Versptung, die bei Zgen mglich ist. Angabe in Minuten.
-	 * 		Grere Versptungen sind dabei mglich, wenn die Einfahrt des verspteten
-	 * 		Zuges nicht mglich ist.
-	 * 
-	 * @param sekundenProZugbewegung
-	 * 		Die Anzahl der Ingamesekunden, die die Zge fr eine Bewegung bentigen.
-	 */
-	private Stellwerk(final String bahnhofsname, final Zeit startzeit,
-			final int verspaetungsanteil, final int verspaetungMax,
-			final int sekundenProZugbewegung) {
-		Stellwerk.instance = this;
-		this.bahnhofsname = bahnhofsname;
-		this.aktuelleZeit = startzeit;
-		this.verspaetungsanteil = verspaetungsanteil;
-		this.verspaetungMax = verspaetungMax;
-		this.sekundenProZugbewegung = sekundenProZugbewegung;
-		Importer.importiereStreckennetz();
-		Importer.importiereFahrwege();
-		Importer.importiereFahrplan();
-		Zug.erzeugeZugvereinigungen();
-		this.erzeugeVerspaetungen(this.verspaetungsanteil,
-				this.verspaetungMax);
-		for (Zug zug : Zug.getZuegeInSimulation()) {
-			zug.getStartBetriebsstelle().addErwartetenZug(zug);
-		}
-	}
-
-	/**
-	 * Initialisiert die Instanz des Stellwerks mit den bergebenen Spielparametern.
-	 * 
-	 * @param bahnhofsname
-	 * 		Der Name des simulierten Bahnhofs.
-	 * 
-	 * @param startzeit
-	 * 		Die In-Game-Startzeit der Simulation.
-	 * 
-	 * @param verspaetungsanteil
-	 * 		Der Anteil an verspteten Zgen in Prozent.
-	 * 
-	 * @param verspaetungMax
-	 * 		Die maximale Versptung, die bei Zgen mglich ist. Angabe in Minuten.
-	 * 		Grere Versptungen sind dabei mglich, wenn die Einfahrt des verspteten
-	 * 		Zuges nicht mglich ist.
-	 * 
-	 * @param sekundenProZugbewegung
-	 * 		Die Anzahl der Ingamesekunden, die die Zge fr eine Bewegung bentigen.
-	 */
-	static void createInstance(final String bahnhofsname, final Zeit startzeit,
-			final int verspaetungsanteil, final int verspaetungMax,
-			int sekundenProZugbewegung) {
-		new Stellwerk(bahnhofsname, startzeit, verspaetungsanteil, verspaetungMax,
-				sekundenProZugbewegung);
-	}
-	
-	/**
-	 * Fgt den eingelesenen Zgen zufllig Versptungen nach vorgegebenen
-	 * Parametern hinzu.
-	 * 
-	 * @param verspaetungsanteil
-	 * 		Der Anteil der verspteten Zge in Prozent
-	 * @param verspaetungMax
-	 * 		Die maximale Versptung, mit der ein Zug eintreffen kann, in Minuten.
-	 * 		Die tatschliche Versptung kann bei hoher Zugfolge noch
-	 * 		geringfgig hher ausfallen!
-	 */
-	private void erzeugeVerspaetungen(final int verspaetungsanteil,
-			final int verspaetungMax) {
-		// Zufllige Versptungen erzeugen
-		for (Zug zug : Zug.getZuegeInSimulation())
-			if (Math.random() < verspaetungsanteil/100.)
-				zug.addVerspaetung((int) Math.ceil(Math.random()
-						* verspaetungMax));
-		// Einfahrten in den einzelnen Herkunftsbetriebsstellen entzerren:
-		for (Betriebsstelle betriebsstelle :
-				Betriebsstelle.getAlleBetriebsstellen()) {
-			//Fr jede Betriebsstelle ankommende Zge ermitteln
-			ArrayList<Zug> ankommendeZuege = new ArrayList<Zug>();
-			for (Zug zug : Zug.getZuegeInSimulation()) {
-				if (zug.getStartBetriebsstelle().equals(betriebsstelle))
-					ankommendeZuege.add(zug);
-			}
-			Collections.sort(ankommendeZuege);
-			//Und entzerren
-			for (int index = 1; index < ankommendeZuege.size(); index++) {
-				int zeitdifferenz = Zeit.getZeitdifferenzInMinuten(
-						ankommendeZuege.get(index-1).getTatsaechlicheAnkunft(),
-						ankommendeZuege.get(index).getTatsaechlicheAnkunft());
-				if (zeitdifferenz < 3) {
-					ankommendeZuege.get(index).addVerspaetung(3 - zeitdifferenz);
-					Collections.sort(ankommendeZuege);
-					index--;
-				}
-			}
-		}
-		Zug.sortiereZugliste();
-	}
-
-	/**
-	 * Lsst etwas Zeit vergehen, so dass die Zge ein Feld weiter fahren.
-	 */
-	public void zeitVor() {
-		this.aktuelleZeit.addSekunden(this.sekundenProZugbewegung);
-		for (Betriebsstelle betriebsstelle :
-				Betriebsstelle.getAlleBetriebsstellen()) {
-			betriebsstelle.verarbeiteZuegeImGleis();
-		}
-		for (Zug zug : new ArrayList<Zug>(Zug.getZuegeInSimulation())) {
-			if (!zug.getTatsaechlicheAnkunft().istFrueherOderZeitgleichAls(
-					Stellwerk.getInstance().getAktuelleZeit()))
-				break;
-			if (!zug.faehrt())
-				continue;
-			zug.fahre();
-		}
-	}
-
-	/**
-	 * Gibt die aktuelle Zeit der Simulation zurck.
-	 */
-	public Zeit getAktuelleZeit() {
-		return this.aktuelleZeit;
-	}
-	
-	/**
-	 * Gibt die aktuelle Zeit der Simulation zurck.
-	 */
-	public String getBahnhofsname() {
-		return this.bahnhofsname;
-	}
-	
-	/**
-	 * Stellt einen bestimmten Fahrweg ein.
-	 * 
-	 * @param von
-	 * 		Ausgangspunkt des einzustellenden Fahrweges.
-	 * @param nach
-	 * 		Endpunkt des einzustellenden Fahrweges.
-	 */
-	public void stelleFahrwegEin(BetriebsstelleFuerGUI von,
-			BetriebsstelleFuerGUI nach) {
-		von.getAusgehendenFahrweg(nach).stelleEin();
-	}
-	
-	/**
-	 * Lst einen bestimmten Fahrweg auf.
-	 * 
-	 * @param von
-	 * 		Ausgangspunkt des aufzulsenden Fahrweges.
-	 * @param nach
-	 * 		Endpunkt des aufzulsenden Fahrweges.
-	 */
-	public void loeseFahrwegAuf(BetriebsstelleFuerGUI von,
-			BetriebsstelleFuerGUI nach) {
-		von.getAusgehendenFahrweg(nach).loeseAuf();
-	}
-	
-	/**
-	 * Gibt die Anzahl der Ingamesekunden, die die Zge fr eine Bewegung bentigen,
-	 * zurck.
-	 */
-	int getSekundenProZugbewegung() {
-		return this.sekundenProZugbewegung;
-	}
-	
-	/**
-	 * Gibt die Instanz des Stellwerkes zurck.
-	 */
-	public static Stellwerk getInstance() {
-		return Stellwerk.instance;
-	}
+package de.drake.stellwerksimulation.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import de.drake.stellwerksimulation.tools.Zeit;
+
+/**
+ * Das Stellwerk der Stellwerksimulation. Ein Stellwerk verwaltet Strecken und
+ * Fahrwege und koordiniert die Züge.
+ */
+public class Stellwerk {
+	
+	/**
+	 * Der Simulationskontext, den das Stellwerk ausführt.
+	 */
+	private final Simulationskontext kontext;
+	
+	/**
+	 * Die aktuelle Zeit in Sekunden seit Mitternacht des Starttages. Läuft über
+	 * Mitternacht hinaus weiter. Wird vom Controller jeweils aktualisiert.
+	 */
+	private int aktuelleZeit;
+	
+	/**
+	 * Die Anzahl der Ingamesekunden, die die Züge für eine Bewegung benötigen.
+	 */
+	private int sekundenProZugbewegung;
+	
+	/**
+	 * Der Name des simulierten Bahnhofs.
+	 */
+	private String bahnhofsname;
+	
+	/**
+	 * Der Anteil an verspäteten Zügen in Prozent.
+	 */
+	private int verspaetungsanteil;
+	
+	/**
+	 * Die maximale Verspätung, die bei Zügen möglich ist. Angabe in Minuten.
+	 * Größere Verspätungen sind dabei möglich, wenn die Einfahrt des verspäteten
+	 * Zuges nicht möglich ist.
+	 */
+	private int verspaetungMax;
+	
+	/**
+	 * Die Statistik, in der der Betriebsablauf der Simulation erfasst wird.
+	 */
+	private Betriebsstatistik statistik;
+	
+	/**
+	 * Die anstehenden Ereignisse der Simulation in Sekundendarstellung, sortiert
+	 * nach ihrem Zeitpunkt. Ereignisse sind alle
+	 * Zeitpunkte, zu denen sich der Zustand eines Zuges ändern kann, ohne dass ein
+	 * Zug fährt (Ankunft, Abfahrt, planmäßige Abfahrt und Rangieren).
+	 */
+	private PriorityQueue<Integer> ereignisse = new PriorityQueue<Integer>();
+	
+	/**
+	 * Gibt an, ob sich während der letzten Zugbewegung der Zustand von Strecken,
+	 * Fahrwegen oder Zügen geändert hat. In diesem Fall muss auch die nächste
+	 * Zugbewegung vollständig verarbeitet werden.
+	 */
+	private boolean zustandGeaendert = true;
+	
+	/**
+	 * Der Fahrplanstrom, aus dem die Züge während der Simulation nachgeladen werden,
+	 * oder null, falls der gesamte Fahrplan beim Start geladen wird.
+	 */
+	private Fahrplanstrom fahrplanstrom = null;
+	
+	/**
+	 * Die planmäßige Ankunft des nächsten noch nicht geladenen Zuges, bis zu der die
+	 * Einfahrten zuletzt entzerrt wurden.
+	 */
+	private int ladehorizont = Zeit.KEINE_ZEIT;
+	
+	/**
+	 * Die noch nicht entzerrten Züge je Herkunftsbetriebsstelle, sortiert nach
+	 * Einfahrtsreihenfolge.
+	 */
+	private HashMap<Betriebsstelle, PriorityQueue<Zug>> ankommendeZuege =
+			new HashMap<Betriebsstelle, PriorityQueue<Zug>>();
+	
+	/**
+	 * Der jeweils zuletzt entzerrte Zug je Herkunftsbetriebsstelle.
+	 */
+	private HashMap<Betriebsstelle, Zug> letzteEinfahrten = new HashMap<Betriebsstelle, Zug>();
+	
+	/**
+	 * Der Rang der noch nicht entzerrten Züge. Bei gleicher Ankunft entscheidet der
+	 * Rang: zuletzt verspätete Züge (negativer Rang) vor allen übrigen, diese in der
+	 * Reihenfolge des Fahrplans.
+	 */
+	private HashMap<Zug, Integer> rang = new HashMap<Zug, Integer>();
+	
+	/**
+	 * Der Rang, den der nächste eingelesene Zug erhält.
+	 */
+	private int naechsterRang = 0;
+	
+	/**
+	 * Die Anzahl der bisherigen Entzerrungen, aus der der Rang verspäteter Züge
+	 * abgeleitet wird.
+	 */
+	private int entzerrungen = 0;
+	
+	/**
+	 * Die Reihenfolge, in der die Einfahrten einer Herkunftsbetriebsstelle entzerrt
+	 * werden: nach Ankunft, bei Gleichstand nach Rang.
+	 */
+	private final Comparator<Zug> einfahrtsreihenfolge = new Comparator<Zug>() {
+		@Override
+		public int compare(final Zug zug1, final Zug zug2) {
+			int ergebnis = zug1.compareTo(zug2);
+			if (ergebnis != 0)
+				return ergebnis;
+			return Integer.compare(Stellwerk.this.rang.get(zug1),
+					Stellwerk.this.rang.get(zug2));
+		}
+	};
+	
+	/**
+	 * Erzeugt ein neues Stellwerk und importiert Streckennetz, Fahrwege und Fahrplan
+	 * in den übergebenen Simulationskontext.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, den das Stellwerk ausführt.
+	 * 
+	 * @param bahnhofsname
+	 * 		Der Name des simulierten Bahnhofs.
+	 * 
+	 * @param startzeit
+	 * 		Die In-Game-Startzeit der Simulation.
+	 * 
+	 * @param verspaetungsanteil
+	 * 		Der Anteil an verspäteten Zügen in Prozent.
+	 * 
+	 * @param verspaetungMax
+	 * 		Die maximale Verspätung, die bei Zügen möglich ist. Angabe in Minuten.
+	 * 		Größere Verspätungen sind dabei möglich, wenn die Einfahrt des verspäteten
+	 * 		Zuges nicht möglich ist.
+	 * 
+	 * @param sekundenProZugbewegung
+	 * 		Die Anzahl der Ingamesekunden, die die Züge für eine Bewegung benötigen.
+	 */
+	private Stellwerk(final Simulationskontext kontext,
+			final String bahnhofsname, final Zeit startzeit,
+			final int verspaetungsanteil, final int verspaetungMax,
+			final int sekundenProZugbewegung) {
+		this.kontext = kontext;
+		kontext.setStellwerk(this);
+		this.bahnhofsname = bahnhofsname;
+		this.aktuelleZeit = startzeit.getSekunden();
+		this.verspaetungsanteil = verspaetungsanteil;
+		this.verspaetungMax = verspaetungMax;
+		this.sekundenProZugbewegung = sekundenProZugbewegung;
+		Importer.importiereStreckennetz(kontext);
+		Importer.importiereFahrwege(kontext);
+		if (kontext.getFahrplanvorlauf() != Zeit.KEINE_ZEIT) {
+			this.statistik = new Betriebsstatistik(0);
+			this.fahrplanstrom = new Fahrplanstrom(kontext, kontext.getFahrplanvorlauf());
+			this.ladeFahrplanNach();
+			return;
+		}
+		Importer.importiereFahrplan(kontext);
+		Zug.erzeugeZugvereinigungen(kontext, kontext.getVirtuelleZuege());
+		this.bereiteEinfahrtenVor(this.kontext.getZuegeInSimulation());
+		for (Zug zug : this.entzerreEinfahrten(Integer.MAX_VALUE))
+			this.planeEreignis(zug.getTatsaechlicheAnkunft());
+		Zug.sortiereZugliste(this.kontext);
+		this.statistik = new Betriebsstatistik(this.kontext.getZuegeInSimulation().size());
+	}
+	
+	/**
+	 * Lädt die Züge, deren Ankunft innerhalb des Fahrplanvorlaufs liegt, aus dem
+	 * Fahrplanstrom nach und merkt den Zeitpunkt vor, zu dem der nächste Zug
+	 * geladen werden muss. Züge, deren Einfahrt abschließend entzerrt ist, werden
+	 * in die Zugliste einsortiert.
+	 */
+	private void ladeFahrplanNach() {
+		ArrayList<Zug> neueZuege = this.fahrplanstrom.ladeFaelligeZuege(this.aktuelleZeit);
+		if (!neueZuege.isEmpty()) {
+			this.bereiteEinfahrtenVor(neueZuege);
+			this.statistik.erfasseGeladeneZuege(neueZuege.size());
+		}
+		int ladehorizont = this.fahrplanstrom.getLadehorizont();
+		if (ladehorizont == this.ladehorizont)
+			return;
+		this.ladehorizont = ladehorizont;
+		for (Zug zug : this.entzerreEinfahrten(ladehorizont)) {
+			Zug.sortiereInZuglisteEin(this.kontext, zug);
+			this.planeEreignis(zug.getTatsaechlicheAnkunft());
+		}
+		this.planeEreignis(this.fahrplanstrom.getNaechsteLadezeit());
+	}
+	
+	/**
+	 * Erzeugt das Stellwerk eines Simulationskontexts mit den übergebenen
+	 * Spielparametern.
+	 * 
+	 * @param kontext
+	 * 		Der Simulationskontext, den das Stellwerk ausführt.
+	 * 
+	 * @param bahnhofsname
+	 * 		Der Name des simulierten Bahnhofs.
+	 * 
+	 * @param startzeit
+	 * 		Die In-Game-Startzeit der Simulation.
+	 * 
+	 * @param verspaetungsanteil
+	 * 		Der Anteil an verspäteten Zügen in Prozent.
+	 * 
+	 * @param verspaetungMax
+	 * 		Die maximale Verspätung, die bei Zügen möglich ist. Angabe in Minuten.
+	 * 		Größere Verspätungen sind dabei möglich, wenn die Einfahrt des verspäteten
+	 * 		Zuges nicht möglich ist.
+	 * 
+	 * @param sekundenProZugbewegung
+	 * 		Die Anzahl der Ingamesekunden, die die Züge für eine Bewegung benötigen.
+	 */
+	static void createInstance(final Simulationskontext kontext,
+			final String bahnhofsname, final Zeit startzeit,
+			final int verspaetungsanteil, final int verspaetungMax,
+			int sekundenProZugbewegung) {
+		new Stellwerk(kontext, bahnhofsname, startzeit, verspaetungsanteil, verspaetungMax,
+				sekundenProZugbewegung);
+	}
+	
+	/**
+	 * Bereitet neu eingelesene Züge auf ihre Einfahrt vor: Sie werden an ihrer
+	 * Startbetriebsstelle erwartet, erhalten zufällige Verspätungen nach den
+	 * vorgegebenen Parametern und werden zum Entzerren ihrer Einfahrten
+	 * nach Herkunftsbetriebsstelle gruppiert.
+	 * 
+	 * @param zuege
+	 * 		Die eingelesenen, eigenständig fahrenden Züge in der Reihenfolge des
+	 * 		Fahrplans.
+	 */
+	private void bereiteEinfahrtenVor(final List<Zug> zuege) {
+		for (Zug zug : zuege)
+			zug.getStartBetriebsstelle().addErwartetenZug(zug);
+		// Zufällige Verspätungen erzeugen. Die tatsächliche Verspätung kann bei
+		// hoher Zugfolge noch geringfügig höher ausfallen!
+		SplittableRandom zufallsgenerator = this.kontext.getZufallsgenerator();
+		for (Zug zug : zuege)
+			if (zufallsgenerator.nextDouble() < this.verspaetungsanteil/100.)
+				zug.addVerspaetung((int) Math.ceil(zufallsgenerator.nextDouble()
+						* this.verspaetungMax));
+		// Ankommende Züge nach Herkunftsbetriebsstelle gruppieren.
+		for (Zug zug : zuege) {
+			this.rang.put(zug, this.naechsterRang++);
+			PriorityQueue<Zug> warteschlange =
+					this.ankommendeZuege.get(zug.getStartBetriebsstelle());
+			if (warteschlange == null) {
+				warteschlange = new PriorityQueue<Zug>(11, this.einfahrtsreihenfolge);
+				this.ankommendeZuege.put(zug.getStartBetriebsstelle(), warteschlange);
+			}
+			warteschlange.add(zug);
+		}
+	}
+	
+	/**
+	 * Entzerrt die Einfahrten in den einzelnen Herkunftsbetriebsstellen. Es wird
+	 * jeweils der früheste noch nicht entzerrte Zug betrachtet. Folgt er dem
+	 * zuletzt entzerrten Zug zu dicht, so wird er verspätet und neu einsortiert.
+	 * 
+	 * Züge werden nur entzerrt, solange sie vor dem Ladehorizont ankommen. Alle
+	 * später geladenen Züge kommen frühestens zum Ladehorizont an und können daher
+	 * nichts mehr an ihrer Einfahrt ändern. Die übrigen Züge warten auf das nächste
+	 * Nachladen.
+	 * 
+	 * @param ladehorizont
+	 * 		Die planmäßige Ankunft des nächsten noch nicht geladenen Zuges in
+	 * 		Sekundendarstellung bzw. Integer.MAX_VALUE, falls alle Züge geladen sind.
+	 * 
+	 * @return die abschließend entzerrten Züge.
+	 */
+	private ArrayList<Zug> entzerreEinfahrten(final int ladehorizont) {
+		ArrayList<Zug> entzerrteZuege = new ArrayList<Zug>();
+		for (Betriebsstelle betriebsstelle :
+				this.kontext.getAlleBetriebsstellen()) {
+			PriorityQueue<Zug> warteschlange = this.ankommendeZuege.get(betriebsstelle);
+			if (warteschlange == null)
+				continue;
+			Zug vorgaenger = this.letzteEinfahrten.get(betriebsstelle);
+			while (!warteschlange.isEmpty()
+					&& warteschlange.peek().getTatsaechlicheAnkunft() < ladehorizont) {
+				Zug zug = warteschlange.poll();
+				if (vorgaenger != null) {
+					int zeitdifferenz = Zeit.getZeitdifferenzInMinuten(
+							vorgaenger.getTatsaechlicheAnkunft(),
+							zug.getTatsaechlicheAnkunft());
+					if (zeitdifferenz < 3) {
+						zug.addVerspaetung(3 - zeitdifferenz);
+						this.rang.put(zug, -(++this.entzerrungen));
+						warteschlange.add(zug);
+						continue;
+					}
+				}
+				vorgaenger = zug;
+				this.rang.remove(zug);
+				entzerrteZuege.add(zug);
+			}
+			if (vorgaenger != null)
+				this.letzteEinfahrten.put(betriebsstelle, vorgaenger);
+		}
+		return entzerrteZuege;
+	}
+
+	/**
+	 * Lässt etwas Zeit vergehen, so dass die Züge ein Feld weiter fahren.
+	 */
+	public void zeitVor() {
+		this.aktuelleZeit += this.sekundenProZugbewegung;
+		this.zustandGeaendert = false;
+		if (this.fahrplanstrom != null)
+			this.ladeFahrplanNach();
+		for (Betriebsstelle betriebsstelle :
+				this.kontext.getAlleBetriebsstellen()) {
+			betriebsstelle.verarbeiteZuegeImGleis();
+		}
+		for (Zug zug : new ArrayList<Zug>(this.kontext.getZuegeInSimulation())) {
+			if (zug.getTatsaechlicheAnkunft() > this.aktuelleZeit)
+				break;
+			if (!zug.faehrt())
+				continue;
+			zug.fahre();
+		}
+	}
+
+	/**
+	 * Stellt für alle Züge, die auf einen Fahrweg warten, selbsttätig einen
+	 * passenden Fahrweg ein, sofern einer einstellbar ist. Ersetzt für
+	 * Simulationsläufe ohne GUI den Fahrdienstleiter.
+	 */
+	public void stelleFahrwegeAutomatischEin() {
+		for (Betriebsstelle betriebsstelle : this.kontext.getAlleBetriebsstellen())
+			betriebsstelle.stelleFahrwegeAutomatischEin();
+	}
+
+	/**
+	 * Lässt die Zeit bis zum nächsten Ereignis vergehen. Zugbewegungen, in denen
+	 * sich der Zustand der Simulation nicht ändern kann (es fährt kein Zug und es
+	 * ist kein Ereignis fällig), werden übersprungen. Das Ergebnis entspricht damit
+	 * dem wiederholten Aufruf von zeitVor(), ruhige Phasen benötigen jedoch kaum
+	 * Rechenzeit.
+	 * 
+	 * @param maxZugbewegungen
+	 * 		Die maximale Anzahl an Zugbewegungen, die vergehen dürfen (z.B. bis zum
+	 * 		nächsten Stellbefehl). Es vergeht jedoch immer mindestens eine Zugbewegung.
+	 * 
+	 * @return Die Anzahl der vergangenen Zugbewegungen.
+	 */
+	public int zeitVorBisZumNaechstenEreignis(final int maxZugbewegungen) {
+		int zugbewegungen = 1;
+		if (!this.zustandGeaendert) {
+			while (!this.ereignisse.isEmpty()
+					&& this.ereignisse.peek() <= this.aktuelleZeit)
+				this.ereignisse.poll();
+			zugbewegungen = maxZugbewegungen;
+			if (!this.ereignisse.isEmpty()) {
+				int abstand = this.ereignisse.peek() - this.aktuelleZeit;
+				zugbewegungen = Math.min(zugbewegungen,
+						(abstand + this.sekundenProZugbewegung - 1)
+						/ this.sekundenProZugbewegung);
+			}
+			zugbewegungen = Math.max(zugbewegungen, 1);
+		}
+		int uebersprungeneSekunden = (zugbewegungen - 1) * this.sekundenProZugbewegung;
+		this.aktuelleZeit += uebersprungeneSekunden;
+		this.zeitVor();
+		return zugbewegungen;
+	}
+	
+	/**
+	 * Lässt die Zeit wie zeitVorBisZumNaechstenEreignis() vergehen, bis entweder eine
+	 * bestimmte Anzahl an Zugbewegungen vergangen ist oder ein Zug beginnt, auf freie
+	 * Fahrt zu warten. Züge, die bereits zu Beginn warten, werden nicht
+	 * berücksichtigt.
+	 * 
+	 * @param maxZugbewegungen
+	 * 		Die maximale Anzahl an Zugbewegungen, die vergehen dürfen.
+	 * 
+	 * @return true, falls ein Zug zu warten begonnen hat.
+	 */
+	public boolean zeitVorBisEinZugWartet(final int maxZugbewegungen) {
+		HashSet<Zug> wartendeZuege = new HashSet<Zug>();
+		for (Zug zug : this.kontext.getZuegeInSimulation()) {
+			if (zug.wartet())
+				wartendeZuege.add(zug);
+		}
+		int verbleibendeZugbewegungen = maxZugbewegungen;
+		while (verbleibendeZugbewegungen > 0) {
+			verbleibendeZugbewegungen -=
+					this.zeitVorBisZumNaechstenEreignis(verbleibendeZugbewegungen);
+			for (Zug zug : this.kontext.getZuegeInSimulation()) {
+				if (zug.wartet() && !wartendeZuege.contains(zug))
+					return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gibt an, ob alle Züge des Fahrplans die Simulation verlassen haben und keine
+	 * weiteren Züge mehr nachgeladen werden.
+	 */
+	public boolean istFahrplanAbgearbeitet() {
+		if (!this.kontext.getZuegeInSimulation().isEmpty())
+			return false;
+		return this.fahrplanstrom == null
+				|| this.fahrplanstrom.getNaechsteLadezeit() == Zeit.KEINE_ZEIT;
+	}
+	
+	/**
+	 * Merkt einen Zeitpunkt vor, zu dem sich der Zustand eines Zuges ändern kann.
+	 * Zeitpunkte, die nicht in der Zukunft liegen, werden ignoriert.
+	 * 
+	 * @param zeitpunkt
+	 * 		Der Zeitpunkt des Ereignisses in Sekundendarstellung.
+	 */
+	void planeEreignis(final int zeitpunkt) {
+		if (zeitpunkt > this.aktuelleZeit)
+			this.ereignisse.add(zeitpunkt);
+	}
+	
+	/**
+	 * Hält fest, dass sich der Zustand von Strecken, Fahrwegen oder Zügen geändert
+	 * hat, so dass die nächste Zugbewegung nicht übersprungen werden darf.
+	 */
+	void meldeZustandsaenderung() {
+		this.zustandGeaendert = true;
+	}
+	
+	/**
+	 * Gibt die aktuelle Uhrzeit der Simulation zurück. Hierfür wird jeweils ein
+	 * neues Objekt erzeugt, innerhalb der Simulation sollte daher
+	 * getAktuelleZeitInSekunden() verwendet werden.
+	 */
+	public Zeit getAktuelleZeit() {
+		return Zeit.ausSekunden(this.aktuelleZeit);
+	}
+	
+	/**
+	 * Gibt die aktuelle Zeit der Simulation in Sekunden seit Mitternacht des
+	 * Starttages zurück.
+	 */
+	int getAktuelleZeitInSekunden() {
+		return this.aktuelleZeit;
+	}
+	
+	/**
+	 * Gibt die aktuelle Zeit der Simulation zurück.
+	 */
+	public String getBahnhofsname() {
+		return this.bahnhofsname;
+	}
+	
+	/**
+	 * Stellt einen bestimmten Fahrweg ein.
+	 * 
+	 * @param von
+	 * 		Ausgangspunkt des einzustellenden Fahrweges.
+	 * @param nach
+	 * 		Endpunkt des einzustellenden Fahrweges.
+	 */
+	public void stelleFahrwegEin(BetriebsstelleFuerGUI von,
+			BetriebsstelleFuerGUI nach) {
+		von.getAusgehendenFahrweg(nach).stelleEin();
+	}
+	
+	/**
+	 * Löst einen bestimmten Fahrweg auf.
+	 * 
+	 * @param von
+	 * 		Ausgangspunkt des aufzulösenden Fahrweges.
+	 * @param nach
+	 * 		Endpunkt des aufzulösenden Fahrweges.
+	 */
+	public void loeseFahrwegAuf(BetriebsstelleFuerGUI von,
+			BetriebsstelleFuerGUI nach) {
+		von.getAusgehendenFahrweg(nach).loeseAuf();
+	}
+	
+	/**
+	 * Gibt die Statistik zurück, in der der Betriebsablauf erfasst wird.
+	 */
+	public Betriebsstatistik getStatistik() {
+		return this.statistik;
+	}
+	
+	/**
+	 * Gibt die Anzahl der Ingamesekunden, die die Züge für eine Bewegung benötigen,
+	 * zurück.
+	 */
+	public int getSekundenProZugbewegung() {
+		return this.sekundenProZugbewegung;
+	}
+	
+	/**
+	 * Gibt den Simulationskontext zurück, den das Stellwerk ausführt.
+	 */
+	public Simulationskontext getKontext() {
+		return this.kontext;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package de.drake.stellwerksimulation.model;
+
+/**
+ * Ein Streckenbeobachter wird benachrichtigt, wenn sich die Darstellung einer Strecke
+ * ändert, z.B. weil ein Fahrweg eingestellt oder aufgelöst wird oder ein Zug in die
+ * Strecke einfährt bzw. sie verlässt. Bei Betriebsstellen zählen auch die erwarteten
+ * und wartenden Züge zur Darstellung. Die Benachrichtigungen erfolgen im Thread der
+ * Simulation.
+ */
+public interface Streckenbeobachter {
+
+	/**
+	 * Wird aufgerufen, wenn sich die Darstellung einer Strecke geändert hat.
+	 * 
+	 * @param strecke
+	 * 		Die geänderte Strecke.
+	 */
+	void streckeGeaendert(StreckeFuerGUI strecke);
+}
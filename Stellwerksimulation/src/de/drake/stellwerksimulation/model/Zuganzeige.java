@@ -0,0 +1,88 @@
+package de.drake.stellwerksimulation.model;
+
+import java.util.List;
+
+/**
+ * Eine Zuganzeige ist der unveränderliche Auszug eines Zuges, wie er zu einem
+ * Zeitpunkt in der GUI angezeigt wird: ein Text und der Status des Zuges. Der Zug
+ * selbst dient der GUI nur zur Wiedererkennung, z.B. für die Selektion in den
+ * Auswahllisten; sein Zustand wird von der GUI nicht gelesen.
+ */
+public final class Zuganzeige {
+	
+	/**
+	 * Der angezeigte Zug.
+	 */
+	private final Fahrplaneintrag zug;
+	
+	/**
+	 * Der anzuzeigende Text.
+	 */
+	private final String text;
+	
+	/**
+	 * Der Status des Zuges, codiert als Fahrplaneintrag.(Status).
+	 */
+	private final int status;
+	
+	/**
+	 * Erzeugt eine neue Zuganzeige.
+	 * 
+	 * @param zug
+	 * 		Der angezeigte Zug.
+	 * @param text
+	 * 		Der anzuzeigende Text.
+	 * @param status
+	 * 		Der Status des Zuges, codiert als Fahrplaneintrag.(Status).
+	 */
+	Zuganzeige(final Fahrplaneintrag zug, final String text, final int status) {
+		this.zug = zug;
+		this.text = text;
+		this.status = status;
+	}
+	
+	/**
+	 * Gibt den angezeigten Zug zurück.
+	 */
+	public Fahrplaneintrag getZug() {
+		return this.zug;
+	}
+	
+	/**
+	 * Gibt den anzuzeigenden Text zurück.
+	 */
+	public String getText() {
+		return this.text;
+	}
+	
+	/**
+	 * Gibt den Status des Zuges zurück, codiert als Fahrplaneintrag.(Status).
+	 */
+	public int getStatus() {
+		return this.status;
+	}
+	
+	/**
+	 * Sucht die letzte Zuganzeige eines Zuges in einer Liste.
+	 * 
+	 * @param zuganzeigen
+	 * 		Die durchsuchte Liste.
+	 * @param zug
+	 * 		Der gesuchte Zug.
+	 * 
+	 * @return die Position der Zuganzeige oder -1, falls der Zug nicht enthalten ist.
+	 */
+	public static int sucheZug(final List<Zuganzeige> zuganzeigen,
+			final Fahrplaneintrag zug) {
+		for (int i = zuganzeigen.size() - 1; i >= 0; i--) {
+			if (zuganzeigen.get(i).zug == zug)
+				return i;
+		}
+		return -1;
+	}
+	
+	@Override
+	public String toString() {
+		return this.text;
+	}
+}
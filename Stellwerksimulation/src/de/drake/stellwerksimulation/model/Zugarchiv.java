@@ -0,0 +1,330 @@
+package de.drake.stellwerksimulation.model;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Das Zugarchiv nimmt die Züge auf, die die Simulation verlassen haben, damit sie
+ * nicht bis zum Ende der Simulation im Speicher verbleiben müssen. Jeder Zug wird als
+ * kompakter Datensatz an die Archivdatei angehängt. Eine zweite Datei mit der Endung
+ * ".idx" ordnet jeder Zugnummer die Position ihrer Datensätze zu (je Eintrag 4 Byte
+ * Zugnummer und 8 Byte Position), so dass archivierte Züge nach der Simulation
+ * gezielt abgefragt werden können, ohne die Archivdatei vollständig zu lesen.
+ *
+ * Während einer Simulation werden beide Dateien nur angehängt. Sie bleiben dazu über
+ * gepufferte Ströme geöffnet, die vor jeder Abfrage und beim Schließen des Archivs
+ * ausgeschrieben werden. Beim Öffnen durch einen Simulationskontext werden die
+ * Dateien geleert, so dass ein Archiv stets nur die Züge eines Simulationslaufs
+ * enthält.
+ */
+public class Zugarchiv {
+
+	/**
+	 * Die Kennung am Anfang der Archivdatei ("ZAR1").
+	 */
+	private final static int KENNUNG = 0x5A415231;
+
+	/**
+	 * Die Kennung am Anfang der Indexdatei ("ZAI1").
+	 */
+	private final static int INDEXKENNUNG = 0x5A414931;
+
+	/**
+	 * Die Größe eines Indexeintrags in Byte.
+	 */
+	private final static int INDEXEINTRAG = 12;
+
+	/**
+	 * Die Archivdatei.
+	 */
+	private final File archivdatei;
+
+	/**
+	 * Die Indexdatei.
+	 */
+	private final File indexdatei;
+
+	/**
+	 * Die nach Zugnummer sortierten Zugnummern des zuletzt gelesenen Index.
+	 */
+	private int[] zugnummern = new int[0];
+
+	/**
+	 * Die Positionen der Datensätze zu den Zugnummern des zuletzt gelesenen Index.
+	 */
+	private long[] positionen = new long[0];
+
+	/**
+	 * Die Länge der Indexdatei beim letzten Lesen des Index.
+	 */
+	private long gelesenerIndex = -1;
+
+	/**
+	 * Der gepufferte Strom, über den Datensätze an die Archivdatei angehängt werden,
+	 * bzw. null, solange die Archivdatei nicht zum Schreiben geöffnet ist.
+	 */
+	private DataOutputStream archiv = null;
+
+	/**
+	 * Der gepufferte Strom, über den Einträge an die Indexdatei angehängt werden,
+	 * bzw. null, solange die Indexdatei nicht zum Schreiben geöffnet ist.
+	 */
+	private DataOutputStream index = null;
+
+	/**
+	 * Die Länge der Archivdatei einschließlich der noch gepufferten Datensätze, d.h.
+	 * die Position des nächsten Datensatzes.
+	 */
+	private long archivposition;
+
+	/**
+	 * Der Puffer, in dem ein Datensatz vor dem Anhängen zusammengestellt wird.
+	 */
+	private final ByteArrayOutputStream datensatz = new ByteArrayOutputStream(128);
+
+	/**
+	 * Der Strom, über den ein Datensatz in den Puffer geschrieben wird.
+	 */
+	private final DataOutputStream daten = new DataOutputStream(this.datensatz);
+
+	/**
+	 * Öffnet ein Zugarchiv. Die Dateien werden erst beim ersten Archivieren angelegt.
+	 *
+	 * @param dateiname
+	 * 		Der Pfad der Archivdatei. Die Indexdatei erhält zusätzlich die Endung ".idx".
+	 */
+	public Zugarchiv(final String dateiname) {
+		this.archivdatei = new File(dateiname);
+		this.indexdatei = new File(dateiname + ".idx");
+	}
+
+	/**
+	 * Leert das Zugarchiv, indem Archiv- und Indexdatei gelöscht werden. Sie werden
+	 * beim nächsten Archivieren neu angelegt.
+	 */
+	synchronized void leere() {
+		this.schliesse();
+		if ((this.archivdatei.exists() && !this.archivdatei.delete())
+				|| (this.indexdatei.exists() && !this.indexdatei.delete()))
+			throw new Error("Zugarchiv nicht löschbar: " + this.archivdatei);
+		this.zugnummern = new int[0];
+		this.positionen = new long[0];
+		this.gelesenerIndex = -1;
+	}
+
+	/**
+	 * Fragt ein Zugarchiv ab und gibt die archivierten Züge aus.
+	 *
+	 * @param args
+	 * 		Der Pfad der Archivdatei, gefolgt von den gesuchten Zugnummern.
+	 */
+	public static void main(final String[] args) {
+		if (args.length < 2)
+			throw new Error("Aufruf: Zugarchiv <Archivdatei> <Zugnummer>...");
+		Zugarchiv zugarchiv = new Zugarchiv(args[0]);
+		for (int i = 1; i < args.length; i++) {
+			ArrayList<ArchivierterZug> zuege =
+					zugarchiv.suche(Integer.parseInt(args[i]));
+			if (zuege.isEmpty())
+				System.out.println(args[i] + ": nicht archiviert");
+			for (ArchivierterZug zug : zuege)
+				System.out.println(zug);
+		}
+	}
+
+	/**
+	 * Hängt einen Zug, der die Simulation verlassen hat, an das Archiv an. Der Zug
+	 * wird unter seiner ursprünglichen und ggf. seiner neuen Zugnummer indiziert.
+	 *
+	 * @param zug
+	 * 		Der archivierte Zug.
+	 * @param ausfahrt
+	 * 		Die Zeit, zu der der Zug die Simulation verlassen hat, in
+	 * 		Sekundendarstellung.
+	 */
+	synchronized void archiviere(final Zug zug, final int ausfahrt) {
+		DataOutputStream daten = this.daten;
+		this.datensatz.reset();
+		try {
+			daten.writeUTF(zug.getUrspruenglicheGattung());
+			daten.writeInt(zug.getUrspruenglicheZugnummer());
+			daten.writeUTF(zug.getGattung());
+			daten.writeInt(zug.getZugnummer());
+			daten.writeInt(zug.getHaengtAnZugnummer());
+			daten.writeUTF(zug.getStartBetriebsstelle().getNameFahrplan());
+			daten.writeUTF(zug.getZielBetriebsstelle().getNameFahrplan());
+			daten.writeUTF(zug.getBahnsteig() == null ? ""
+					: zug.getBahnsteig().getNameFahrplan());
+			daten.writeInt(zug.getAnkunftszeit());
+			daten.writeInt(zug.getEinfahrt());
+			daten.writeInt(zug.getAbfahrtszeit());
+			daten.writeInt(zug.getAbfahrtVomBahnsteig());
+			daten.writeInt(ausfahrt);
+			daten.writeInt(zug.getVerspaetung());
+			if (this.archiv == null) {
+				this.archiv = Zugarchiv.oeffne(this.archivdatei, Zugarchiv.KENNUNG);
+				this.index = Zugarchiv.oeffne(this.indexdatei, Zugarchiv.INDEXKENNUNG);
+				this.archivposition = Math.max(this.archivdatei.length(), 4);
+			}
+			long position = this.archivposition;
+			this.datensatz.writeTo(this.archiv);
+			this.archivposition += this.datensatz.size();
+			this.index.writeInt(zug.getUrspruenglicheZugnummer());
+			this.index.writeLong(position);
+			if (zug.getZugnummer() != zug.getUrspruenglicheZugnummer()) {
+				this.index.writeInt(zug.getZugnummer());
+				this.index.writeLong(position);
+			}
+		} catch (IOException e) {
+			throw new Error("Zugarchiv nicht schreibbar: " + this.archivdatei, e);
+		}
+	}
+
+	/**
+	 * Öffnet eine Datei zum gepufferten Anhängen. Eine neue Datei erhält zuvor ihre
+	 * Kennung.
+	 *
+	 * @param datei
+	 * 		Die Datei.
+	 * @param kennung
+	 * 		Die Kennung am Anfang der Datei.
+	 *
+	 * @return den Strom, über den an die Datei angehängt wird.
+	 */
+	private static DataOutputStream oeffne(final File datei, final int kennung)
+			throws IOException {
+		boolean neu = datei.length() == 0;
+		DataOutputStream ausgabe = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(datei, true)));
+		if (neu)
+			ausgabe.writeInt(kennung);
+		return ausgabe;
+	}
+
+	/**
+	 * Schreibt die gepufferten Datensätze und Indexeinträge in die Dateien. Die
+	 * Archivdatei wird zuerst geschrieben, damit der Index nie auf fehlende
+	 * Datensätze verweist.
+	 */
+	synchronized void schreibeAus() {
+		if (this.archiv == null)
+			return;
+		try {
+			this.archiv.flush();
+			this.index.flush();
+		} catch (IOException e) {
+			throw new Error("Zugarchiv nicht schreibbar: " + this.archivdatei, e);
+		}
+	}
+
+	/**
+	 * Schreibt die gepufferten Daten aus und schließt die Dateien. Wird danach erneut
+	 * archiviert, so werden sie wieder geöffnet.
+	 */
+	synchronized void schliesse() {
+		if (this.archiv == null)
+			return;
+		try {
+			this.archiv.close();
+			this.index.close();
+		} catch (IOException e) {
+			throw new Error("Zugarchiv nicht schreibbar: " + this.archivdatei, e);
+		} finally {
+			this.archiv = null;
+			this.index = null;
+		}
+	}
+
+	/**
+	 * Sucht alle archivierten Züge mit einer Zugnummer. Gefunden werden sowohl Züge,
+	 * die laut Fahrplan diese Zugnummer tragen, als auch Züge, die unterwegs zu
+	 * dieser Zugnummer gewechselt haben.
+	 *
+	 * @param zugnummer
+	 * 		Die gesuchte Zugnummer.
+	 *
+	 * @return die archivierten Züge in der Reihenfolge ihrer Archivierung.
+	 */
+	public synchronized ArrayList<ArchivierterZug> suche(final int zugnummer) {
+		ArrayList<ArchivierterZug> result = new ArrayList<ArchivierterZug>();
+		this.schreibeAus();
+		this.leseIndex();
+		int von = Arrays.binarySearch(this.zugnummern, zugnummer);
+		if (von < 0)
+			return result;
+		while (von > 0 && this.zugnummern[von - 1] == zugnummer)
+			von--;
+		try {
+			RandomAccessFile archiv = new RandomAccessFile(this.archivdatei, "r");
+			try {
+				for (int i = von; i < this.zugnummern.length
+						&& this.zugnummern[i] == zugnummer; i++) {
+					archiv.seek(this.positionen[i]);
+					result.add(new ArchivierterZug(archiv.readUTF(), archiv.readInt(),
+							archiv.readUTF(), archiv.readInt(), archiv.readInt(),
+							archiv.readUTF(), archiv.readUTF(), archiv.readUTF(),
+							archiv.readInt(), archiv.readInt(), archiv.readInt(),
+							archiv.readInt(), archiv.readInt(), archiv.readInt()));
+				}
+			} finally {
+				archiv.close();
+			}
+		} catch (IOException e) {
+			throw new Error("Zugarchiv nicht lesbar: " + this.archivdatei, e);
+		}
+		return result;
+	}
+
+	/**
+	 * Liest die Indexdatei und sortiert ihre Einträge nach Zugnummer und Position.
+	 * Der Index wird nur neu gelesen, wenn seit dem letzten Lesen Einträge angehängt
+	 * wurden.
+	 */
+	private void leseIndex() {
+		long laenge = this.indexdatei.length();
+		if (laenge == this.gelesenerIndex)
+			return;
+		if (laenge == 0) {
+			this.zugnummern = new int[0];
+			this.positionen = new long[0];
+			this.gelesenerIndex = laenge;
+			return;
+		}
+		ByteBuffer index;
+		try {
+			index = ByteBuffer.wrap(Files.readAllBytes(this.indexdatei.toPath()));
+		} catch (IOException e) {
+			throw new Error("Zugarchiv nicht lesbar: " + this.indexdatei, e);
+		}
+		if (index.remaining() < 4 || index.getInt() != Zugarchiv.INDEXKENNUNG)
+			throw new Error("Keine Indexdatei eines Zugarchivs: " + this.indexdatei);
+		int anzahl = index.remaining() / Zugarchiv.INDEXEINTRAG;
+		// Zugnummer und Eintragsnummer werden zu einem Schlüssel zusammengefasst, so
+		// dass gleiche Zugnummern nach der Sortierung in Archivierungsreihenfolge
+		// beieinander liegen.
+		long[] schluessel = new long[anzahl];
+		long[] eintraege = new long[anzahl];
+		for (int i = 0; i < anzahl; i++) {
+			int zugnummer = index.getInt();
+			eintraege[i] = index.getLong();
+			schluessel[i] = ((long) zugnummer << 32) | i;
+		}
+		Arrays.sort(schluessel);
+		this.zugnummern = new int[anzahl];
+		this.positionen = new long[anzahl];
+		for (int i = 0; i < anzahl; i++) {
+			this.zugnummern[i] = (int) (schluessel[i] >> 32);
+			this.positionen[i] = eintraege[(int) schluessel[i]];
+		}
+		this.gelesenerIndex = laenge;
+	}
+}
@@ -0,0 +1,296 @@
+package de.drake.stellwerksimulation.tools;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/**
+ * Ein CsvLeser liest eine Semikolon-getrennte Datei im Zeichensatz Windows-1252
+ * zeilen- und feldweise aus. Die Datei wird dazu vollständig eingelesen und
+ * direkt auf Byteebene zerlegt: Zahlen und Uhrzeiten werden ohne Umweg über
+ * Strings gelesen, Texte über eine Zeichentabelle dekodiert. Anführungszeichen
+ * haben wie bisher keine besondere Bedeutung.
+ *
+ * Die Datei ist danach bereits wieder geschlossen; sie wird nicht in den Speicher
+ * abgebildet, da eine Abbildung die Datei bis zur Garbage Collection sperren würde.
+ *
+ * Fehler werden mit Dateiname, Zeile und Spalte (d.h. Nummer des Feldes) gemeldet.
+ */
+public class CsvLeser {
+
+	/**
+	 * Die Zuordnung der Bytewerte auf die Zeichen des Zeichensatzes Windows-1252.
+	 */
+	private static final char[] ZEICHENTABELLE = new char[256];
+
+	static {
+		byte[] alleBytes = new byte[256];
+		for (int i = 0; i < 256; i++)
+			alleBytes[i] = (byte) i;
+		new String(alleBytes, Charset.forName("windows-1252"))
+				.getChars(0, 256, CsvLeser.ZEICHENTABELLE, 0);
+	}
+
+	/**
+	 * Der Pfad der gelesenen Datei.
+	 */
+	private final String dateiname;
+
+	/**
+	 * Der Inhalt der Datei.
+	 */
+	private final ByteBuffer puffer;
+
+	/**
+	 * Die Position, an der die nächste Zeile beginnt.
+	 */
+	private int naechsteZeile = 0;
+
+	/**
+	 * Die Position hinter dem letzten Zeichen der aktuellen Zeile (ohne
+	 * Zeilenumbruch).
+	 */
+	private int zeilenende = 0;
+
+	/**
+	 * Die Position, an der das nächste Feld der aktuellen Zeile beginnt. Liegt sie
+	 * hinter dem Zeilenende, so enthält die Zeile keine weiteren Felder.
+	 */
+	private int position = 1;
+
+	/**
+	 * Die Nummer der aktuellen Zeile (ab 1).
+	 */
+	private int zeilennummer = 0;
+
+	/**
+	 * Die Nummer des zuletzt begonnenen Feldes der aktuellen Zeile (ab 1).
+	 */
+	private int spalte = 0;
+
+	/**
+	 * Öffnet eine Datei zum Lesen.
+	 *
+	 * @param dateiname
+	 * 		Der Pfad der Datei.
+	 */
+	public CsvLeser(final String dateiname) {
+		this.dateiname = dateiname;
+		try {
+			this.puffer = ByteBuffer.wrap(Files.readAllBytes(Paths.get(dateiname)));
+		} catch (Exception e) {
+			throw new Error("Fehlende Datei: " + dateiname);
+		}
+	}
+
+	/**
+	 * Wechselt in die nächste Zeile.
+	 *
+	 * @return false, wenn das Dateiende erreicht ist.
+	 */
+	public boolean naechsteZeile() {
+		int ende = this.puffer.limit();
+		if (this.naechsteZeile >= ende)
+			return false;
+		int zeilenanfang = this.naechsteZeile;
+		int index = zeilenanfang;
+		while (index < ende && this.puffer.get(index) != '\n')
+			index++;
+		this.naechsteZeile = index + 1;
+		if (index > zeilenanfang && this.puffer.get(index - 1) == '\r')
+			index--;
+		this.zeilenende = index;
+		this.position = zeilenanfang;
+		if (index == zeilenanfang)
+			this.position = index + 1;
+		this.zeilennummer++;
+		this.spalte = 0;
+		return true;
+	}
+
+	/**
+	 * Gibt an, ob die aktuelle Zeile noch ein weiteres Feld enthält. Eine leere Zeile
+	 * enthält keine Felder.
+	 */
+	public boolean hatFeld() {
+		return this.position <= this.zeilenende;
+	}
+
+	/**
+	 * Gibt an, ob das nächste Feld leer ist oder die Zeile keine weiteren Felder
+	 * enthält.
+	 */
+	public boolean istFeldLeer() {
+		return !this.hatFeld() || this.position == this.zeilenende
+				|| this.puffer.get(this.position) == ';';
+	}
+
+	/**
+	 * Liest das nächste Feld als Text.
+	 */
+	public String naechstesFeld() {
+		int anfang = this.beginneFeld();
+		int ende = this.beendeFeld();
+		char[] zeichen = new char[ende - anfang];
+		for (int i = 0; i < zeichen.length; i++)
+			zeichen[i] = CsvLeser.ZEICHENTABELLE[this.puffer.get(anfang + i) & 0xFF];
+		return new String(zeichen);
+	}
+
+	/**
+	 * Überspringt das nächste Feld.
+	 */
+	public void ueberspringeFeld() {
+		this.beginneFeld();
+		this.beendeFeld();
+	}
+
+	/**
+	 * Liest das nächste Feld als ganze Zahl.
+	 */
+	public int naechsteZahl() {
+		long zahl = this.naechsteLangeZahl();
+		if (zahl != (int) zahl)
+			throw this.fehler("Zahl zu groß");
+		return (int) zahl;
+	}
+
+	/**
+	 * Liest das nächste Feld als ganze Zahl mit erweitertem Wertebereich.
+	 */
+	public long naechsteLangeZahl() {
+		this.beginneFeld();
+		long zahl = this.leseZahl();
+		if (this.position < this.zeilenende && this.puffer.get(this.position) != ';')
+			throw this.fehler("Ganze Zahl erwartet");
+		this.beendeFeld();
+		return zahl;
+	}
+
+	/**
+	 * Liest das nächste Feld als Liste ganzer Zahlen.
+	 *
+	 * @param trennzeichen
+	 * 		Das Zeichen, durch das die Zahlen innerhalb des Feldes getrennt sind.
+	 *
+	 * @return die Zahlen, bei einem leeren oder fehlenden Feld eine leere Liste.
+	 */
+	public ArrayList<Integer> naechsteZahlenliste(final char trennzeichen) {
+		ArrayList<Integer> zahlen = new ArrayList<Integer>();
+		if (!this.hatFeld())
+			return zahlen;
+		if (this.istFeldLeer()) {
+			this.ueberspringeFeld();
+			return zahlen;
+		}
+		this.beginneFeld();
+		while (true) {
+			zahlen.add((int) this.leseZahl());
+			if (this.position >= this.zeilenende || this.puffer.get(this.position) == ';')
+				break;
+			if (this.puffer.get(this.position) != trennzeichen)
+				throw this.fehler("Durch " + trennzeichen
+						+ " getrennte ganze Zahlen erwartet");
+			this.position++;
+		}
+		this.beendeFeld();
+		return zahlen;
+	}
+
+	/**
+	 * Liest das nächste Feld als Uhrzeit im Format hh:mm oder hh:mm:ss.
+	 *
+	 * @return die Uhrzeit oder null, falls das Feld leer ist.
+	 */
+	public Zeit naechsteZeit() {
+		if (this.istFeldLeer()) {
+			this.ueberspringeFeld();
+			return null;
+		}
+		this.beginneFeld();
+		int stunde = (int) this.leseZahl();
+		this.erwarteDoppelpunkt();
+		int minute = (int) this.leseZahl();
+		int sekunde = 0;
+		if (this.position < this.zeilenende && this.puffer.get(this.position) == ':') {
+			this.position++;
+			sekunde = (int) this.leseZahl();
+		}
+		if (this.position < this.zeilenende && this.puffer.get(this.position) != ';')
+			throw this.fehler("Uhrzeit erwartet");
+		this.beendeFeld();
+		return new Zeit(stunde, minute, sekunde);
+	}
+
+	/**
+	 * Erzeugt einen Fehler, der Datei, Zeile und Spalte des zuletzt gelesenen Feldes
+	 * benennt.
+	 *
+	 * @param meldung
+	 * 		Die Beschreibung des Fehlers.
+	 */
+	public Error fehler(final String meldung) {
+		return new Error(meldung + " (" + this.dateiname + ", Zeile "
+				+ this.zeilennummer + ", Spalte " + this.spalte + ")");
+	}
+
+	/**
+	 * Beginnt das nächste Feld.
+	 *
+	 * @return die Position, an der das Feld beginnt.
+	 */
+	private int beginneFeld() {
+		this.spalte++;
+		if (!this.hatFeld())
+			throw this.fehler("Zu wenige Felder");
+		return this.position;
+	}
+
+	/**
+	 * Sucht das Ende des aktuellen Feldes und setzt die Position auf das nächste
+	 * Feld.
+	 *
+	 * @return die Position hinter dem letzten Zeichen des Feldes.
+	 */
+	private int beendeFeld() {
+		int ende = this.position;
+		while (ende < this.zeilenende && this.puffer.get(ende) != ';')
+			ende++;
+		this.position = ende + 1;
+		return ende;
+	}
+
+	/**
+	 * Liest ab der aktuellen Position eine ganze Zahl mit optionalem Vorzeichen.
+	 */
+	private long leseZahl() {
+		boolean negativ = false;
+		if (this.position < this.zeilenende && this.puffer.get(this.position) == '-') {
+			negativ = true;
+			this.position++;
+		}
+		int anfang = this.position;
+		long zahl = 0;
+		while (this.position < this.zeilenende) {
+			int ziffer = this.puffer.get(this.position) - '0';
+			if (ziffer < 0 || ziffer > 9)
+				break;
+			zahl = zahl * 10 + ziffer;
+			this.position++;
+		}
+		if (this.position == anfang || this.position - anfang > 18)
+			throw this.fehler("Ganze Zahl erwartet");
+		return negativ ? -zahl : zahl;
+	}
+
+	/**
+	 * Überspringt einen Doppelpunkt an der aktuellen Position.
+	 */
+	private void erwarteDoppelpunkt() {
+		if (this.position >= this.zeilenende || this.puffer.get(this.position) != ':')
+			throw this.fehler("Uhrzeit erwartet");
+		this.position++;
+	}
+}
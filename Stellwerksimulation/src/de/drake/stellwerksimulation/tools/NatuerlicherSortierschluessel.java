@@ -0,0 +1,79 @@
+package de.drake.stellwerksimulation.tools;
+
+/**
+ * Ein NatuerlicherSortierschluessel wird einmalig aus einem Text berechnet und
+ * ordnet Texte wie der NaturalOrderComparator (d.h. "Gleis 9" vor "Gleis 10"), ohne
+ * die Texte bei jedem Vergleich erneut zerlegen zu müssen.
+ *
+ * Leerzeichen werden dazu entfernt und jede Ziffernfolge ohne führende Nullen als
+ * '0', Anzahl der Ziffern und Ziffern kodiert. Da '0' im Ziffernbereich liegt, werden
+ * Zahlen wie bisher anhand ihrer Ziffern mit Buchstaben verglichen, untereinander
+ * aber zuerst anhand ihrer Länge. Damit genügt ein einfacher Zeichenvergleich.
+ */
+public class NatuerlicherSortierschluessel
+		implements Comparable<NatuerlicherSortierschluessel> {
+
+	/**
+	 * Der Text, aus dem der Schlüssel berechnet wurde.
+	 */
+	private final String text;
+
+	/**
+	 * Der kodierte Schlüssel.
+	 */
+	private final String schluessel;
+
+	/**
+	 * Berechnet den Sortierschlüssel eines Textes.
+	 *
+	 * @param text
+	 * 		Der Text, nach dem sortiert werden soll.
+	 */
+	public NatuerlicherSortierschluessel(final String text) {
+		this.text = text;
+		StringBuilder schluessel = new StringBuilder(text.length() + 8);
+		int index = 0;
+		while (index < text.length()) {
+			char zeichen = text.charAt(index);
+			if (Character.isSpaceChar(zeichen)) {
+				index++;
+				continue;
+			}
+			if (!Character.isDigit(zeichen)) {
+				schluessel.append(zeichen);
+				index++;
+				continue;
+			}
+			while (index < text.length() && text.charAt(index) == '0')
+				index++;
+			int anfang = index;
+			while (index < text.length() && Character.isDigit(text.charAt(index)))
+				index++;
+			if (index > anfang) {
+				schluessel.append('0');
+				schluessel.append((char) (index - anfang));
+				schluessel.append(text, anfang, index);
+			}
+		}
+		this.schluessel = schluessel.toString();
+	}
+
+	/**
+	 * Vergleicht zwei Sortierschlüssel. Texte, die sich nur in Leerzeichen oder
+	 * führenden Nullen unterscheiden, werden nach ihrem Zeichenwert geordnet.
+	 */
+	@Override
+	public int compareTo(final NatuerlicherSortierschluessel sortierschluessel) {
+		int ergebnis = this.schluessel.compareTo(sortierschluessel.schluessel);
+		if (ergebnis != 0)
+			return ergebnis;
+		return this.text.compareTo(sortierschluessel.text);
+	}
+
+	/**
+	 * Gibt den Text zurück, aus dem der Schlüssel berechnet wurde.
+	 */
+	public String toString() {
+		return this.text;
+	}
+}
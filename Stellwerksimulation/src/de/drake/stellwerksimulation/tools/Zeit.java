@@ -1,111 +1,154 @@
-package de.drake.stellwerksimulation.tools;
-
-import java.util.Scanner;
-
-public class Zeit implements Comparable<Zeit> {
-	private int stunde;
-	
-	private int minute;
-	
-	private int sekunde;
-	
-	public Zeit(final int stunde, final int minute, final int sekunde) {
-		this.stunde = stunde;
-		this.minute = minute;
-		this.sekunde = sekunde;
-	}
-	
-	public Zeit(final String zeit) {
-		Scanner scanner = new Scanner(zeit);
-		scanner.useDelimiter(":");
-		if (!scanner.hasNext()) {
-			scanner.close();
-			throw new IllegalArgumentException();
-		}
-		this.stunde = scanner.nextInt();
-		this.minute = scanner.nextInt();
-		if (scanner.hasNext()) {
-			this.sekunde = scanner.nextInt();
-		} else {
-			this.sekunde = 0;
-		}
-		scanner.close();
-	}
-	
-	public Zeit(final Zeit zeit) {
-		this.stunde = zeit.stunde;
-		this.minute = zeit.minute;
-		this.sekunde = zeit.sekunde;
-	}
-	
-	public boolean equals(final Object object) {
-		if (!(object instanceof Zeit))
-			return false;
-		Zeit zeit = (Zeit) object;
-		if (this.stunde == zeit.stunde && this.minute == zeit.minute
-				&& this.sekunde == zeit.sekunde)
-			return true;
-		return false;
-	}
-	
-	@Override
-	public String toString() {
-		String result = "";
-		if (this.stunde < 10)
-			result += 0;
-		result += this.stunde + ":";
-		if (this.minute < 10)
-			result += 0;
-		result += this.minute;
-		return result;
-	}
-	
-	@Override
-	public Object clone() {
-		return new Zeit(this.stunde, this.minute, this.sekunde);
-	}
-
-	public int compareTo(final Zeit zeit) {
-		return this.stunde*3600 + this.minute*60 + this.sekunde
-				-(zeit.stunde*3600 + zeit.minute*60 + zeit.sekunde);
-	}
-
-	public Zeit addMinuten(final int minuten) {
-		this.stunde += (this.minute + minuten)/60;
-		this.minute = (this.minute + minuten) % 60;
-		return this;
-	}
-	
-	public Zeit addSekunden(final int sekunden) {
-		this.minute += (this.sekunde + sekunden)/60;
-		this.sekunde = (this.sekunde + sekunden) % 60;
-		this.stunde += this.minute / 60;
-		this.minute = this.minute % 60;
-		this.stunde = this.stunde % 24;
-		return this;
-	}
-	
-	public static int getZeitdifferenzInMinuten(final Zeit zeit, final Zeit zeit2) {
-		return (int) Math.ceil(Math.abs(zeit2.stunde*60. + zeit2.minute + zeit2.sekunde/60.
-				- (zeit.stunde*60. + zeit.minute + zeit.sekunde/60.)));
-	}
-	
-	public boolean istFrueherOderZeitgleichAls(final Zeit zeit) {
-		if (this.stunde*3600 + this.minute*60 + this.sekunde
-				<= zeit.stunde*3600 + zeit.minute*60 + zeit.sekunde)
-			return true;
-		return false;
-	}
-	
-	public static Zeit max(final Zeit zeit1, final Zeit zeit2) {
-		if (zeit1.istFrueherOderZeitgleichAls(zeit2))
-			return zeit2;
-		return zeit1;
-	}
-	
-	public static Zeit min(final Zeit zeit1, final Zeit zeit2) {
-		if (zeit1.istFrueherOderZeitgleichAls(zeit2))
-			return zeit1;
-		return zeit2;
-	}
-}
+package de.drake.stellwerksimulation.tools;
+
+/**
+ * Eine unveränderliche Uhrzeit, wie sie in Konfigurations- und Fahrplandateien
+ * sowie in der grafischen Oberfläche verwendet wird.
+ * 
+ * Innerhalb der Simulation werden Zeiten dagegen als Sekunden seit Mitternacht des
+ * Starttages in einem int gespeichert (siehe getSekunden() und ausSekunden()).
+ * Diese Darstellung läuft über Mitternacht hinaus weiter und kommt ohne
+ * Objekterzeugung aus.
+ */
+public class Zeit implements Comparable<Zeit> {
+	/**
+	 * Steht in der Sekundendarstellung für eine nicht vorhandene Zeit (z.B. die
+	 * Abfahrtszeit eines Güterzuges ohne Halt).
+	 */
+	public static final int KEINE_ZEIT = -1;
+	
+	/**
+	 * Die Anzahl der Sekunden eines Tages.
+	 */
+	public static final int SEKUNDEN_PRO_TAG = 24 * 3600;
+	
+	private final int stunde;
+	
+	private final int minute;
+	
+	private final int sekunde;
+	
+	public Zeit(final int stunde, final int minute, final int sekunde) {
+		this.stunde = stunde;
+		this.minute = minute;
+		this.sekunde = sekunde;
+	}
+	
+	public Zeit(final String zeit) {
+		String[] teile = zeit.trim().split(":");
+		if (teile[0].isEmpty())
+			throw new IllegalArgumentException();
+		this.stunde = Integer.parseInt(teile[0]);
+		this.minute = Integer.parseInt(teile[1]);
+		if (teile.length > 2) {
+			this.sekunde = Integer.parseInt(teile[2]);
+		} else {
+			this.sekunde = 0;
+		}
+	}
+	
+	/**
+	 * Wandelt eine Zeit in Sekundendarstellung in eine Uhrzeit um. Ganze Tage
+	 * werden dabei abgeschnitten.
+	 * 
+	 * @param sekunden
+	 * 		Die Zeit in Sekunden seit Mitternacht des Starttages.
+	 */
+	public static Zeit ausSekunden(final int sekunden) {
+		int sekundeDesTages = sekunden % Zeit.SEKUNDEN_PRO_TAG;
+		return new Zeit(sekundeDesTages / 3600, sekundeDesTages / 60 % 60,
+				sekundeDesTages % 60);
+	}
+	
+	/**
+	 * Gibt die Uhrzeit in Sekunden seit Mitternacht zurück.
+	 */
+	public int getSekunden() {
+		return this.stunde*3600 + this.minute*60 + this.sekunde;
+	}
+	
+	/**
+	 * Verschiebt eine Zeit in Sekundendarstellung um einen Tag nach hinten, sofern
+	 * sie mehr als 12 Stunden vor einer Bezugszeit liegt. Damit werden Uhrzeiten nach
+	 * Mitternacht dem Folgetag zugeordnet.
+	 * 
+	 * @param sekunden
+	 * 		Die zu verschiebende Zeit in Sekunden.
+	 * @param bezugszeit
+	 * 		Die Bezugszeit in Sekunden.
+	 */
+	public static int nachBezugszeit(final int sekunden, final int bezugszeit) {
+		int result = sekunden;
+		while (result - bezugszeit < -Zeit.SEKUNDEN_PRO_TAG / 2)
+			result += Zeit.SEKUNDEN_PRO_TAG;
+		return result;
+	}
+	
+	public Zeit(final Zeit zeit) {
+		this.stunde = zeit.stunde;
+		this.minute = zeit.minute;
+		this.sekunde = zeit.sekunde;
+	}
+	
+	public boolean equals(final Object object) {
+		if (!(object instanceof Zeit))
+			return false;
+		Zeit zeit = (Zeit) object;
+		if (this.stunde == zeit.stunde && this.minute == zeit.minute
+				&& this.sekunde == zeit.sekunde)
+			return true;
+		return false;
+	}
+	
+	@Override
+	public String toString() {
+		String result = "";
+		if (this.stunde < 10)
+			result += 0;
+		result += this.stunde + ":";
+		if (this.minute < 10)
+			result += 0;
+		result += this.minute;
+		return result;
+	}
+	
+	@Override
+	public Object clone() {
+		return new Zeit(this.stunde, this.minute, this.sekunde);
+	}
+
+	public int compareTo(final Zeit zeit) {
+		return this.stunde*3600 + this.minute*60 + this.sekunde
+				-(zeit.stunde*3600 + zeit.minute*60 + zeit.sekunde);
+	}
+
+	public static int getZeitdifferenzInMinuten(final Zeit zeit, final Zeit zeit2) {
+		return Zeit.getZeitdifferenzInMinuten(zeit.getSekunden(), zeit2.getSekunden());
+	}
+	
+	/**
+	 * Gibt den Abstand zwischen zwei Zeiten in Sekundendarstellung in angefangenen
+	 * Minuten zurück.
+	 */
+	public static int getZeitdifferenzInMinuten(final int sekunden, final int sekunden2) {
+		return (Math.abs(sekunden2 - sekunden) + 59) / 60;
+	}
+	
+	public boolean istFrueherOderZeitgleichAls(final Zeit zeit) {
+		if (this.stunde*3600 + this.minute*60 + this.sekunde
+				<= zeit.stunde*3600 + zeit.minute*60 + zeit.sekunde)
+			return true;
+		return false;
+	}
+	
+	public static Zeit max(final Zeit zeit1, final Zeit zeit2) {
+		if (zeit1.istFrueherOderZeitgleichAls(zeit2))
+			return zeit2;
+		return zeit1;
+	}
+	
+	public static Zeit min(final Zeit zeit1, final Zeit zeit2) {
+		if (zeit1.istFrueherOderZeitgleichAls(zeit2))
+			return zeit1;
+		return zeit2;
+	}
+}
@@ -1,347 +1,423 @@
-package de.drake.stellwerksimulation.view;
-
-import java.awt.*;
-
-import javax.swing.*;
-import javax.swing.border.TitledBorder;
-import javax.swing.event.ListSelectionEvent;
-import javax.swing.event.ListSelectionListener;
-
-import de.drake.stellwerksimulation.model.Fahrplaneintrag;
-import de.drake.stellwerksimulation.tools.DashedBorder;
-
-/**
- * Ein Fahrplanpanel erlaubt die grafische Darstellung bestimmter Zge.
- */
-class Fahrplanpanel extends JPanel {
-	
-	/**
-	 * Die serialVersionUID.
-	 */
-	private static final long serialVersionUID = 1L;
-	
-	/**
-	 * Beinhaltet den derzeit angezeigten Fahrplaneintrag.
-	 */
-	private Fahrplaneintrag selektierterFahrplaneintrag = null;
-	
-	/**
-	 * Der Teil des Panels, der die Gleisbelegung anzeigt
-	 */
-	private JList<Fahrplaneintrag> gleisbelegung;
-
-	/**
-	 * Der Teil des Panels, in dem Zge ausgewhlt werden knnen.
-	 */
-	private JList<Fahrplaneintrag> auswahlmenue;
-	
-	/**
-	 * Der Teil des Panels, in dem der ausgewhlte Zug angezeigt wird.
-	 */
-	private JTextArea zuganzeige;
-	
-	/**
-	 * Der Teil des Panels, in dem wartende Zge ausgewhlt werden knnen.
-	 */
-	private JList<Fahrplaneintrag> wartendeZuege;
-	
-	Fahrplanpanel() {
-		super();
-		this.setLayout(new GridLayout(1,2));
-		
-		JPanel linkeSeite = new JPanel();
-		linkeSeite.setLayout(new BorderLayout());
-		this.add(linkeSeite);
-		
-			JPanel gleisPanel = new JPanel();
-			gleisPanel.setLayout(new BorderLayout());
-			TitledBorder borderGleis = new TitledBorder("Gleisbelegung");
-			borderGleis.setTitleJustification((TitledBorder.CENTER));
-			gleisPanel.setBorder(borderGleis);
-			linkeSeite.add(gleisPanel, BorderLayout.CENTER);
-			
-				this.gleisbelegung = new JList<Fahrplaneintrag>(
-						Fahrplaneintrag.getGleisbelegung());
-				this.gleisbelegung.setCellRenderer(new FahrplanCellRenderer(true));
-				this.gleisbelegung.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-				this.gleisbelegung.getSelectionModel().addListSelectionListener(
-						new FahrplanSelectionListener(this, this.gleisbelegung));
-				gleisPanel.add(new JScrollPane(this.gleisbelegung));
-		
-			JPanel auswahlPanel = new JPanel();
-			auswahlPanel.setLayout(new BorderLayout());
-			TitledBorder borderGesamt = new TitledBorder("Gesamtfahrplan");
-			borderGesamt.setTitleJustification((TitledBorder.CENTER));
-			auswahlPanel.setBorder(borderGesamt);
-			linkeSeite.add(auswahlPanel, BorderLayout.EAST);
-				
-				this.auswahlmenue = new JList<Fahrplaneintrag>(
-						Fahrplaneintrag.getFahrplanInSimulation());
-				this.auswahlmenue.setCellRenderer(new FahrplanCellRenderer(false));
-				this.auswahlmenue.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-				this.auswahlmenue.getSelectionModel().addListSelectionListener(
-						new FahrplanSelectionListener(this, this.auswahlmenue));
-				auswahlPanel.add(new JScrollPane(this.auswahlmenue));
-			
-		JPanel rechteSeite = new JPanel();
-		rechteSeite.setLayout(new BorderLayout());
-		this.add(rechteSeite);
-			
-			JPanel zugPanel = new JPanel();
-			zugPanel.setLayout(new BorderLayout());
-			TitledBorder borderZug = new TitledBorder("Details");
-			borderZug.setTitleJustification((TitledBorder.CENTER));
-			zugPanel.setBorder(borderZug);
-			rechteSeite.add(zugPanel, BorderLayout.CENTER);
-			
-				this.zuganzeige = new JTextArea();
-				this.zuganzeige.setFont(new Font("Monospaced", Font.PLAIN, 12));
-				this.zuganzeige.setBackground(this.getBackground());
-				this.zuganzeige.setEditable(false);
-				this.zuganzeige.setLineWrap(true);
-				this.zuganzeige.setWrapStyleWord(true);
-				this.zuganzeige.setFocusable(false);
-				JScrollPane zugScroll = new JScrollPane(this.zuganzeige);
-				zugScroll.setBorder(null);
-				zugPanel.add(zugScroll);
-			
-			JPanel wartePanel = new JPanel();
-			wartePanel.setLayout(new BorderLayout());
-			TitledBorder borderWarte = new TitledBorder("Wartende Zge");
-			borderWarte.setTitleJustification((TitledBorder.CENTER));
-			wartePanel.setBorder(borderWarte);
-			rechteSeite.add(wartePanel, BorderLayout.EAST);
-			
-				this.wartendeZuege = new JList<Fahrplaneintrag>(
-						Fahrplaneintrag.getWartendeZuege());
-				this.wartendeZuege.setCellRenderer(new FahrplanCellRenderer(false));
-				this.wartendeZuege.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-				this.wartendeZuege.getSelectionModel().addListSelectionListener(
-						new FahrplanSelectionListener(this, this.wartendeZuege));
-				wartePanel.add(new JScrollPane(this.wartendeZuege));
-
-	}
-	
-	/**
-	 * Zeichnet das Fahrplanpanel neu.
-	 */
-	@Override
-	protected void paintComponent(Graphics g) {
-		Fahrplaneintrag.updateWartendeZuege();
-		Fahrplaneintrag.updateGleisbelegung();
-		// JLists aktualisieren, damit beispielsweise neue Eintrge abgebildet werden
-		// und bei Wegfall von Eintrgen die Scrollbars aktualisiert werden.
-		this.wartendeZuege.updateUI();
-		this.auswahlmenue.updateUI();
-		this.gleisbelegung.updateUI();
-		this.aktualisiereZuganzeige();
-		//Selektion in den JLists aktualisieren, damit weiterhin das richtige
-		//Element selektiert ist
-		this.setSelektion();
-	}
-
-	/**
-	 * Wird ausgelst, wenn sich eine Selektion gendert hat.
-	 * 
-	 * @param quelle
-	 * 		Die JList, in der sich die Selektion gendert hat.
-	 */
-	void selectionChanged(final JList<Fahrplaneintrag> quelle) {
-		if (quelle.equals(this.wartendeZuege) && (quelle.getSelectedValue() == null))
-			return;
-		if (quelle.equals(this.gleisbelegung) && (quelle.getSelectedValue() == null))
-			return;
-		this.selektierterFahrplaneintrag = quelle.getSelectedValue();
-		this.setSelektion();
-		this.aktualisiereZuganzeige();
-	}
-	
-	/**
-	 * Aktualisiert die detaillierte Zugbeschreibung in der Zuganzeige.
-	 */
-	private void aktualisiereZuganzeige() {
-		if (this.selektierterFahrplaneintrag != null) {
-			this.zuganzeige.setText(this.selektierterFahrplaneintrag.getDescription());
-		} else {
-			this.zuganzeige.setText("");
-		}
-	}
-	
-	/**
-	 * Selektiert den selektierten Fahrplaneintrag in den Auswahllisten.
-	 */
-	private void setSelektion() {
-		if (!Fahrplaneintrag.getFahrplanInSimulation().contains(
-				this.selektierterFahrplaneintrag))
-			this.selektierterFahrplaneintrag = null;
-		if (this.selektierterFahrplaneintrag == null) {
-			this.auswahlmenue.clearSelection();
-			this.wartendeZuege.clearSelection();
-			this.gleisbelegung.clearSelection();
-			return;
-		}
-		this.auswahlmenue.setSelectedIndex(Fahrplaneintrag.getFahrplanInSimulation()
-				.lastIndexOf(this.selektierterFahrplaneintrag));
-		if (Fahrplaneintrag.getWartendeZuege()
-				.contains(this.selektierterFahrplaneintrag)) {
-			this.wartendeZuege.setSelectedIndex(Fahrplaneintrag.getWartendeZuege()
-					.lastIndexOf(this.selektierterFahrplaneintrag));
-		} else {
-			this.wartendeZuege.clearSelection();
-		}
-		if (Fahrplaneintrag.getGleisbelegung()
-				.contains(this.selektierterFahrplaneintrag)){
-			this.gleisbelegung.setSelectedIndex(Fahrplaneintrag.getGleisbelegung()
-					.lastIndexOf(this.selektierterFahrplaneintrag));
-		} else {
-			this.gleisbelegung.clearSelection();
-		}
-	}
-	
-	/**
-	 * Setzt und fixiert die Gre der Fahrplanpanels.
-	 */
-	void lockSize() {
-		this.auswahlmenue.getParent().setPreferredSize(
-				this.auswahlmenue.getParent().getSize());
-		this.wartendeZuege.getParent().setPreferredSize(
-				this.auswahlmenue.getParent().getSize());
-	}
-}
-
-/**
- * Der FahrplanListCellRenderer beschreibt, wie Zge im Auswahlmen des Fahrplanfensters
- * dargestellt werden sollen.
- */
-class FahrplanCellRenderer implements ListCellRenderer<Fahrplaneintrag> {
-
-	/**
-	 * Gibt an, ob die Formatierung Gleisangaben beinhalten soll oder nicht.
-	 */
-	private boolean gleisanzeige;
-	
-	/**
-	 * Erzeugt einen neuen FahrplancCellRenderer.
-	 * 
-	 * @param gleisanzeige 
-	 * 		Gibt an, ob die Formatierung Gleisangaben beinhalten soll oder nicht.
-	 */
-	FahrplanCellRenderer(final boolean gleisanzeige) {
-		super();
-		this.gleisanzeige = gleisanzeige;
-	}
-	
-	/**
-	 * Erzeugt das JLabel, das zu einem entsprechenden Fahrplaneintrag angezeigt
-	 * werden soll.
-	 * 
-	 * @param list
-	 * 		Die Liste, in der der Fahrplaneintrag angezeigt werden soll.
-	 * @param zug
-	 * 		Der Fahrplaneintrag, der formatiert werden soll.
-	 * @param index
-	 * 		Die Position des Fahrplaneintrags in der gesamten Liste.
-	 * @param isSelected
-	 * 		Gibt an, ob der Eintrag derzeit selektiert ist.
-	 * @param cellHasFocus
-	 * 		Gibt an, ob das Fenster derzeit im Vordergrund ist.
-	 */
-	public Component getListCellRendererComponent(
-			final JList<? extends Fahrplaneintrag> list,
-			final Fahrplaneintrag zug,
-			final int index, final boolean isSelected, final boolean cellHasFocus) {
-		JLabel result = new JLabel();
-		result.setFont(new Font("Monospaced", Font.PLAIN, 12));
-		if (this.gleisanzeige == true) {
-			result.setText(zug.getGleisbelegungsDescription());
-		} else {
-			result.setText(zug.getShortDescription());
-		}
-		result.setOpaque(true);
-		Color foregroundColor = null;
-		Color backgroundColor = null;
-		Color borderColor = null;
-		if (isSelected){
-			foregroundColor = Color.WHITE;
-			switch (zug.getStatus()) {
-				case Fahrplaneintrag.ZUG_STEHT:
-					backgroundColor = Color.BLACK;
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT:
-					backgroundColor = new Color(0,128,0);
-					break;
-				case Fahrplaneintrag.ZUG_WARTET:
-					backgroundColor = Color.RED;
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
-					backgroundColor = Color.BLUE;
-			}
-			if (cellHasFocus) {
-				borderColor = Color.WHITE;
-			} else {
-				borderColor = backgroundColor;
-			}
-		} else {
-	    	backgroundColor = Color.WHITE;
-			switch (zug.getStatus()) {
-				case Fahrplaneintrag.ZUG_STEHT:
-					foregroundColor = Color.BLACK;
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT:
-					foregroundColor = new Color(0,128,0);
-					break;
-				case Fahrplaneintrag.ZUG_WARTET:
-					foregroundColor = Color.RED;
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
-					foregroundColor = Color.BLUE;
-			}
-			borderColor = backgroundColor;
-	    }
-		result.setBackground(backgroundColor);
-		result.setForeground(foregroundColor);
-		result.setBorder(new DashedBorder(borderColor));
-		return result;
-	}
-}
-
-/**
- * berwacht Fahrplan-JLists auf Anklicken. 
- */
-class FahrplanSelectionListener implements ListSelectionListener {
-
-	/**
-	 * Das Panel, welches fr die Verwaltung der Selektion verantwortlich ist.
-	 */
-	private Fahrplanpanel fahrplanpanel;
-	
-	/**
-	 * Die JList, die berwacht wird.
-	 */
-	private JList<Fahrplaneintrag> list;
-	
-	/**
-	 * Erzeugt einen neuen FahrplanSelectionListener.
-	 * 
-	 * @param fahrplanpanel
-	 * 		Das Panel, welches die Selektion der integrierten JList verwaltet.
-	 * @param list
-	 * 		Die Liste, die berwacht wird.
-	 */
-	FahrplanSelectionListener(final Fahrplanpanel fahrplanpanel,
-			final JList<Fahrplaneintrag> list) {
-		super();
-		this.fahrplanpanel= fahrplanpanel;
-		this.list = list;
-	}
-	
-	/**
-	 * Stellt eine gnderte Auswahl eines Fahrplaneintrags im rechten Anzeigefenster dar.
-	 * 
-	 * @param event
-	 * 		Event, welches Information ber die genderte Selektion beinhaltet.
-	 */
-	public void valueChanged(ListSelectionEvent event) {
-		this.fahrplanpanel.selectionChanged(this.list);
-	}
+package de.drake.stellwerksimulation.view;
+
+import java.awt.*;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+
+import de.drake.stellwerksimulation.model.Fahrplaneintrag;
+import de.drake.stellwerksimulation.model.Lagebild;
+import de.drake.stellwerksimulation.model.Zuganzeige;
+import de.drake.stellwerksimulation.tools.DashedBorder;
+
+/**
+ * Ein Fahrplanpanel erlaubt die grafische Darstellung bestimmter Züge.
+ */
+class Fahrplanpanel extends JPanel {
+	
+	/**
+	 * Die serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Beinhaltet den derzeit angezeigten Fahrplaneintrag.
+	 */
+	private Fahrplaneintrag selektierterFahrplaneintrag = null;
+	
+	/**
+	 * Das Lagebild, dessen Zeilen derzeit in den Auswahllisten angezeigt werden.
+	 */
+	private Lagebild angezeigtesLagebild = null;
+	
+	/**
+	 * Die Zeilen der Gleisbelegung.
+	 */
+	private final Zuganzeigenmodell gleisbelegungsmodell = new Zuganzeigenmodell();
+	
+	/**
+	 * Die Zeilen des Gesamtfahrplans.
+	 */
+	private final Zuganzeigenmodell fahrplanmodell = new Zuganzeigenmodell();
+	
+	/**
+	 * Die Zeilen der wartenden Züge.
+	 */
+	private final Zuganzeigenmodell wartemodell = new Zuganzeigenmodell();
+	
+	/**
+	 * Der Teil des Panels, der die Gleisbelegung anzeigt
+	 */
+	private JList<Zuganzeige> gleisbelegung;
+
+	/**
+	 * Der Teil des Panels, in dem Züge ausgewählt werden können.
+	 */
+	private JList<Zuganzeige> auswahlmenue;
+	
+	/**
+	 * Der Teil des Panels, in dem der ausgewählte Zug angezeigt wird.
+	 */
+	private JTextArea zuganzeige;
+	
+	/**
+	 * Der Teil des Panels, in dem wartende Züge ausgewählt werden können.
+	 */
+	private JList<Zuganzeige> wartendeZuege;
+	
+	/**
+	 * Die GUI, zu der das Fahrplanpanel gehört.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Erzeugt ein neues Fahrplanpanel.
+	 * 
+	 * @param gui
+	 * 		Die GUI, zu der das Fahrplanpanel gehört.
+	 */
+	Fahrplanpanel(final GUI gui) {
+		super();
+		this.gui = gui;
+		this.setLayout(new GridLayout(1,2));
+		
+		JPanel linkeSeite = new JPanel();
+		linkeSeite.setLayout(new BorderLayout());
+		this.add(linkeSeite);
+		
+			JPanel gleisPanel = new JPanel();
+			gleisPanel.setLayout(new BorderLayout());
+			TitledBorder borderGleis = new TitledBorder("Gleisbelegung");
+			borderGleis.setTitleJustification((TitledBorder.CENTER));
+			gleisPanel.setBorder(borderGleis);
+			linkeSeite.add(gleisPanel, BorderLayout.CENTER);
+			
+				this.gleisbelegung = new JList<Zuganzeige>(this.gleisbelegungsmodell);
+				this.gleisbelegung.setCellRenderer(new FahrplanCellRenderer());
+				this.gleisbelegung.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+				this.gleisbelegung.getSelectionModel().addListSelectionListener(
+						new FahrplanSelectionListener(this, this.gleisbelegung));
+				gleisPanel.add(new JScrollPane(this.gleisbelegung));
+		
+			JPanel auswahlPanel = new JPanel();
+			auswahlPanel.setLayout(new BorderLayout());
+			TitledBorder borderGesamt = new TitledBorder("Gesamtfahrplan");
+			borderGesamt.setTitleJustification((TitledBorder.CENTER));
+			auswahlPanel.setBorder(borderGesamt);
+			linkeSeite.add(auswahlPanel, BorderLayout.EAST);
+				
+				this.auswahlmenue = new JList<Zuganzeige>(this.fahrplanmodell);
+				this.auswahlmenue.setCellRenderer(new FahrplanCellRenderer());
+				this.auswahlmenue.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+				this.auswahlmenue.getSelectionModel().addListSelectionListener(
+						new FahrplanSelectionListener(this, this.auswahlmenue));
+				auswahlPanel.add(new JScrollPane(this.auswahlmenue));
+			
+		JPanel rechteSeite = new JPanel();
+		rechteSeite.setLayout(new BorderLayout());
+		this.add(rechteSeite);
+			
+			JPanel zugPanel = new JPanel();
+			zugPanel.setLayout(new BorderLayout());
+			TitledBorder borderZug = new TitledBorder("Details");
+			borderZug.setTitleJustification((TitledBorder.CENTER));
+			zugPanel.setBorder(borderZug);
+			rechteSeite.add(zugPanel, BorderLayout.CENTER);
+			
+				this.zuganzeige = new JTextArea();
+				this.zuganzeige.setFont(new Font("Monospaced", Font.PLAIN, 12));
+				this.zuganzeige.setBackground(this.getBackground());
+				this.zuganzeige.setEditable(false);
+				this.zuganzeige.setLineWrap(true);
+				this.zuganzeige.setWrapStyleWord(true);
+				this.zuganzeige.setFocusable(false);
+				JScrollPane zugScroll = new JScrollPane(this.zuganzeige);
+				zugScroll.setBorder(null);
+				zugPanel.add(zugScroll);
+			
+			JPanel wartePanel = new JPanel();
+			wartePanel.setLayout(new BorderLayout());
+			TitledBorder borderWarte = new TitledBorder("Wartende Züge");
+			borderWarte.setTitleJustification((TitledBorder.CENTER));
+			wartePanel.setBorder(borderWarte);
+			rechteSeite.add(wartePanel, BorderLayout.EAST);
+			
+				this.wartendeZuege = new JList<Zuganzeige>(this.wartemodell);
+				this.wartendeZuege.setCellRenderer(new FahrplanCellRenderer());
+				this.wartendeZuege.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+				this.wartendeZuege.getSelectionModel().addListSelectionListener(
+						new FahrplanSelectionListener(this, this.wartendeZuege));
+				wartePanel.add(new JScrollPane(this.wartendeZuege));
+
+	}
+	
+	/**
+	 * Zeichnet das Fahrplanpanel neu. Die Auswahllisten werden nur dann mit neuen
+	 * Zeilen versorgt, wenn seit dem letzten Zeichnen ein neues Lagebild
+	 * veröffentlicht wurde.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		Lagebild lagebild = this.gui.getKontext().getLagebild();
+		if (lagebild != this.angezeigtesLagebild) {
+			this.angezeigtesLagebild = lagebild;
+			this.gleisbelegungsmodell.setZeilen(lagebild.getGleisbelegung());
+			this.fahrplanmodell.setZeilen(lagebild.getFahrplan());
+			this.wartemodell.setZeilen(lagebild.getWartendeZuege());
+			//Selektion in den JLists aktualisieren, damit weiterhin das richtige
+			//Element selektiert ist
+			this.setSelektion();
+		}
+		this.aktualisiereZuganzeige();
+	}
+
+	/**
+	 * Wird ausgelöst, wenn sich eine Selektion geändert hat.
+	 * 
+	 * @param quelle
+	 * 		Die JList, in der sich die Selektion geändert hat.
+	 */
+	void selectionChanged(final JList<Zuganzeige> quelle) {
+		if (quelle.equals(this.wartendeZuege) && (quelle.getSelectedValue() == null))
+			return;
+		if (quelle.equals(this.gleisbelegung) && (quelle.getSelectedValue() == null))
+			return;
+		Fahrplaneintrag zug = null;
+		if (quelle.getSelectedValue() != null)
+			zug = quelle.getSelectedValue().getZug();
+		if (zug == this.selektierterFahrplaneintrag)
+			return;
+		this.selektierterFahrplaneintrag = zug;
+		this.gui.getController().setSelektierterZug(zug);
+		this.setSelektion();
+		this.aktualisiereZuganzeige();
+	}
+	
+	/**
+	 * Aktualisiert die detaillierte Zugbeschreibung in der Zuganzeige. Die
+	 * Beschreibung wird vom Thread der Simulation für den selektierten Zug im
+	 * Lagebild abgelegt; bis dahin bleibt die bisherige Anzeige stehen.
+	 */
+	private void aktualisiereZuganzeige() {
+		String beschreibung = "";
+		if (this.selektierterFahrplaneintrag != null) {
+			beschreibung = this.gui.getKontext().getLagebild().getBeschreibung(
+					this.selektierterFahrplaneintrag);
+			if (beschreibung == null)
+				return;
+		}
+		if (!beschreibung.equals(this.zuganzeige.getText()))
+			this.zuganzeige.setText(beschreibung);
+	}
+	
+	/**
+	 * Selektiert den selektierten Fahrplaneintrag in den Auswahllisten.
+	 */
+	private void setSelektion() {
+		Lagebild lagebild = this.angezeigtesLagebild;
+		if (lagebild == null)
+			return;
+		int position = Zuganzeige.sucheZug(lagebild.getFahrplan(),
+				this.selektierterFahrplaneintrag);
+		if (position < 0 && this.selektierterFahrplaneintrag != null) {
+			this.selektierterFahrplaneintrag = null;
+			this.gui.getController().setSelektierterZug(null);
+		}
+		if (this.selektierterFahrplaneintrag == null) {
+			this.auswahlmenue.clearSelection();
+			this.wartendeZuege.clearSelection();
+			this.gleisbelegung.clearSelection();
+			return;
+		}
+		this.auswahlmenue.setSelectedIndex(position);
+		Fahrplanpanel.selektiere(this.wartendeZuege, Zuganzeige.sucheZug(
+				lagebild.getWartendeZuege(), this.selektierterFahrplaneintrag));
+		Fahrplanpanel.selektiere(this.gleisbelegung, Zuganzeige.sucheZug(
+				lagebild.getGleisbelegung(), this.selektierterFahrplaneintrag));
+	}
+	
+	/**
+	 * Selektiert eine Zeile einer Auswahlliste oder hebt die Selektion auf.
+	 * 
+	 * @param liste
+	 * 		Die Auswahlliste.
+	 * @param position
+	 * 		Die zu selektierende Zeile oder -1, falls keine Zeile selektiert sein soll.
+	 */
+	private static void selektiere(final JList<Zuganzeige> liste, final int position) {
+		if (position < 0) {
+			liste.clearSelection();
+		} else {
+			liste.setSelectedIndex(position);
+		}
+	}
+	
+	/**
+	 * Setzt und fixiert die Größe der Fahrplanpanels.
+	 */
+	void lockSize() {
+		this.auswahlmenue.getParent().setPreferredSize(
+				this.auswahlmenue.getParent().getSize());
+		this.wartendeZuege.getParent().setPreferredSize(
+				this.auswahlmenue.getParent().getSize());
+	}
+}
+
+/**
+ * Der FahrplanListCellRenderer beschreibt, wie Züge im Auswahlmenü des Fahrplanfensters
+ * dargestellt werden sollen.
+ */
+class FahrplanCellRenderer implements ListCellRenderer<Zuganzeige> {
+	
+	/**
+	 * Erzeugt das JLabel, das zu einer entsprechenden Zuganzeige angezeigt
+	 * werden soll.
+	 * 
+	 * @param list
+	 * 		Die Liste, in der die Zuganzeige angezeigt werden soll.
+	 * @param zug
+	 * 		Die Zuganzeige, die formatiert werden soll.
+	 * @param index
+	 * 		Die Position des Fahrplaneintrags in der gesamten Liste.
+	 * @param isSelected
+	 * 		Gibt an, ob der Eintrag derzeit selektiert ist.
+	 * @param cellHasFocus
+	 * 		Gibt an, ob das Fenster derzeit im Vordergrund ist.
+	 */
+	public Component getListCellRendererComponent(
+			final JList<? extends Zuganzeige> list,
+			final Zuganzeige zug,
+			final int index, final boolean isSelected, final boolean cellHasFocus) {
+		JLabel result = new JLabel();
+		result.setFont(new Font("Monospaced", Font.PLAIN, 12));
+		result.setText(zug.getText());
+		result.setOpaque(true);
+		Color foregroundColor = null;
+		Color backgroundColor = null;
+		Color borderColor = null;
+		if (isSelected){
+			foregroundColor = Color.WHITE;
+			switch (zug.getStatus()) {
+				case Fahrplaneintrag.ZUG_STEHT:
+					backgroundColor = Color.BLACK;
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT:
+					backgroundColor = new Color(0,128,0);
+					break;
+				case Fahrplaneintrag.ZUG_WARTET:
+					backgroundColor = Color.RED;
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
+					backgroundColor = Color.BLUE;
+			}
+			if (cellHasFocus) {
+				borderColor = Color.WHITE;
+			} else {
+				borderColor = backgroundColor;
+			}
+		} else {
+	    	backgroundColor = Color.WHITE;
+			switch (zug.getStatus()) {
+				case Fahrplaneintrag.ZUG_STEHT:
+					foregroundColor = Color.BLACK;
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT:
+					foregroundColor = new Color(0,128,0);
+					break;
+				case Fahrplaneintrag.ZUG_WARTET:
+					foregroundColor = Color.RED;
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
+					foregroundColor = Color.BLUE;
+			}
+			borderColor = backgroundColor;
+	    }
+		result.setBackground(backgroundColor);
+		result.setForeground(foregroundColor);
+		result.setBorder(new DashedBorder(borderColor));
+		return result;
+	}
+}
+
+/**
+ * Überwacht Fahrplan-JLists auf Anklicken. 
+ */
+class FahrplanSelectionListener implements ListSelectionListener {
+
+	/**
+	 * Das Panel, welches für die Verwaltung der Selektion verantwortlich ist.
+	 */
+	private Fahrplanpanel fahrplanpanel;
+	
+	/**
+	 * Die JList, die überwacht wird.
+	 */
+	private JList<Zuganzeige> list;
+	
+	/**
+	 * Erzeugt einen neuen FahrplanSelectionListener.
+	 * 
+	 * @param fahrplanpanel
+	 * 		Das Panel, welches die Selektion der integrierten JList verwaltet.
+	 * @param list
+	 * 		Die Liste, die überwacht wird.
+	 */
+	FahrplanSelectionListener(final Fahrplanpanel fahrplanpanel,
+			final JList<Zuganzeige> list) {
+		super();
+		this.fahrplanpanel= fahrplanpanel;
+		this.list = list;
+	}
+	
+	/**
+	 * Stellt eine gänderte Auswahl eines Fahrplaneintrags im rechten Anzeigefenster dar.
+	 * 
+	 * @param event
+	 * 		Event, welches Information über die geänderte Selektion beinhaltet.
+	 */
+	public void valueChanged(ListSelectionEvent event) {
+		this.fahrplanpanel.selectionChanged(this.list);
+	}
+}
+
+/**
+ * Das Listenmodell einer Auswahlliste des Fahrplanpanels. Es zeigt die Zeilen eines
+ * Lagebilds an, die beim Veröffentlichen eines neuen Lagebilds ausgetauscht werden.
+ */
+@SuppressWarnings("serial")
+class Zuganzeigenmodell extends AbstractListModel<Zuganzeige> {
+	
+	/**
+	 * Die angezeigten Zeilen.
+	 */
+	private List<Zuganzeige> zeilen = Collections.emptyList();
+	
+	/**
+	 * Tauscht die angezeigten Zeilen aus. Die Selektion der Liste bleibt dabei
+	 * unverändert und muss ggf. anschließend angepasst werden.
+	 * 
+	 * @param zeilen
+	 * 		Die neuen Zeilen.
+	 */
+	void setZeilen(final List<Zuganzeige> zeilen) {
+		int bisherigeAnzahl = this.zeilen.size();
+		this.zeilen = zeilen;
+		int anzahl = Math.max(bisherigeAnzahl, zeilen.size());
+		if (anzahl > 0)
+			this.fireContentsChanged(this, 0, anzahl - 1);
+	}
+	
+	@Override
+	public int getSize() {
+		return this.zeilen.size();
+	}
+	
+	@Override
+	public Zuganzeige getElementAt(final int index) {
+		return this.zeilen.get(index);
+	}
 }
\ No newline at end of file
@@ -1,144 +1,250 @@
-package de.drake.stellwerksimulation.view;
-
-import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-
-import javax.swing.*;
-
-import de.drake.stellwerksimulation.controller.Controller;
-import de.drake.stellwerksimulation.model.Stellwerk;
-
-/**
- * Die GUI der Stellwerksimulation. Bildet sowohl Anlaufstelle fr Grafikbefehle und
- * ist selbst Hauptfenster der GUI.
- */
-public class GUI extends JFrame {
-	
-	/**
-	 * Die Instanz der GUI.
-	 */
-	private static GUI guiInstance;
-	
-	/**
-	 * Das Panel, in dem Pausezustand, Zeit u.. angezeigt werden.
-	 */
-	Kontrollpanel kontrollpanel;
-	
-	/**
-	 * Gibt an, ob das Spiel derzeit pausiert ist.
-	 */
-	private boolean isPaused = true;
-	
-	/**
-	 * Die serialVersionUID.
-	 */
-	private static final long serialVersionUID = 1L;
-	
-	/**
-	 * Konstruktor zum Erzeugen eines GUI-Fensters mit den bergebenen Anzeigeparametern.
-	 * 
-	 * @param streckenbreite
-	 * 		Die Breite der Strecken in Pixeln
-	 * @param betriebsstellenbreite
-	 * 		Die Breite der Betriebsstellen in Pixeln
-	 * @param brueckenbreiteOben
-	 * 		Die Breite einer Brckenberfhrung in Pixeln
-	 * @param brueckenbreiteUnten
-	 * 		Die Breite einer Brckenunterfhrung in Pixeln
-	 * @param schriftgroesseNetz
-	 * 		Die Schriftgre, die zur Beschriftung im Netzpanel verwendet wird
-	 */
-	private GUI(final int streckenbreite, final int betriebsstellenbreite,
-			final int brueckenbreiteOben, final int brueckenbreiteUnten,
-			final int schriftgroesseNetz) {
-		super("Stellwerksimulation - " + Stellwerk.getInstance().getBahnhofsname());
-		GUI.guiInstance = this;
-		this.setExtendedState(JFrame.MAXIMIZED_BOTH);
-		this.setSize(800,600);
-		this.setLayout(new BorderLayout());
-		
-		this.kontrollpanel = new Kontrollpanel();
-		this.add(this.kontrollpanel, BorderLayout.NORTH);
-		
-		this.add(new Netzpanel(streckenbreite, betriebsstellenbreite,
-				brueckenbreiteOben, brueckenbreiteUnten, schriftgroesseNetz),
-				BorderLayout.CENTER);
-		
-		Fahrplanpanel fahrplanpanel = new Fahrplanpanel();
-		fahrplanpanel.setPreferredSize(new Dimension(0,250));
-		this.add(fahrplanpanel, BorderLayout.SOUTH);
-		
-		this.setDefaultCloseOperation(EXIT_ON_CLOSE);
-		this.setVisible(true);
-		fahrplanpanel.lockSize();
-		this.kontrollpanel.lockSize();
-		
-		//Hotkeys definieren
-		JPanel hauptPanel = (JPanel) this.getContentPane();
-		hauptPanel.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
-				.put(KeyStroke.getKeyStroke("F2"), "togglePause");
-		hauptPanel.getActionMap().put("togglePause", new PauseListener());
-	}
-	
-	/**
-	 * Erzeugt ein GUI-Fenster mit den bergebenen Anzeigeparametern.
-	 * 
-	 * @param streckenbreite
-	 * 		Die Breite der Strecken in Pixeln
-	 * @param betriebsstellenbreite
-	 * 		Die Breite der Betriebsstellen in Pixeln
-	 * @param brueckenbreiteOben
-	 * 		Die Breite einer Brckenberfhrung in Pixeln
-	 * @param brueckenbreiteUnten
-	 * 		Die Breite einer Brckenunterfhrung in Pixeln
-	 * @param schriftgroesseNetz
-	 * 		Die Schriftgre, die zur Beschriftung im Netzpanel verwendet wird
-	 */
-	public static void createInstance(final int streckenbreite,
-			final int betriebsstellenbreite, final int brueckenbreiteUnten,
-			final int brueckenbreiteOben, final int schriftgroesseNetz) {
-		new GUI(streckenbreite, betriebsstellenbreite, brueckenbreiteUnten,
-				brueckenbreiteOben, schriftgroesseNetz);
-	}
-	
-	/**
-	 * Wechselt zwischen Pause und nicht Pause hin- und her.
-	 */
-	void togglePause() {
-		if (this.isPaused) {
-			this.isPaused = false;
-			this.kontrollpanel.setPause(false);
-			Controller.getInstance().setPause(false);
-		} else {
-			this.isPaused = true;
-			this.kontrollpanel.setPause(true);
-			Controller.getInstance().setPause(true);
-		}
-	}
-	
-	/**
-	 * Gibt die Instanz der GUI zurck.
-	 */
-	public static GUI getInstance() {
-		return GUI.guiInstance;
-	}
-}
-
-/**
- * Listener, der berwacht ob "Pause" gedrckt wurde.
- */
-class PauseListener extends AbstractAction implements ActionListener {
-	
-	/**
-	 * Die serialVersionUID.
-	 */
-	private static final long serialVersionUID = 1L;
-
-	/**
-	 * Wird ausgelst, wenn der "Pause" gedrckt wird.
-	 */
-	public void actionPerformed(ActionEvent e) {
-		GUI.getInstance().togglePause();
-	}
+package de.drake.stellwerksimulation.view;
+
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+import javax.swing.*;
+
+import de.drake.stellwerksimulation.controller.Controller;
+import de.drake.stellwerksimulation.model.Simulationskontext;
+
+/**
+ * Die GUI der Stellwerksimulation. Bildet sowohl Anlaufstelle für Grafikbefehle und
+ * ist selbst Hauptfenster der GUI.
+ */
+public class GUI extends JFrame {
+	
+	/**
+	 * Der Controller, an den die Eingaben der GUI weitergegeben werden.
+	 */
+	private final Controller controller;
+	
+	/**
+	 * Der Simulationskontext, der in der GUI dargestellt wird.
+	 */
+	private final Simulationskontext kontext;
+	
+	/**
+	 * Das Panel, in dem Pausezustand, Zeit u.ä. angezeigt werden.
+	 */
+	Kontrollpanel kontrollpanel;
+	
+	/**
+	 * Das Panel, in dem Strecken und Betriebsstellen angezeigt werden.
+	 */
+	private final Netzpanel netzpanel;
+	
+	/**
+	 * Das Panel, in dem Fahrplan und Gleisbelegung angezeigt werden.
+	 */
+	private final Fahrplanpanel fahrplanpanel;
+	
+	/**
+	 * Die Renderschleife, die das Netz bei aktiver Darstellung zeichnet, bzw. null,
+	 * wenn über Swing gezeichnet wird.
+	 */
+	private Renderschleife renderschleife;
+	
+	/**
+	 * Die Bildrate der aktiven Darstellung in Bildern pro Sekunde bzw. 0, wenn über
+	 * Swing gezeichnet wird.
+	 */
+	private final int bildrate;
+	
+	/**
+	 * Gibt an, ob das Spiel derzeit pausiert ist.
+	 */
+	private boolean isPaused = true;
+	
+	/**
+	 * Die serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Konstruktor zum Erzeugen eines GUI-Fensters mit den übergebenen Anzeigeparametern.
+	 * 
+	 * @param controller
+	 * 		Der Controller, an den die Eingaben der GUI weitergegeben werden.
+	 * @param kontext
+	 * 		Der Simulationskontext, der in der GUI dargestellt wird.
+	 * @param streckenbreite
+	 * 		Die Breite der Strecken in Pixeln
+	 * @param betriebsstellenbreite
+	 * 		Die Breite der Betriebsstellen in Pixeln
+	 * @param brueckenbreiteOben
+	 * 		Die Breite einer Brückenüberführung in Pixeln
+	 * @param brueckenbreiteUnten
+	 * 		Die Breite einer Brückenunterführung in Pixeln
+	 * @param schriftgroesseNetz
+	 * 		Die Schriftgröße, die zur Beschriftung im Netzpanel verwendet wird
+	 * @param bildrate
+	 * 		Die Bildrate der aktiven Darstellung in Bildern pro Sekunde. Bei 0 wird das
+	 * 		Netz über Swing gezeichnet.
+	 */
+	public GUI(final Controller controller, final Simulationskontext kontext,
+			final int streckenbreite, final int betriebsstellenbreite,
+			final int brueckenbreiteOben, final int brueckenbreiteUnten,
+			final int schriftgroesseNetz, final int bildrate) {
+		super("Stellwerksimulation - " + kontext.getStellwerk().getBahnhofsname());
+		this.controller = controller;
+		this.kontext = kontext;
+		this.bildrate = bildrate;
+		this.setExtendedState(JFrame.MAXIMIZED_BOTH);
+		this.setSize(800,600);
+		this.setLayout(new BorderLayout());
+		
+		this.kontrollpanel = new Kontrollpanel(this);
+		this.add(this.kontrollpanel, BorderLayout.NORTH);
+		
+		this.netzpanel = new Netzpanel(this, streckenbreite, betriebsstellenbreite,
+				brueckenbreiteOben, brueckenbreiteUnten, schriftgroesseNetz,
+				bildrate > 0);
+		this.add(this.netzpanel, BorderLayout.CENTER);
+		
+		this.fahrplanpanel = new Fahrplanpanel(this);
+		this.fahrplanpanel.setPreferredSize(new Dimension(0,250));
+		this.add(this.fahrplanpanel, BorderLayout.SOUTH);
+		
+		this.setDefaultCloseOperation(EXIT_ON_CLOSE);
+		this.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(final WindowEvent e) {
+				GUI.this.kontext.schliesseZugarchiv();
+			}
+		});
+		this.setVisible(true);
+		this.fahrplanpanel.lockSize();
+		this.kontrollpanel.lockSize();
+		if (bildrate > 0) {
+			this.renderschleife = new Renderschleife(this, this.netzpanel, bildrate);
+			this.renderschleife.start();
+		}
+		
+		//Hotkeys definieren
+		JPanel hauptPanel = (JPanel) this.getContentPane();
+		hauptPanel.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
+				.put(KeyStroke.getKeyStroke("F2"), "togglePause");
+		hauptPanel.getActionMap().put("togglePause", new PauseListener(this));
+		hauptPanel.getInputMap(JComponent.WHEN_ANCESTOR_OF_FOCUSED_COMPONENT)
+				.put(KeyStroke.getKeyStroke("F3"), "toggleTurbo");
+		hauptPanel.getActionMap().put("toggleTurbo", new TurboListener(this));
+	}
+	
+	/**
+	 * Zeichnet die Teile der GUI neu, die sich durch Zugbewegungen oder Fahrwegsjobs
+	 * geändert haben können: Uhrzeit und Fahrplan vollständig, im Netzpanel nur die
+	 * Bereiche der geänderten Strecken. Bei aktiver Darstellung wird die Änderung nur
+	 * der Renderschleife gemeldet, die mit dem nächsten Bild neu zeichnet. Wird im
+	 * Thread der Simulation aufgerufen.
+	 */
+	public void aktualisiere() {
+		if (this.renderschleife != null) {
+			this.renderschleife.meldeAenderung();
+			return;
+		}
+		this.aktualisiereFahrplan();
+		this.netzpanel.zeichneGeaenderteStreckenNeu();
+	}
+	
+	/**
+	 * Zeichnet Uhrzeit und Fahrplan neu.
+	 */
+	void aktualisiereFahrplan() {
+		this.kontrollpanel.repaint();
+		this.fahrplanpanel.repaint();
+	}
+	
+	/**
+	 * Gibt die Bildrate der aktiven Darstellung zurück bzw. 0, wenn über Swing
+	 * gezeichnet wird.
+	 */
+	int getBildrate() {
+		return this.bildrate;
+	}
+	
+	/**
+	 * Gibt die zuletzt erreichte Bildrate der aktiven Darstellung in Bildern pro
+	 * Sekunde zurück.
+	 */
+	int getErreichteBildrate() {
+		if (this.renderschleife == null)
+			return 0;
+		return this.renderschleife.getBilderProSekunde();
+	}
+	
+	/**
+	 * Wechselt zwischen Pause und nicht Pause hin- und her.
+	 */
+	void togglePause() {
+		if (this.isPaused) {
+			this.isPaused = false;
+			this.kontrollpanel.setPause(false);
+			this.controller.setPause(false);
+		} else {
+			this.isPaused = true;
+			this.kontrollpanel.setPause(true);
+			this.controller.setPause(true);
+		}
+	}
+	
+	/**
+	 * Schaltet den Turbo ein bzw. aus. Der Turbo schaltet sich zudem selbsttätig ab,
+	 * sobald ein Zug zu warten beginnt.
+	 */
+	void toggleTurbo() {
+		boolean turbo = !this.controller.istTurbo();
+		this.controller.setTurbo(turbo);
+		this.kontrollpanel.setTurbo(turbo);
+	}
+	
+	/**
+	 * Gibt den Controller zurück, an den die Eingaben der GUI weitergegeben werden.
+	 */
+	Controller getController() {
+		return this.controller;
+	}
+	
+	/**
+	 * Gibt den Simulationskontext zurück, der in der GUI dargestellt wird.
+	 */
+	Simulationskontext getKontext() {
+		return this.kontext;
+	}
+}
+
+/**
+ * Listener, der überwacht ob "Pause" gedrückt wurde.
+ */
+class PauseListener extends AbstractAction implements ActionListener {
+	
+	/**
+	 * Die serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Die GUI, deren Pausezustand umgeschaltet wird.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Erzeugt einen neuen Pause-Listener.
+	 * 
+	 * @param gui
+	 * 		Die GUI, deren Pausezustand umgeschaltet wird.
+	 */
+	PauseListener(final GUI gui) {
+		this.gui = gui;
+	}
+
+	/**
+	 * Wird ausgelöst, wenn der "Pause" gedrückt wird.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		this.gui.togglePause();
+	}
 }
\ No newline at end of file
@@ -1,215 +1,291 @@
-package de.drake.stellwerksimulation.view;
-
-import java.awt.*;
-import java.awt.event.AdjustmentEvent;
-import java.awt.event.AdjustmentListener;
-
-import javax.swing.*;
-import javax.swing.border.TitledBorder;
-
-import de.drake.stellwerksimulation.controller.Controller;
-import de.drake.stellwerksimulation.model.Stellwerk;
-
-/**
- * Das Kontrollpanel stellt die Informationen oberhalb des Schienennetzes dar.
- */
-class Kontrollpanel extends JPanel {
-
-	/**
-	 * Die final static serialVersionUID.
-	 */
-	private static final long serialVersionUID = 1L;
-
-	/**
-	 * Der Teil der Spieloberflche, der die Spielzeit zeigt.
-	 */
-	private JLabel zeitanzeige;
-	
-	/**
-	 * Feld, das ggfs. anzeigt, ob das Spiel pausiert ist.
-	 */
-	private JLabel pauseanzeige;
-	
-	/**
-	 * Feld, das die aktuelle Spielgeschwindigkeit anzeigt.
-	 */
-	private JLabel geschwindigkeitsanzeige;
-	
-	/**
-	 * Erzeugt ein neues Kontrollpanel.
-	 */
-	Kontrollpanel() {
-		this.setLayout(new GridBagLayout());
-		GridBagConstraints gridBagConstraints = new GridBagConstraints();
-		gridBagConstraints.fill = GridBagConstraints.VERTICAL;
-		
-			this.zeitanzeige = new JLabel(" 99:99 ");
-			TitledBorder borderZeit = new TitledBorder("Zeit");
-			borderZeit.setTitleJustification((TitledBorder.CENTER));
-			this.zeitanzeige.setBorder(borderZeit);
-			this.add(this.zeitanzeige, gridBagConstraints);
-			
-			JPanel pausepanel = new JPanel();
-			pausepanel.setLayout(new FlowLayout());
-			TitledBorder borderPause = new TitledBorder("Pause");
-			borderPause.setTitleJustification((TitledBorder.CENTER));
-			pausepanel.setBorder(borderPause);
-			this.add(pausepanel, gridBagConstraints);
-
-				Button pauseButton = new Button("X");
-				pauseButton.setPreferredSize(new Dimension(20,20));
-				this.pauseanzeige = new JLabel(" Pause ");
-				this.pauseanzeige.setForeground(Color.RED);
-				pauseButton.addActionListener(new PauseListener());
-				pausepanel.add(pauseButton, BorderLayout.WEST);
-				pausepanel.add(this.pauseanzeige, BorderLayout.EAST);
-				
-			JPanel geschwindigkeitspanel = new JPanel();
-			geschwindigkeitspanel.setLayout(new FlowLayout());
-			TitledBorder borderGeschwindigkeit = new TitledBorder("Spielgeschwindigkeit");
-			borderGeschwindigkeit.setTitleJustification((TitledBorder.CENTER));
-			geschwindigkeitspanel.setBorder(borderGeschwindigkeit);
-			this.add(geschwindigkeitspanel, gridBagConstraints);
-			
-				int startskalierung = this.getSkalierungZu(
-						Controller.getInstance().getGeschwindigkeit());
-				JScrollBar geschwindigkeitsregler = new JScrollBar(JScrollBar.HORIZONTAL,
-						startskalierung, 20, 10, 132);
-				geschwindigkeitsregler.addAdjustmentListener(
-						new GeschwindigkeitsListener(this));
-				geschwindigkeitsregler.setPreferredSize(new Dimension(100,20));
-				geschwindigkeitspanel.add(geschwindigkeitsregler);
-				
-				this.geschwindigkeitsanzeige = new JLabel();
-				// Um spter die Gre der Geschwindigskeitsanzeige einfrieren zu knnen
-				this.showGeschwindigkeit(10000);
-				geschwindigkeitspanel.add(this.geschwindigkeitsanzeige);
-	}
-	
-	/**
-	 * Gibt an, was beim Auslsen eines Repaint aktualisiert werden soll.
-	 */
-	@Override
-	protected void paintComponent(Graphics g) {
-		this.zeitanzeige.setText(" " + Stellwerk.getInstance().getAktuelleZeit().toString()
-				+ " ");
-		super.paintComponent(g);
-	}
-	
-	/**
-	 * Fixiert die Gre des Kontrollpanels.
-	 */
-	void lockSize() {
-		this.pauseanzeige.setPreferredSize(this.pauseanzeige.getSize());
-		this.geschwindigkeitsanzeige.setPreferredSize(
-				this.geschwindigkeitsanzeige.getSize());
-		this.showGeschwindigkeit(Controller.getInstance().getGeschwindigkeit());
-	}
-	
-	/**
-	 * Zeigt den derzeitigen Pausezustand an.
-	 * 
-	 * @param wert
-	 * 		true, wenn "Pause" angezeigt werden soll.
-	 */
-	void setPause(final boolean wert) {
-		if (wert == false) {
-			this.pauseanzeige.setText("");
-		} else {
-			this.pauseanzeige.setText(" Pause ");
-		}
-	}
-	
-	/**
-	 * Stellt die Spielgeschwindigkeit ein.
-	 * 
-	 * @param skalierung
-	 * 		Der Wert des Geschwindigkeitsreglers
-	 */
-	void setGeschwindigkeit(final int skalierung) {
-		int geschwindigkeit = this.getGeschwindigkeitZu(skalierung);
-		this.showGeschwindigkeit(geschwindigkeit);
-		Controller.getInstance().setGeschwindigkeit(geschwindigkeit);
-	}
-	
-	/**
-	 * Zeigt eine bestimmte Spielgeschwindigkeit an.
-	 * 
-	 * @param geschwindigkeit
-	 * 		die anzugeigende Geschwindigkeit
-	 */
-	private void showGeschwindigkeit(final int geschwindigkeit) {
-		this.geschwindigkeitsanzeige.setText(" "
-				+ geschwindigkeit + " Bewegungen pro Minute ");
-	}
-	
-	/**
-	 * Ermittelt zu einer Spielgeschwindigkeit die passende Position des
-	 * Geschwindigkeitsanzeigers.
-	 * 
-	 * @param geschwindigkeit
-	 * 		Die anzuzeigende Spielgeschwindigkeit
-	 */
-	private int getSkalierungZu(final int geschwindigkeit) {
-		if (geschwindigkeit <= 30)
-			return geschwindigkeit;
-		if (geschwindigkeit <= 100)
-			return 30 + ((geschwindigkeit - 30) / 5);
-		if (geschwindigkeit <= 300)
-			return 30 + 14 + ((geschwindigkeit - 100) / 10);
-		if (geschwindigkeit <= 1000)
-			return 30 + 14 + 20 + ((geschwindigkeit - 300) / 50);
-		if (geschwindigkeit <= 3000)
-			return 30 + 14 + 20 + 14 + ((geschwindigkeit - 1000) / 100);
-		return 30 + 14 + 20 + 14 + 20 + ((geschwindigkeit - 3000) / 500);
-	}
-	
-	/**
-	 * Ermittelt zu der Position des Geschwindigkeitsanzeigers die passende 
-	 * Spielgeschwindigkeit.
-	 * 
-	 * @param skalierung
-	 * 		Die position des Geschwindigkeitsanzeigers
-	 */
-	private int getGeschwindigkeitZu(final int skalierung) {
-		if (skalierung <= 30)
-			return skalierung;
-		if (skalierung <= 30 + 14)
-			return 30 + ((skalierung - 30) * 5);
-		if (skalierung <= 30 + 14 + 20)
-			return 100 + ((skalierung - 30 - 14) * 10);
-		if (skalierung <= 30 + 14 + 20 + 14)
-			return 300 + ((skalierung - 30 - 14 - 20) * 50);
-		if (skalierung <= 30 + 14 + 20 + 14 + 20)
-			return 1000 + ((skalierung - 30 - 14 - 20 - 14) * 100);
-		return 3000 + ((skalierung - 30 - 14 - 20 - 14 - 20) * 500);
-	}
-}
-
-/**
- * Listener, der berwacht ob die Spielgeschwindigkeit gendert wurde.
- */
-class GeschwindigkeitsListener implements AdjustmentListener {
-
-	/**
-	 * Das Panel, das fr die Anpassung der Spielgeschwindigkeit zustndig ist.
-	 */
-	private Kontrollpanel kontrollpanel;
-	
-	/**
-	 * Erzeugt einen neuen Geschwindigkeits-Listener.
-	 * 
-	 * @param kontrolpanel
-	 * 		Das Panel, das fr die Anpassung der Spielgeschwindigkeit zustndig ist.
-	 */
-	GeschwindigkeitsListener(final Kontrollpanel kontrollpanel) {
-		this.kontrollpanel = kontrollpanel;
-	}
-	
-	/**
-	 * Wird ausgelst, wenn die Spielgeschwindigkeit gendert wurde.
-	 */
-	public void adjustmentValueChanged(AdjustmentEvent arg0) {
-		this.kontrollpanel.setGeschwindigkeit(arg0.getValue());
-	}
+package de.drake.stellwerksimulation.view;
+
+import java.awt.*;
+import java.awt.event.AdjustmentEvent;
+import java.awt.event.AdjustmentListener;
+
+import javax.swing.*;
+import javax.swing.border.TitledBorder;
+
+/**
+ * Das Kontrollpanel stellt die Informationen oberhalb des Schienennetzes dar.
+ */
+class Kontrollpanel extends JPanel {
+
+	/**
+	 * Die final static serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Der Teil der Spieloberfläche, der die Spielzeit zeigt.
+	 */
+	private JLabel zeitanzeige;
+	
+	/**
+	 * Feld, das ggfs. anzeigt, ob das Spiel pausiert ist.
+	 */
+	private JLabel pauseanzeige;
+	
+	/**
+	 * Feld, das ggfs. anzeigt, ob der Turbo eingeschaltet ist.
+	 */
+	private JLabel turboanzeige;
+	
+	/**
+	 * Feld, das die aktuelle Spielgeschwindigkeit anzeigt.
+	 */
+	private JLabel geschwindigkeitsanzeige;
+	
+	/**
+	 * Feld, das bei aktiver Darstellung die erreichte Bildrate anzeigt, bzw. null.
+	 */
+	private JLabel bildrateanzeige;
+	
+	/**
+	 * Die GUI, zu der das Kontrollpanel gehört.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Erzeugt ein neues Kontrollpanel.
+	 * 
+	 * @param gui
+	 * 		Die GUI, zu der das Kontrollpanel gehört.
+	 */
+	Kontrollpanel(final GUI gui) {
+		this.gui = gui;
+		this.setLayout(new GridBagLayout());
+		GridBagConstraints gridBagConstraints = new GridBagConstraints();
+		gridBagConstraints.fill = GridBagConstraints.VERTICAL;
+		
+			this.zeitanzeige = new JLabel(" 99:99 ");
+			TitledBorder borderZeit = new TitledBorder("Zeit");
+			borderZeit.setTitleJustification((TitledBorder.CENTER));
+			this.zeitanzeige.setBorder(borderZeit);
+			this.add(this.zeitanzeige, gridBagConstraints);
+			
+			JPanel pausepanel = new JPanel();
+			pausepanel.setLayout(new FlowLayout());
+			TitledBorder borderPause = new TitledBorder("Pause");
+			borderPause.setTitleJustification((TitledBorder.CENTER));
+			pausepanel.setBorder(borderPause);
+			this.add(pausepanel, gridBagConstraints);
+
+				Button pauseButton = new Button("X");
+				pauseButton.setPreferredSize(new Dimension(20,20));
+				this.pauseanzeige = new JLabel(" Pause ");
+				this.pauseanzeige.setForeground(Color.RED);
+				pauseButton.addActionListener(new PauseListener(gui));
+				pausepanel.add(pauseButton, BorderLayout.WEST);
+				pausepanel.add(this.pauseanzeige, BorderLayout.EAST);
+			
+			JPanel turbopanel = new JPanel();
+			turbopanel.setLayout(new FlowLayout());
+			TitledBorder borderTurbo = new TitledBorder("Turbo");
+			borderTurbo.setTitleJustification((TitledBorder.CENTER));
+			turbopanel.setBorder(borderTurbo);
+			this.add(turbopanel, gridBagConstraints);
+
+				Button turboButton = new Button("X");
+				turboButton.setPreferredSize(new Dimension(20,20));
+				this.turboanzeige = new JLabel(" Turbo ");
+				this.turboanzeige.setForeground(Color.BLUE);
+				turboButton.addActionListener(new TurboListener(gui));
+				turbopanel.add(turboButton, BorderLayout.WEST);
+				turbopanel.add(this.turboanzeige, BorderLayout.EAST);
+				
+			JPanel geschwindigkeitspanel = new JPanel();
+			geschwindigkeitspanel.setLayout(new FlowLayout());
+			TitledBorder borderGeschwindigkeit = new TitledBorder("Spielgeschwindigkeit");
+			borderGeschwindigkeit.setTitleJustification((TitledBorder.CENTER));
+			geschwindigkeitspanel.setBorder(borderGeschwindigkeit);
+			this.add(geschwindigkeitspanel, gridBagConstraints);
+			
+				int startskalierung = this.getSkalierungZu(
+						gui.getController().getGeschwindigkeit());
+				JScrollBar geschwindigkeitsregler = new JScrollBar(JScrollBar.HORIZONTAL,
+						startskalierung, 20, 10, 132);
+				geschwindigkeitsregler.addAdjustmentListener(
+						new GeschwindigkeitsListener(this));
+				geschwindigkeitsregler.setPreferredSize(new Dimension(100,20));
+				geschwindigkeitspanel.add(geschwindigkeitsregler);
+				
+				this.geschwindigkeitsanzeige = new JLabel();
+				// Um später die Größe der Geschwindigskeitsanzeige einfrieren zu können
+				this.showGeschwindigkeit(10000);
+				geschwindigkeitspanel.add(this.geschwindigkeitsanzeige);
+			
+			if (gui.getBildrate() > 0) {
+				this.bildrateanzeige = new JLabel();
+				TitledBorder borderBildrate = new TitledBorder("Bildrate");
+				borderBildrate.setTitleJustification((TitledBorder.CENTER));
+				this.bildrateanzeige.setBorder(borderBildrate);
+				// Um später die Größe der Bildrateanzeige einfrieren zu können
+				this.showBildrate(1000);
+				this.add(this.bildrateanzeige, gridBagConstraints);
+			}
+	}
+	
+	/**
+	 * Gibt an, was beim Auslösen eines Repaint aktualisiert werden soll.
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		this.zeitanzeige.setText(" "
+				+ this.gui.getKontext().getLagebild().getZeit().toString() + " ");
+		if (this.bildrateanzeige != null)
+			this.showBildrate(this.gui.getErreichteBildrate());
+		// Der Turbo kann sich im Thread der Simulation selbsttätig abschalten.
+		this.setTurbo(this.gui.getController().istTurbo());
+		super.paintComponent(g);
+	}
+	
+	/**
+	 * Fixiert die Größe des Kontrollpanels.
+	 */
+	void lockSize() {
+		this.pauseanzeige.setPreferredSize(this.pauseanzeige.getSize());
+		this.turboanzeige.setPreferredSize(this.turboanzeige.getSize());
+		this.setTurbo(false);
+		this.geschwindigkeitsanzeige.setPreferredSize(
+				this.geschwindigkeitsanzeige.getSize());
+		this.showGeschwindigkeit(this.gui.getController().getGeschwindigkeit());
+		if (this.bildrateanzeige != null) {
+			this.bildrateanzeige.setPreferredSize(this.bildrateanzeige.getSize());
+			this.showBildrate(0);
+		}
+	}
+	
+	/**
+	 * Zeigt den derzeitigen Pausezustand an.
+	 * 
+	 * @param wert
+	 * 		true, wenn "Pause" angezeigt werden soll.
+	 */
+	void setPause(final boolean wert) {
+		if (wert == false) {
+			this.pauseanzeige.setText("");
+		} else {
+			this.pauseanzeige.setText(" Pause ");
+		}
+	}
+	
+	/**
+	 * Zeigt an, ob der Turbo eingeschaltet ist.
+	 * 
+	 * @param wert
+	 * 		true, wenn "Turbo" angezeigt werden soll.
+	 */
+	void setTurbo(final boolean wert) {
+		if (wert == false) {
+			this.turboanzeige.setText("");
+		} else {
+			this.turboanzeige.setText(" Turbo ");
+		}
+	}
+	
+	/**
+	 * Stellt die Spielgeschwindigkeit ein.
+	 * 
+	 * @param skalierung
+	 * 		Der Wert des Geschwindigkeitsreglers
+	 */
+	void setGeschwindigkeit(final int skalierung) {
+		int geschwindigkeit = this.getGeschwindigkeitZu(skalierung);
+		this.showGeschwindigkeit(geschwindigkeit);
+		this.gui.getController().setGeschwindigkeit(geschwindigkeit);
+	}
+	
+	/**
+	 * Zeigt eine bestimmte Spielgeschwindigkeit an.
+	 * 
+	 * @param geschwindigkeit
+	 * 		die anzugeigende Geschwindigkeit
+	 */
+	private void showGeschwindigkeit(final int geschwindigkeit) {
+		this.geschwindigkeitsanzeige.setText(" "
+				+ geschwindigkeit + " Bewegungen pro Minute ");
+	}
+	
+	/**
+	 * Zeigt eine bestimmte Bildrate der aktiven Darstellung an.
+	 * 
+	 * @param bildrate
+	 * 		die anzuzeigende Bildrate
+	 */
+	private void showBildrate(final int bildrate) {
+		this.bildrateanzeige.setText(" " + bildrate + " / " + this.gui.getBildrate()
+				+ " Bilder pro Sekunde ");
+	}
+	
+	/**
+	 * Ermittelt zu einer Spielgeschwindigkeit die passende Position des
+	 * Geschwindigkeitsanzeigers.
+	 * 
+	 * @param geschwindigkeit
+	 * 		Die anzuzeigende Spielgeschwindigkeit
+	 */
+	private int getSkalierungZu(final int geschwindigkeit) {
+		if (geschwindigkeit <= 30)
+			return geschwindigkeit;
+		if (geschwindigkeit <= 100)
+			return 30 + ((geschwindigkeit - 30) / 5);
+		if (geschwindigkeit <= 300)
+			return 30 + 14 + ((geschwindigkeit - 100) / 10);
+		if (geschwindigkeit <= 1000)
+			return 30 + 14 + 20 + ((geschwindigkeit - 300) / 50);
+		if (geschwindigkeit <= 3000)
+			return 30 + 14 + 20 + 14 + ((geschwindigkeit - 1000) / 100);
+		return 30 + 14 + 20 + 14 + 20 + ((geschwindigkeit - 3000) / 500);
+	}
+	
+	/**
+	 * Ermittelt zu der Position des Geschwindigkeitsanzeigers die passende 
+	 * Spielgeschwindigkeit.
+	 * 
+	 * @param skalierung
+	 * 		Die position des Geschwindigkeitsanzeigers
+	 */
+	private int getGeschwindigkeitZu(final int skalierung) {
+		if (skalierung <= 30)
+			return skalierung;
+		if (skalierung <= 30 + 14)
+			return 30 + ((skalierung - 30) * 5);
+		if (skalierung <= 30 + 14 + 20)
+			return 100 + ((skalierung - 30 - 14) * 10);
+		if (skalierung <= 30 + 14 + 20 + 14)
+			return 300 + ((skalierung - 30 - 14 - 20) * 50);
+		if (skalierung <= 30 + 14 + 20 + 14 + 20)
+			return 1000 + ((skalierung - 30 - 14 - 20 - 14) * 100);
+		return 3000 + ((skalierung - 30 - 14 - 20 - 14 - 20) * 500);
+	}
+}
+
+/**
+ * Listener, der überwacht ob die Spielgeschwindigkeit geändert wurde.
+ */
+class GeschwindigkeitsListener implements AdjustmentListener {
+
+	/**
+	 * Das Panel, das für die Anpassung der Spielgeschwindigkeit zuständig ist.
+	 */
+	private Kontrollpanel kontrollpanel;
+	
+	/**
+	 * Erzeugt einen neuen Geschwindigkeits-Listener.
+	 * 
+	 * @param kontrolpanel
+	 * 		Das Panel, das für die Anpassung der Spielgeschwindigkeit zuständig ist.
+	 */
+	GeschwindigkeitsListener(final Kontrollpanel kontrollpanel) {
+		this.kontrollpanel = kontrollpanel;
+	}
+	
+	/**
+	 * Wird ausgelöst, wenn die Spielgeschwindigkeit geändert wurde.
+	 */
+	public void adjustmentValueChanged(AdjustmentEvent arg0) {
+		this.kontrollpanel.setGeschwindigkeit(arg0.getValue());
+	}
 }
\ No newline at end of file
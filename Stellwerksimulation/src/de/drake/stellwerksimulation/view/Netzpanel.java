@@ -1,525 +1,1024 @@
-package de.drake.stellwerksimulation.view;
-
-import java.awt.*;
-import java.awt.event.MouseEvent;
-import java.awt.event.MouseListener;
-import java.util.ArrayList;
-import javax.swing.JPanel;
-
-import de.drake.stellwerksimulation.controller.Controller;
-import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
-import de.drake.stellwerksimulation.model.Fahrplaneintrag;
-import de.drake.stellwerksimulation.model.StreckeFuerGUI;
-import de.drake.stellwerksimulation.tools.Richtung;
-
-/**
- * Der Teil der GUI, der die Strecken und Betriebsstellen zeigt.
- */
-class Netzpanel extends JPanel {
-	
-    /**
-	 * Die serialVersionUID fr Netzpanel
-	 */
-	private final static long serialVersionUID = 1L;
-	
-    /**
-	 * Der Durchmesser einer Betriebsstelle in Pixel
-	 */
-	private int betriebsstellenbreite;
-	
-    /**
-	 * Die Breite einer Strecke in Pixel
-	 */
-	private int streckenbreite;
-
-    /**
-	 * Die Breite einer Brckenberfhrung in Pixel
-	 */
-	private int brueckenbreiteOben;
-	
-    /**
-	 * Die Breite einer Brckenunterfhrung in Pixel
-	 */
-	private int brueckenbreiteUnten;
-	
-    /**
-	 * Die Schriftgre, die zur Beschriftung im Netzpanel verwendet wird.
-	 */
-	private int schriftgroesse;
-	
-	/**
-	 * Die Anzahl der Strecken, die horizontal nebeneinander auf den Bildschirm passen
-	 * sollen
-	 */
-	private int groesseStreckennetzHorizontal = 0;
-	
-	/**
-	 * Die Anzahl der Strecken, die vertikal bereinander auf den Bildschirm passen
-	 * sollen
-	 */
-	private int groesseStreckennetzVertikal = 0;
-	
-	/**
-	 * Gibt an, welche Betriebsstelle derzeit selektiert ist.
-	 */
-	private BetriebsstelleFuerGUI selektierteBetriebsstelle;
-	
-	/**
-	 * Eine Liste aller Streckengrafiken, die im Netzpanel gezeichnet werden sollen.
-	 * Wird bei jedem Repaint neu gefllt.
-	 */
-	private ArrayList<Teilstreckengrafik> teilstrecken
-		= new ArrayList<Teilstreckengrafik>();
-	
-	/**
-	 * Konstruktor fr das Netzpanel.
-	 * 
-	 * @param streckenbreite
-	 * 		Die Breite der Strecken in Pixeln
-	 * @param betriebsstellenbreite
-	 * 		Die Breite der Betriebsstellen in Pixeln
-	 * @param brueckenbreiteOben
-	 * 		Die Breite einer Brckenberfhrung in Pixeln
-	 * @param brueckenbreiteUnten
-	 * 		Die Breite einer Brckenunterfhrung in Pixeln
-	 */
-	Netzpanel(final int streckenbreite, final int betriebsstellenbreite,
-			final int brueckenbreiteOben, final int brueckenbreiteUnten,
-			final int schriftgroesse) {
-		super();
-		this.streckenbreite = streckenbreite;
-		this.betriebsstellenbreite = betriebsstellenbreite;
-		this.brueckenbreiteOben = brueckenbreiteOben;
-		this.brueckenbreiteUnten = brueckenbreiteUnten;
-		this.schriftgroesse = schriftgroesse;
-		this.groesseStreckennetzHorizontal =
-			StreckeFuerGUI.getGroesseStreckennetzHorizontal();
-		this.groesseStreckennetzVertikal =
-			StreckeFuerGUI.getGroesseStreckennetzVertikal();
-		this.addMouseListener(new Betriebsstellenlistener(this));
-	}
-	
-	/**
-	 * Gibt die Breite einer Betriebsstelle zurck.
-	 */
-	int getBetriebsstellenbreite() {
-		return this.betriebsstellenbreite;
-	}
-
-	/**
-	 * Zeichnet das Netzpanel neu. Wird nur intern angesteuert, Neuzeichnen kann
-	 * ber den Befehl repaint() erzwungen werden.
-	 * 
-	 * @param g
-	 * 		Interne Grafikkomponente
-	 */
-	@Override
-	protected void paintComponent(Graphics g) {
-		this.erzeugeTeilstreckengrafiken();
-    	Graphics2D graphic = (Graphics2D) g;
-		graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_ON);
-		
-		// Hintergrundfarbe
-		graphic.setColor(new Color(236, 233, 216));
-		graphic.fillRect(0, 0, this.getWidth(), this.getHeight());
-		
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FREI, false);
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FAHRWEG, false);
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.ZUG, false);
-		
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FREI, true);
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FAHRWEG, true);
-		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.ZUG, true);
-
-		graphic.setStroke(new BasicStroke(1, BasicStroke.CAP_ROUND,
-				BasicStroke.JOIN_ROUND));
-    	for (BetriebsstelleFuerGUI betriebsstelle :
-    			BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI()) {
-       		this.zeichneBetriebsstelle(graphic, betriebsstelle);
-    	}
-    	this.beschrifteStrecken(graphic);
-    }
-
-	/**
-	 * Zeichnet alle Teilstrecken einer bestimmten Art.
-	 * 
-	 * @param graphic
-	 * 		das Zeichenobjekt
-	 * @param art
-	 * 		die Art der zu zeichnenden Strecken, codiert als Teilstreckengrafik-final int
-	 * @param zeichneBrueckeOben
-	 * 		gibt an, ob nur obere Brckenteile (true) oder alle anderen Strecken (incl.
-	 * 		untere Brckenteile) gezeichnet werden sollen.
-	 */
-	private void zeichneTeilstrecken(final Graphics2D graphic, final int art,
-			final boolean zeichneBrueckeOben) {
-		switch (art) {
-			case Teilstreckengrafik.FREI:
-				graphic.setColor(Color.black);
-				break;
-			case Teilstreckengrafik.FAHRWEG:
-				graphic.setColor(Color.green);
-				break;
-			case Teilstreckengrafik.ZUG:
-				graphic.setColor(Color.red);
-		}
-		int vonX, vonY, nachX, nachY;
-		Boolean istBrueckeOben;
-		for (Teilstreckengrafik strecke : this.teilstrecken) {
-			istBrueckeOben = strecke.istBrueckeOben();
-    		if (strecke.getArt() != art)
-    			continue;
-    		if (istBrueckeOben == null && zeichneBrueckeOben == true)
-    			continue;
-    		if (istBrueckeOben != null && !istBrueckeOben.equals(zeichneBrueckeOben))
-    			continue;
-    		if (istBrueckeOben == null)
-    			graphic.setStroke(new BasicStroke(this.streckenbreite,
-    					BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-    		else if (zeichneBrueckeOben)
-    			graphic.setStroke(new BasicStroke(this.brueckenbreiteOben,
-    					BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-    		else
-    			graphic.setStroke(new BasicStroke(this.brueckenbreiteUnten,
-    					BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-    		vonX = this.skaliereX(strecke.getVonX());
-    		vonY = this.skaliereY(strecke.getVonY());
-    		nachX = this.skaliereX(strecke.getNachX());
-    		nachY = this.skaliereY(strecke.getNachY());
-    		graphic.drawLine(vonX, vonY,
-    				nachX, nachY);
-    	}
-	}
-	
-	/**
-	 * Zeichnet eine Betriebsstelle.
-	 * 
-	 * @param graphic
-	 * 		das Zeichenobjekt
-	 * @param betriebsstelle
-	 * 		Die Betriebsstelle, die gezeichnet werden soll.
-	 */
-	private void zeichneBetriebsstelle(final Graphics2D graphic, 
-			BetriebsstelleFuerGUI betriebsstelle) {
-		switch (betriebsstelle.getKlickverhalten(
-   				this.selektierteBetriebsstelle)) {
-   			case BetriebsstelleFuerGUI.UNSELEKTIERT:
-   				graphic.setColor(Color.gray);
-   				break;
-   			case BetriebsstelleFuerGUI.SELEKTIERT:
-  				graphic.setColor(Color.blue);
-  				break;
-   			case BetriebsstelleFuerGUI.FAHRWEG_EINSTELLBAR:
-  				graphic.setColor(Color.green);
-  				break;
-   			case BetriebsstelleFuerGUI.FAHRWEG_AUFLOESBAR:
-  				graphic.setColor(Color.red);
-  				break;
-   			case BetriebsstelleFuerGUI.FAHRWEG_BELEGT:
-   				graphic.setColor(Color.yellow);
-   		}
-   		int durchmesser = this.betriebsstellenbreite;
-   		int positionX = this.skaliereX(betriebsstelle.getPositionX());
-   		int positionY = this.skaliereY(betriebsstelle.getPositionY());
- 		graphic.fillOval(positionX - durchmesser/2, positionY - durchmesser/2,
-				durchmesser, durchmesser);
-		graphic.setColor(Color.black);
-		graphic.drawOval(positionX - durchmesser/2, positionY - durchmesser/2,
-				durchmesser, durchmesser);
-	}
-	
-	/**
-	 * Beschriftet alle Strecken mit den sich dort befindlichen Zgen sowie
-	 * Betriebsstellen zustzlich mit ihrem Namen.
-	 * 
-	 * @param graphic
-	 * 		das Zeichenobjekt
-	 */
-	private void beschrifteStrecken(final Graphics2D graphic) {
-		graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-                RenderingHints.VALUE_ANTIALIAS_OFF);
-		int positionX, positionY, laufendeNummerZug;
-		for (StreckeFuerGUI strecke : StreckeFuerGUI.getAlleStreckenFuerGUI()) {
-	   		positionX = this.skaliereX(strecke.getPositionX());
-	   		positionY = this.skaliereY(strecke.getPositionY());
-	   		laufendeNummerZug = 0;
-			for (Fahrplaneintrag zug : new ArrayList<Fahrplaneintrag>(strecke.getZuegeAufStrecke())) {
-				switch (zug.getStatus()) {
-				case Fahrplaneintrag.ZUG_STEHT:
-					graphic.setFont(new Font("Serif", Font.PLAIN, this.schriftgroesse));
-					graphic.setColor(Color.BLACK);
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT:
-					graphic.setFont(new Font("Serif", Font.PLAIN, this.schriftgroesse));
-					graphic.setColor(new Color(0,128,0));
-					break;
-				case Fahrplaneintrag.ZUG_WARTET:
-					graphic.setFont(new Font("Serif", Font.BOLD, this.schriftgroesse));
-					graphic.setColor(Color.RED);
-					break;
-				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
-					graphic.setFont(new Font("Serif", Font.PLAIN, this.schriftgroesse));
-					graphic.setColor(Color.BLUE);
-				}
-				graphic.drawString(zug.toString(),
-						positionX + strecke.getpositionZugnummerX(),
-						(int) (positionY + strecke.getpositionZugnummerY()
-						+ laufendeNummerZug * this.schriftgroesse * 1.25));
-				laufendeNummerZug++;
-			}
-		}
-		for (BetriebsstelleFuerGUI betriebsstelle
-					: BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI()) {
-	   		positionX = this.skaliereX(betriebsstelle.getPositionX());
-	   		positionY = this.skaliereY(betriebsstelle.getPositionY());
-			graphic.setFont(new Font("Serif", Font.PLAIN, this.schriftgroesse));
-			if (betriebsstelle.zuegeErwartet()) {
-				graphic.setColor(Color.BLUE);
-			} else {
-				graphic.setColor(Color.BLACK);
-			}
-			graphic.drawString(betriebsstelle.getNameNetz(),
-					positionX + betriebsstelle.getpositionBahnhofsnameX(),
-					positionY + betriebsstelle.getpositionBahnhofsnameY());
-	   		laufendeNummerZug = 1;
-			graphic.setFont(new Font("Serif", Font.BOLD, this.schriftgroesse));
-	   		graphic.setColor(Color.RED);
-			for (Fahrplaneintrag zug : betriebsstelle.getWartendeErwarteteZuege()) {
-				if (laufendeNummerZug == 4) {
-					break;
-				}
-				graphic.drawString(zug.toString(),
-						positionX + betriebsstelle.getpositionBahnhofsnameX(),
-						(int) (positionY + betriebsstelle.getpositionBahnhofsnameY()
-						+ laufendeNummerZug * this.schriftgroesse * 1.25));
-				laufendeNummerZug++;
-			}
-		}
-	}
-
-	/**
-	 * Spaltet das Streckennetz des Models zur grafischen Darstellung in
-	 * Teilstrecken auf.
-	 */
-	private void erzeugeTeilstreckengrafiken() {
-		float vonX, nachX, vonY, nachY;
-		int art;
-		this.teilstrecken.clear();
-		for (StreckeFuerGUI streckeFuerGUI : StreckeFuerGUI.getAlleStreckenFuerGUI()) {
-			for (Richtung richtung : streckeFuerGUI.getAnschlussrichtungen()) {
-				int richtungDX, richtungDY;
-				switch (richtung) {
-					case OST:
-					case NORDOST:
-					case SUEDOST:
-						richtungDX = 1;
-						break;
-					case WEST:
-					case SUEDWEST:
-					case NORDWEST:
-						richtungDX = -1;
-						break;
-					default: richtungDX = 0;
-				}
-				switch (richtung) {
-					case NORD:
-					case NORDWEST:
-					case NORDOST:
-						richtungDY = 1;
-						break;
-					case SUED:
-					case SUEDOST:
-					case SUEDWEST:
-						richtungDY = -1;
-						break;
-					default: richtungDY = 0;
-				}
-				vonX = streckeFuerGUI.getPositionX();
-				nachX = streckeFuerGUI.getPositionX() + .5f * richtungDX;
-				vonY = streckeFuerGUI.getPositionY();
-				nachY = streckeFuerGUI.getPositionY() - .5f * richtungDY;
-				
-				art = Teilstreckengrafik.FREI;
-				if (!streckeFuerGUI.istFrei() && streckeFuerGUI.getEingestellteRichtungen()
-							.contains(richtung)) {
-					if (streckeFuerGUI.istBefahren())
-						art = Teilstreckengrafik.ZUG;
-					else
-						art = Teilstreckengrafik.FAHRWEG;
-				}
-				this.teilstrecken.add(new Teilstreckengrafik(vonX, nachX, vonY,
-						nachY, art, streckeFuerGUI.istBrueckeOben()));
-			}
-		}
-	}
-	
-	/**
-	 * Gibt die derzeit selektierte Betriebsstelle zurck.
-	 */
-	BetriebsstelleFuerGUI getSelektierteBetriebsstelle() {
-		return this.selektierteBetriebsstelle;
-	}
-
-	/**
-	 * Sorgt dafr, dass keine Betriebsstelle mehr selektiert ist.
-	 */
-	void deselektiereBetriebsstelle() {
-		if (this.selektierteBetriebsstelle == null)
-			return;
-		this.selektierteBetriebsstelle = null;
-		this.repaint();
-	}
-	
-	/**
-	 * Markiert eine Betriebsstelle als selektiert.
-	 * 
-	 * @param betriebsstelle
-	 * 		Die Betriebsstelle, die selektiert wurde.
-	 */
-	void selektiereBetriebsstelle(final BetriebsstelleFuerGUI betriebsstelle) {
-		if (this.selektierteBetriebsstelle != null)
-			throw new Error("Es wurde versucht, mehr als eine Betriebsstelle zu" +
-					"selektieren!");
-		this.selektierteBetriebsstelle = betriebsstelle;
-		this.repaint();
-	}
-	
-	/**
-	 * Skaliert eine X-Koordinate auf die Gre des Netzpanels.
-	 * 
-	 * @param koordinateX
-	 * 		die umzuskalierende Koordinate.
-	 */
-	int skaliereX(final float koordinateX) {
-		return (int) (koordinateX * this.getWidth()
-				/ this.groesseStreckennetzHorizontal);
-	}
-	
-	/**
-	 * Skaliert eine Y-Koordinate auf die Gre des Netzpanels.
-	 * 
-	 * @param koordinateY
-	 * 		die umzuskalierende Koordinate.
-	 */
-	int skaliereY(final float koordinateY) {
-		return (int) (koordinateY * this.getHeight()
-				/ this.groesseStreckennetzVertikal);
-	}
-}
-
-/**
- * Verarbeitet Mausklicks auf Betriebsstellen.
- */
-class Betriebsstellenlistener implements MouseListener {
-	
-	/**
-	 * Das Netzpanel, in das die Teilstrecken gezeichnet werden sollen.
-	 */
-	private Netzpanel netzpanel;
-	
-	/**
-	 * Erzeugt einen MouseListener, der Klicks auf Betriebsstellen verarbeitet.
-	 * 
-	 *  @param netzpanel
-	 *  		Das Netzpanel, das berwacht wird.
-	 */
-	Betriebsstellenlistener (final Netzpanel netzpanel) {
-		this.netzpanel = netzpanel;
-	}
-	
-	/**
-	 * Wird auf ein Objekt geklickt, passiert nichts.
-	 */
-	public void mouseClicked(MouseEvent mausklick) {
-	}
-
-	/**
-	 * Bewegt sich die Maus auf das Netzpanel, passiert nichts.
-	 */
-	public void mouseEntered(MouseEvent mausklick) {
-	}
-
-	/**
-	 * Wird die Maustaste losgelassen, passiert nichts.
-	 */
-	public void mouseReleased(MouseEvent mausklick) {
-	}
-	
-	/**
-	 * Verlsst die Maus das Netzpanel, passiert nichts.
-	 */
-	public void mouseExited(MouseEvent mausklick) {
-	}
-
-	/**
-	 * Wird ausgelst, wenn die Maustaste gedrckt wird.
-	 * 
-	 * @param mausklick
-	 * 		Erzeugtes MouseEvent. Mit diesem kann der Klick einer Betriebsstelle
-	 * 		zugeordnet werden.
-	 */
-	public void mousePressed(MouseEvent mausklick) {
-		if (mausklick.getButton() != MouseEvent.BUTTON1) {
-			this.netzpanel.deselektiereBetriebsstelle();
-			return;
-		}
-		BetriebsstelleFuerGUI selektierteBetriebsstelle =
-				this.netzpanel.getSelektierteBetriebsstelle();
-		BetriebsstelleFuerGUI angeklickteBetriebsstelle = null;
-		for (BetriebsstelleFuerGUI betriebsstelle : 
-				BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI()) {
-			if (this.getDifferenz(betriebsstelle, mausklick)
-					< netzpanel.getBetriebsstellenbreite()/2d) {
-				angeklickteBetriebsstelle = betriebsstelle;
-				break;
-			}
-		}
-		if (angeklickteBetriebsstelle == null)
-			return;
-		switch (angeklickteBetriebsstelle.getKlickverhalten(
-				selektierteBetriebsstelle)) {
-			case BetriebsstelleFuerGUI.UNSELEKTIERT:
-				if (selektierteBetriebsstelle == null)
-					this.netzpanel.selektiereBetriebsstelle(angeklickteBetriebsstelle);
-				else
-					this.netzpanel.deselektiereBetriebsstelle();
-				return;
-			case BetriebsstelleFuerGUI.SELEKTIERT:
-				this.netzpanel.deselektiereBetriebsstelle();
-				return;
-			case BetriebsstelleFuerGUI.FAHRWEG_EINSTELLBAR:
-			case BetriebsstelleFuerGUI.FAHRWEG_BELEGT:
-				Controller.getInstance().neuerFahrweg(
-						selektierteBetriebsstelle, angeklickteBetriebsstelle);
-				this.netzpanel.deselektiereBetriebsstelle();
-				return;
-			case BetriebsstelleFuerGUI.FAHRWEG_AUFLOESBAR:
-				Controller.getInstance().loeseFahrwegAuf(
-						selektierteBetriebsstelle, angeklickteBetriebsstelle);
-				this.netzpanel.deselektiereBetriebsstelle();
-		}
-	}
-	
-	/**
-	 * Berechnet die Differenz zwischen dem Mittelpunkt einer Teilstreckengrafik und
-	 * dem Ort, wo der User hingeklickt hat.
-	 * 
-	 * @param betriebsstelle
-	 * 		Die Betriebsstelle, mit der vergleichen werden soll
-	 * @param mausklick
-	 * 		Das MouseEvent, das durch den Klick erzeugt wurde
-	 * 
-	 * @return
-	 * 		die Differenz, gerundet auf Pixel.
-	 */
-	private double getDifferenz(BetriebsstelleFuerGUI betriebsstelle,
-			MouseEvent mausklick) {
-		long positionX = this.netzpanel.skaliereX(betriebsstelle.getPositionX());
-		long positionY = this.netzpanel.skaliereY(betriebsstelle.getPositionY());
-		long differenzQuadrat =
-				  (positionX - mausklick.getX()) * (positionX - mausklick.getX())
-				+ (positionY - mausklick.getY()) * (positionY - mausklick.getY());
-		return Math.sqrt(differenzQuadrat);
-	}
+package de.drake.stellwerksimulation.view;
+
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+import de.drake.stellwerksimulation.model.BetriebsstelleFuerGUI;
+import de.drake.stellwerksimulation.model.Fahrplaneintrag;
+import de.drake.stellwerksimulation.model.Lagebild;
+import de.drake.stellwerksimulation.model.StreckeFuerGUI;
+import de.drake.stellwerksimulation.model.Streckenbeobachter;
+import de.drake.stellwerksimulation.model.Zuganzeige;
+import de.drake.stellwerksimulation.tools.Richtung;
+
+/**
+ * Der Teil der GUI, der die Strecken und Betriebsstellen zeigt.
+ * 
+ * Das Netzpanel wird vom Model über geänderte Strecken benachrichtigt und zeichnet
+ * nach jeder Zugbewegung nur die Bereiche dieser Strecken samt ihrer Beschriftungen
+ * neu. Der Bereich einer Strecke umfasst dabei sowohl ihre aktuelle Darstellung als
+ * auch die zuletzt gezeichnete, damit z.B. die Zugnummer eines ausgefahrenen Zuges
+ * verschwindet. Beim Zeichnen eines Bereichs werden Betriebsstellen und
+ * Beschriftungen außerhalb des Ausschnitts übersprungen.
+ * 
+ * Bei aktiver Darstellung enthält das Netzpanel stattdessen eine Leinwand, auf die
+ * die Renderschleife das gesamte Netz mit fester Bildrate zeichnet.
+ */
+class Netzpanel extends JPanel implements Streckenbeobachter {
+	
+    /**
+	 * Die serialVersionUID für Netzpanel
+	 */
+	private final static long serialVersionUID = 1L;
+	
+    /**
+	 * Der Durchmesser einer Betriebsstelle in Pixel
+	 */
+	private int betriebsstellenbreite;
+	
+    /**
+	 * Die Breite einer Strecke in Pixel
+	 */
+	private int streckenbreite;
+
+    /**
+	 * Die Breite einer Brückenüberführung in Pixel
+	 */
+	private int brueckenbreiteOben;
+	
+    /**
+	 * Die Breite einer Brückenunterführung in Pixel
+	 */
+	private int brueckenbreiteUnten;
+	
+    /**
+	 * Die Schriftgröße, die zur Beschriftung im Netzpanel verwendet wird.
+	 */
+	private int schriftgroesse;
+	
+	/**
+	 * Die GUI, zu der das Netzpanel gehört.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Die Anzahl der Strecken, die horizontal nebeneinander auf den Bildschirm passen
+	 * sollen
+	 */
+	private int groesseStreckennetzHorizontal = 0;
+	
+	/**
+	 * Die Anzahl der Strecken, die vertikal übereinander auf den Bildschirm passen
+	 * sollen
+	 */
+	private int groesseStreckennetzVertikal = 0;
+	
+	/**
+	 * Gibt an, welche Betriebsstelle derzeit selektiert ist.
+	 */
+	private volatile BetriebsstelleFuerGUI selektierteBetriebsstelle;
+	
+	/**
+	 * Eine Liste aller Streckengrafiken, die im Netzpanel gezeichnet werden sollen.
+	 * Wird einmalig gefüllt, da sich das Streckennetz zur Laufzeit nicht ändert.
+	 */
+	private ArrayList<Teilstreckengrafik> teilstrecken
+		= new ArrayList<Teilstreckengrafik>();
+	
+	/**
+	 * Die Art, mit der jede Teilstreckengrafik zuletzt in die Pfade aufgenommen
+	 * wurde, in der Reihenfolge der Liste teilstrecken.
+	 */
+	private int[] artenInPfaden;
+	
+	/**
+	 * Je Art und Lage einer Teilstreckengrafik ein Pfad, der alle Teilstrecken dieser
+	 * Art und Lage in der aktuellen Größe des Netzpanels enthält. Jede Gruppe wird so
+	 * mit einem einzigen Zeichenbefehl gezeichnet. Freie Strecken außer oberen
+	 * Brückenteilen sind Teil des Hintergrunds und haben keinen Pfad.
+	 */
+	private final Path2D.Float[][] pfade = new Path2D.Float[3][3];
+	
+	/**
+	 * Das Lagebild, aus dem die Pfade zuletzt aufgebaut wurden.
+	 */
+	private Lagebild lagebildInPfaden = null;
+	
+	/**
+	 * Der unveränderliche Hintergrund in der aktuellen Größe des Netzpanels: die
+	 * Hintergrundfarbe und alle Strecken außer oberen Brückenteilen als freie
+	 * Strecken. Darüber werden bei jedem Repaint nur noch eingestellte und befahrene
+	 * Strecken, obere Brückenteile, Betriebsstellen und Beschriftungen gezeichnet.
+	 */
+	private BufferedImage hintergrund;
+	
+	/**
+	 * Der Strich für Strecken ohne Brücke.
+	 */
+	private final BasicStroke streckenstrich;
+	
+	/**
+	 * Der Strich für Brückenüberführungen.
+	 */
+	private final BasicStroke brueckenstrichOben;
+	
+	/**
+	 * Der Strich für Brückenunterführungen.
+	 */
+	private final BasicStroke brueckenstrichUnten;
+	
+	/**
+	 * Die Schrift für Beschriftungen.
+	 */
+	private final Font schrift;
+	
+	/**
+	 * Die fette Schrift für Beschriftungen wartender Züge.
+	 */
+	private final Font schriftFett;
+	
+	/**
+	 * Der Abstand in Pixeln, um den Striche und Betriebsstellen über die Zelle
+	 * ihrer Strecke hinausragen können.
+	 */
+	private final int rand;
+	
+	/**
+	 * Die Strecken, deren Darstellung sich seit dem letzten Neuzeichnen geändert hat.
+	 * Wird nur im Thread der Simulation verwendet.
+	 */
+	private final HashSet<StreckeFuerGUI> geaenderteStrecken =
+			new HashSet<StreckeFuerGUI>();
+	
+	/**
+	 * Die Bereiche, die die Strecken beim letzten vollständigen Zeichnen einnahmen
+	 * bzw. beim bereits vorgemerkten Neuzeichnen ihres Bereichs einnehmen werden.
+	 */
+	private final ConcurrentHashMap<StreckeFuerGUI, Rectangle> gezeichneteBereiche =
+			new ConcurrentHashMap<StreckeFuerGUI, Rectangle>();
+	
+	/**
+	 * Die Bereiche, die im Event-Dispatch-Thread neu gezeichnet werden sollen. Zugriffe
+	 * sind über diese Liste synchronisiert.
+	 */
+	private final ArrayList<Rectangle> neuZuZeichnendeBereiche =
+			new ArrayList<Rectangle>();
+	
+	/**
+	 * Gibt an, ob gerade die vorgemerkten Bereiche neu gezeichnet werden. Die Bereiche
+	 * ihrer Strecken wurden dann bereits beim Vormerken festgehalten. Wird nur im
+	 * Event-Dispatch-Thread verwendet.
+	 */
+	private boolean zeichnetBereiche = false;
+	
+	/**
+	 * Die Leinwand, auf die bei aktiver Darstellung gezeichnet wird, bzw. null, wenn
+	 * das Netzpanel über Swing gezeichnet wird.
+	 */
+	private final Canvas leinwand;
+	
+	/**
+	 * Konstruktor für das Netzpanel.
+	 * 
+	 * @param gui
+	 * 		Die GUI, zu der das Netzpanel gehört.
+	 * @param streckenbreite
+	 * 		Die Breite der Strecken in Pixeln
+	 * @param betriebsstellenbreite
+	 * 		Die Breite der Betriebsstellen in Pixeln
+	 * @param brueckenbreiteOben
+	 * 		Die Breite einer Brückenüberführung in Pixeln
+	 * @param brueckenbreiteUnten
+	 * 		Die Breite einer Brückenunterführung in Pixeln
+	 * @param schriftgroesse
+	 * 		Die Schriftgröße, die zur Beschriftung im Netzpanel verwendet wird
+	 * @param aktiveDarstellung
+	 * 		gibt an, ob das Netz von einer Renderschleife auf eine Leinwand gezeichnet
+	 * 		werden soll (true) oder über Swing (false).
+	 */
+	Netzpanel(final GUI gui, final int streckenbreite, final int betriebsstellenbreite,
+			final int brueckenbreiteOben, final int brueckenbreiteUnten,
+			final int schriftgroesse, final boolean aktiveDarstellung) {
+		super();
+		this.gui = gui;
+		this.streckenbreite = streckenbreite;
+		this.betriebsstellenbreite = betriebsstellenbreite;
+		this.brueckenbreiteOben = brueckenbreiteOben;
+		this.brueckenbreiteUnten = brueckenbreiteUnten;
+		this.schriftgroesse = schriftgroesse;
+		this.streckenstrich = new BasicStroke(this.streckenbreite,
+				BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+		this.brueckenstrichOben = new BasicStroke(this.brueckenbreiteOben,
+				BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+		this.brueckenstrichUnten = new BasicStroke(this.brueckenbreiteUnten,
+				BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND);
+		this.schrift = new Font("Serif", Font.PLAIN, this.schriftgroesse);
+		this.schriftFett = new Font("Serif", Font.BOLD, this.schriftgroesse);
+		this.rand = Math.max(Math.max(this.streckenbreite, this.betriebsstellenbreite),
+				Math.max(this.brueckenbreiteOben, this.brueckenbreiteUnten)) / 2 + 2;
+		this.groesseStreckennetzHorizontal =
+			StreckeFuerGUI.getGroesseStreckennetzHorizontal(gui.getKontext());
+		this.groesseStreckennetzVertikal =
+			StreckeFuerGUI.getGroesseStreckennetzVertikal(gui.getKontext());
+		this.erzeugeTeilstreckengrafiken();
+		this.artenInPfaden = new int[this.teilstrecken.size()];
+		if (aktiveDarstellung) {
+			this.leinwand = new Canvas();
+			this.leinwand.setIgnoreRepaint(true);
+			this.leinwand.addMouseListener(new Betriebsstellenlistener(this));
+			this.setLayout(new BorderLayout());
+			this.add(this.leinwand, BorderLayout.CENTER);
+		} else {
+			this.leinwand = null;
+			this.addMouseListener(new Betriebsstellenlistener(this));
+		}
+		gui.getKontext().setStreckenbeobachter(this);
+	}
+	
+	/**
+	 * Gibt die GUI zurück, zu der das Netzpanel gehört.
+	 */
+	GUI getGUI() {
+		return this.gui;
+	}
+	
+	/**
+	 * Gibt die Breite einer Betriebsstelle zurück.
+	 */
+	int getBetriebsstellenbreite() {
+		return this.betriebsstellenbreite;
+	}
+
+	/**
+	 * Gibt die Leinwand zurück, auf die bei aktiver Darstellung gezeichnet wird,
+	 * bzw. null.
+	 */
+	Canvas getLeinwand() {
+		return this.leinwand;
+	}
+
+	/**
+	 * Zeichnet das Netzpanel neu. Wird nur intern angesteuert, Neuzeichnen kann
+	 * über den Befehl repaint() erzwungen werden. Bei aktiver Darstellung zeichnet
+	 * stattdessen die Renderschleife.
+	 * 
+	 * @param g
+	 * 		Interne Grafikkomponente
+	 */
+	@Override
+	protected void paintComponent(Graphics g) {
+		if (this.leinwand != null)
+			return;
+    	Graphics2D graphic = (Graphics2D) g;
+    	Lagebild lagebild = this.gui.getKontext().getLagebild();
+    	this.zeichne(graphic, lagebild);
+    	if (!this.zeichnetBereiche)
+    		this.merkeGezeichneteBereiche(graphic, lagebild);
+	}
+	
+	/**
+	 * Zeichnet das gesamte Netz mit allen Beschriftungen in der aktuellen Größe des
+	 * Netzpanels. Betriebsstellen und Beschriftungen, die nicht in den Ausschnitt
+	 * des Zeichenobjekts fallen, werden übersprungen.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wird.
+	 */
+	void zeichne(final Graphics2D graphic, final Lagebild lagebild) {
+		if (this.hintergrund == null || this.hintergrund.getWidth() != this.getWidth()
+				|| this.hintergrund.getHeight() != this.getHeight()) {
+			this.erzeugeHintergrund();
+			this.aktualisierePfade(lagebild, true);
+		} else if (lagebild != this.lagebildInPfaden) {
+			this.aktualisierePfade(lagebild, false);
+		}
+		graphic.drawImage(this.hintergrund, 0, 0, null);
+		graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+		
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FAHRWEG,
+				Teilstreckengrafik.KEINE_BRUECKE);
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FAHRWEG,
+				Teilstreckengrafik.BRUECKE_UNTEN);
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.ZUG,
+				Teilstreckengrafik.KEINE_BRUECKE);
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.ZUG,
+				Teilstreckengrafik.BRUECKE_UNTEN);
+		
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FREI,
+				Teilstreckengrafik.BRUECKE_OBEN);
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.FAHRWEG,
+				Teilstreckengrafik.BRUECKE_OBEN);
+		this.zeichneTeilstrecken(graphic, Teilstreckengrafik.ZUG,
+				Teilstreckengrafik.BRUECKE_OBEN);
+
+		graphic.setStroke(new BasicStroke(1, BasicStroke.CAP_ROUND,
+				BasicStroke.JOIN_ROUND));
+		Rectangle ausschnitt = graphic.getClipBounds();
+		int radius = this.betriebsstellenbreite / 2 + 1;
+    	for (BetriebsstelleFuerGUI betriebsstelle :
+    			BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI(
+						this.gui.getKontext())) {
+    		int positionX = this.skaliereX(betriebsstelle.getPositionX());
+    		int positionY = this.skaliereY(betriebsstelle.getPositionY());
+    		if (Netzpanel.schneidet(ausschnitt, positionX - radius, positionY - radius,
+    				positionX + radius, positionY + radius))
+    			this.zeichneBetriebsstelle(graphic, lagebild, betriebsstelle);
+    	}
+    	this.beschrifteStrecken(graphic, lagebild, ausschnitt);
+    }
+	
+	/**
+	 * Prüft, ob ein Rechteck den Ausschnitt des Zeichenobjekts schneidet.
+	 * 
+	 * @param ausschnitt
+	 * 		Der Ausschnitt bzw. null, wenn das gesamte Netzpanel gezeichnet wird.
+	 */
+	private static boolean schneidet(final Rectangle ausschnitt, final int vonX,
+			final int vonY, final int nachX, final int nachY) {
+		return ausschnitt == null || (vonX <= ausschnitt.x + ausschnitt.width
+				&& nachX >= ausschnitt.x && vonY <= ausschnitt.y + ausschnitt.height
+				&& nachY >= ausschnitt.y);
+	}
+	
+	/**
+	 * Prüft, ob ein Text, der ab einer Grundlinie gezeichnet wird, den Ausschnitt des
+	 * Zeichenobjekts schneiden kann. Die Breite wird ohne Vermessen des Textes über
+	 * die größte Zeichenbreite abgeschätzt.
+	 * 
+	 * @param ausschnitt
+	 * 		Der Ausschnitt bzw. null, wenn das gesamte Netzpanel gezeichnet wird.
+	 * @param metrik
+	 * 		Die Maße der fetten Schrift, die mindestens so breit ist wie die normale.
+	 */
+	private static boolean textSchneidet(final Rectangle ausschnitt,
+			final FontMetrics metrik, final String text, final int x, final int y) {
+		if (ausschnitt == null)
+			return true;
+		int breite = metrik.getMaxAdvance() < 0 ? metrik.stringWidth(text)
+				: text.length() * metrik.getMaxAdvance();
+		return Netzpanel.schneidet(ausschnitt, x - 1, y - metrik.getMaxAscent() - 1,
+				x + breite + 1, y + metrik.getMaxDescent() + 1);
+	}
+	
+	/**
+	 * Merkt sich die Bereiche aller Strecken, die beim Zeichnen vollständig
+	 * innerhalb des neu gezeichneten Ausschnitts lagen.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wurde.
+	 */
+	private void merkeGezeichneteBereiche(final Graphics2D graphic,
+			final Lagebild lagebild) {
+		Rectangle ausschnitt = graphic.getClipBounds();
+		FontMetrics metrik = graphic.getFontMetrics(this.schriftFett);
+		for (StreckeFuerGUI strecke
+				: StreckeFuerGUI.getAlleStreckenFuerGUI(this.gui.getKontext())) {
+			Rectangle bereich = this.ermittleBereich(strecke, lagebild, metrik);
+			if (ausschnitt == null || ausschnitt.contains(bereich))
+				this.gezeichneteBereiche.put(strecke, bereich);
+		}
+	}
+	
+	/**
+	 * Ermittelt den Bereich, den eine Strecke samt ihrer Beschriftungen derzeit
+	 * einnimmt.
+	 * 
+	 * @param strecke
+	 * 		Die Strecke.
+	 * @param lagebild
+	 * 		Das Lagebild, das die Züge auf der Strecke enthält.
+	 * @param metrik
+	 * 		Die Maße der fetten Schrift, die mindestens so breit ist wie die normale.
+	 */
+	private Rectangle ermittleBereich(final StreckeFuerGUI strecke,
+			final Lagebild lagebild, final FontMetrics metrik) {
+		int vonX = this.skaliereX(strecke.getPositionX() - .5f) - this.rand;
+		int vonY = this.skaliereY(strecke.getPositionY() - .5f) - this.rand;
+		int nachX = this.skaliereX(strecke.getPositionX() + .5f) + this.rand;
+		int nachY = this.skaliereY(strecke.getPositionY() + .5f) + this.rand;
+		Rectangle bereich = new Rectangle(vonX, vonY, nachX - vonX, nachY - vonY);
+   		int positionX = this.skaliereX(strecke.getPositionX());
+   		int positionY = this.skaliereY(strecke.getPositionY());
+   		int laufendeNummerZug = 0;
+		for (Zuganzeige zug : lagebild.getZuegeAufStrecke(strecke)) {
+			Netzpanel.erweitereUmText(bereich, metrik, zug.getText(),
+					positionX + strecke.getpositionZugnummerX(),
+					(int) (positionY + strecke.getpositionZugnummerY()
+					+ laufendeNummerZug * this.schriftgroesse * 1.25));
+			laufendeNummerZug++;
+		}
+		if (!(strecke instanceof BetriebsstelleFuerGUI))
+			return bereich;
+		BetriebsstelleFuerGUI betriebsstelle = (BetriebsstelleFuerGUI) strecke;
+		Netzpanel.erweitereUmText(bereich, metrik, betriebsstelle.getNameNetz(),
+				positionX + betriebsstelle.getpositionBahnhofsnameX(),
+				positionY + betriebsstelle.getpositionBahnhofsnameY());
+   		laufendeNummerZug = 1;
+		for (Zuganzeige zug : lagebild.getWartendeErwarteteZuege(betriebsstelle)) {
+			if (laufendeNummerZug == 4) {
+				break;
+			}
+			Netzpanel.erweitereUmText(bereich, metrik, zug.getText(),
+					positionX + betriebsstelle.getpositionBahnhofsnameX(),
+					(int) (positionY + betriebsstelle.getpositionBahnhofsnameY()
+					+ laufendeNummerZug * this.schriftgroesse * 1.25));
+			laufendeNummerZug++;
+		}
+		return bereich;
+	}
+	
+	/**
+	 * Erweitert einen Bereich um einen Text, der ab einer Grundlinie gezeichnet wird.
+	 */
+	private static void erweitereUmText(final Rectangle bereich,
+			final FontMetrics metrik, final String text, final int x, final int y) {
+		bereich.add(new Rectangle(x - 1, y - metrik.getMaxAscent() - 1,
+				metrik.stringWidth(text) + 2,
+				metrik.getMaxAscent() + metrik.getMaxDescent() + 2));
+	}
+	
+	/**
+	 * Merkt eine Strecke zum Neuzeichnen vor. Wird vom Model im Thread der
+	 * Simulation aufgerufen.
+	 * 
+	 * @param strecke
+	 * 		Die Strecke, deren Darstellung sich geändert hat.
+	 */
+	public void streckeGeaendert(final StreckeFuerGUI strecke) {
+		this.geaenderteStrecken.add(strecke);
+	}
+	
+	/**
+	 * Veranlasst das Neuzeichnen der Bereiche aller Strecken, die sich seit dem
+	 * letzten Aufruf geändert haben. Überlappende Bereiche werden zusammengefasst.
+	 * Wird im Thread der Simulation aufgerufen, nachdem ein neues Lagebild
+	 * veröffentlicht wurde.
+	 */
+	void zeichneGeaenderteStreckenNeu() {
+		if (this.selektierteBetriebsstelle != null)
+			// Die Farben der Betriebsstellen hängen dann vom Zustand der Fahrwege ab.
+			this.geaenderteStrecken.addAll(BetriebsstelleFuerGUI
+					.getAlleBetriebsstellenFuerGUI(this.gui.getKontext()));
+		if (this.geaenderteStrecken.isEmpty())
+			return;
+		Lagebild lagebild = this.gui.getKontext().getLagebild();
+		FontMetrics metrik = this.getFontMetrics(this.schriftFett);
+		boolean zeichnenGeplant;
+		synchronized (this.neuZuZeichnendeBereiche) {
+			zeichnenGeplant = !this.neuZuZeichnendeBereiche.isEmpty();
+			for (StreckeFuerGUI strecke : this.geaenderteStrecken) {
+				Rectangle bereich = this.ermittleBereich(strecke, lagebild, metrik);
+				Rectangle gezeichneterBereich =
+						this.gezeichneteBereiche.put(strecke, bereich);
+				Rectangle neuZuZeichnen = new Rectangle(bereich);
+				if (gezeichneterBereich != null)
+					neuZuZeichnen.add(gezeichneterBereich);
+				Netzpanel.fasseZusammen(this.neuZuZeichnendeBereiche, neuZuZeichnen);
+			}
+		}
+		this.geaenderteStrecken.clear();
+		if (zeichnenGeplant)
+			return;
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				Netzpanel.this.zeichneBereicheNeu();
+			}
+		});
+	}
+	
+	/**
+	 * Nimmt einen Bereich in eine Liste von Bereichen auf. Überlappt er mit anderen
+	 * Bereichen, so werden diese zu einem Bereich zusammengefasst.
+	 */
+	private static void fasseZusammen(final ArrayList<Rectangle> bereiche,
+			final Rectangle bereich) {
+		for (int i = bereiche.size() - 1; i >= 0; i--) {
+			if (bereiche.get(i).intersects(bereich)) {
+				bereich.add(bereiche.remove(i));
+				Netzpanel.fasseZusammen(bereiche, bereich);
+				return;
+			}
+		}
+		bereiche.add(bereich);
+	}
+	
+	/**
+	 * Zeichnet alle vorgemerkten Bereiche neu. Die neuen Bereiche der geänderten
+	 * Strecken wurden bereits beim Vormerken festgehalten, so dass die übrigen
+	 * Strecken dabei nicht vermessen werden. Wird im Event-Dispatch-Thread
+	 * aufgerufen.
+	 */
+	private void zeichneBereicheNeu() {
+		ArrayList<Rectangle> bereiche;
+		synchronized (this.neuZuZeichnendeBereiche) {
+			bereiche = new ArrayList<Rectangle>(this.neuZuZeichnendeBereiche);
+			this.neuZuZeichnendeBereiche.clear();
+		}
+		this.zeichnetBereiche = true;
+		try {
+			for (Rectangle bereich : bereiche)
+				this.paintImmediately(bereich);
+		} finally {
+			this.zeichnetBereiche = false;
+		}
+	}
+
+	/**
+	 * Zeichnet den unveränderlichen Hintergrund in der aktuellen Größe des
+	 * Netzpanels neu. Alle Strecken außer oberen Brückenteilen werden unabhängig
+	 * von ihrem derzeitigen Zustand als freie Strecken gezeichnet.
+	 */
+	private void erzeugeHintergrund() {
+		int breite = Math.max(this.getWidth(), 1);
+		int hoehe = Math.max(this.getHeight(), 1);
+		GraphicsConfiguration konfiguration = this.getGraphicsConfiguration();
+		if (konfiguration == null)
+			this.hintergrund = new BufferedImage(breite, hoehe,
+					BufferedImage.TYPE_INT_RGB);
+		else
+			this.hintergrund = konfiguration.createCompatibleImage(breite, hoehe);
+		Graphics2D graphic = this.hintergrund.createGraphics();
+		graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON);
+		
+		// Hintergrundfarbe
+		graphic.setColor(new Color(236, 233, 216));
+		graphic.fillRect(0, 0, breite, hoehe);
+		
+		graphic.setColor(Color.black);
+		for (Teilstreckengrafik strecke : this.teilstrecken) {
+			if (Boolean.TRUE.equals(strecke.istBrueckeOben()))
+				continue;
+			this.zeichneTeilstrecke(graphic, strecke);
+		}
+		graphic.dispose();
+	}
+	
+	/**
+	 * Bringt die Pfade auf den Stand eines Lagebilds. Neu aufgebaut werden nur die
+	 * Pfade, in die eine Teilstrecke aufgenommen werden muss oder aus denen sie
+	 * entfernt werden muss.
+	 * 
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wird.
+	 * @param alle
+	 * 		gibt an, ob alle Pfade neu aufgebaut werden sollen, z.B. weil sich die
+	 * 		Größe des Netzpanels geändert hat.
+	 */
+	private void aktualisierePfade(final Lagebild lagebild, final boolean alle) {
+		this.lagebildInPfaden = lagebild;
+		boolean[][] veraltet = new boolean[3][3];
+		if (alle)
+			for (boolean[] lagen : veraltet)
+				Arrays.fill(lagen, true);
+		for (int i = 0; i < this.teilstrecken.size(); i++) {
+			Teilstreckengrafik strecke = this.teilstrecken.get(i);
+			int art = strecke.getArt(lagebild);
+			if (!alle && art == this.artenInPfaden[i])
+				continue;
+			veraltet[this.artenInPfaden[i]][strecke.getLage()] = true;
+			veraltet[art][strecke.getLage()] = true;
+			this.artenInPfaden[i] = art;
+		}
+		for (int art = 0; art < 3; art++) {
+			for (int lage = 0; lage < 3; lage++) {
+				if (!veraltet[art][lage])
+					continue;
+				if (art == Teilstreckengrafik.FREI && lage != Teilstreckengrafik.BRUECKE_OBEN)
+					// Bereits im Hintergrund enthalten
+					continue;
+				this.pfade[art][lage] = new Path2D.Float();
+			}
+		}
+		for (int i = 0; i < this.teilstrecken.size(); i++) {
+			Teilstreckengrafik strecke = this.teilstrecken.get(i);
+			int art = this.artenInPfaden[i];
+			int lage = strecke.getLage();
+			if (!veraltet[art][lage] || this.pfade[art][lage] == null)
+				continue;
+			this.pfade[art][lage].moveTo(this.skaliereX(strecke.getVonX()),
+					this.skaliereY(strecke.getVonY()));
+			this.pfade[art][lage].lineTo(this.skaliereX(strecke.getNachX()),
+					this.skaliereY(strecke.getNachY()));
+		}
+	}
+	
+	/**
+	 * Zeichnet alle Teilstrecken einer bestimmten Art und Lage mit einem einzigen
+	 * Zeichenbefehl.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param art
+	 * 		die Art der zu zeichnenden Strecken, codiert als Teilstreckengrafik-final int
+	 * @param lage
+	 * 		die Lage der zu zeichnenden Strecken, codiert als Teilstreckengrafik-final int
+	 */
+	private void zeichneTeilstrecken(final Graphics2D graphic, final int art,
+			final int lage) {
+		switch (art) {
+			case Teilstreckengrafik.FREI:
+				graphic.setColor(Color.black);
+				break;
+			case Teilstreckengrafik.FAHRWEG:
+				graphic.setColor(Color.green);
+				break;
+			case Teilstreckengrafik.ZUG:
+				graphic.setColor(Color.red);
+		}
+		graphic.setStroke(this.getStrich(lage));
+		graphic.draw(this.pfade[art][lage]);
+	}
+	
+	/**
+	 * Gibt den Strich für Teilstrecken einer bestimmten Lage zurück.
+	 * 
+	 * @param lage
+	 * 		die Lage der Teilstrecken, codiert als Teilstreckengrafik-final int
+	 */
+	private BasicStroke getStrich(final int lage) {
+		switch (lage) {
+			case Teilstreckengrafik.BRUECKE_OBEN:
+				return this.brueckenstrichOben;
+			case Teilstreckengrafik.BRUECKE_UNTEN:
+				return this.brueckenstrichUnten;
+			default:
+				return this.streckenstrich;
+		}
+	}
+	
+	/**
+	 * Zeichnet eine Teilstrecke in der aktuellen Farbe.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param strecke
+	 * 		die zu zeichnende Teilstrecke
+	 */
+	private void zeichneTeilstrecke(final Graphics2D graphic,
+			final Teilstreckengrafik strecke) {
+		graphic.setStroke(this.getStrich(strecke.getLage()));
+		graphic.drawLine(this.skaliereX(strecke.getVonX()),
+				this.skaliereY(strecke.getVonY()),
+				this.skaliereX(strecke.getNachX()),
+				this.skaliereY(strecke.getNachY()));
+	}
+	
+	/**
+	 * Zeichnet eine Betriebsstelle.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wird.
+	 * @param betriebsstelle
+	 * 		Die Betriebsstelle, die gezeichnet werden soll.
+	 */
+	private void zeichneBetriebsstelle(final Graphics2D graphic, 
+			final Lagebild lagebild, BetriebsstelleFuerGUI betriebsstelle) {
+		switch (lagebild.getKlickverhalten(betriebsstelle,
+   				this.selektierteBetriebsstelle)) {
+   			case BetriebsstelleFuerGUI.UNSELEKTIERT:
+   				graphic.setColor(Color.gray);
+   				break;
+   			case BetriebsstelleFuerGUI.SELEKTIERT:
+  				graphic.setColor(Color.blue);
+  				break;
+   			case BetriebsstelleFuerGUI.FAHRWEG_EINSTELLBAR:
+  				graphic.setColor(Color.green);
+  				break;
+   			case BetriebsstelleFuerGUI.FAHRWEG_AUFLOESBAR:
+  				graphic.setColor(Color.red);
+  				break;
+   			case BetriebsstelleFuerGUI.FAHRWEG_BELEGT:
+   				graphic.setColor(Color.yellow);
+   		}
+   		int durchmesser = this.betriebsstellenbreite;
+   		int positionX = this.skaliereX(betriebsstelle.getPositionX());
+   		int positionY = this.skaliereY(betriebsstelle.getPositionY());
+ 		graphic.fillOval(positionX - durchmesser/2, positionY - durchmesser/2,
+				durchmesser, durchmesser);
+		graphic.setColor(Color.black);
+		graphic.drawOval(positionX - durchmesser/2, positionY - durchmesser/2,
+				durchmesser, durchmesser);
+	}
+	
+	/**
+	 * Beschriftet alle Strecken mit den sich dort befindlichen Zügen sowie
+	 * Betriebsstellen zusätzlich mit ihrem Namen. Beschriftungen außerhalb des
+	 * Ausschnitts werden übersprungen.
+	 * 
+	 * @param graphic
+	 * 		das Zeichenobjekt
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wird.
+	 * @param ausschnitt
+	 * 		Der Ausschnitt des Zeichenobjekts bzw. null.
+	 */
+	private void beschrifteStrecken(final Graphics2D graphic, final Lagebild lagebild,
+			final Rectangle ausschnitt) {
+		graphic.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_OFF);
+		FontMetrics metrik = graphic.getFontMetrics(this.schriftFett);
+		int positionX, positionY, laufendeNummerZug, textX, textY;
+		for (StreckeFuerGUI strecke
+				: StreckeFuerGUI.getAlleStreckenFuerGUI(this.gui.getKontext())) {
+	   		positionX = this.skaliereX(strecke.getPositionX());
+	   		positionY = this.skaliereY(strecke.getPositionY());
+	   		laufendeNummerZug = 0;
+			for (Zuganzeige zug : lagebild.getZuegeAufStrecke(strecke)) {
+				textX = positionX + strecke.getpositionZugnummerX();
+				textY = (int) (positionY + strecke.getpositionZugnummerY()
+						+ laufendeNummerZug * this.schriftgroesse * 1.25);
+				laufendeNummerZug++;
+				if (!Netzpanel.textSchneidet(ausschnitt, metrik, zug.getText(),
+						textX, textY))
+					continue;
+				switch (zug.getStatus()) {
+				case Fahrplaneintrag.ZUG_STEHT:
+					graphic.setFont(this.schrift);
+					graphic.setColor(Color.BLACK);
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT:
+					graphic.setFont(this.schrift);
+					graphic.setColor(new Color(0,128,0));
+					break;
+				case Fahrplaneintrag.ZUG_WARTET:
+					graphic.setFont(this.schriftFett);
+					graphic.setColor(Color.RED);
+					break;
+				case Fahrplaneintrag.ZUG_FAEHRT_BALD_AB:
+					graphic.setFont(this.schrift);
+					graphic.setColor(Color.BLUE);
+				}
+				graphic.drawString(zug.getText(), textX, textY);
+			}
+		}
+		for (BetriebsstelleFuerGUI betriebsstelle
+					: BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI(
+						this.gui.getKontext())) {
+	   		textX = this.skaliereX(betriebsstelle.getPositionX())
+	   				+ betriebsstelle.getpositionBahnhofsnameX();
+	   		positionY = this.skaliereY(betriebsstelle.getPositionY())
+	   				+ betriebsstelle.getpositionBahnhofsnameY();
+	   		if (Netzpanel.textSchneidet(ausschnitt, metrik,
+	   				betriebsstelle.getNameNetz(), textX, positionY)) {
+	   			graphic.setFont(this.schrift);
+	   			if (lagebild.zuegeErwartet(betriebsstelle)) {
+	   				graphic.setColor(Color.BLUE);
+	   			} else {
+	   				graphic.setColor(Color.BLACK);
+	   			}
+	   			graphic.drawString(betriebsstelle.getNameNetz(), textX, positionY);
+	   		}
+	   		laufendeNummerZug = 1;
+			graphic.setFont(this.schriftFett);
+	   		graphic.setColor(Color.RED);
+			for (Zuganzeige zug : lagebild.getWartendeErwarteteZuege(betriebsstelle)) {
+				if (laufendeNummerZug == 4) {
+					break;
+				}
+				textY = (int) (positionY + laufendeNummerZug * this.schriftgroesse * 1.25);
+				laufendeNummerZug++;
+				if (Netzpanel.textSchneidet(ausschnitt, metrik, zug.getText(),
+						textX, textY))
+					graphic.drawString(zug.getText(), textX, textY);
+			}
+		}
+	}
+
+	/**
+	 * Spaltet das Streckennetz des Models zur grafischen Darstellung in
+	 * Teilstrecken auf.
+	 */
+	private void erzeugeTeilstreckengrafiken() {
+		float vonX, nachX, vonY, nachY;
+		this.teilstrecken.clear();
+		for (StreckeFuerGUI streckeFuerGUI
+				: StreckeFuerGUI.getAlleStreckenFuerGUI(this.gui.getKontext())) {
+			for (Richtung richtung : streckeFuerGUI.getAnschlussrichtungen()) {
+				int richtungDX, richtungDY;
+				switch (richtung) {
+					case OST:
+					case NORDOST:
+					case SUEDOST:
+						richtungDX = 1;
+						break;
+					case WEST:
+					case SUEDWEST:
+					case NORDWEST:
+						richtungDX = -1;
+						break;
+					default: richtungDX = 0;
+				}
+				switch (richtung) {
+					case NORD:
+					case NORDWEST:
+					case NORDOST:
+						richtungDY = 1;
+						break;
+					case SUED:
+					case SUEDOST:
+					case SUEDWEST:
+						richtungDY = -1;
+						break;
+					default: richtungDY = 0;
+				}
+				vonX = streckeFuerGUI.getPositionX();
+				nachX = streckeFuerGUI.getPositionX() + .5f * richtungDX;
+				vonY = streckeFuerGUI.getPositionY();
+				nachY = streckeFuerGUI.getPositionY() - .5f * richtungDY;
+				this.teilstrecken.add(new Teilstreckengrafik(vonX, nachX, vonY,
+						nachY, streckeFuerGUI, richtung));
+			}
+		}
+	}
+	
+	/**
+	 * Gibt die derzeit selektierte Betriebsstelle zurück.
+	 */
+	BetriebsstelleFuerGUI getSelektierteBetriebsstelle() {
+		return this.selektierteBetriebsstelle;
+	}
+
+	/**
+	 * Sorgt dafür, dass keine Betriebsstelle mehr selektiert ist.
+	 */
+	void deselektiereBetriebsstelle() {
+		if (this.selektierteBetriebsstelle == null)
+			return;
+		this.selektierteBetriebsstelle = null;
+		this.gui.getController().setSelektierteBetriebsstelle(null);
+		this.repaint();
+	}
+	
+	/**
+	 * Markiert eine Betriebsstelle als selektiert.
+	 * 
+	 * @param betriebsstelle
+	 * 		Die Betriebsstelle, die selektiert wurde.
+	 */
+	void selektiereBetriebsstelle(final BetriebsstelleFuerGUI betriebsstelle) {
+		if (this.selektierteBetriebsstelle != null)
+			throw new Error("Es wurde versucht, mehr als eine Betriebsstelle zu" +
+					"selektieren!");
+		this.selektierteBetriebsstelle = betriebsstelle;
+		this.gui.getController().setSelektierteBetriebsstelle(betriebsstelle);
+		this.repaint();
+	}
+	
+	/**
+	 * Skaliert eine X-Koordinate auf die Größe des Netzpanels.
+	 * 
+	 * @param koordinateX
+	 * 		die umzuskalierende Koordinate.
+	 */
+	int skaliereX(final float koordinateX) {
+		return (int) (koordinateX * this.getWidth()
+				/ this.groesseStreckennetzHorizontal);
+	}
+	
+	/**
+	 * Skaliert eine Y-Koordinate auf die Größe des Netzpanels.
+	 * 
+	 * @param koordinateY
+	 * 		die umzuskalierende Koordinate.
+	 */
+	int skaliereY(final float koordinateY) {
+		return (int) (koordinateY * this.getHeight()
+				/ this.groesseStreckennetzVertikal);
+	}
+}
+
+/**
+ * Verarbeitet Mausklicks auf Betriebsstellen.
+ */
+class Betriebsstellenlistener implements MouseListener {
+	
+	/**
+	 * Das Netzpanel, in das die Teilstrecken gezeichnet werden sollen.
+	 */
+	private Netzpanel netzpanel;
+	
+	/**
+	 * Erzeugt einen MouseListener, der Klicks auf Betriebsstellen verarbeitet.
+	 * 
+	 *  @param netzpanel
+	 *  		Das Netzpanel, das überwacht wird.
+	 */
+	Betriebsstellenlistener (final Netzpanel netzpanel) {
+		this.netzpanel = netzpanel;
+	}
+	
+	/**
+	 * Wird auf ein Objekt geklickt, passiert nichts.
+	 */
+	public void mouseClicked(MouseEvent mausklick) {
+	}
+
+	/**
+	 * Bewegt sich die Maus auf das Netzpanel, passiert nichts.
+	 */
+	public void mouseEntered(MouseEvent mausklick) {
+	}
+
+	/**
+	 * Wird die Maustaste losgelassen, passiert nichts.
+	 */
+	public void mouseReleased(MouseEvent mausklick) {
+	}
+	
+	/**
+	 * Verlässt die Maus das Netzpanel, passiert nichts.
+	 */
+	public void mouseExited(MouseEvent mausklick) {
+	}
+
+	/**
+	 * Wird ausgelöst, wenn die Maustaste gedrückt wird.
+	 * 
+	 * @param mausklick
+	 * 		Erzeugtes MouseEvent. Mit diesem kann der Klick einer Betriebsstelle
+	 * 		zugeordnet werden.
+	 */
+	public void mousePressed(MouseEvent mausklick) {
+		if (mausklick.getButton() != MouseEvent.BUTTON1) {
+			this.netzpanel.deselektiereBetriebsstelle();
+			return;
+		}
+		BetriebsstelleFuerGUI selektierteBetriebsstelle =
+				this.netzpanel.getSelektierteBetriebsstelle();
+		BetriebsstelleFuerGUI angeklickteBetriebsstelle = null;
+		for (BetriebsstelleFuerGUI betriebsstelle : 
+				BetriebsstelleFuerGUI.getAlleBetriebsstellenFuerGUI(
+						this.netzpanel.getGUI().getKontext())) {
+			if (this.getDifferenz(betriebsstelle, mausklick)
+					< netzpanel.getBetriebsstellenbreite()/2d) {
+				angeklickteBetriebsstelle = betriebsstelle;
+				break;
+			}
+		}
+		if (angeklickteBetriebsstelle == null)
+			return;
+		switch (this.netzpanel.getGUI().getKontext().getLagebild().getKlickverhalten(
+				angeklickteBetriebsstelle, selektierteBetriebsstelle)) {
+			case BetriebsstelleFuerGUI.UNSELEKTIERT:
+				if (selektierteBetriebsstelle == null)
+					this.netzpanel.selektiereBetriebsstelle(angeklickteBetriebsstelle);
+				else
+					this.netzpanel.deselektiereBetriebsstelle();
+				return;
+			case BetriebsstelleFuerGUI.SELEKTIERT:
+				this.netzpanel.deselektiereBetriebsstelle();
+				return;
+			case BetriebsstelleFuerGUI.FAHRWEG_EINSTELLBAR:
+			case BetriebsstelleFuerGUI.FAHRWEG_BELEGT:
+				this.netzpanel.getGUI().getController().neuerFahrweg(
+						selektierteBetriebsstelle, angeklickteBetriebsstelle);
+				this.netzpanel.deselektiereBetriebsstelle();
+				return;
+			case BetriebsstelleFuerGUI.FAHRWEG_AUFLOESBAR:
+				this.netzpanel.getGUI().getController().loeseFahrwegAuf(
+						selektierteBetriebsstelle, angeklickteBetriebsstelle);
+				this.netzpanel.deselektiereBetriebsstelle();
+		}
+	}
+	
+	/**
+	 * Berechnet die Differenz zwischen dem Mittelpunkt einer Teilstreckengrafik und
+	 * dem Ort, wo der User hingeklickt hat.
+	 * 
+	 * @param betriebsstelle
+	 * 		Die Betriebsstelle, mit der vergleichen werden soll
+	 * @param mausklick
+	 * 		Das MouseEvent, das durch den Klick erzeugt wurde
+	 * 
+	 * @return
+	 * 		die Differenz, gerundet auf Pixel.
+	 */
+	private double getDifferenz(BetriebsstelleFuerGUI betriebsstelle,
+			MouseEvent mausklick) {
+		long positionX = this.netzpanel.skaliereX(betriebsstelle.getPositionX());
+		long positionY = this.netzpanel.skaliereY(betriebsstelle.getPositionY());
+		long differenzQuadrat =
+				  (positionX - mausklick.getX()) * (positionX - mausklick.getX())
+				+ (positionY - mausklick.getY()) * (positionY - mausklick.getY());
+		return Math.sqrt(differenzQuadrat);
+	}
 }
\ No newline at end of file
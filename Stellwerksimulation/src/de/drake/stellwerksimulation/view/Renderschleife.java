@@ -0,0 +1,148 @@
+package de.drake.stellwerksimulation.view;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import de.drake.stellwerksimulation.model.Lagebild;
+
+/**
+ * Die Renderschleife zeichnet das Netz bei aktiver Darstellung in einem eigenen
+ * Thread mit fester Bildrate auf die Leinwand des Netzpanels. Gezeichnet wird über
+ * eine BufferStrategy, so dass die Bildfolge nicht vom RepaintManager von Swing
+ * abhängt. Eingaben werden weiterhin im Event-Dispatch-Thread verarbeitet, die
+ * Simulation läuft weiterhin im Gameloop.
+ * 
+ * Uhrzeit und Fahrplan bleiben Swing-Komponenten. Sie werden höchstens einmal je Bild
+ * neu gezeichnet und nur dann, wenn die Simulation seit dem letzten Bild eine
+ * Änderung gemeldet hat.
+ */
+class Renderschleife extends Thread {
+	
+	/**
+	 * Die Länge einer Sekunde in Nanosekunden.
+	 */
+	private final static long SEKUNDE = 1000000000L;
+	
+	/**
+	 * Die GUI, deren Netz gezeichnet wird.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Das Netzpanel, dessen Netz gezeichnet wird.
+	 */
+	private final Netzpanel netzpanel;
+	
+	/**
+	 * Die BufferStrategy der Leinwand des Netzpanels.
+	 */
+	private final BufferStrategy puffer;
+	
+	/**
+	 * Die angestrebte Dauer eines Bildes in Nanosekunden.
+	 */
+	private final long bilddauer;
+	
+	/**
+	 * Gibt an, ob die Simulation seit dem letzten Bild eine Änderung gemeldet hat.
+	 */
+	private final AtomicBoolean geaendert = new AtomicBoolean(true);
+	
+	/**
+	 * Die in der letzten vollen Sekunde erreichte Bildrate.
+	 */
+	private volatile int bilderProSekunde = 0;
+	
+	/**
+	 * Erzeugt eine neue Renderschleife. Die GUI muss bereits sichtbar sein.
+	 * 
+	 * @param gui
+	 * 		Die GUI, deren Netz gezeichnet wird.
+	 * @param netzpanel
+	 * 		Das Netzpanel, dessen Leinwand bemalt wird.
+	 * @param bildrate
+	 * 		Die angestrebte Bildrate in Bildern pro Sekunde.
+	 */
+	Renderschleife(final GUI gui, final Netzpanel netzpanel, final int bildrate) {
+		super("Renderschleife");
+		this.setDaemon(true);
+		this.gui = gui;
+		this.netzpanel = netzpanel;
+		Canvas leinwand = netzpanel.getLeinwand();
+		leinwand.createBufferStrategy(2);
+		this.puffer = leinwand.getBufferStrategy();
+		this.bilddauer = Renderschleife.SEKUNDE / bildrate;
+	}
+	
+	/**
+	 * Die Renderschleife an sich; Wird beim Start der Renderschleife ausgeführt.
+	 * Jedes Bild hat einen festen Zeitpunkt. Dauert ein Bild länger als geplant, so
+	 * werden verpasste Bilder nicht nachgeholt.
+	 */
+	@Override
+	public void run() {
+		long naechstesBild = System.nanoTime();
+		long messbeginn = naechstesBild;
+		int bilder = 0;
+		long jetzt;
+		while (true) {
+			this.zeichneBild();
+			if (this.geaendert.getAndSet(false))
+				this.gui.aktualisiereFahrplan();
+			bilder++;
+			jetzt = System.nanoTime();
+			if (jetzt - messbeginn >= Renderschleife.SEKUNDE) {
+				this.bilderProSekunde = (int) Math.round(
+						bilder * (double) Renderschleife.SEKUNDE / (jetzt - messbeginn));
+				this.gui.kontrollpanel.repaint();
+				bilder = 0;
+				messbeginn = jetzt;
+			}
+			naechstesBild += this.bilddauer;
+			if (naechstesBild - jetzt < 0)
+				naechstesBild = jetzt;
+			while ((jetzt = System.nanoTime()) - naechstesBild < 0)
+				LockSupport.parkNanos(naechstesBild - jetzt);
+		}
+	}
+	
+	/**
+	 * Zeichnet ein Bild des Netzes in den hinteren Puffer und zeigt es an. Gehen die
+	 * Puffer dabei verloren, so wird das Bild aus demselben Lagebild erneut
+	 * gezeichnet.
+	 */
+	private void zeichneBild() {
+		Lagebild lagebild = this.gui.getKontext().getLagebild();
+		do {
+			do {
+				Graphics2D graphic = (Graphics2D) this.puffer.getDrawGraphics();
+				try {
+					this.netzpanel.zeichne(graphic, lagebild);
+				} finally {
+					graphic.dispose();
+				}
+			} while (this.puffer.contentsRestored());
+			this.puffer.show();
+		} while (this.puffer.contentsLost());
+		Toolkit.getDefaultToolkit().sync();
+	}
+	
+	/**
+	 * Meldet, dass sich die Simulation geändert hat. Wird im Thread der Simulation
+	 * aufgerufen.
+	 */
+	void meldeAenderung() {
+		this.geaendert.set(true);
+	}
+	
+	/**
+	 * Gibt die in der letzten vollen Sekunde erreichte Bildrate zurück.
+	 */
+	int getBilderProSekunde() {
+		return this.bilderProSekunde;
+	}
+}
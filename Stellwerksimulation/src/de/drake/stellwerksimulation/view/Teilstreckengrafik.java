@@ -1,145 +1,187 @@
-package de.drake.stellwerksimulation.view;
-
-/**
- * Grafik fr den Teil einer Strecke, der von der Streckenmitte in eine bestimmte
- * Richtung luft. Strecken bestehen damit aus bis zu 8 Teilstreckengrafiken.
- */
-class Teilstreckengrafik {
-	
-	/**
-	 * Gibt an, dass die Teilstreckengrafik eine freie Strecke reprsentiert.
-	 */
-	final static int FREI = 0;
-	
-	/**
-	 * Gibt an, dass die Teilstreckengrafik Teil einer eingestellten Trasse ist.
-	 */
-	final static int FAHRWEG = 1;
-	
-	/**
-	 * Gibt an, dass sich auf der Teilstreckengrafik ein Zug befindet.
-	 */
-	final static int ZUG = 2;
-	
-	/**
-	 * Gibt an, ob die Strecke brckenfrei ist (null), aus einem oberen Brckenteil
-	 * besteht (true) oder aus einem unteren Brckenteil besteht (false).
-	 */
-	private Boolean istBrueckeOben;
-	
-	/**
-	 * Unkorrigerte X-Koordinate des Ausgangspunktes der Teilstreckengrafik.
-	 * Muss noch an die Gre des Netzpanels angepasst werden.
-	 */
-	private float vonX;
-	
-	/**
-	 * Unkorrigerte X-Koordinate des Endpunktes der Teilstreckengrafik.
-	 * Muss noch an die Gre des Netzpanels angepasst werden.
-	 */
-	private float nachX;
-	
-	/**
-	 * Unkorrigerte Y-Koordinate des Ausgangspunktes der Teilstreckengrafik.
-	 * Muss noch an die Gre des Netzpanels angepasst werden.
-	 */
-	private float vonY;
-	
-	/**
-	 * Unkorrigerte Y-Koordinate des Endpunktes der Teilstreckengrafik.
-	 * Muss noch an die Gre des Netzpanels angepasst werden.
-	 */
-	private float nachY;
-	
-	/**
-	 * Beinhaltet die Art der Teilstrecke, also ob die Teilstrecke als frei,
-	 * eingestellt oder befahren gezeichnet werden soll.
-	 */
-	private int art = Teilstreckengrafik.FREI;
-	
-	/**
-	 * Erzeugt eine neue Teilstreckengrafik.
-	 * 
-	 *  @param vonX
-	 *  	X-Koordinate des Ausgangspunktes der Teilstreckengrafik
-	 *  @param nachX
-	 *  	X-Koordinate des Endpunktes der Teilstreckengrafik
-	 *  @param vonY
-	 *  	Y-Koordinate des Ausgangspunktes der Teilstreckengrafik
-	 *  @param nachY
-	 *  	Y-Koordinate des Endpunktes der Teilstreckengrafik
-	 *  @param status
-	 *  	Gibt den Status der Teilstreckengrafik an.
-	 *  @param istBrueckeOben
-	 * 		Gibt an, ob die Strecke brckenfrei ist (null), aus einem oberen Brckenteil
-	 * 		besteht (true) oder aus einem unteren Brckenteil besteht (false).
-	 */
-	Teilstreckengrafik (final float vonX,
-			final float nachX, final float vonY, final float nachY, final int art,
-			final Boolean istBrueckeOben) {
-		this.vonX = vonX;
-		this.nachX = nachX;
-		this.vonY = vonY;
-		this.nachY = nachY;
-		this.art = art;
-		this.istBrueckeOben = istBrueckeOben;
-	}
-	
-	/**
-	 * Gibt die unskalierte X-Koordinate des Ausgangspunktes der Teilstreckengrafik
-	 * zurck.
-	 * 
-	 * @return Die entsprechende Lage.
-	 */
-	float getVonX() {
-		return this.vonX;
-	}
-	
-	/**
-	 * Gibt die unskalierte X-Koordinate des Endpunktes der Teilstreckengrafik
-	 * zurck.
-	 * 
-	 * @return Die entsprechende Lage.
-	 */
-	float getNachX() {
-		return this.nachX;
-	}
-	
-	/**
-	 * Gibt die unskalierte Y-Koordinate des Ausgangspunktes der Teilstreckengrafik
-	 * zurck.
-	 * 
-	 * @return Die entsprechende Lage.
-	 */
-	float getVonY() {
-		return this.vonY;
-	}
-	
-	/**
-	 * Gibt die unskalierte Y-Koordinate des Endpunktes der Teilstreckengrafik
-	 * zurck.
-	 * 
-	 * @return Die entsprechende Lage.
-	 */
-	float getNachY() {
-		return this.nachY;
-	}
-	
-	/**
-	 * Gibt an, ob die Teilstreckengrafik als Frei, Eingestellt oder Befahren gezeichnet
-	 * werden soll.
-	 * 
-	 * @return Der entsprechende Status, codiert als Teilstreckengrafik.(Status).
-	 */
-	int getArt() {
-		return this.art;
-	}
-	
-	/**
-	 * Gibt an, ob die Strecke brckenfrei ist (null), aus einem oberen Brckenteil
-	 * besteht (true) oder aus einem unteren Brckenteil besteht (false).
-	 */
-	Boolean istBrueckeOben() {
-		return this.istBrueckeOben;
-	}
+package de.drake.stellwerksimulation.view;
+
+import de.drake.stellwerksimulation.model.Lagebild;
+import de.drake.stellwerksimulation.model.StreckeFuerGUI;
+import de.drake.stellwerksimulation.tools.Richtung;
+
+/**
+ * Grafik für den Teil einer Strecke, der von der Streckenmitte in eine bestimmte
+ * Richtung läuft. Strecken bestehen damit aus bis zu 8 Teilstreckengrafiken.
+ * Die Lage einer Teilstreckengrafik ändert sich nicht, ihre Art wird bei jedem
+ * Zeichnen aus dem aktuellen Lagebild ermittelt.
+ */
+class Teilstreckengrafik {
+	
+	/**
+	 * Gibt an, dass die Teilstreckengrafik eine freie Strecke repräsentiert.
+	 */
+	final static int FREI = 0;
+	
+	/**
+	 * Gibt an, dass die Teilstreckengrafik Teil einer eingestellten Trasse ist.
+	 */
+	final static int FAHRWEG = 1;
+	
+	/**
+	 * Gibt an, dass sich auf der Teilstreckengrafik ein Zug befindet.
+	 */
+	final static int ZUG = 2;
+	
+	/**
+	 * Gibt an, dass die Teilstreckengrafik zu keiner Brücke gehört.
+	 */
+	final static int KEINE_BRUECKE = 0;
+	
+	/**
+	 * Gibt an, dass die Teilstreckengrafik ein unterer Brückenteil ist.
+	 */
+	final static int BRUECKE_UNTEN = 1;
+	
+	/**
+	 * Gibt an, dass die Teilstreckengrafik ein oberer Brückenteil ist.
+	 */
+	final static int BRUECKE_OBEN = 2;
+	
+	/**
+	 * Die Strecke, zu der die Teilstreckengrafik gehört.
+	 */
+	private final StreckeFuerGUI strecke;
+	
+	/**
+	 * Die Richtung, in die die Teilstreckengrafik von der Streckenmitte aus läuft.
+	 */
+	private final Richtung richtung;
+	
+	/**
+	 * Unkorrigerte X-Koordinate des Ausgangspunktes der Teilstreckengrafik.
+	 * Muss noch an die Größe des Netzpanels angepasst werden.
+	 */
+	private float vonX;
+	
+	/**
+	 * Unkorrigerte X-Koordinate des Endpunktes der Teilstreckengrafik.
+	 * Muss noch an die Größe des Netzpanels angepasst werden.
+	 */
+	private float nachX;
+	
+	/**
+	 * Unkorrigerte Y-Koordinate des Ausgangspunktes der Teilstreckengrafik.
+	 * Muss noch an die Größe des Netzpanels angepasst werden.
+	 */
+	private float vonY;
+	
+	/**
+	 * Unkorrigerte Y-Koordinate des Endpunktes der Teilstreckengrafik.
+	 * Muss noch an die Größe des Netzpanels angepasst werden.
+	 */
+	private float nachY;
+	
+	/**
+	 * Erzeugt eine neue Teilstreckengrafik.
+	 * 
+	 *  @param vonX
+	 *  	X-Koordinate des Ausgangspunktes der Teilstreckengrafik
+	 *  @param nachX
+	 *  	X-Koordinate des Endpunktes der Teilstreckengrafik
+	 *  @param vonY
+	 *  	Y-Koordinate des Ausgangspunktes der Teilstreckengrafik
+	 *  @param nachY
+	 *  	Y-Koordinate des Endpunktes der Teilstreckengrafik
+	 *  @param strecke
+	 *  	Die Strecke, zu der die Teilstreckengrafik gehört.
+	 *  @param richtung
+	 *  	Die Richtung, in die die Teilstreckengrafik von der Streckenmitte aus
+	 *  	läuft.
+	 */
+	Teilstreckengrafik (final float vonX,
+			final float nachX, final float vonY, final float nachY,
+			final StreckeFuerGUI strecke, final Richtung richtung) {
+		this.vonX = vonX;
+		this.nachX = nachX;
+		this.vonY = vonY;
+		this.nachY = nachY;
+		this.strecke = strecke;
+		this.richtung = richtung;
+	}
+	
+	/**
+	 * Gibt die unskalierte X-Koordinate des Ausgangspunktes der Teilstreckengrafik
+	 * zurück.
+	 * 
+	 * @return Die entsprechende Lage.
+	 */
+	float getVonX() {
+		return this.vonX;
+	}
+	
+	/**
+	 * Gibt die unskalierte X-Koordinate des Endpunktes der Teilstreckengrafik
+	 * zurück.
+	 * 
+	 * @return Die entsprechende Lage.
+	 */
+	float getNachX() {
+		return this.nachX;
+	}
+	
+	/**
+	 * Gibt die unskalierte Y-Koordinate des Ausgangspunktes der Teilstreckengrafik
+	 * zurück.
+	 * 
+	 * @return Die entsprechende Lage.
+	 */
+	float getVonY() {
+		return this.vonY;
+	}
+	
+	/**
+	 * Gibt die unskalierte Y-Koordinate des Endpunktes der Teilstreckengrafik
+	 * zurück.
+	 * 
+	 * @return Die entsprechende Lage.
+	 */
+	float getNachY() {
+		return this.nachY;
+	}
+	
+	/**
+	 * Gibt an, ob die Teilstreckengrafik als Frei, Eingestellt oder Befahren gezeichnet
+	 * werden soll.
+	 * 
+	 * @param lagebild
+	 * 		Das Lagebild, das gezeichnet wird.
+	 * 
+	 * @return Der entsprechende Status, codiert als Teilstreckengrafik.(Status).
+	 */
+	int getArt(final Lagebild lagebild) {
+		if (lagebild.istFrei(this.strecke)
+				|| !lagebild.istEingestellt(this.strecke, this.richtung))
+			return Teilstreckengrafik.FREI;
+		if (lagebild.istBefahren(this.strecke))
+			return Teilstreckengrafik.ZUG;
+		return Teilstreckengrafik.FAHRWEG;
+	}
+	
+	/**
+	 * Gibt an, ob die Strecke brückenfrei ist (null), aus einem oberen Brückenteil
+	 * besteht (true) oder aus einem unteren Brückenteil besteht (false).
+	 */
+	Boolean istBrueckeOben() {
+		return this.strecke.istBrueckeOben();
+	}
+	
+	/**
+	 * Gibt an, ob die Teilstreckengrafik zu keiner Brücke, zu einem unteren oder zu
+	 * einem oberen Brückenteil gehört.
+	 * 
+	 * @return Die entsprechende Lage, codiert als Teilstreckengrafik.(Lage).
+	 */
+	int getLage() {
+		Boolean istBrueckeOben = this.strecke.istBrueckeOben();
+		if (istBrueckeOben == null)
+			return Teilstreckengrafik.KEINE_BRUECKE;
+		if (istBrueckeOben)
+			return Teilstreckengrafik.BRUECKE_OBEN;
+		return Teilstreckengrafik.BRUECKE_UNTEN;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package de.drake.stellwerksimulation.view;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.AbstractAction;
+
+/**
+ * Listener, der überwacht ob "Turbo" gedrückt wurde.
+ */
+class TurboListener extends AbstractAction implements ActionListener {
+	
+	/**
+	 * Die serialVersionUID.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Die GUI, deren Turbo umgeschaltet wird.
+	 */
+	private final GUI gui;
+	
+	/**
+	 * Erzeugt einen neuen Turbo-Listener.
+	 * 
+	 * @param gui
+	 * 		Die GUI, deren Turbo umgeschaltet wird.
+	 */
+	TurboListener(final GUI gui) {
+		this.gui = gui;
+	}
+
+	/**
+	 * Wird ausgelöst, wenn der "Turbo" gedrückt wird.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		this.gui.toggleTurbo();
+	}
+}
\ No newline at end of file